@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFrozenGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs multi-hop traversals against a {@link TinkerFrozenGraph} whose vertices were laid out in each
+ * {@link TinkerGraph.VertexOrder}.  The graph is made of small communities whose members mostly know each other, but
+ * the members of a community are scattered across the identifiers, so the layout in identifier order has no locality
+ * while the {@code BFS} order places each community together.
+ */
+@State(Scope.Thread)
+public class VertexOrderBenchmark extends AbstractBenchmarkBase {
+
+    private static final int VERTEX_COUNT = 200000;
+    private static final int COMMUNITY_SIZE = 50;
+    private static final int EDGES_PER_VERTEX = 8;
+
+    @Param({"NONE", "DEGREE", "BFS"})
+    public TinkerGraph.VertexOrder vertexOrder;
+
+    private GraphTraversalSource g;
+
+    @Setup
+    public void prepare() {
+        final Random random = new Random(123456789l);
+        final TinkerGraph graph = TinkerGraph.open();
+        final List<Vertex> vertices = new ArrayList<>(VERTEX_COUNT);
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            vertices.add(graph.addVertex("name", "v" + i));
+        }
+        Collections.shuffle(vertices, random);
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            final int community = i / COMMUNITY_SIZE * COMMUNITY_SIZE;
+            for (int j = 0; j < EDGES_PER_VERTEX; j++) {
+                final int other = random.nextInt(10) == 0 ?
+                        random.nextInt(VERTEX_COUNT) :
+                        Math.min(community + random.nextInt(COMMUNITY_SIZE), VERTEX_COUNT - 1);
+                vertices.get(i).addEdge("knows", vertices.get(other));
+            }
+        }
+        g = graph.freeze(vertexOrder).traversal();
+    }
+
+    @Benchmark
+    public long g_V_out_out_count() throws Exception {
+        return g.V().out().out().count().next();
+    }
+
+    @Benchmark
+    public long g_V_out_out_out_count() throws Exception {
+        return g.V().out().out().out().count().next();
+    }
+}
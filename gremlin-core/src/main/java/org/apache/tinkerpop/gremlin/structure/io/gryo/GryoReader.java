@@ -43,11 +43,21 @@ import org.apache.tinkerpop.shaded.kryo.io.Input;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
@@ -66,10 +76,14 @@ public final class GryoReader implements GraphReader {
     private final Map<GraphFilter, StarGraphGryoSerializer> graphFilterCache = new HashMap<>();
 
     private final long batchSize;
+    private final int workers;
+    private final int chunkSize;
 
-    private GryoReader(final long batchSize, final Mapper<Kryo> gryoMapper) {
+    private GryoReader(final long batchSize, final int workers, final int chunkSize, final Mapper<Kryo> gryoMapper) {
         this.kryo = gryoMapper.createMapper();
         this.batchSize = batchSize;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
     }
 
     /**
@@ -83,6 +97,15 @@ public final class GryoReader implements GraphReader {
      */
     @Override
     public void readGraph(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        if (this.workers > 1) {
+            // transactions are bound to a thread so the workers could not commit what they write
+            if (graphToWriteTo.features().graph().supportsTransactions())
+                throw new IllegalArgumentException(String.format(
+                        "A graph that supports transactions can not be read with %s workers", this.workers));
+            readGraphInParallel(inputStream, graphToWriteTo);
+            return;
+        }
+
         // dual pass - create all vertices and store to cache the ids.  then create edges.  as long as we don't
         // have vertex labels in the output we can't do this single pass
         final Map<StarGraph.StarVertex, Vertex> cache = new HashMap<>();
@@ -98,13 +121,7 @@ public final class GryoReader implements GraphReader {
             return v;
         }, null, null));
         cache.entrySet().forEach(kv -> kv.getKey().edges(Direction.IN).forEachRemaining(e -> {
-            // can't use a standard Attachable attach method here because we have to use the cache for those
-            // graphs that don't support userSuppliedIds on edges. note that outVertex/inVertex methods return
-            // StarAdjacentVertex whose equality should match StarVertex.
-            final Vertex cachedOutV = cache.get(e.outVertex());
-            final Vertex cachedInV = cache.get(e.inVertex());
-            final Edge newEdge = edgeFeatures.willAllowId(e.id()) ? cachedOutV.addEdge(e.label(), cachedInV, T.id, e.id()) : cachedOutV.addEdge(e.label(), cachedInV);
-            e.properties().forEachRemaining(p -> newEdge.property(p.key(), p.value()));
+            attachEdge(e, cache, edgeFeatures);
             if (supportsTx && counter.incrementAndGet() % batchSize == 0)
                 graphToWriteTo.tx().commit();
         }));
@@ -112,6 +129,84 @@ public final class GryoReader implements GraphReader {
         if (supportsTx) graphToWriteTo.tx().commit();
     }
 
+    /**
+     * Reads the graph with a pool of {@link Builder#workers(int)} threads. Records in the stream are not length
+     * prefixed, so they are decoded one after the other on the calling thread, and chunks of decoded
+     * {@link StarGraph.StarVertex} are handed to the workers which create the vertices concurrently. Edges are only
+     * attached, again concurrently, once every vertex has been created.  At most one chunk per worker waits to be
+     * created, and the calling thread creates a chunk itself when the workers fall behind, so that decoding does not
+     * run ahead of them and hold the whole graph in memory.
+     */
+    private void readGraphInParallel(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        final Map<StarGraph.StarVertex, Vertex> cache = new ConcurrentHashMap<>();
+        final Graph.Features.EdgeFeatures edgeFeatures = graphToWriteTo.features().edge();
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        final ExecutorService executor = new ThreadPoolExecutor(this.workers, this.workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.workers), r -> {
+                    final Thread thread = new Thread(r, "gryo-reader-" + threadCounter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try {
+            final List<Future<?>> vertexFutures = new ArrayList<>();
+            final Input input = new Input(inputStream);
+            List<StarGraph.StarVertex> chunk = new ArrayList<>(this.chunkSize);
+            while (!input.eof()) {
+                chunk.add(readStarGraph(input).getStarVertex());
+                if (chunk.size() == this.chunkSize) {
+                    vertexFutures.add(executor.submit(attachVertices(chunk, cache, graphToWriteTo)));
+                    chunk = new ArrayList<>(this.chunkSize);
+                }
+            }
+            if (!chunk.isEmpty())
+                vertexFutures.add(executor.submit(attachVertices(chunk, cache, graphToWriteTo)));
+            waitFor(vertexFutures);
+
+            // split the vertices so that every worker attaches the incoming edges of its own share of them
+            final List<StarGraph.StarVertex> starVertices = new ArrayList<>(cache.keySet());
+            final List<Future<?>> edgeFutures = new ArrayList<>();
+            for (int i = 0; i < starVertices.size(); i = i + this.chunkSize) {
+                final List<StarGraph.StarVertex> slice = starVertices.subList(i, Math.min(i + this.chunkSize, starVertices.size()));
+                edgeFutures.add(executor.submit(() -> slice.forEach(v -> v.edges(Direction.IN).forEachRemaining(e -> attachEdge(e, cache, edgeFeatures)))));
+            }
+            waitFor(edgeFutures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Runnable attachVertices(final List<StarGraph.StarVertex> starVertices,
+                                           final Map<StarGraph.StarVertex, Vertex> cache,
+                                           final Graph graphToWriteTo) {
+        return () -> starVertices.forEach(starVertex -> cache.put(starVertex, starVertex.attach(Attachable.Method.create(graphToWriteTo))));
+    }
+
+    private static Edge attachEdge(final Edge e, final Map<StarGraph.StarVertex, Vertex> cache,
+                                   final Graph.Features.EdgeFeatures edgeFeatures) {
+        // can't use a standard Attachable attach method here because we have to use the cache for those
+        // graphs that don't support userSuppliedIds on edges. note that outVertex/inVertex methods return
+        // StarAdjacentVertex whose equality should match StarVertex.
+        final Vertex cachedOutV = cache.get(e.outVertex());
+        final Vertex cachedInV = cache.get(e.inVertex());
+        final Edge newEdge = edgeFeatures.willAllowId(e.id()) ? cachedOutV.addEdge(e.label(), cachedInV, T.id, e.id()) : cachedOutV.addEdge(e.label(), cachedInV);
+        e.properties().forEachRemaining(p -> newEdge.property(p.key(), p.value()));
+        return newEdge;
+    }
+
+    private static void waitFor(final List<Future<?>> futures) throws IOException {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the graph", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        }
+    }
+
     @Override
     public Optional<Vertex> readVertex(final InputStream inputStream, final GraphFilter graphFilter) throws IOException {
         StarGraphGryoSerializer serializer = this.graphFilterCache.get(graphFilter);
@@ -242,16 +337,20 @@ public final class GryoReader implements GraphReader {
                                       final Function<Attachable<Edge>, Edge> edgeMaker,
                                       final Direction d,
                                       final Input input) throws IOException {
+        final StarGraph starGraph = readStarGraph(input);
+        final Vertex v = vertexMaker.apply(starGraph.getStarVertex());
+        if (edgeMaker != null)
+            starGraph.getStarVertex().edges(d).forEachRemaining(e -> edgeMaker.apply((Attachable<Edge>) e));
+        return v;
+    }
+
+    private StarGraph readStarGraph(final Input input) throws IOException {
         readHeader(input);
         final StarGraph starGraph = kryo.readObject(input, StarGraph.class);
 
         // read the terminator
         kryo.readClassAndObject(input);
-
-        final Vertex v = vertexMaker.apply(starGraph.getStarVertex());
-        if (edgeMaker != null)
-            starGraph.getStarVertex().edges(d).forEachRemaining(e -> edgeMaker.apply((Attachable<Edge>) e));
-        return v;
+        return starGraph;
     }
 
     private void readHeader(final Input input) throws IOException {
@@ -269,6 +368,8 @@ public final class GryoReader implements GraphReader {
     public final static class Builder implements ReaderBuilder<GryoReader> {
 
         private long batchSize = 10000;
+        private int workers = 1;
+        private int chunkSize = 1000;
         /**
          * Always use the most recent gryo version by default
          */
@@ -286,6 +387,29 @@ public final class GryoReader implements GraphReader {
             return this;
         }
 
+        /**
+         * Number of threads that {@link GryoReader#readGraph(InputStream, Graph)} uses to create vertices and edges.
+         * The default of {@code 1} reads the graph on the calling thread.  A higher value is an opt-in that the graph
+         * being written to can be mutated by several threads at once, which is not checked.  Graphs that support
+         * transactions can not be read with more than one worker.
+         */
+        public Builder workers(final int workers) {
+            if (workers < 1)
+                throw new IllegalArgumentException("workers must be at least 1");
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Number of vertices handed to a worker at a time when {@link #workers(int)} is greater than {@code 1}.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            if (chunkSize < 1)
+                throw new IllegalArgumentException("chunkSize must be at least 1");
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
         /**
          * Supply a mapper {@link GryoMapper} instance to use as the serializer for the {@code KryoWriter}.
          */
@@ -295,7 +419,7 @@ public final class GryoReader implements GraphReader {
         }
 
         public GryoReader create() {
-            return new GryoReader(batchSize, this.gryoMapper);
+            return new GryoReader(batchSize, this.workers, this.chunkSize, this.gryoMapper);
         }
 
     }
@@ -32,6 +32,7 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerMemoryUsage;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
 
@@ -127,6 +128,22 @@ public final class TinkerGraphComputerView {
         return !this.graphFilter.hasEdgeFilter() || this.legalEdges.get(vertex.id()).contains(edge.id());
     }
 
+    /**
+     * Estimates the bytes of the values of the compute keys and of the elements that the {@link GraphFilter} let
+     * through, as part of the {@link TinkerMemoryUsage} of the graph.
+     */
+    public long estimateComputeKeyBytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.computeProperties.size()) + TinkerMemoryUsage.mapBytes(this.legalVertices.size()) +
+                TinkerMemoryUsage.mapBytes(this.legalEdges.size());
+        for (final Map<String, List<VertexProperty<?>>> properties : this.computeProperties.values()) {
+            bytes += TinkerMemoryUsage.vertexPropertiesBytes(properties);
+        }
+        for (final Set<Object> edges : this.legalEdges.values()) {
+            bytes += TinkerMemoryUsage.mapBytes(edges.size());
+        }
+        return bytes;
+    }
+
     protected void complete() {
         // remove all transient properties from the vertices
         for (final VertexComputeKey computeKey : this.computeKeys.values()) {
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+/**
+ * Creates the {@link P} predicates of {@link TinkerText}, which a {@code has()} step at the start of a traversal
+ * answers from a {@link TinkerGraph.IndexType#TEXT} index on the key when there is one.
+ * <p/>
+ * <pre>
+ * g.V().has("name", TinkerP.startsWith("mar"))
+ * g.V().has("description", TinkerP.containsToken("graph"))
+ * </pre>
+ */
+public final class TinkerP {
+
+    private TinkerP() {
+    }
+
+    public static <V> P<V> startsWith(final String prefix) {
+        return new P(TinkerText.startsWith, prefix);
+    }
+
+    public static <V> P<V> containsToken(final String token) {
+        return new P(TinkerText.containsToken, token);
+    }
+}
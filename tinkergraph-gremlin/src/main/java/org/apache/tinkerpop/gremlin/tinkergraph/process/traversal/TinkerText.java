@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal;
+
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiPredicate;
+
+/**
+ * {@link TinkerText} is a {@link BiPredicate} that evaluates whether the first object is a string that matches the
+ * text in the second object.  A value that is not a string never matches.  Both predicates can be answered from a
+ * {@link TinkerGraph.IndexType#TEXT} index and are created with {@link TinkerP}. For example:
+ * <p/>
+ * <pre>
+ * "marko a. rodriguez" TinkerText.startsWith "mar" == true
+ * "marko a. rodriguez" TinkerText.containsToken "Rodriguez" == true
+ * "marko a. rodriguez" TinkerText.containsToken "rod" == false
+ * </pre>
+ */
+public enum TinkerText implements BiPredicate<Object, Object> {
+
+    /**
+     * The first object is a string that starts with the string in the second object, comparing case.
+     */
+    startsWith {
+        @Override
+        public boolean test(final Object first, final Object second) {
+            return first instanceof String && second instanceof String && ((String) first).startsWith((String) second);
+        }
+    },
+
+    /**
+     * The first object is a string that has the token in the second object among its {@link #tokenize(String)
+     * tokens}, ignoring case.
+     */
+    containsToken {
+        @Override
+        public boolean test(final Object first, final Object second) {
+            if (!(first instanceof String) || !(second instanceof String))
+                return false;
+            final String token = ((String) second).toLowerCase(Locale.ROOT);
+            return tokenize((String) first).contains(token);
+        }
+    };
+
+    /**
+     * Splits text into its tokens, which are the longest runs of letters and digits, in lower case.
+     */
+    public static List<String> tokenize(final String text) {
+        final List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                if (-1 == start) start = i;
+            } else if (-1 != start) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the values of a vertex property key for all the vertices of a {@link TinkerGraph} that match a list of
+ * {@link HasContainer} objects from the column of the key, in place of a graph step whose vertices are only used to
+ * read the values of the key.  When the vertices can be found through an index of the graph, the graph step finds
+ * them and their values are read from the column by their ordinals, rather than by testing every vertex against the
+ * column.  When {@code strict}, every matching vertex must have exactly one value for the key, as is the case when the
+ * values are read with {@code by(key)}.  Should the column no longer exist when the step is iterated, the values are
+ * read from the vertices instead.
+ */
+public final class TinkerColumnStep<E> extends AbstractStep<Vertex, E> {
+
+    private final String key;
+    private final List<HasContainer> hasContainers;
+    private final boolean strict;
+    private final TinkerGraphStep<?, ?> indexedGraphStep;
+    private Iterator<Object> values = null;
+
+    public TinkerColumnStep(final Traversal.Admin traversal, final String key, final List<HasContainer> hasContainers,
+                            final boolean strict) {
+        super(traversal);
+        this.key = key;
+        this.hasContainers = new ArrayList<>(hasContainers);
+        this.strict = strict;
+        this.indexedGraphStep = null;
+    }
+
+    /**
+     * Creates a step that reads the values of the vertices that a graph step finds through an index.
+     */
+    public TinkerColumnStep(final Traversal.Admin traversal, final String key, final TinkerGraphStep<?, ?> indexedGraphStep,
+                            final boolean strict) {
+        super(traversal);
+        this.key = key;
+        this.hasContainers = new ArrayList<>(indexedGraphStep.getHasContainers());
+        this.strict = strict;
+        this.indexedGraphStep = indexedGraphStep;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (null == this.values) {
+            final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+            final Iterator<? extends Vertex> vertices;
+            final Iterator<Object> column;
+            if (null == this.indexedGraphStep) {
+                vertices = IteratorUtils.filter(graph.vertices(), vertex -> HasContainer.testAll(vertex, this.hasContainers));
+                column = TinkerHelper.scanColumn(graph, this.key, this.hasContainers, this.strict);
+            } else {
+                vertices = this.indexedGraphStep.lookupVertices();
+                column = TinkerHelper.readColumn(graph, this.key, vertices, this.strict);
+            }
+            this.values = null != column ? column : IteratorUtils.flatMap(vertices,
+                    vertex -> this.strict ?
+                            IteratorUtils.of(vertex.value(this.key)) :
+                            IteratorUtils.map(vertex.properties(this.key), Property::value));
+        }
+        if (!this.values.hasNext())
+            throw FastNoSuchElementException.instance();
+        return this.getTraversal().getTraverserGenerator().generate((E) this.values.next(), (Step) this, 1L);
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    public boolean isStrict() {
+        return this.strict;
+    }
+
+    /**
+     * Determines if the vertices are found through an index of the graph rather than by scanning the column.
+     */
+    public boolean isIndexed() {
+        return null != this.indexedGraphStep;
+    }
+
+    @Override
+    public String toString() {
+        return this.hasContainers.isEmpty() ?
+                StringFactory.stepString(this, this.key) :
+                StringFactory.stepString(this, this.key, this.hasContainers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.key.hashCode() ^ this.hasContainers.hashCode() ^ Boolean.hashCode(this.strict);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.values = null;
+    }
+}
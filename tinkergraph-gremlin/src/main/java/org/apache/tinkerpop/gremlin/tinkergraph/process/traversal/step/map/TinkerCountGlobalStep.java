@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Counts the vertices or edges of a {@link TinkerGraph} that match a list of {@link HasContainer} objects without
+ * iterating them.  With no containers, the size of the element map of the graph is returned and otherwise the size of
+ * the index entry that answers the containers exactly.  Should the index no longer exist when the step is iterated,
+ * the elements are counted by a scan instead.
+ */
+public final class TinkerCountGlobalStep<S extends Element> extends AbstractStep<S, Long> {
+
+    private final Class<S> elementClass;
+    private final List<HasContainer> hasContainers;
+    private boolean done = false;
+
+    public TinkerCountGlobalStep(final Traversal.Admin traversal, final Class<S> elementClass, final List<HasContainer> hasContainers) {
+        super(traversal);
+        this.elementClass = elementClass;
+        this.hasContainers = new ArrayList<>(hasContainers);
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart() throws NoSuchElementException {
+        if (!this.done) {
+            this.done = true;
+            final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+            Long count = indexedCount(graph, this.elementClass, this.hasContainers);
+            if (null == count) {
+                final Iterator<? extends Element> elements = Vertex.class.isAssignableFrom(this.elementClass) ? graph.vertices() : graph.edges();
+                count = IteratorUtils.count(IteratorUtils.filter(elements, e -> HasContainer.testAll(e, this.hasContainers)));
+            }
+            return this.getTraversal().getTraverserGenerator().generate(count, (Step) this, 1L);
+        } else
+            throw FastNoSuchElementException.instance();
+    }
+
+    public Class<S> getElementClass() {
+        return this.elementClass;
+    }
+
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public String toString() {
+        return this.hasContainers.isEmpty() ?
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase()) :
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase(), this.hasContainers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.elementClass.hashCode() ^ this.hasContainers.hashCode();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    /**
+     * Gets the number of elements of the graph that match the {@link HasContainer} objects if it can be read from
+     * the size of the element map or of index entries.  That is the case when there are no containers, when there is
+     * a single {@code eq} or {@code within} container on the label, when there is a single equality container on a
+     * key with a single key index, or when there is exactly one equality container for each key of a composite index.
+     * Returns {@code null} otherwise.
+     */
+    public static Long indexedCount(final TinkerGraph graph, final Class<? extends Element> elementClass, final List<HasContainer> hasContainers) {
+        final boolean vertex = Vertex.class.isAssignableFrom(elementClass);
+        if (hasContainers.isEmpty())
+            return (long) (vertex ? TinkerHelper.getVertices(graph).size() : TinkerHelper.getEdges(graph).size());
+
+        final Set<String> labels = 1 == hasContainers.size() ? TinkerGraphStep.getLabels(hasContainers.get(0)) : null;
+        if (null != labels) {
+            long count = 0;
+            for (final String label : labels) {
+                count = count + (vertex ?
+                        TinkerHelper.countVertexLabelIndex(graph, label) :
+                        TinkerHelper.countEdgeLabelIndex(graph, label));
+            }
+            return count;
+        }
+
+        final List<String> keys = new ArrayList<>(hasContainers.size());
+        final List<Object> values = new ArrayList<>(hasContainers.size());
+        for (final HasContainer hasContainer : hasContainers) {
+            if (hasContainer.getPredicate().getBiPredicate() != Compare.eq || null == hasContainer.getPredicate().getValue()
+                    || keys.contains(hasContainer.getKey()))
+                return null;
+            keys.add(hasContainer.getKey());
+            values.add(hasContainer.getPredicate().getValue());
+        }
+
+        if (1 == keys.size()) {
+            if (!graph.getIndexedKeys(elementClass).contains(keys.get(0)))
+                return null;
+            return vertex ?
+                    TinkerHelper.countVertexIndex(graph, keys.get(0), values.get(0)) :
+                    TinkerHelper.countEdgeIndex(graph, keys.get(0), values.get(0));
+        }
+
+        for (final List<String> indexKeys : graph.getCompositeIndexedKeys(elementClass)) {
+            if (indexKeys.size() == keys.size() && indexKeys.containsAll(keys)) {
+                final List<Object> indexValues = new ArrayList<>(indexKeys.size());
+                for (final String key : indexKeys) {
+                    indexValues.add(values.get(keys.indexOf(key)));
+                }
+                return vertex ?
+                        TinkerHelper.countVertexIndex(graph, indexKeys, indexValues) :
+                        TinkerHelper.countEdgeIndex(graph, indexKeys, indexValues);
+            }
+        }
+        return null;
+    }
+}
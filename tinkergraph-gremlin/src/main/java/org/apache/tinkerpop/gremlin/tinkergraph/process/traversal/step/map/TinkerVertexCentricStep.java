@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Reads the edges of each vertex with a label from the vertex-centric index of a {@link TinkerGraph} that sorts them
+ * by a property key.  Only the edges with a value within the bounds of the {@link HasContainer} objects on the key are
+ * read and every edge is then filtered on all of the containers.  When the edges are ordered, the sorted edges of all
+ * the incoming vertices are merged, so that a range of the ordered edges only reads as many edges as it emits.
+ * Should the index no longer exist when the step is iterated, or the values of the edges of a vertex not all be of the
+ * same {@code Comparable} class, the edges of the vertex are filtered and sorted in the same way as the standard steps
+ * do instead.
+ */
+public final class TinkerVertexCentricStep extends AbstractStep<Vertex, Edge> {
+
+    private final Direction direction;
+    private final String edgeLabel;
+    private final String key;
+    private final List<HasContainer> hasContainers;
+    private final Order order;
+    private final long low;
+    private final long high;
+
+    private Object lower = null;
+    private boolean lowerInclusive = false;
+    private Object upper = null;
+    private boolean upperInclusive = false;
+    private final boolean keyFiltered;
+
+    private Iterator<Traverser.Admin<Edge>> edges = Collections.emptyIterator();
+    private long counter = 0;
+
+    /**
+     * @param order the order of the edges by the value of the key, which is {@link Order#incr}, {@link Order#decr} or
+     *              {@code null} if the edges are not ordered
+     * @param high  the number of edges after which no more are emitted or {@code -1} for no limit
+     */
+    public TinkerVertexCentricStep(final Traversal.Admin traversal, final Direction direction, final String edgeLabel,
+                                   final String key, final List<HasContainer> hasContainers, final Order order,
+                                   final long low, final long high) {
+        super(traversal);
+        this.direction = direction;
+        this.edgeLabel = edgeLabel;
+        this.key = key;
+        this.hasContainers = new ArrayList<>(hasContainers);
+        this.order = order;
+        this.low = low;
+        this.high = high;
+
+        boolean keyFiltered = false;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getKey().equals(key)) {
+                keyFiltered = true;
+                this.restrict(hasContainer.getBiPredicate(), hasContainer.getPredicate().getValue());
+            }
+        }
+        this.keyFiltered = keyFiltered;
+    }
+
+    /**
+     * Narrows the bounds of the edges that are read with the first {@code eq}, {@code gt}, {@code gte}, {@code lt}
+     * or {@code lte} bound on each side, as the edges are filtered on all of the containers afterward anyway.
+     */
+    private void restrict(final BiPredicate<?, ?> biPredicate, final Object value) {
+        if (null == value) return;
+        if (null == this.lower && (biPredicate == Compare.gt || biPredicate == Compare.gte || biPredicate == Compare.eq)) {
+            this.lower = value;
+            this.lowerInclusive = biPredicate != Compare.gt;
+        }
+        if (null == this.upper && (biPredicate == Compare.lt || biPredicate == Compare.lte || biPredicate == Compare.eq)) {
+            this.upper = value;
+            this.upperInclusive = biPredicate != Compare.lt;
+        }
+    }
+
+    @Override
+    protected Traverser.Admin<Edge> processNextStart() throws NoSuchElementException {
+        while (true) {
+            if (-1 != this.high && this.counter >= this.high)
+                throw FastNoSuchElementException.instance();
+
+            if (!this.edges.hasNext()) {
+                if (null == this.order)
+                    this.edges = this.edges(this.starts.next());
+                else if (this.starts.hasNext())
+                    this.edges = this.mergeEdges();
+                else
+                    throw FastNoSuchElementException.instance();
+                continue;
+            }
+
+            // skip for the low and trim for the high in the same way as RangeGlobalStep
+            final Traverser.Admin<Edge> traverser = this.edges.next();
+            final long avail = traverser.bulk();
+            if (this.counter + avail <= this.low) {
+                this.counter = this.counter + avail;
+                continue;
+            }
+            final long toSkip = this.counter < this.low ? this.low - this.counter : 0;
+            final long toTrim = -1 != this.high && this.counter + avail >= this.high ? this.counter + avail - this.high : 0;
+            final long toEmit = avail - toSkip - toTrim;
+            this.counter = this.counter + toSkip + toEmit;
+            traverser.setBulk(toEmit);
+            return traverser;
+        }
+    }
+
+    private Iterator<Traverser.Admin<Edge>> edges(final Traverser.Admin<Vertex> start) {
+        return IteratorUtils.map(this.sortedEdges(start.get()), edge -> start.split(edge, this));
+    }
+
+    /**
+     * Merges the sorted edges of all the incoming vertices into a single order.  Edges with the same value are emitted
+     * in the order of the vertices they were read from.
+     */
+    private Iterator<Traverser.Admin<Edge>> mergeEdges() {
+        final Comparator<Object> valueOrder = this.valueOrder();
+        final PriorityQueue<Cursor> cursors = new PriorityQueue<>((a, b) -> {
+            final int compare = valueOrder.compare(a.value, b.value);
+            return 0 != compare ? compare : Long.compare(a.position, b.position);
+        });
+        long position = 0;
+        while (this.starts.hasNext()) {
+            final Traverser.Admin<Vertex> start = this.starts.next();
+            final Cursor cursor = new Cursor(start, this.sortedEdges(start.get()), position++);
+            if (cursor.advance()) cursors.add(cursor);
+        }
+
+        return new Iterator<Traverser.Admin<Edge>>() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            @Override
+            public Traverser.Admin<Edge> next() {
+                final Cursor cursor = cursors.poll();
+                if (null == cursor) throw FastNoSuchElementException.instance();
+                final Traverser.Admin<Edge> traverser = cursor.start.split(cursor.edge, TinkerVertexCentricStep.this);
+                if (cursor.advance()) cursors.add(cursor);
+                return traverser;
+            }
+        };
+    }
+
+    private Iterator<Edge> sortedEdges(final Vertex vertex) {
+        final boolean descending = Order.decr == this.order;
+        if (vertex instanceof TinkerVertex) {
+            final TinkerVertex tinkerVertex = (TinkerVertex) vertex;
+            final Iterator<Edge> sorted = (Iterator) TinkerHelper.getSortedEdges(tinkerVertex, this.direction, this.edgeLabel,
+                    this.key, this.lower, this.lowerInclusive, this.upper, this.upperInclusive, descending);
+            if (null != sorted) {
+                // an order by the key fails on an edge without the key in the same way that OrderGlobalStep does
+                if (null != this.order && !this.keyFiltered) {
+                    TinkerHelper.getEdgesWithoutKey(tinkerVertex, this.direction, this.edgeLabel, this.key).forEachRemaining(edge -> {
+                        if (HasContainer.testAll(edge, this.hasContainers)) edge.value(this.key);
+                    });
+                }
+                return IteratorUtils.filter(sorted, edge -> HasContainer.testAll(edge, this.hasContainers));
+            }
+        }
+
+        final Iterator<Edge> edges = IteratorUtils.filter(vertex.edges(this.direction, this.edgeLabel),
+                edge -> HasContainer.testAll(edge, this.hasContainers));
+        if (null == this.order) return edges;
+        final Comparator<Object> valueOrder = this.valueOrder();
+        final List<Edge> list = IteratorUtils.list(edges);
+        list.sort((a, b) -> valueOrder.compare(a.value(this.key), b.value(this.key)));
+        return list.iterator();
+    }
+
+    /**
+     * Compares the values of the key in the same way as {@code order().by(key, order)} does, so that values that can
+     * not be compared fail with a {@code ClassCastException} as they do without the index.
+     */
+    private Comparator<Object> valueOrder() {
+        return this.order;
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    public String getEdgeLabel() {
+        return this.edgeLabel;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    public Order getOrder() {
+        return this.order;
+    }
+
+    public long getLowRange() {
+        return this.low;
+    }
+
+    public long getHighRange() {
+        return this.high;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.direction, this.edgeLabel, this.hasContainers,
+                null == this.order ? null : this.key + ":" + this.order,
+                0 == this.low && -1 == this.high ? null : "[" + this.low + "," + this.high + "]");
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.direction.hashCode() ^ this.edgeLabel.hashCode() ^ this.key.hashCode() ^
+                this.hasContainers.hashCode() ^ (null == this.order ? 0 : this.order.hashCode()) ^
+                Long.hashCode(this.low) ^ Long.hashCode(this.high);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return Collections.singleton(TraverserRequirement.OBJECT);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.edges = Collections.emptyIterator();
+        this.counter = 0;
+    }
+
+    /**
+     * The next edge of the sorted edges of an incoming vertex.
+     */
+    private final class Cursor {
+        private final Traverser.Admin<Vertex> start;
+        private final Iterator<Edge> edges;
+        private final long position;
+        private Edge edge;
+        private Object value;
+
+        private Cursor(final Traverser.Admin<Vertex> start, final Iterator<Edge> edges, final long position) {
+            this.start = start;
+            this.edges = edges;
+            this.position = position;
+        }
+
+        private boolean advance() {
+            if (!this.edges.hasNext()) return false;
+            this.edge = this.edges.next();
+            this.value = this.edge.value(key);
+            return true;
+        }
+    }
+}
@@ -19,23 +19,32 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.TinkerText;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -59,38 +68,230 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
+        final IndexLookup lookup = getIndexLookup(graph, Edge.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
             return this.iteratorList(graph.edges(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                            .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                            .collect(Collectors.<Edge>toList()).iterator();
+        else if (null != lookup && !lookup.isLabel())
+            return (lookup.isComposite() ?
+                    TinkerHelper.queryEdgeIndex(graph, lookup.keys, lookup.values) :
+                    TinkerHelper.queryEdgeIndex(graph, lookup.keys.get(0), lookup.values.get(0))).stream()
+                    .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
+                    .collect(Collectors.<Edge>toList()).iterator();
+        else {
+            final HasContainer text = getIndexText(graph, Edge.class);
+            if (null != text)
+                return this.iteratorList(TinkerHelper.queryEdgeIndex(graph, text.getKey(),
+                        (TinkerText) text.getBiPredicate(), (String) text.getValue()).iterator());
+            final List<IndexRange> ranges = getIndexRanges(Edge.class);
+            final Iterator<? extends Edge> ranged = null == ranges ? null : this.iteratorRanges(ranges, range -> TinkerHelper.queryEdgeIndex(graph, range.key,
+                    range.lower, range.lowerInclusive, range.upper, range.upperInclusive));
+            if (null != ranged)
+                return ranged;
+            else if (null != lookup)
+                return this.iteratorList(IteratorUtils.flatMap(lookup.labels.iterator(),
+                        label -> TinkerHelper.queryEdgeLabelIndex(graph, label).iterator()));
+            else
+                return this.iteratorList(graph.edges());
+        }
     }
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
+        final IndexLookup lookup = getIndexLookup(graph, Vertex.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
             return this.iteratorList(graph.vertices(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
-                    IteratorUtils.filter(TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
-                            vertex -> HasContainer.testAll(vertex, this.hasContainers));
+        else if (null != lookup && !lookup.isLabel())
+            return IteratorUtils.filter((lookup.isComposite() ?
+                            TinkerHelper.queryVertexIndex(graph, lookup.keys, lookup.values) :
+                            TinkerHelper.queryVertexIndex(graph, lookup.keys.get(0), lookup.values.get(0))).iterator(),
+                    vertex -> HasContainer.testAll(vertex, this.hasContainers));
+        else {
+            final HasContainer text = getIndexText(graph, Vertex.class);
+            if (null != text)
+                return this.iteratorList(TinkerHelper.queryVertexIndex(graph, text.getKey(),
+                        (TinkerText) text.getBiPredicate(), (String) text.getValue()).iterator());
+            final List<IndexRange> ranges = getIndexRanges(Vertex.class);
+            final Iterator<? extends Vertex> ranged = null == ranges ? null : this.iteratorRanges(ranges, range -> TinkerHelper.queryVertexIndex(graph, range.key,
+                    range.lower, range.lowerInclusive, range.upper, range.upperInclusive));
+            if (null != ranged)
+                return ranged;
+            else if (null != lookup)
+                return this.iteratorList(IteratorUtils.flatMap(lookup.labels.iterator(),
+                        label -> TinkerHelper.queryVertexLabelIndex(graph, label).iterator()));
+            else
+                return this.iteratorList(graph.vertices());
+        }
+    }
+
+    /**
+     * Determines if the elements of the step are found through an index of the graph rather than by iterating all of
+     * the elements of the graph.
+     */
+    public boolean isIndexed() {
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        final Class<? extends Element> indexedClass = Vertex.class.isAssignableFrom(this.returnClass) ? Vertex.class : Edge.class;
+        return null != this.getIndexLookup(graph, indexedClass) || null != this.getIndexText(graph, indexedClass) ||
+                null != this.getIndexRanges(indexedClass);
+    }
+
+    /**
+     * Gets the vertices that the step emits, which are found through an index of the graph where one applies.
+     */
+    public Iterator<? extends Vertex> lookupVertices() {
+        return this.vertices();
+    }
+
+    /**
+     * Considers every single key and composite index that the equality predicates of the {@link HasContainer}
+     * objects can be answered from, as well as the label index for {@link T#label} containers, and chooses the one
+     * that currently holds the fewest elements for the requested values.  Returns {@code null} if no such index
+     * exists.  A label lookup is only used when no {@link TinkerGraph.IndexType#TEXT} or
+     * {@link TinkerGraph.IndexType#RANGE} index applies either, as those indices were created for the key on purpose
+     * while the label index always exists.
+     */
+    private IndexLookup getIndexLookup(final TinkerGraph graph, final Class<? extends Element> indexedClass) {
+        final boolean vertex = Vertex.class.isAssignableFrom(indexedClass);
+        IndexLookup best = null;
+
+        final Set<String> indexedKeys = graph.getIndexedKeys(indexedClass);
+        for (final HasContainer c : this.hasContainers) {
+            if (c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey())) {
+                final Object value = c.getPredicate().getValue();
+                final long count = vertex ?
+                        TinkerHelper.countVertexIndex(graph, c.getKey(), value) :
+                        TinkerHelper.countEdgeIndex(graph, c.getKey(), value);
+                if (null == best || count < best.count)
+                    best = new IndexLookup(Collections.singletonList(c.getKey()), Collections.singletonList(value), count);
+            }
+        }
+
+        for (final List<String> keys : graph.getCompositeIndexedKeys(indexedClass)) {
+            final List<Object> values = new ArrayList<>(keys.size());
+            for (final String key : keys) {
+                final Iterator<HasContainer> itty = IteratorUtils.filter(this.hasContainers.iterator(),
+                        c -> c.getPredicate().getBiPredicate() == Compare.eq && c.getKey().equals(key));
+                if (!itty.hasNext()) break;
+                values.add(itty.next().getPredicate().getValue());
+            }
+            if (values.size() == keys.size()) {
+                final long count = vertex ?
+                        TinkerHelper.countVertexIndex(graph, keys, values) :
+                        TinkerHelper.countEdgeIndex(graph, keys, values);
+                if (null == best || count < best.count)
+                    best = new IndexLookup(keys, values, count);
+            }
+        }
+
+        for (final HasContainer c : this.hasContainers) {
+            final Set<String> labels = getLabels(c);
+            if (null != labels) {
+                long count = 0;
+                for (final String label : labels) {
+                    count = count + (vertex ?
+                            TinkerHelper.countVertexLabelIndex(graph, label) :
+                            TinkerHelper.countEdgeLabelIndex(graph, label));
+                }
+                if (null == best || count < best.count)
+                    best = new IndexLookup(labels, count);
+            }
+        }
+        return best;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
+    /**
+     * Gets the labels that a {@link T#label} container with an {@code eq} or {@code within} predicate restricts the
+     * elements to.  Returns {@code null} for any other container.
+     */
+    public static Set<String> getLabels(final HasContainer hasContainer) {
+        if (!hasContainer.getKey().equals(T.label.getAccessor()))
+            return null;
+        final BiPredicate<?, ?> biPredicate = hasContainer.getPredicate().getBiPredicate();
+        final Object value = hasContainer.getPredicate().getValue();
+        if (biPredicate == Compare.eq && value instanceof String)
+            return Collections.singleton((String) value);
+        else if (biPredicate == Contains.within && value instanceof Collection) {
+            final Set<String> labels = new LinkedHashSet<>();
+            for (final Object label : (Collection<?>) value) {
+                if (!(label instanceof String))
+                    return null;
+                labels.add((String) label);
+            }
+            return labels;
+        }
+        return null;
+    }
 
-        final Iterator<HasContainer> itty = IteratorUtils.filter(hasContainers.iterator(),
-                c -> c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey()));
-        return itty.hasNext() ? itty.next() : null;
+    /**
+     * Finds the first {@link HasContainer} with a {@link TinkerText} predicate on a key with a
+     * {@link TinkerGraph.IndexType#TEXT} index.  Returns {@code null} if there is none.
+     */
+    private HasContainer getIndexText(final TinkerGraph graph, final Class<? extends Element> indexedClass) {
+        final Set<String> textKeys = graph.getIndexedKeys(indexedClass, TinkerGraph.IndexType.TEXT);
+        if (textKeys.isEmpty()) return null;
 
+        for (final HasContainer c : this.hasContainers) {
+            if (c.getBiPredicate() instanceof TinkerText && c.getValue() instanceof String && textKeys.contains(c.getKey()))
+                return c;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first key with a {@link TinkerGraph.IndexType#RANGE} index that the {@link HasContainer} objects
+     * constrain with range predicates.  The bounds of those predicates are collected into a single range, or, for a
+     * disjunction like {@code outside()}, into one range per branch of the disjunction.  Returns {@code null} if no
+     * range index applies.
+     */
+    private List<IndexRange> getIndexRanges(final Class<? extends Element> indexedClass) {
+        final Set<String> rangeKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass, TinkerGraph.IndexType.RANGE);
+        if (rangeKeys.isEmpty()) return null;
+
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String key = hasContainer.getKey();
+            if (!rangeKeys.contains(key)) continue;
+
+            final IndexRange range = new IndexRange(key);
+            List<IndexRange> disjunction = null;
+            for (final HasContainer c : this.hasContainers) {
+                if (!c.getKey().equals(key)) continue;
+                if (!range.restrict(c.getPredicate()) && null == disjunction && c.getPredicate() instanceof OrP) {
+                    disjunction = new ArrayList<>();
+                    for (final P<?> p : ((OrP<?>) c.getPredicate()).getPredicates()) {
+                        final IndexRange branch = new IndexRange(key);
+                        if (!branch.restrict(p)) {
+                            disjunction = null;
+                            break;
+                        }
+                        disjunction.add(branch);
+                    }
+                }
+            }
+
+            if (range.isBounded())
+                return Collections.singletonList(range);
+            else if (null != disjunction)
+                return disjunction;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the elements in the ranges that pass all of the {@link HasContainer} objects, or {@code null} if the index
+     * can not answer one of the ranges.
+     */
+    private <T extends Element> Iterator<T> iteratorRanges(final List<IndexRange> ranges, final Function<IndexRange, List<? extends T>> query) {
+        final Set<T> elements = new LinkedHashSet<>();
+        for (final IndexRange range : ranges) {
+            final List<? extends T> inRange = query.apply(range);
+            if (null == inRange) return null;
+            for (final T e : inRange) {
+                if (HasContainer.testAll(e, this.hasContainers))
+                    elements.add(e);
+            }
+        }
+        return elements.iterator();
     }
 
     @Override
@@ -127,4 +328,75 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
     public int hashCode() {
         return super.hashCode() ^ this.hasContainers.hashCode();
     }
+
+    private static final class IndexLookup {
+        private final List<String> keys;
+        private final List<Object> values;
+        private final Set<String> labels;
+        private final long count;
+
+        private IndexLookup(final List<String> keys, final List<Object> values, final long count) {
+            this.keys = keys;
+            this.values = values;
+            this.labels = null;
+            this.count = count;
+        }
+
+        private IndexLookup(final Set<String> labels, final long count) {
+            this.keys = null;
+            this.values = null;
+            this.labels = labels;
+            this.count = count;
+        }
+
+        private boolean isComposite() {
+            return this.keys.size() > 1;
+        }
+
+        private boolean isLabel() {
+            return null != this.labels;
+        }
+    }
+
+    private static final class IndexRange {
+        private final String key;
+        private Object lower = null;
+        private boolean lowerInclusive = false;
+        private Object upper = null;
+        private boolean upperInclusive = false;
+
+        private IndexRange(final String key) {
+            this.key = key;
+        }
+
+        /**
+         * Narrows the range with the bound of the predicate if it is a {@code gt}, {@code gte}, {@code lt} or
+         * {@code lte} comparison. Only the first bound on each side is kept as the elements are filtered on all of
+         * the predicates afterward anyway.
+         */
+        private boolean restrict(final P<?> predicate) {
+            final BiPredicate<?, ?> biPredicate = predicate.getBiPredicate();
+            final Object value = predicate.getValue();
+            if (null == value)
+                return false;
+            else if (biPredicate == Compare.gt || biPredicate == Compare.gte) {
+                if (null == this.lower) {
+                    this.lower = value;
+                    this.lowerInclusive = biPredicate == Compare.gte;
+                }
+                return true;
+            } else if (biPredicate == Compare.lt || biPredicate == Compare.lte) {
+                if (null == this.upper) {
+                    this.upper = value;
+                    this.upperInclusive = biPredicate == Compare.lte;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isBounded() {
+            return null != this.lower || null != this.upper;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyValueStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.PropertyType;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerColumnStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This strategy replaces a traversal that starts by reading the values of a vertex property key for every vertex
+ * with a step that reads them in sequence from the column of the key in the {@link TinkerGraph}, so that the vertices
+ * and their property maps are not visited.  The {@code has()} filters of the graph step are tested against the
+ * columns of their keys where there are columns, unless an index of the graph can answer them, in which case the
+ * vertices are still found through the index and only their values are read from the column.  The strategy does not
+ * apply when the path of a traverser is required, as the vertices are no longer part of it.
+ * <p/>
+ *
+ * <pre>
+ * g.V().values("price").sum()                               // is replaced by TinkerColumnStep
+ * g.V().hasLabel("product").properties("price").value()     // is replaced by TinkerColumnStep
+ * g.V().values("price").count()                             // is replaced by TinkerColumnStep and count()
+ * g.V().groupCount().by("country")                          // is replaced by TinkerColumnStep and groupCount()
+ * </pre>
+ */
+public final class TinkerGraphColumnStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphColumnStrategy INSTANCE = new TinkerGraphColumnStrategy();
+
+    private TinkerGraphColumnStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || TraversalHelper.onGraphComputer(traversal) ||
+                !traversal.getGraph().isPresent() || !(traversal.getGraph().get() instanceof TinkerGraph))
+            return;
+
+        final Set<String> columnKeys = ((TinkerGraph) traversal.getGraph().get()).getColumnKeys();
+        if (columnKeys.isEmpty() || !(traversal.getStartStep() instanceof TinkerGraphStep))
+            return;
+
+        final TinkerGraphStep<?, ?> graphStep = (TinkerGraphStep<?, ?>) traversal.getStartStep();
+        if (!graphStep.isStartStep() || !graphStep.returnsVertex() || graphStep.getIds().length > 0 || !graphStep.getLabels().isEmpty())
+            return;
+        if (TraversalHelper.anyStepRecursively(step -> step.getRequirements().contains(TraverserRequirement.PATH), traversal))
+            return;
+
+        final Step<?, ?> next = graphStep.getNextStep();
+        final List<Step> folded = new ArrayList<>();
+        final String key;
+        GroupCountStep<?, ?> groupCountStep = null;
+        if (next instanceof PropertiesStep) {
+            final PropertiesStep<?> propertiesStep = (PropertiesStep<?>) next;
+            if (1 != propertiesStep.getPropertyKeys().length)
+                return;
+            key = propertiesStep.getPropertyKeys()[0];
+            folded.add(propertiesStep);
+            if (PropertyType.PROPERTY == propertiesStep.getReturnType()) {
+                // properties() is only foldable when its properties are turned into values or counted
+                if (!propertiesStep.getLabels().isEmpty())
+                    return;
+                if (propertiesStep.getNextStep() instanceof PropertyValueStep)
+                    folded.add(propertiesStep.getNextStep());
+                else if (!(propertiesStep.getNextStep() instanceof CountGlobalStep))
+                    return;
+            }
+        } else if (next instanceof GroupCountStep) {
+            groupCountStep = (GroupCountStep<?, ?>) next;
+            if (1 != groupCountStep.getLocalChildren().size() ||
+                    !(groupCountStep.getLocalChildren().get(0) instanceof ElementValueTraversal))
+                return;
+            key = ((ElementValueTraversal) groupCountStep.getLocalChildren().get(0)).getPropertyKey();
+        } else
+            return;
+        if (!columnKeys.contains(key))
+            return;
+
+        final TinkerColumnStep<?> columnStep = !graphStep.getHasContainers().isEmpty() && graphStep.isIndexed() ?
+                new TinkerColumnStep<>(traversal, key, graphStep, null != groupCountStep) :
+                new TinkerColumnStep<>(traversal, key, graphStep.getHasContainers(), null != groupCountStep);
+        TraversalHelper.replaceStep((Step) graphStep, columnStep, traversal);
+        for (final Step step : folded) {
+            ((Step<?, ?>) step).getLabels().forEach(columnStep::addLabel);
+            traversal.removeStep(step);
+        }
+        if (null != groupCountStep) {
+            final GroupCountStep<?, ?> valueGroupCountStep = new GroupCountStep<>(traversal);
+            groupCountStep.getLabels().forEach(valueGroupCountStep::addLabel);
+            TraversalHelper.replaceStep((Step) groupCountStep, valueGroupCountStep, traversal);
+        }
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerGraphColumnStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This strategy replaces a traversal that only counts the elements of the graph with a step that reads the count
+ * from the size of the element map or of an index entry of the {@link TinkerGraph}, so that the elements never have
+ * to be iterated.
+ * <p/>
+ *
+ * <pre>
+ * g.V().count()                           // is replaced by TinkerCountGlobalStep
+ * g.E().count()                           // is replaced by TinkerCountGlobalStep
+ * g.V().has("status","open").count()      // is replaced by TinkerCountGlobalStep when "status" is indexed
+ * </pre>
+ */
+public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphCountStrategy INSTANCE = new TinkerGraphCountStrategy();
+
+    private TinkerGraphCountStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || TraversalHelper.onGraphComputer(traversal) ||
+                !traversal.getGraph().isPresent() || !(traversal.getGraph().get() instanceof TinkerGraph))
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        if (steps.size() < 2 ||
+                !(steps.get(0) instanceof TinkerGraphStep) ||
+                !(steps.get(steps.size() - 1) instanceof CountGlobalStep))
+            return;
+
+        final TinkerGraphStep<?, ?> graphStep = (TinkerGraphStep<?, ?>) steps.get(0);
+        if (!graphStep.isStartStep() || graphStep.getIds().length > 0)
+            return;
+        for (int i = 0; i < steps.size(); i++) {
+            final Step step = steps.get(i);
+            if (!step.getLabels().isEmpty())
+                return;
+            if (i > 0 && i < steps.size() - 1 && !(step instanceof IdentityStep || step instanceof NoOpBarrierStep))
+                return;
+        }
+
+        final Class<? extends Element> elementClass = graphStep.getReturnClass();
+        if (null == TinkerCountGlobalStep.indexedCount((TinkerGraph) traversal.getGraph().get(), elementClass, graphStep.getHasContainers()))
+            return;
+
+        TraversalHelper.removeAllSteps(traversal);
+        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass, graphStep.getHasContainers()));
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerGraphCountStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * This strategy replaces the count of the incident edges or adjacent vertices of a vertex with a step that reads the
+ * count from the sizes of the adjacency of the vertex, which are kept for each edge label and direction, so that the
+ * edges are not iterated.  It only applies to a local child traversal, such as that of {@code local()} or of a
+ * {@code by()} modulator, which starts with the {@code VertexStep} that is counted.
+ * <p/>
+ *
+ * <pre>
+ * g.V().project("id","deg").by(id).by(outE("follows").count())    // is replaced by TinkerDegreeStep
+ * g.V().local(both().count())                                      // is replaced by TinkerDegreeStep
+ * </pre>
+ */
+public final class TinkerGraphDegreeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphDegreeStrategy INSTANCE = new TinkerGraphDegreeStrategy();
+
+    private TinkerGraphDegreeStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (traversal.getParent() instanceof EmptyStep || TraversalHelper.onGraphComputer(traversal) ||
+                !traversal.getGraph().isPresent() || !(traversal.getGraph().get() instanceof TinkerGraph) ||
+                !traversal.getParent().getLocalChildren().contains(traversal))
+            return;
+
+        if (!(traversal.getStartStep() instanceof VertexStep) || !(traversal.getStartStep().getNextStep() instanceof CountGlobalStep))
+            return;
+        final VertexStep<?> vertexStep = (VertexStep<?>) traversal.getStartStep();
+        final CountGlobalStep<?> countStep = (CountGlobalStep<?>) vertexStep.getNextStep();
+        if (!vertexStep.getLabels().isEmpty())
+            return;
+
+        final TinkerDegreeStep degreeStep = new TinkerDegreeStep(traversal, vertexStep.getDirection(), vertexStep.getEdgeLabels());
+        countStep.getLabels().forEach(degreeStep::addLabel);
+        TraversalHelper.replaceStep((Step) vertexStep, degreeStep, traversal);
+        traversal.removeStep(countStep);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerGraphDegreeStrategy instance() {
+        return INSTANCE;
+    }
+}
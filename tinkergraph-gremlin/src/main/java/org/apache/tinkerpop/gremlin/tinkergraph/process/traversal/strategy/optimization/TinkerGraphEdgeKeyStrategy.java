@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerEdgeKeyStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This strategy replaces the incident edges of a vertex that are filtered on the identifier of the vertex at their
+ * other end with a step that looks the edges up in the edge key index of the {@link TinkerGraph}, so that testing
+ * whether two vertices are already joined by an edge does not iterate every edge of the vertex with that label.  It
+ * only applies to graphs that were configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX}.
+ * <p/>
+ *
+ * <pre>
+ * g.V(a).outE("knows").where(inV().hasId(b))      // is replaced by TinkerEdgeKeyStep
+ * g.V(b).inE("knows").filter(outV().hasId(a))     // is replaced by TinkerEdgeKeyStep
+ * </pre>
+ */
+public final class TinkerGraphEdgeKeyStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphEdgeKeyStrategy INSTANCE = new TinkerGraphEdgeKeyStrategy();
+
+    private TinkerGraphEdgeKeyStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof TinkerGraph) ||
+                !TinkerHelper.hasEdgeKeyIndex((TinkerGraph) traversal.getGraph().get()))
+            return;
+
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!vertexStep.returnsEdge() || Direction.BOTH == vertexStep.getDirection() ||
+                    0 == vertexStep.getEdgeLabels().length || !(vertexStep.getNextStep() instanceof TraversalFilterStep))
+                continue;
+
+            final TraversalFilterStep<?> filterStep = (TraversalFilterStep<?>) vertexStep.getNextStep();
+            final HasContainer adjacentVertexId = getAdjacentVertexId(filterStep.getLocalChildren().get(0), vertexStep.getDirection().opposite());
+            if (null == adjacentVertexId)
+                continue;
+
+            final TinkerEdgeKeyStep edgeKeyStep = new TinkerEdgeKeyStep(traversal, vertexStep.getDirection(), vertexStep.getEdgeLabels(), adjacentVertexId);
+            vertexStep.getLabels().forEach(edgeKeyStep::addLabel);
+            filterStep.getLabels().forEach(edgeKeyStep::addLabel);
+            TraversalHelper.replaceStep((Step) vertexStep, edgeKeyStep, traversal);
+            traversal.removeStep(filterStep);
+        }
+    }
+
+    /**
+     * Gets the {@code T.id} container of a filter of the form {@code inV().hasId(...)} or {@code outV().hasId(...)}, so
+     * that the step that replaces the filter accepts exactly the same vertices, or {@code null} if the filter has any
+     * other form.
+     */
+    private static HasContainer getAdjacentVertexId(final Traversal.Admin<?, ?> filterTraversal, final Direction direction) {
+        final List<Step> steps = filterTraversal.getSteps();
+        if (2 != steps.size() || !(steps.get(0) instanceof EdgeVertexStep) || !(steps.get(1) instanceof HasStep) ||
+                direction != ((EdgeVertexStep) steps.get(0)).getDirection() ||
+                !steps.get(0).getLabels().isEmpty() || !steps.get(1).getLabels().isEmpty())
+            return null;
+
+        final List<HasContainer> hasContainers = ((HasStep<?>) steps.get(1)).getHasContainers();
+        if (1 != hasContainers.size() || !hasContainers.get(0).getKey().equals(T.id.getAccessor()))
+            return null;
+
+        final HasContainer hasContainer = hasContainers.get(0);
+        if (hasContainer.getBiPredicate() == Compare.eq ||
+                (hasContainer.getBiPredicate() == Contains.within && hasContainer.getValue() instanceof Collection))
+            return hasContainer;
+        return null;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerGraphEdgeKeyStrategy instance() {
+        return INSTANCE;
+    }
+}
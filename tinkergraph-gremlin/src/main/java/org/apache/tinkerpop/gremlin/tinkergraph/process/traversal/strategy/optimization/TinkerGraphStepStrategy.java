@@ -23,9 +23,13 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -42,6 +46,7 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
         if (TraversalHelper.onGraphComputer(traversal))
             return;
 
+        final Graph graph = traversal.getGraph().orElse(null);
         TraversalHelper.getStepsOfClass(GraphStep.class, traversal).forEach(originalGraphStep -> {
             final TinkerGraphStep<?, ?> tinkerGraphStep = new TinkerGraphStep<>(originalGraphStep);
             TraversalHelper.replaceStep(originalGraphStep, (Step) tinkerGraphStep, traversal);
@@ -49,7 +54,7 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
             while (currentStep instanceof HasContainerHolder) {
                 ((HasContainerHolder) currentStep).getHasContainers().forEach(hasContainer -> {
                     if (!GraphStep.processHasContainerIds(tinkerGraphStep, hasContainer))
-                        tinkerGraphStep.addHasContainer(hasContainer);
+                        tinkerGraphStep.addHasContainer(intern(graph, hasContainer));
                 });
                 currentStep.getLabels().forEach(tinkerGraphStep::addLabel);
                 traversal.removeStep(currentStep);
@@ -58,6 +63,16 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
         });
     }
 
+    /**
+     * Replaces the key of the container with the instance that the elements of the graph share, so that testing the
+     * elements compares the keys on identity.
+     */
+    private static HasContainer intern(final Graph graph, final HasContainer hasContainer) {
+        if (graph instanceof TinkerGraph && null != hasContainer.getKey())
+            hasContainer.setKey(TinkerHelper.intern((TinkerGraph) graph, hasContainer.getKey()));
+        return hasContainer;
+    }
+
     public static TinkerGraphStepStrategy instance() {
         return INSTANCE;
     }
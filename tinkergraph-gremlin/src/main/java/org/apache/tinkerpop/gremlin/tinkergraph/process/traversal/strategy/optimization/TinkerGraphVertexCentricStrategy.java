@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexCentricStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * This strategy replaces the incident edges of a vertex that are filtered on a range of a property key, ordered by
+ * it or both, with a step that reads them from a vertex-centric index of the {@link TinkerGraph} on the edge label and
+ * the key.  The {@code has()} filters, {@code order()} and {@code range()} steps that directly follow the
+ * {@link VertexStep} are folded into the new step, so that only the edges in the range of values, or only the first
+ * edges of the order, are read.
+ * <p/>
+ *
+ * <pre>
+ * g.V(x).outE("rated").order().by("time", decr).limit(10)     // is replaced by TinkerVertexCentricStep
+ * g.V(x).outE("rated").has("time", gt(t)).limit(10)           // is replaced by TinkerVertexCentricStep
+ * </pre>
+ */
+public final class TinkerGraphVertexCentricStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphVertexCentricStrategy INSTANCE = new TinkerGraphVertexCentricStrategy();
+
+    private TinkerGraphVertexCentricStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof TinkerGraph))
+            return;
+
+        final TinkerGraph graph = (TinkerGraph) traversal.getGraph().get();
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!vertexStep.returnsEdge() || Direction.BOTH == vertexStep.getDirection() || 1 != vertexStep.getEdgeLabels().length)
+                continue;
+            final String edgeLabel = vertexStep.getEdgeLabels()[0];
+            final Set<String> indexedKeys = graph.getVertexCentricIndexedKeys(edgeLabel);
+            if (indexedKeys.isEmpty())
+                continue;
+
+            final List<Step> folded = new ArrayList<>();
+            final List<HasContainer> hasContainers = new ArrayList<>();
+            Step<?, ?> step = vertexStep.getNextStep();
+            while (step instanceof HasStep) {
+                hasContainers.addAll(((HasStep<?>) step).getHasContainers());
+                folded.add(step);
+                step = step.getNextStep();
+            }
+
+            String key = null;
+            Order order = null;
+            if (step instanceof OrderGlobalStep) {
+                final List<Pair<Traversal.Admin, Comparator>> comparators = ((OrderGlobalStep) step).getComparators();
+                if (1 != comparators.size() || !(comparators.get(0).getValue0() instanceof ElementValueTraversal) ||
+                        !(Order.incr == comparators.get(0).getValue1() || Order.decr == comparators.get(0).getValue1()))
+                    continue;
+                key = ((ElementValueTraversal) comparators.get(0).getValue0()).getPropertyKey();
+                order = (Order) comparators.get(0).getValue1();
+                if (!indexedKeys.contains(key))
+                    continue;
+                folded.add(step);
+                step = step.getNextStep();
+            } else {
+                for (final HasContainer hasContainer : hasContainers) {
+                    if (indexedKeys.contains(hasContainer.getKey()) && isBound(hasContainer.getBiPredicate())) {
+                        key = hasContainer.getKey();
+                        break;
+                    }
+                }
+                if (null == key)
+                    continue;
+            }
+
+            long low = 0;
+            long high = -1;
+            if (step instanceof RangeGlobalStep) {
+                low = ((RangeGlobalStep) step).getLowRange();
+                high = ((RangeGlobalStep) step).getHighRange();
+                folded.add(step);
+            }
+
+            final TinkerVertexCentricStep vertexCentricStep = new TinkerVertexCentricStep(traversal,
+                    vertexStep.getDirection(), edgeLabel, key, hasContainers, order, low, high);
+            vertexStep.getLabels().forEach(vertexCentricStep::addLabel);
+            TraversalHelper.replaceStep((Step) vertexStep, vertexCentricStep, traversal);
+            for (final Step s : folded) {
+                ((Step<?, ?>) s).getLabels().forEach(vertexCentricStep::addLabel);
+                traversal.removeStep(s);
+            }
+        }
+    }
+
+    private static boolean isBound(final BiPredicate<?, ?> biPredicate) {
+        return biPredicate == Compare.eq || biPredicate == Compare.gt || biPredicate == Compare.gte ||
+                biPredicate == Compare.lt || biPredicate == Compare.lte;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerGraphVertexCentricStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The incident edges of a {@link TinkerVertex} in one {@link Direction}, partitioned by edge label. Each label is
+ * identified by the id it was interned to in {@link TinkerGraph#edgeLabelId(String)} and maps to a growable array of
+ * edges. Every {@link TinkerEdge} records its position in the arrays of its out and in vertex so that it can be
+ * removed in constant time by moving the last edge of the array into its slot.
+ */
+final class TinkerAdjacency {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    private final Direction direction;
+    private int[] labelIds = new int[0];
+    private TinkerEdge[][] edges = new TinkerEdge[0][];
+    private int[] sizes = new int[0];
+
+    TinkerAdjacency(final Direction direction) {
+        this.direction = direction;
+    }
+
+    void add(final TinkerEdge edge) {
+        int bucket = this.bucket(edge.labelId);
+        if (-1 == bucket) {
+            bucket = this.labelIds.length;
+            this.labelIds = Arrays.copyOf(this.labelIds, bucket + 1);
+            this.labelIds[bucket] = edge.labelId;
+            this.edges = Arrays.copyOf(this.edges, bucket + 1);
+            this.edges[bucket] = new TinkerEdge[INITIAL_CAPACITY];
+            this.sizes = Arrays.copyOf(this.sizes, bucket + 1);
+        } else if (this.sizes[bucket] == this.edges[bucket].length) {
+            this.edges[bucket] = Arrays.copyOf(this.edges[bucket], this.edges[bucket].length << 1);
+        }
+        final int position = this.sizes[bucket]++;
+        this.edges[bucket][position] = edge;
+        this.setPosition(edge, position);
+    }
+
+    /**
+     * Removes an edge and, when the graph keeps {@code versions}, first gets an array of edges of its label that it
+     * can change from them so that a {@link #snapshot()} that a view reads is not changed.
+     */
+    void remove(final TinkerEdge edge, final TinkerVersions versions) {
+        final int bucket = this.bucket(edge.labelId);
+        if (-1 == bucket) return;
+
+        final int position = this.getPosition(edge);
+        if (position >= this.sizes[bucket] || this.edges[bucket][position] != edge) return;
+        if (null != versions) this.edges[bucket] = versions.writable(this.edges[bucket]);
+        final TinkerEdge[] array = this.edges[bucket];
+
+        final int last = --this.sizes[bucket];
+        if (position != last) {
+            array[position] = array[last];
+            this.setPosition(array[position], position);
+        }
+        array[last] = null;
+
+        if (0 == last) {
+            final int lastBucket = this.labelIds.length - 1;
+            this.labelIds[bucket] = this.labelIds[lastBucket];
+            this.edges[bucket] = this.edges[lastBucket];
+            this.sizes[bucket] = this.sizes[lastBucket];
+            this.labelIds = Arrays.copyOf(this.labelIds, lastBucket);
+            this.edges = Arrays.copyOf(this.edges, lastBucket);
+            this.sizes = Arrays.copyOf(this.sizes, lastBucket);
+        }
+    }
+
+    /**
+     * Copies the adjacency as it is now.  The arrays of edges of each label are shared with this adjacency, which
+     * only appends edges past the size that the copy holds unless an edge is removed, so edges must be removed with
+     * {@link #remove(TinkerEdge, TinkerVersions)} for as long as the copy is in use.
+     */
+    TinkerAdjacency snapshot() {
+        final TinkerAdjacency snapshot = new TinkerAdjacency(this.direction);
+        snapshot.labelIds = this.labelIds.clone();
+        snapshot.edges = this.edges.clone();
+        snapshot.sizes = this.sizes.clone();
+        return snapshot;
+    }
+
+    /**
+     * The number of edges with the specified label id.
+     */
+    int size(final int labelId) {
+        final int bucket = this.bucket(labelId);
+        return -1 == bucket ? 0 : this.sizes[bucket];
+    }
+
+    /**
+     * The number of edges over all labels.
+     */
+    int size() {
+        int size = 0;
+        for (final int s : this.sizes) {
+            size += s;
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the bytes of the adjacency, including the unused capacity of its arrays of edges.
+     */
+    long bytes() {
+        long bytes = this.snapshotBytes();
+        for (final TinkerEdge[] array : this.edges) {
+            bytes += TinkerMemoryUsage.array(array.length, TinkerMemoryUsage.REFERENCE);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the bytes of a {@link #snapshot()}, not counting the arrays of edges that it shares with the
+     * adjacency that it was copied from.
+     */
+    long snapshotBytes() {
+        return TinkerMemoryUsage.object(4, 0) + TinkerMemoryUsage.array(this.labelIds.length, Integer.BYTES) +
+                TinkerMemoryUsage.array(this.edges.length, TinkerMemoryUsage.REFERENCE) +
+                TinkerMemoryUsage.array(this.sizes.length, Integer.BYTES);
+    }
+
+    void addEdges(final List<? super TinkerEdge> list) {
+        for (int i = 0; i < this.labelIds.length; i++) {
+            addAll(list, this.edges[i], this.sizes[i]);
+        }
+    }
+
+    void addEdges(final List<? super TinkerEdge> list, final int labelId) {
+        final int bucket = this.bucket(labelId);
+        if (-1 != bucket)
+            addAll(list, this.edges[bucket], this.sizes[bucket]);
+    }
+
+    /**
+     * Adds the vertex at the other end of each edge, which is the in vertex for an {@link Direction#OUT} adjacency
+     * and the out vertex for an {@link Direction#IN} adjacency.
+     */
+    void addVertices(final List<? super TinkerVertex> list) {
+        for (int i = 0; i < this.labelIds.length; i++) {
+            this.addAdjacentVertices(list, this.edges[i], this.sizes[i]);
+        }
+    }
+
+    void addVertices(final List<? super TinkerVertex> list, final int labelId) {
+        final int bucket = this.bucket(labelId);
+        if (-1 != bucket)
+            this.addAdjacentVertices(list, this.edges[bucket], this.sizes[bucket]);
+    }
+
+    private void addAdjacentVertices(final List<? super TinkerVertex> list, final TinkerEdge[] array, final int size) {
+        if (Direction.OUT == this.direction) {
+            for (int i = 0; i < size; i++) {
+                list.add((TinkerVertex) array[i].inVertex);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                list.add((TinkerVertex) array[i].outVertex);
+            }
+        }
+    }
+
+    private static void addAll(final List<? super TinkerEdge> list, final TinkerEdge[] array, final int size) {
+        for (int i = 0; i < size; i++) {
+            list.add(array[i]);
+        }
+    }
+
+    private int bucket(final int labelId) {
+        for (int i = 0; i < this.labelIds.length; i++) {
+            if (this.labelIds[i] == labelId)
+                return i;
+        }
+        return -1;
+    }
+
+    private int getPosition(final TinkerEdge edge) {
+        return Direction.OUT == this.direction ? edge.outPosition : edge.inPosition;
+    }
+
+    private void setPosition(final TinkerEdge edge, final int position) {
+        if (Direction.OUT == this.direction)
+            edge.outPosition = position;
+        else
+            edge.inPosition = position;
+    }
+}
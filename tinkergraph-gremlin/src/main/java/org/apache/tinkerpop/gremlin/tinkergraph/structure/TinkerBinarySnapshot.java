@@ -0,0 +1,560 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary snapshot format for {@link TinkerGraph} that is selected with a
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_FORMAT} of {@code binary}.  It is meant to be loaded as fast as the
+ * file can be read, so the file is memory mapped and the vertices and edges are constructed directly rather than
+ * through the {@link org.apache.tinkerpop.gremlin.structure.Graph} API.
+ * <p/>
+ * The file starts with a fixed size header that is followed by these sections:
+ * <ol>
+ * <li>the properties of every vertex and edge, each stored as a count followed by the dictionary index of the key and
+ * the tagged value of each property</li>
+ * <li>a table with a fixed width record for each vertex that holds its identifier, the dictionary index of its label
+ * and the offset of its properties</li>
+ * <li>a table with a fixed width record for each edge that additionally holds the position of its out and in vertex
+ * in the vertex table</li>
+ * <li>a dictionary of all the labels and property keys</li>
+ * </ol>
+ * Identifiers are stored in the tables as a {@code long} when all of the vertex or edge identifiers are {@code Long}
+ * or {@code Integer} and as the offset of a tagged value otherwise.  Values that are not a {@code String} or a
+ * primitive wrapper are encoded with Gryo.
+ */
+final class TinkerBinarySnapshot {
+
+    static final String FORMAT = "binary";
+
+    private static final int MAGIC = 0x544B4253;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int VERTEX_RECORD_SIZE = 20;
+    private static final int EDGE_RECORD_SIZE = 28;
+    private static final long NO_PROPERTIES = -1l;
+
+    private static final int ID_LONG = 0;
+    private static final int ID_INTEGER = 1;
+    private static final int ID_VALUE = 2;
+
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte GRYO = 9;
+
+    private TinkerBinarySnapshot() {
+    }
+
+    static void write(final TinkerGraph graph, final File file) throws IOException {
+        final Kryo kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        final int vertexIdType = idType(graph.vertices.values().iterator());
+        final int edgeIdType = idType(graph.edges.values().iterator());
+
+        // the records are written in the vertex order of the graph so that the properties of neighbouring vertices are
+        // close to each other in the file
+        final TinkerVertex[] orderedVertices = TinkerVertexOrdering.order(graph.vertices.values(), graph.vertexOrder);
+        final Collection<? extends Edge> orderedEdges = TinkerGraph.VertexOrder.NONE == graph.vertexOrder ?
+                graph.edges.values() : TinkerVertexOrdering.outEdges(orderedVertices);
+        final int vertexCount = orderedVertices.length;
+        final int edgeCount = orderedEdges.size();
+        final Object[] vertexIds = new Object[vertexCount];
+        final int[] vertexLabels = new int[vertexCount];
+        final long[] vertexProperties = new long[vertexCount];
+        final long[] vertexIdOffsets = ID_VALUE == vertexIdType ? new long[vertexCount] : null;
+        final Map<Object, Integer> vertexPositions = new HashMap<>(vertexCount * 2);
+        final Object[] edgeIds = new Object[edgeCount];
+        final int[] edgeLabels = new int[edgeCount];
+        final int[] edgeOutVertices = new int[edgeCount];
+        final int[] edgeInVertices = new int[edgeCount];
+        final long[] edgeProperties = new long[edgeCount];
+        final long[] edgeIdOffsets = ID_VALUE == edgeIdType ? new long[edgeCount] : null;
+
+        final long vertexTableOffset;
+        final long edgeTableOffset;
+        final long dictionaryOffset;
+        try (final Writer out = new Writer(file, kryo)) {
+            out.skip(HEADER_SIZE);
+
+            int v = 0;
+            for (final Vertex vertex : orderedVertices) {
+                vertexIds[v] = vertex.id();
+                vertexPositions.put(vertex.id(), v);
+                vertexLabels[v] = index(dictionary, vertex.label());
+                if (null != vertexIdOffsets) {
+                    vertexIdOffsets[v] = out.position;
+                    out.writeValue(vertex.id());
+                }
+
+                final Map<String, List<VertexProperty>> properties = ((TinkerVertex) vertex).properties;
+                if (null == properties || properties.isEmpty()) {
+                    vertexProperties[v] = NO_PROPERTIES;
+                } else {
+                    vertexProperties[v] = out.position;
+                    int count = 0;
+                    for (final List<VertexProperty> list : properties.values()) {
+                        count += list.size();
+                    }
+                    out.writeInt(count);
+                    for (final List<VertexProperty> list : properties.values()) {
+                        for (final VertexProperty vertexProperty : list) {
+                            out.writeInt(index(dictionary, vertexProperty.key()));
+                            out.writeValue(vertexProperty.id());
+                            out.writeValue(vertexProperty.value());
+                            final Map<String, Property> metaProperties = ((TinkerVertexProperty) vertexProperty).properties;
+                            out.writeProperties(dictionary, null == metaProperties ? null : metaProperties.values());
+                        }
+                    }
+                }
+                v++;
+            }
+
+            int e = 0;
+            for (final Edge edge : orderedEdges) {
+                edgeIds[e] = edge.id();
+                edgeLabels[e] = index(dictionary, edge.label());
+                edgeOutVertices[e] = vertexPositions.get(edge.outVertex().id());
+                edgeInVertices[e] = vertexPositions.get(edge.inVertex().id());
+                if (null != edgeIdOffsets) {
+                    edgeIdOffsets[e] = out.position;
+                    out.writeValue(edge.id());
+                }
+
+                final Map<String, Property> properties = ((TinkerEdge) edge).properties;
+                if (null == properties || properties.isEmpty()) {
+                    edgeProperties[e] = NO_PROPERTIES;
+                } else {
+                    edgeProperties[e] = out.position;
+                    out.writeProperties(dictionary, properties.values());
+                }
+                e++;
+            }
+
+            vertexTableOffset = out.position;
+            for (int i = 0; i < vertexCount; i++) {
+                out.writeId(vertexIdType, vertexIds[i], null == vertexIdOffsets ? 0 : vertexIdOffsets[i]);
+                out.writeInt(vertexLabels[i]);
+                out.writeLong(vertexProperties[i]);
+            }
+
+            edgeTableOffset = out.position;
+            for (int i = 0; i < edgeCount; i++) {
+                out.writeId(edgeIdType, edgeIds[i], null == edgeIdOffsets ? 0 : edgeIdOffsets[i]);
+                out.writeInt(edgeLabels[i]);
+                out.writeInt(edgeOutVertices[i]);
+                out.writeInt(edgeInVertices[i]);
+                out.writeLong(edgeProperties[i]);
+            }
+
+            dictionaryOffset = out.position;
+            for (final String string : dictionary.keySet()) {
+                final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        try (final RandomAccessFile header = new RandomAccessFile(file, "rw")) {
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(vertexCount);
+            header.writeLong(edgeCount);
+            header.writeInt(vertexIdType);
+            header.writeInt(edgeIdType);
+            header.writeLong(vertexTableOffset);
+            header.writeLong(edgeTableOffset);
+            header.writeLong(dictionaryOffset);
+            header.writeInt(dictionary.size());
+        }
+    }
+
+    static void read(final TinkerGraph graph, final File file) throws IOException {
+        final Kryo kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+             final FileChannel channel = raf.getChannel()) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException(String.format("%s is not a TinkerGraph binary snapshot", file));
+            final MappedInput in = new MappedInput(channel, kryo);
+            if (in.readInt() != MAGIC)
+                throw new IOException(String.format("%s is not a TinkerGraph binary snapshot", file));
+            final int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException(String.format("%s has an unsupported binary snapshot version of %s", file, version));
+            try {
+                read(graph, in);
+            } catch (final IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException ex) {
+                // an offset or a length that points past the end of the file, as a truncated file has
+                throw new IOException(String.format("%s is a truncated or corrupt TinkerGraph binary snapshot", file), ex);
+            }
+        }
+    }
+
+    private static void read(final TinkerGraph graph, final MappedInput in) {
+        final int vertexCount = (int) in.readLong();
+        final int edgeCount = (int) in.readLong();
+        final int vertexIdType = in.readInt();
+        final int edgeIdType = in.readInt();
+        final long vertexTableOffset = in.readLong();
+        final long edgeTableOffset = in.readLong();
+        final long dictionaryOffset = in.readLong();
+        final int dictionarySize = in.readInt();
+
+        in.seek(dictionaryOffset);
+        final String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary[i] = graph.intern(in.readString());
+        }
+
+        final TinkerVertex[] vertices = new TinkerVertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            in.seek(vertexTableOffset + (long) i * VERTEX_RECORD_SIZE);
+            final Object id = in.readId(vertexIdType);
+            final String label = dictionary[in.readInt()];
+            final long properties = in.readLong();
+            final TinkerVertex vertex = new TinkerVertex(id, label, graph);
+            graph.vertices.put(id, vertex);
+            graph.vertexLabelIndex.add(vertex);
+            vertices[i] = vertex;
+
+            if (NO_PROPERTIES != properties) {
+                in.seek(properties);
+                vertex.properties = new HashMap<>();
+                final int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    final String key = dictionary[in.readInt()];
+                    final Object propertyId = in.readValue();
+                    final Object value = in.readValue();
+                    final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(propertyId, vertex, key, value);
+                    vertex.properties.computeIfAbsent(key, k -> new ArrayList<>()).add(vertexProperty);
+                    final int metaCount = in.readInt();
+                    if (metaCount > 0) {
+                        vertexProperty.properties = new HashMap<>();
+                        for (int k = 0; k < metaCount; k++) {
+                            final String metaKey = dictionary[in.readInt()];
+                            vertexProperty.properties.put(metaKey, new TinkerProperty<>(vertexProperty, metaKey, in.readValue()));
+                        }
+                    }
+                    TinkerHelper.autoUpdateIndex(vertex, key, value, null);
+                }
+            }
+        }
+
+        for (int i = 0; i < edgeCount; i++) {
+            in.seek(edgeTableOffset + (long) i * EDGE_RECORD_SIZE);
+            final Object id = in.readId(edgeIdType);
+            final String label = dictionary[in.readInt()];
+            final TinkerVertex outVertex = vertices[in.readInt()];
+            final TinkerVertex inVertex = vertices[in.readInt()];
+            final long properties = in.readLong();
+            final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+            graph.edges.put(id, edge);
+            graph.edgeLabelIndex.add(edge);
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            TinkerHelper.addInEdge(inVertex, label, edge);
+
+            if (NO_PROPERTIES != properties) {
+                in.seek(properties);
+                edge.properties = new HashMap<>();
+                final int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    final String key = dictionary[in.readInt()];
+                    final Object value = in.readValue();
+                    edge.properties.put(key, new TinkerProperty<>(edge, key, value));
+                    TinkerHelper.autoUpdateIndex(edge, key, value, null);
+                }
+            }
+        }
+    }
+
+    private static int idType(final Iterator<? extends Element> elements) {
+        boolean longs = true;
+        boolean integers = true;
+        while (elements.hasNext() && (longs || integers)) {
+            final Object id = elements.next().id();
+            longs = longs && id instanceof Long;
+            integers = integers && id instanceof Integer;
+        }
+        return longs ? ID_LONG : integers ? ID_INTEGER : ID_VALUE;
+    }
+
+    private static int index(final Map<String, Integer> dictionary, final String string) {
+        Integer index = dictionary.get(string);
+        if (null == index) {
+            index = dictionary.size();
+            dictionary.put(string, index);
+        }
+        return index;
+    }
+
+    private static final class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private final Kryo kryo;
+        private final Output output = new Output(256, -1);
+        private long position = 0;
+
+        private Writer(final File file, final Kryo kryo) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+            this.kryo = kryo;
+        }
+
+        private void skip(final int bytes) throws IOException {
+            this.write(new byte[bytes]);
+        }
+
+        private void write(final byte[] bytes) throws IOException {
+            this.out.write(bytes);
+            this.position += bytes.length;
+        }
+
+        private void writeByte(final int b) throws IOException {
+            this.out.writeByte(b);
+            this.position += 1;
+        }
+
+        private void writeInt(final int i) throws IOException {
+            this.out.writeInt(i);
+            this.position += 4;
+        }
+
+        private void writeLong(final long l) throws IOException {
+            this.out.writeLong(l);
+            this.position += 8;
+        }
+
+        private void writeId(final int idType, final Object id, final long offset) throws IOException {
+            if (ID_LONG == idType || ID_INTEGER == idType)
+                this.writeLong(((Number) id).longValue());
+            else
+                this.writeLong(offset);
+        }
+
+        private void writeProperties(final Map<String, Integer> dictionary, final Iterable<Property> properties) throws IOException {
+            if (null == properties) {
+                this.writeInt(0);
+                return;
+            }
+            int count = 0;
+            for (final Property ignored : properties) {
+                count++;
+            }
+            this.writeInt(count);
+            for (final Property property : properties) {
+                this.writeInt(index(dictionary, property.key()));
+                this.writeValue(property.value());
+            }
+        }
+
+        private void writeValue(final Object value) throws IOException {
+            if (value instanceof String) {
+                this.writeByte(STRING);
+                final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                this.writeInt(bytes.length);
+                this.write(bytes);
+            } else if (value instanceof Integer) {
+                this.writeByte(INTEGER);
+                this.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                this.writeByte(LONG);
+                this.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                this.writeByte(DOUBLE);
+                this.writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Float) {
+                this.writeByte(FLOAT);
+                this.writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Boolean) {
+                this.writeByte(BOOLEAN);
+                this.writeByte((Boolean) value ? 1 : 0);
+            } else if (value instanceof Short) {
+                this.writeByte(SHORT);
+                this.writeInt((Short) value);
+            } else if (value instanceof Byte) {
+                this.writeByte(BYTE);
+                this.writeByte((Byte) value);
+            } else {
+                this.writeByte(GRYO);
+                this.output.clear();
+                this.kryo.writeClassAndObject(this.output, value);
+                this.writeInt(this.output.position());
+                this.out.write(this.output.getBuffer(), 0, this.output.position());
+                this.position += this.output.position();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Reads a memory mapped file that may be larger than a single {@code MappedByteBuffer} can address.  The file is
+     * mapped in segments and a value that straddles two segments is read a byte at a time.
+     */
+    private static final class MappedInput {
+        private static final int SEGMENT_BITS = 30;
+        private static final long SEGMENT_MASK = (1l << SEGMENT_BITS) - 1;
+
+        private final MappedByteBuffer[] segments;
+        private final Kryo kryo;
+        private long position = 0;
+
+        private MappedInput(final FileChannel channel, final Kryo kryo) throws IOException {
+            final long size = channel.size();
+            this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < this.segments.length; i++) {
+                final long start = (long) i << SEGMENT_BITS;
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_MASK + 1, size - start));
+            }
+            this.kryo = kryo;
+        }
+
+        private void seek(final long position) {
+            this.position = position;
+        }
+
+        private ByteBuffer segment(final int bytes) {
+            final ByteBuffer segment = this.segments[(int) (this.position >>> SEGMENT_BITS)];
+            final int offset = (int) (this.position & SEGMENT_MASK);
+            return offset + bytes <= segment.limit() ? segment : null;
+        }
+
+        private byte readByte() {
+            final byte b = this.segments[(int) (this.position >>> SEGMENT_BITS)].get((int) (this.position & SEGMENT_MASK));
+            this.position++;
+            return b;
+        }
+
+        private int readInt() {
+            final ByteBuffer segment = this.segment(4);
+            if (null != segment) {
+                final int i = segment.getInt((int) (this.position & SEGMENT_MASK));
+                this.position += 4;
+                return i;
+            }
+            return ((this.readByte() & 0xff) << 24) | ((this.readByte() & 0xff) << 16) |
+                    ((this.readByte() & 0xff) << 8) | (this.readByte() & 0xff);
+        }
+
+        private long readLong() {
+            final ByteBuffer segment = this.segment(8);
+            if (null != segment) {
+                final long l = segment.getLong((int) (this.position & SEGMENT_MASK));
+                this.position += 8;
+                return l;
+            }
+            return ((long) this.readInt() << 32) | (this.readInt() & 0xffffffffl);
+        }
+
+        private byte[] readBytes(final int length) {
+            final byte[] bytes = new byte[length];
+            final ByteBuffer segment = this.segment(length);
+            if (null != segment) {
+                final ByteBuffer slice = segment.duplicate();
+                slice.position((int) (this.position & SEGMENT_MASK));
+                slice.get(bytes);
+                this.position += length;
+            } else {
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = this.readByte();
+                }
+            }
+            return bytes;
+        }
+
+        private String readString() {
+            return new String(this.readBytes(this.readInt()), StandardCharsets.UTF_8);
+        }
+
+        private Object readId(final int idType) {
+            final long l = this.readLong();
+            if (ID_LONG == idType)
+                return l;
+            else if (ID_INTEGER == idType)
+                return (int) l;
+            else {
+                final long position = this.position;
+                this.seek(l);
+                final Object id = this.readValue();
+                this.seek(position);
+                return id;
+            }
+        }
+
+        private Object readValue() {
+            final byte type = this.readByte();
+            switch (type) {
+                case STRING:
+                    return this.readString();
+                case INTEGER:
+                    return this.readInt();
+                case LONG:
+                    return this.readLong();
+                case DOUBLE:
+                    return Double.longBitsToDouble(this.readLong());
+                case FLOAT:
+                    return Float.intBitsToFloat(this.readInt());
+                case BOOLEAN:
+                    return this.readByte() != 0;
+                case SHORT:
+                    return (short) this.readInt();
+                case BYTE:
+                    return this.readByte();
+                case GRYO:
+                    return this.kryo.readClassAndObject(new Input(this.readBytes(this.readInt())));
+                default:
+                    throw new IllegalStateException(String.format("Unknown value type %s at position %s", type, this.position - 1));
+            }
+        }
+    }
+}
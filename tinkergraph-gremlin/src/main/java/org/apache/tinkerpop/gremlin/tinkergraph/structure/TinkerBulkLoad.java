@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A session for loading a large number of elements into a {@link TinkerGraph}, which is opened with
+ * {@link TinkerGraph#bulkLoad()}.  While the session is open the property indices of the graph are not maintained
+ * and are not used by traversals, which scan the graph instead.  Each index is rebuilt in parallel from all the
+ * elements of the graph when the session is closed.  Elements that are added through the session are validated once
+ * rather than for each of their properties and their generated identifiers are taken from blocks that are leased
+ * from the graph.  The session must only be used by the thread that opened it and that thread should be the only one
+ * writing to the graph until the session is closed.
+ */
+public final class TinkerBulkLoad implements AutoCloseable {
+
+    private final TinkerGraph graph;
+    private final TinkerIndex<TinkerVertex> vertexIndex;
+    private final TinkerIndex<TinkerEdge> edgeIndex;
+    private boolean closed = false;
+
+    TinkerBulkLoad(final TinkerGraph graph) {
+        this.graph = graph;
+        this.vertexIndex = graph.vertexIndex;
+        this.edgeIndex = graph.edgeIndex;
+        graph.vertexIndex = null;
+        graph.edgeIndex = null;
+        graph.beginWrite();
+    }
+
+    /**
+     * Adds a vertex in the same way as {@link Graph#addVertex(Object...)}.  Every property is added with
+     * {@link VertexProperty.Cardinality#list} cardinality.
+     */
+    public Vertex addVertex(final Object... keyValues) {
+        this.validateOpen();
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        Object id = null;
+        String label = Vertex.DEFAULT_LABEL;
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (keyValues[i].equals(T.id))
+                id = keyValues[i + 1];
+            else if (keyValues[i].equals(T.label))
+                label = (String) keyValues[i + 1];
+            else
+                ElementHelper.validateProperty((String) keyValues[i], keyValues[i + 1]);
+        }
+        ElementHelper.validateLabel(label);
+
+        final TinkerVertex vertex;
+        if (null != id) {
+            final Object idValue = this.graph.vertexIdManager.convert(id);
+            vertex = new TinkerVertex(idValue, label, this.graph);
+            if (null != this.graph.vertices.putIfAbsent(idValue, vertex))
+                throw Graph.Exceptions.vertexWithIdAlreadyExists(idValue);
+        } else {
+            TinkerVertex candidate;
+            do {
+                candidate = new TinkerVertex(this.nextId(this.graph.vertexIdManager), label, this.graph);
+            } while (null != this.graph.vertices.putIfAbsent(candidate.id, candidate));
+            vertex = candidate;
+        }
+        this.graph.vertexLabelIndex.add(vertex);
+        if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.addVertex(vertex.id, label);
+        this.graph.changeFeed.vertexAdded(vertex);
+
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (!(keyValues[i] instanceof T))
+                this.addProperty(vertex, (String) keyValues[i], keyValues[i + 1]);
+        }
+        if (null != this.graph.columns) this.graph.columns.add(vertex);
+        if (null != this.graph.versions) this.graph.versions.added(vertex);
+        return vertex;
+    }
+
+    /**
+     * Adds an edge in the same way as {@link Vertex#addEdge(String, Vertex, Object...)} on the out vertex, which
+     * along with the in vertex must have been read from or added to the graph of this session.
+     */
+    public Edge addEdge(final Vertex outVertex, final String label, final Vertex inVertex, final Object... keyValues) {
+        this.validateOpen();
+        if (null == outVertex) throw Graph.Exceptions.argumentCanNotBeNull("outVertex");
+        if (null == inVertex) throw Graph.Exceptions.argumentCanNotBeNull("inVertex");
+        ElementHelper.validateLabel(label);
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        Object id = null;
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (keyValues[i].equals(T.id))
+                id = keyValues[i + 1];
+            else if (!keyValues[i].equals(T.label))
+                ElementHelper.validateProperty((String) keyValues[i], keyValues[i + 1]);
+        }
+
+        final TinkerVertex out = (TinkerVertex) outVertex;
+        final TinkerVertex in = (TinkerVertex) inVertex;
+        if (out.removed) throw TinkerElement.elementAlreadyRemoved(Vertex.class, out.id);
+        if (in.removed) throw TinkerElement.elementAlreadyRemoved(Vertex.class, in.id);
+        final TinkerEdge edge;
+        if (null != id) {
+            final Object idValue = this.graph.edgeIdManager.convert(id);
+            edge = new TinkerEdge(idValue, out, label, in);
+            if (null != this.graph.edges.putIfAbsent(idValue, edge))
+                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+        } else {
+            TinkerEdge candidate;
+            do {
+                candidate = new TinkerEdge(this.nextId(this.graph.edgeIdManager), out, label, in);
+            } while (null != this.graph.edges.putIfAbsent(candidate.id, candidate));
+            edge = candidate;
+        }
+
+        synchronized (edge) {
+            for (int i = 0; i < keyValues.length; i = i + 2) {
+                if (!(keyValues[i] instanceof T)) {
+                    final TinkerProperty<Object> property = new TinkerProperty<>(edge, (String) keyValues[i], keyValues[i + 1]);
+                    if (null == edge.properties) edge.properties = new HashMap<>();
+                    edge.properties.put(property.key(), property);
+                }
+            }
+        }
+        this.graph.edgeLabelIndex.add(edge);
+        TinkerHelper.addOutEdge(out, label, edge);
+        TinkerHelper.addInEdge(in, label, edge);
+        if (null != this.graph.versions) {
+            this.graph.versions.added(edge);
+            this.graph.versions.linked(out);
+            this.graph.versions.linked(in);
+        }
+
+        // the edge is only logged once a snapshot that the records may trigger would find it from its vertices
+        if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.addEdge(edge.id, label, out.id, in.id);
+        this.graph.changeFeed.edgeAdded(edge);
+        if (null != edge.properties) {
+            for (final Property<?> property : edge.properties.values()) {
+                if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.setEdgeProperty(edge.id, property.key(), property.value());
+                this.graph.changeFeed.edgePropertySet(edge, property.key(), property.value(), Property.empty());
+            }
+        }
+        return edge;
+    }
+
+    private void addProperty(final TinkerVertex vertex, final String key, final Object value) {
+        final Object id = this.nextId(this.graph.vertexPropertyIdManager);
+        final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(id, vertex, key, value);
+        synchronized (vertex) {
+            if (null == vertex.properties) vertex.properties = new HashMap<>();
+            vertex.properties.computeIfAbsent(vertexProperty.key(), k -> new ArrayList<>(1)).add(vertexProperty);
+        }
+        if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.addVertexProperty(vertex.id, id, key, value);
+        this.graph.changeFeed.vertexPropertyAdded(vertex, id, key, value);
+    }
+
+    /**
+     * Generates an identifier for the {@link TinkerGraph.DefaultIdManager} instances that count up from the current
+     * identifier of the graph from the block of identifiers that the thread leased, without checking that the
+     * identifier is not already taken.  Other managers generate their own.
+     */
+    private Object nextId(final TinkerGraph.IdManager<?> idManager) {
+        if (TinkerGraph.DefaultIdManager.LONG == idManager || TinkerGraph.DefaultIdManager.ANY == idManager)
+            return this.graph.idAllocator.next();
+        else if (TinkerGraph.DefaultIdManager.INTEGER == idManager)
+            return (int) this.graph.idAllocator.next();
+        else
+            return idManager.getNextId(this.graph);
+    }
+
+    private void validateOpen() {
+        if (this.closed)
+            throw new IllegalStateException("The bulk load was closed");
+    }
+
+    /**
+     * Rebuilds the vertex and edge indices in parallel and makes them available to traversals again.
+     */
+    @Override
+    public void close() {
+        if (this.closed) return;
+        this.closed = true;
+        try {
+            final CompletableFuture<Void> vertices = null == this.vertexIndex ?
+                    CompletableFuture.completedFuture(null) : CompletableFuture.runAsync(this.vertexIndex::rebuild);
+            if (null != this.edgeIndex) this.edgeIndex.rebuild();
+            vertices.join();
+            this.graph.vertexIndex = this.vertexIndex;
+            this.graph.edgeIndex = this.edgeIndex;
+        } finally {
+            this.graph.bulkLoad = null;
+            this.graph.endWrite();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+/**
+ * A mutation of a {@link TinkerGraph} as it is delivered to a {@link TinkerChangeSubscription}.  Changes are
+ * numbered in the order that they were made, starting after the last change that was numbered when the first
+ * subscription was opened.  A change identifies the elements that it concerns by their identifiers rather than
+ * holding on to them, since a removed element can no longer be read.  The fields that do not apply to the
+ * {@link Type} of the change are {@code null}.
+ */
+public final class TinkerChange {
+
+    public enum Type {
+        VERTEX_ADDED,
+        VERTEX_REMOVED,
+        EDGE_ADDED,
+        EDGE_REMOVED,
+        VERTEX_PROPERTY_ADDED,
+        VERTEX_PROPERTY_REMOVED,
+        EDGE_PROPERTY_ADDED,
+        EDGE_PROPERTY_CHANGED,
+        EDGE_PROPERTY_REMOVED,
+        META_PROPERTY_ADDED,
+        META_PROPERTY_CHANGED,
+        META_PROPERTY_REMOVED,
+
+        /**
+         * All of the elements of the graph were removed by {@link TinkerGraph#clear()}.
+         */
+        CLEARED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Object elementId;
+    private final String label;
+    private final Object outVertexId;
+    private final Object inVertexId;
+    private final Object propertyId;
+    private final String key;
+    private final Object value;
+    private final Object oldValue;
+
+    TinkerChange(final long sequence, final Type type, final Object elementId, final String label,
+                 final Object outVertexId, final Object inVertexId, final Object propertyId,
+                 final String key, final Object value, final Object oldValue) {
+        this.sequence = sequence;
+        this.type = type;
+        this.elementId = elementId;
+        this.label = label;
+        this.outVertexId = outVertexId;
+        this.inVertexId = inVertexId;
+        this.propertyId = propertyId;
+        this.key = key;
+        this.value = value;
+        this.oldValue = oldValue;
+    }
+
+    /**
+     * The number of the change, which is one more than the number of the change that was made before it.
+     */
+    public long sequence() {
+        return this.sequence;
+    }
+
+    public Type type() {
+        return this.type;
+    }
+
+    /**
+     * The identifier of the vertex or edge that was changed, which for a vertex property or a meta-property is the
+     * identifier of the vertex that holds it.
+     */
+    public Object elementId() {
+        return this.elementId;
+    }
+
+    /**
+     * The label of the vertex or edge that was added or removed.
+     */
+    public String label() {
+        return this.label;
+    }
+
+    /**
+     * The identifier of the out vertex of the edge that was added or removed.
+     */
+    public Object outVertexId() {
+        return this.outVertexId;
+    }
+
+    /**
+     * The identifier of the in vertex of the edge that was added or removed.
+     */
+    public Object inVertexId() {
+        return this.inVertexId;
+    }
+
+    /**
+     * The identifier of the vertex property that was added or removed or that holds the meta-property that changed.
+     */
+    public Object propertyId() {
+        return this.propertyId;
+    }
+
+    public String key() {
+        return this.key;
+    }
+
+    /**
+     * The value of the property that was added, changed or removed.
+     */
+    public Object value() {
+        return this.value;
+    }
+
+    /**
+     * The value that a changed property had before.
+     */
+    public Object oldValue() {
+        return this.oldValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tinkerchange[%s:%s %s]", this.sequence, this.type,
+                null == this.key ? this.elementId : this.elementId + "." + this.key + "=" + this.value);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Numbers the mutations of a {@link TinkerGraph} and delivers them to its {@link TinkerChangeSubscription} and
+ * {@link TinkerMaterializedView} instances.  The mutations are reported from the same places that write to the {@link TinkerWriteAheadLog}.  While
+ * there is no subscription a mutation only reads a volatile flag, so the feed costs nothing until it is used.
+ * Changes are numbered and delivered while holding the lock of the feed, so every subscription receives them in the
+ * order of their sequence numbers.  While the feed is in use, writers that are not already serialized by
+ * {@link TinkerVersions} are serialized by the feed, so that the sequence numbers also follow the order in which
+ * the mutations were applied.
+ */
+final class TinkerChangeFeed {
+
+    private volatile boolean active = false;
+    private final List<TinkerChangeSubscription> subscriptions = new ArrayList<>();
+    private final List<TinkerMaterializedView<?>> views = new ArrayList<>();
+    private long sequence = 0;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    synchronized TinkerChangeSubscription subscribe(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException(String.format("The capacity of a subscription must be positive: %s", capacity));
+        final TinkerChangeSubscription subscription = new TinkerChangeSubscription(this, capacity);
+        this.subscriptions.add(subscription);
+        this.active = true;
+        return subscription;
+    }
+
+    synchronized void unsubscribe(final TinkerChangeSubscription subscription) {
+        this.subscriptions.remove(subscription);
+        this.active = !this.subscriptions.isEmpty() || !this.views.isEmpty();
+    }
+
+    /**
+     * Creates a view of the traversal while holding the lock of the feed, so that no change is published between the
+     * scan of the graph that initializes the view and its registration.
+     */
+    synchronized <R> TinkerMaterializedView<R> register(final TinkerGraph graph, final Traversal<?, R> traversal) {
+        final TinkerMaterializedView<R> view = new TinkerMaterializedView<>(graph, traversal);
+        this.views.add(view);
+        this.active = true;
+        return view;
+    }
+
+    synchronized void unregister(final TinkerMaterializedView<?> view) {
+        this.views.remove(view);
+        this.active = !this.subscriptions.isEmpty() || !this.views.isEmpty();
+    }
+
+    /**
+     * Estimates the bytes of the changes that the subscriptions hold and of the materialized views.
+     */
+    synchronized long bytes() {
+        long bytes = TinkerMemoryUsage.listBytes(this.subscriptions.size()) + TinkerMemoryUsage.listBytes(this.views.size());
+        for (final TinkerChangeSubscription subscription : this.subscriptions) {
+            bytes += subscription.bytes();
+        }
+        for (final TinkerMaterializedView<?> view : this.views) {
+            bytes += view.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Starts a mutation of the graph, which holds the write lock of the feed until the matching {@link #endWrite()}
+     * if the feed is in use.  Calls may be nested, and a nested call takes the lock again if an outer one holds it so
+     * that the lock is released by the outermost call that took it.
+     */
+    void beginWrite() {
+        if (this.active || this.writeLock.isHeldByCurrentThread())
+            this.writeLock.lock();
+    }
+
+    void endWrite() {
+        if (this.writeLock.isHeldByCurrentThread())
+            this.writeLock.unlock();
+    }
+
+    void vertexAdded(final TinkerVertex vertex) {
+        if (this.active)
+            this.publish(vertex, TinkerChange.Type.VERTEX_ADDED, vertex.id, vertex.label, null, null, null, null, null, null);
+    }
+
+    void vertexRemoved(final TinkerVertex vertex) {
+        if (this.active)
+            this.publish(vertex, TinkerChange.Type.VERTEX_REMOVED, vertex.id, vertex.label, null, null, null, null, null, null);
+    }
+
+    void edgeAdded(final TinkerEdge edge) {
+        if (this.active)
+            this.publish(edge, TinkerChange.Type.EDGE_ADDED, edge.id, edge.label, edge.outVertex.id(), edge.inVertex.id(), null, null, null, null);
+    }
+
+    void edgeRemoved(final TinkerEdge edge) {
+        if (this.active)
+            this.publish(edge, TinkerChange.Type.EDGE_REMOVED, edge.id, edge.label, edge.outVertex.id(), edge.inVertex.id(), null, null, null, null);
+    }
+
+    void vertexPropertyAdded(final TinkerVertex vertex, final Object propertyId, final String key, final Object value) {
+        if (this.active)
+            this.publish(vertex, TinkerChange.Type.VERTEX_PROPERTY_ADDED, vertex.id, null, null, null, propertyId, key, value, null);
+    }
+
+    void vertexPropertyRemoved(final TinkerVertex vertex, final Object propertyId, final String key, final Object value) {
+        if (this.active)
+            this.publish(vertex, TinkerChange.Type.VERTEX_PROPERTY_REMOVED, vertex.id, null, null, null, propertyId, key, value, null);
+    }
+
+    void edgePropertySet(final TinkerEdge edge, final String key, final Object value, final Property<?> oldProperty) {
+        if (this.active)
+            this.publish(edge, oldProperty.isPresent() ? TinkerChange.Type.EDGE_PROPERTY_CHANGED : TinkerChange.Type.EDGE_PROPERTY_ADDED,
+                    edge.id, null, null, null, null, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+    }
+
+    void edgePropertyRemoved(final TinkerEdge edge, final String key, final Object value) {
+        if (this.active)
+            this.publish(edge, TinkerChange.Type.EDGE_PROPERTY_REMOVED, edge.id, null, null, null, null, key, value, null);
+    }
+
+    void metaPropertySet(final TinkerVertexProperty<?> vertexProperty, final String key, final Object value, final Property<?> oldProperty) {
+        if (this.active)
+            this.publish(vertexProperty, oldProperty.isPresent() ? TinkerChange.Type.META_PROPERTY_CHANGED : TinkerChange.Type.META_PROPERTY_ADDED,
+                    vertexProperty.element().id(), null, null, null, vertexProperty.id(), key, value,
+                    oldProperty.isPresent() ? oldProperty.value() : null);
+    }
+
+    void metaPropertyRemoved(final TinkerVertexProperty<?> vertexProperty, final String key, final Object value) {
+        if (this.active)
+            this.publish(vertexProperty, TinkerChange.Type.META_PROPERTY_REMOVED, vertexProperty.element().id(), null, null, null,
+                    vertexProperty.id(), key, value, null);
+    }
+
+    void cleared() {
+        if (this.active)
+            this.publish(null, TinkerChange.Type.CLEARED, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * The element that was changed is handed to the views along with the change, as an element that is being added
+     * may not be reachable from the graph yet.  The mutation has already been applied, so a view that fails to apply
+     * the change is stopped rather than failing the writer, and the change is still delivered to every subscription.
+     */
+    private synchronized void publish(final TinkerElement element, final TinkerChange.Type type, final Object elementId,
+                                      final String label, final Object outVertexId, final Object inVertexId, final Object propertyId,
+                                      final String key, final Object value, final Object oldValue) {
+        if (this.subscriptions.isEmpty() && this.views.isEmpty()) return;
+        final TinkerChange change = new TinkerChange(++this.sequence, type, elementId, label, outVertexId, inVertexId,
+                propertyId, key, value, oldValue);
+        for (final TinkerMaterializedView<?> view : this.views) {
+            try {
+                view.apply(change, element);
+            } catch (RuntimeException re) {
+                view.fail(re);
+            }
+        }
+        for (final TinkerChangeSubscription subscription : this.subscriptions) {
+            subscription.offer(change);
+        }
+    }
+}
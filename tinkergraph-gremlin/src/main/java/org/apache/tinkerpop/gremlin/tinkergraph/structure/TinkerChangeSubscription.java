@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A subscription to the changes of a {@link TinkerGraph}, which is opened with {@link TinkerGraph#subscribe(int)}.
+ * The changes are held in a ring buffer of a fixed capacity until they are polled.  Writers never wait for a
+ * subscriber, so when the buffer is full the oldest change is overwritten, which the subscriber can tell from a gap
+ * in the sequence numbers of the changes it polls or from {@link #overflowCount()}.  The subscription must be closed
+ * once it is no longer needed, as the graph keeps delivering changes to it until then.
+ */
+public final class TinkerChangeSubscription implements AutoCloseable {
+
+    private final TinkerChangeFeed feed;
+    private final TinkerChange[] buffer;
+    private long head = 0;
+    private long tail = 0;
+    private long overflowCount = 0;
+    private boolean closed = false;
+
+    TinkerChangeSubscription(final TinkerChangeFeed feed, final int capacity) {
+        this.feed = feed;
+        this.buffer = new TinkerChange[capacity];
+    }
+
+    synchronized void offer(final TinkerChange change) {
+        if (this.tail - this.head == this.buffer.length) {
+            this.head++;
+            this.overflowCount++;
+        }
+        this.buffer[(int) (this.tail++ % this.buffer.length)] = change;
+        this.notifyAll();
+    }
+
+    /**
+     * Estimates the bytes of the ring buffer and of the changes that it holds, not counting the ids and values that
+     * the changes share with the elements.
+     */
+    synchronized long bytes() {
+        return TinkerMemoryUsage.object(2, 3 * Long.BYTES + 1) + TinkerMemoryUsage.array(this.buffer.length, TinkerMemoryUsage.REFERENCE) +
+                (this.tail - this.head) * TinkerMemoryUsage.object(9, Long.BYTES);
+    }
+
+    /**
+     * Takes the oldest change that has not been polled yet, or returns {@code null} if there is none.
+     */
+    public synchronized TinkerChange poll() {
+        if (this.head == this.tail)
+            return null;
+        final int slot = (int) (this.head++ % this.buffer.length);
+        final TinkerChange change = this.buffer[slot];
+        this.buffer[slot] = null;
+        return change;
+    }
+
+    /**
+     * Takes the oldest change that has not been polled yet, waiting up to the specified time for one to be made.
+     * Returns {@code null} if there is none by then or if the subscription is closed.
+     */
+    public synchronized TinkerChange poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while (this.head == this.tail && !this.closed && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return this.poll();
+    }
+
+    /**
+     * Takes all of the changes that have not been polled yet and adds them to the collection in order.
+     *
+     * @return the number of changes that were added
+     */
+    public synchronized int drainTo(final Collection<? super TinkerChange> changes) {
+        int count = 0;
+        TinkerChange change;
+        while (null != (change = this.poll())) {
+            changes.add(change);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of changes that were overwritten before they were polled.
+     */
+    public synchronized long overflowCount() {
+        return this.overflowCount;
+    }
+
+    public int capacity() {
+        return this.buffer.length;
+    }
+
+    /**
+     * Stops the delivery of changes to the subscription.  Changes that were already delivered can still be polled.
+     */
+    @Override
+    public void close() {
+        this.feed.unsubscribe(this);
+        synchronized (this) {
+            this.closed = true;
+            this.notifyAll();
+        }
+    }
+}
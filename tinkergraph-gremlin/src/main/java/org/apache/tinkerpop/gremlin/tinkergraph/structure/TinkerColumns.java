@@ -0,0 +1,489 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the values of selected vertex property keys of a {@link TinkerGraph} in columns, which are dense arrays that
+ * are indexed by an ordinal that is given to each vertex, so that the values of a key can be read for all the
+ * vertices in sequence rather than through the property map of each vertex.  The values of a column are held in a
+ * {@code long[]} while they are all {@code Integer} or all {@code Long}, in a {@code double[]} while they are all
+ * {@code Float} or all {@code Double}, and otherwise in an {@code int[]} of codes into a dictionary of the distinct
+ * values, or in an {@code Object[]} once there are too many distinct values for a dictionary to pay off.  A vertex
+ * that has more than one value for a key is marked in the column and its values are read from the vertex.  The
+ * ordinal of a removed vertex is given to the next vertex that is added.
+ */
+final class TinkerColumns {
+
+    private static final byte ABSENT = 0;
+    private static final byte PRESENT = 1;
+    private static final byte MULTIPLE = 2;
+    private static final int BATCH_SIZE = 1024;
+    private static final int MINIMUM_PLAIN_CARDINALITY = 256;
+
+    private final TinkerGraph graph;
+    private final Map<String, Column> columns = new ConcurrentHashMap<>();
+    private TinkerVertex[] vertices = new TinkerVertex[0];
+    private int size = 0;
+    private int[] free = new int[0];
+    private int freeCount = 0;
+
+    TinkerColumns(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    synchronized void createColumn(final String key) {
+        if (this.columns.containsKey(key)) return;
+        if (this.columns.isEmpty()) {
+            this.vertices = new TinkerVertex[Math.max(16, this.graph.vertices.size())];
+            this.graph.vertices.values().forEach(vertex -> this.assignOrdinal((TinkerVertex) vertex));
+        }
+        final Column column = new Column(this.vertices.length);
+        for (int ordinal = 0; ordinal < this.size; ordinal++) {
+            if (null != this.vertices[ordinal]) column.set(ordinal, this.vertices[ordinal], key);
+        }
+        this.columns.put(key, column);
+    }
+
+    synchronized void dropColumn(final String key) {
+        this.columns.remove(key);
+        if (this.columns.isEmpty()) {
+            for (int ordinal = 0; ordinal < this.size; ordinal++) {
+                if (null != this.vertices[ordinal]) this.vertices[ordinal].ordinal = -1;
+            }
+            this.vertices = new TinkerVertex[0];
+            this.size = 0;
+            this.free = new int[0];
+            this.freeCount = 0;
+        }
+    }
+
+    Set<String> getColumnKeys() {
+        return Collections.unmodifiableSet(this.columns.keySet());
+    }
+
+    /**
+     * Gives an ordinal to a vertex and adds the values it has for each key to the columns.
+     */
+    synchronized void add(final TinkerVertex vertex) {
+        if (this.columns.isEmpty() || vertex.ordinal >= 0) return;
+        this.assignOrdinal(vertex);
+        this.columns.forEach((key, column) -> column.set(vertex.ordinal, vertex, key));
+    }
+
+    private void assignOrdinal(final TinkerVertex vertex) {
+        final int ordinal;
+        if (this.freeCount > 0)
+            ordinal = this.free[--this.freeCount];
+        else {
+            if (this.size == this.vertices.length) {
+                final int capacity = Math.max(16, this.size + (this.size >> 1));
+                this.vertices = Arrays.copyOf(this.vertices, capacity);
+                this.columns.values().forEach(column -> column.grow(capacity));
+            }
+            ordinal = this.size++;
+        }
+        this.vertices[ordinal] = vertex;
+        vertex.ordinal = ordinal;
+    }
+
+    synchronized void remove(final TinkerVertex vertex) {
+        if (vertex.ordinal < 0) return;
+        this.columns.values().forEach(column -> column.clear(vertex.ordinal));
+        this.vertices[vertex.ordinal] = null;
+        if (this.freeCount == this.free.length)
+            this.free = Arrays.copyOf(this.free, Math.max(16, this.freeCount * 2));
+        this.free[this.freeCount++] = vertex.ordinal;
+        vertex.ordinal = -1;
+    }
+
+    /**
+     * Estimates the bytes of the columns, not counting the values in their dictionaries that are shared with the
+     * properties of the vertices.
+     */
+    synchronized long bytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.columns.size()) +
+                TinkerMemoryUsage.array(this.vertices.length, TinkerMemoryUsage.REFERENCE) +
+                TinkerMemoryUsage.array(this.free.length, Integer.BYTES);
+        for (final Column column : this.columns.values()) {
+            bytes += column.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Updates the column of a key, if there is one, with the values that a vertex now has for the key.
+     */
+    void update(final TinkerVertex vertex, final String key) {
+        final Column column = this.columns.get(key);
+        if (null == column) return;
+        synchronized (this) {
+            if (vertex.ordinal >= 0) column.set(vertex.ordinal, vertex, key);
+        }
+    }
+
+    /**
+     * Reads the values of a key of the vertices that match all the {@link HasContainer} objects, in the order of the
+     * ordinals of the vertices.  The containers on keys that have a column are tested against the value in the column.
+     * When {@code strict}, a vertex that does not have exactly one value for the key fails in the same way that
+     * reading the value from the vertex does.  Returns {@code null} if the key does not have a column.
+     */
+    Iterator<Object> scan(final String key, final List<HasContainer> hasContainers, final boolean strict) {
+        final Column column = this.columns.get(key);
+        if (null == column) return null;
+        final Column[] filterColumns = new Column[hasContainers.size()];
+        for (int i = 0; i < filterColumns.length; i++) {
+            filterColumns[i] = this.columns.get(hasContainers.get(i).getKey());
+        }
+        return new Scan(key, column, hasContainers, filterColumns, strict);
+    }
+
+    /**
+     * Reads the values of a key of vertices that were already found to match, from the column of the key by the
+     * ordinals of the vertices.  A vertex that no longer has an ordinal has its values read from the vertex.  Returns
+     * {@code null} if the key does not have a column.
+     */
+    Iterator<Object> read(final String key, final Iterator<? extends Vertex> vertices, final boolean strict) {
+        final Column column = this.columns.get(key);
+        return null == column ? null : new Lookup(key, column, vertices, strict);
+    }
+
+    /**
+     * Reads the column of a key a batch at a time while holding the lock of the columns, so that writes to the graph
+     * are only held up for the length of a batch.
+     */
+    private abstract class Reader implements Iterator<Object> {
+        private final String key;
+        private final Column column;
+        private final boolean strict;
+        private final List<Object> batch = new ArrayList<>();
+        private int next = 0;
+
+        private Reader(final String key, final Column column, final boolean strict) {
+            this.key = key;
+            this.column = column;
+            this.strict = strict;
+        }
+
+        /**
+         * Reads the next batch of values into the batch.  Returns {@code false} once there are no more values.
+         */
+        protected abstract boolean readBatch();
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == this.batch.size()) {
+                this.batch.clear();
+                this.next = 0;
+                if (!this.readBatch()) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            return this.batch.get(this.next++);
+        }
+
+        protected void read(final TinkerVertex vertex) {
+            // a vertex that lost its ordinal, or got one from columns that were created again, is read directly
+            final byte state = vertex.ordinal < 0 || vertex.ordinal >= this.column.states.length ?
+                    MULTIPLE : this.column.states[vertex.ordinal];
+            if (PRESENT == state)
+                this.batch.add(this.column.get(vertex.ordinal));
+            else if (this.strict)
+                this.batch.add(vertex.value(this.key));
+            else if (MULTIPLE == state)
+                vertex.properties(this.key).forEachRemaining(property -> this.batch.add(property.value()));
+        }
+    }
+
+    /**
+     * Reads the columns in the order of the ordinals and tests the vertices against the {@link HasContainer} objects.
+     */
+    private final class Scan extends Reader {
+        private final List<HasContainer> hasContainers;
+        private final Column[] filterColumns;
+        private int ordinal = 0;
+
+        private Scan(final String key, final Column column, final List<HasContainer> hasContainers,
+                     final Column[] filterColumns, final boolean strict) {
+            super(key, column, strict);
+            this.hasContainers = hasContainers;
+            this.filterColumns = filterColumns;
+        }
+
+        @Override
+        protected boolean readBatch() {
+            synchronized (TinkerColumns.this) {
+                if (this.ordinal >= size) return false;
+                final int end = Math.min(size, this.ordinal + BATCH_SIZE);
+                for (; this.ordinal < end; this.ordinal++) {
+                    final TinkerVertex vertex = vertices[this.ordinal];
+                    if (null != vertex && this.test(vertex)) this.read(vertex);
+                }
+            }
+            return true;
+        }
+
+        private boolean test(final TinkerVertex vertex) {
+            for (int i = 0; i < this.filterColumns.length; i++) {
+                final HasContainer hasContainer = this.hasContainers.get(i);
+                final Column filterColumn = this.filterColumns[i];
+                final byte state = null == filterColumn ? MULTIPLE : filterColumn.states[vertex.ordinal];
+                if (ABSENT == state ||
+                        (PRESENT == state && !((P) hasContainer.getPredicate()).test(filterColumn.get(vertex.ordinal))) ||
+                        (MULTIPLE == state && !hasContainer.test(vertex)))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads the column at the ordinals of vertices that were found elsewhere, such as in an index.  The vertices of a
+     * batch are taken before the lock is, as finding them may take locks of its own.
+     */
+    private final class Lookup extends Reader {
+        private final Iterator<? extends Vertex> vertices;
+        private final TinkerVertex[] pending = new TinkerVertex[BATCH_SIZE];
+
+        private Lookup(final String key, final Column column, final Iterator<? extends Vertex> vertices, final boolean strict) {
+            super(key, column, strict);
+            this.vertices = vertices;
+        }
+
+        @Override
+        protected boolean readBatch() {
+            int count = 0;
+            while (count < this.pending.length && this.vertices.hasNext()) {
+                this.pending[count++] = (TinkerVertex) this.vertices.next();
+            }
+            if (0 == count) return false;
+            synchronized (TinkerColumns.this) {
+                for (int i = 0; i < count; i++) {
+                    this.read(this.pending[i]);
+                    this.pending[i] = null;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The values of a key for each ordinal.  The codes of a dictionary are counted by the ordinals that refer to them
+     * and a code that no ordinal refers to any longer is removed from the dictionary and used again for the next new
+     * value.  Once the dictionary holds more distinct values than half of the ordinals, which is where it stops
+     * saving memory, the values are held in an {@code Object[]} instead.
+     */
+    private static final class Column {
+        private byte[] states;
+        private Class<?> type = null;
+        private long[] longs = null;
+        private double[] doubles = null;
+        private Object[] objects = null;
+        private int[] codes = null;
+        private Object[] dictionary = null;
+        private int[] references = null;
+        private int dictionarySize = 0;
+        private int[] freeCodes = null;
+        private int freeCodeCount = 0;
+        private Map<Object, Integer> dictionaryCodes = null;
+
+        private Column(final int capacity) {
+            this.states = new byte[capacity];
+        }
+
+        private void grow(final int capacity) {
+            this.states = Arrays.copyOf(this.states, capacity);
+            if (null != this.longs) this.longs = Arrays.copyOf(this.longs, capacity);
+            if (null != this.doubles) this.doubles = Arrays.copyOf(this.doubles, capacity);
+            if (null != this.objects) this.objects = Arrays.copyOf(this.objects, capacity);
+            if (null != this.codes) this.codes = Arrays.copyOf(this.codes, capacity);
+        }
+
+        private void clear(final int ordinal) {
+            this.release(ordinal);
+        }
+
+        private void set(final int ordinal, final TinkerVertex vertex, final String key) {
+            this.release(ordinal);
+            final List<VertexProperty> properties = null == vertex.properties ? null : vertex.properties.get(key);
+            if (null == properties || properties.isEmpty())
+                this.states[ordinal] = ABSENT;
+            else if (properties.size() > 1)
+                this.states[ordinal] = MULTIPLE;
+            else {
+                this.put(ordinal, properties.get(0).value());
+                this.states[ordinal] = PRESENT;
+            }
+        }
+
+        /**
+         * Lets go of the value of an ordinal, giving its code back to the dictionary if no other ordinal refers to it.
+         */
+        private void release(final int ordinal) {
+            if (PRESENT == this.states[ordinal]) {
+                if (null != this.codes) {
+                    final int code = this.codes[ordinal];
+                    if (0 == --this.references[code]) {
+                        this.dictionaryCodes.remove(this.dictionary[code]);
+                        this.dictionary[code] = null;
+                        this.dictionarySize--;
+                        if (this.freeCodeCount == this.freeCodes.length)
+                            this.freeCodes = Arrays.copyOf(this.freeCodes, Math.max(16, this.freeCodeCount * 2));
+                        this.freeCodes[this.freeCodeCount++] = code;
+                    }
+                } else if (null != this.objects)
+                    this.objects[ordinal] = null;
+            }
+            this.states[ordinal] = ABSENT;
+        }
+
+        private void put(final int ordinal, final Object value) {
+            if (null == this.type && null == this.codes && null == this.objects) {
+                if (value instanceof Integer || value instanceof Long)
+                    this.longs = new long[this.states.length];
+                else if (value instanceof Float || value instanceof Double)
+                    this.doubles = new double[this.states.length];
+                else
+                    this.toDictionary();
+                if (null == this.codes) this.type = value.getClass();
+            } else if (null != this.type && this.type != value.getClass())
+                this.toDictionary();
+
+            if (null != this.longs)
+                this.longs[ordinal] = ((Number) value).longValue();
+            else if (null != this.doubles)
+                this.doubles[ordinal] = ((Number) value).doubleValue();
+            else if (null != this.objects)
+                this.objects[ordinal] = value;
+            else {
+                this.codes[ordinal] = this.code(value);
+                if (this.dictionarySize > Math.max(MINIMUM_PLAIN_CARDINALITY, this.states.length >> 1))
+                    this.toObjects(ordinal, value);
+            }
+        }
+
+        /**
+         * Gets the code of a value, adding the value to the dictionary if it is not there, and counts the reference.
+         */
+        private int code(final Object value) {
+            Integer code = this.dictionaryCodes.get(value);
+            if (null == code) {
+                if (this.freeCodeCount > 0)
+                    code = this.freeCodes[--this.freeCodeCount];
+                else {
+                    code = this.dictionarySize + this.freeCodeCount;
+                    if (code == this.dictionary.length) {
+                        this.dictionary = Arrays.copyOf(this.dictionary, Math.max(16, code * 2));
+                        this.references = Arrays.copyOf(this.references, this.dictionary.length);
+                    }
+                }
+                this.dictionary[code] = value;
+                this.dictionarySize++;
+                this.dictionaryCodes.put(value, code);
+            }
+            this.references[code]++;
+            return code;
+        }
+
+        private long bytes() {
+            long bytes = TinkerMemoryUsage.object(13, 0) + TinkerMemoryUsage.array(this.states.length, Byte.BYTES);
+            if (null != this.longs) bytes += TinkerMemoryUsage.array(this.longs.length, Long.BYTES);
+            if (null != this.doubles) bytes += TinkerMemoryUsage.array(this.doubles.length, Double.BYTES);
+            if (null != this.objects) bytes += TinkerMemoryUsage.array(this.objects.length, TinkerMemoryUsage.REFERENCE);
+            if (null != this.codes) bytes += TinkerMemoryUsage.array(this.codes.length, Integer.BYTES) +
+                    TinkerMemoryUsage.array(this.dictionary.length, TinkerMemoryUsage.REFERENCE) +
+                    TinkerMemoryUsage.array(this.references.length, Integer.BYTES) +
+                    TinkerMemoryUsage.array(this.freeCodes.length, Integer.BYTES) +
+                    TinkerMemoryUsage.mapBytes(this.dictionaryCodes.size());
+            return bytes;
+        }
+
+        private Object get(final int ordinal) {
+            if (null != this.longs)
+                return Integer.class == this.type ? (Object) (int) this.longs[ordinal] : (Object) this.longs[ordinal];
+            else if (null != this.doubles)
+                return Float.class == this.type ? (Object) (float) this.doubles[ordinal] : (Object) this.doubles[ordinal];
+            else if (null != this.objects)
+                return this.objects[ordinal];
+            else
+                return this.dictionary[this.codes[ordinal]];
+        }
+
+        /**
+         * Moves the values of the column into a dictionary once they are not all of the same numeric type.
+         */
+        private void toDictionary() {
+            final int[] codes = new int[this.states.length];
+            this.dictionary = new Object[16];
+            this.references = new int[16];
+            this.dictionarySize = 0;
+            this.freeCodes = new int[0];
+            this.freeCodeCount = 0;
+            this.dictionaryCodes = new HashMap<>();
+            if (null != this.type) {
+                for (int ordinal = 0; ordinal < this.states.length; ordinal++) {
+                    if (PRESENT == this.states[ordinal]) codes[ordinal] = this.code(this.get(ordinal));
+                }
+            }
+            this.codes = codes;
+            this.longs = null;
+            this.doubles = null;
+            this.type = null;
+        }
+
+        /**
+         * Moves the values of the column out of the dictionary, including the value of an ordinal that is about to be
+         * marked as present.
+         */
+        private void toObjects(final int ordinal, final Object value) {
+            final Object[] objects = new Object[this.states.length];
+            for (int i = 0; i < this.states.length; i++) {
+                if (PRESENT == this.states[i]) objects[i] = this.dictionary[this.codes[i]];
+            }
+            objects[ordinal] = value;
+            this.objects = objects;
+            this.codes = null;
+            this.dictionary = null;
+            this.references = null;
+            this.dictionarySize = 0;
+            this.freeCodes = null;
+            this.freeCodeCount = 0;
+            this.dictionaryCodes = null;
+        }
+    }
+}
@@ -43,11 +43,19 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     protected Map<String, Property> properties;
     protected final Vertex inVertex;
     protected final Vertex outVertex;
+    protected final int labelId;
+
+    /**
+     * The positions of this edge in the {@link TinkerAdjacency} of its out and in vertex.
+     */
+    protected int outPosition;
+    protected int inPosition;
 
     protected TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex) {
-        super(id, label);
+        super(id, ((TinkerGraph) outVertex.graph()).intern(label));
         this.outVertex = outVertex;
         this.inVertex = inVertex;
+        this.labelId = ((TinkerGraph) outVertex.graph()).edgeLabelId(label);
         TinkerHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
 
@@ -55,13 +63,23 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     public <V> Property<V> property(final String key, final V value) {
         if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
         ElementHelper.validateProperty(key, value);
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
-
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        graph.beginWrite();
+        try {
+            final Property oldProperty = super.property(key);
+            final Property<V> newProperty = new TinkerProperty<>(this, key, value);
+            synchronized (this) {
+                if (null == this.properties) this.properties = new HashMap<>();
+                this.properties.put(newProperty.key(), newProperty);
+            }
+            TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+            if (null != graph.writeAheadLog) graph.writeAheadLog.setEdgeProperty(this.id, key, value);
+            graph.changeFeed.edgePropertySet(this, key, value, oldProperty);
+            if (null != graph.versions) graph.versions.changed(this);
+            return newProperty;
+        } finally {
+            graph.endWrite();
+        }
     }
 
     @Override
@@ -78,22 +96,37 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     public void remove() {
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
-
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+
+        graph.beginWrite();
+        try {
+            if (null != outVertex && null != outVertex.outEdges) {
+                final int degree = outVertex.outEdges.size(this.labelId);
+                outVertex.outEdges.remove(this, graph.versions);
+                graph.statistics.degreeChanged(this.labelId, Direction.OUT, degree, outVertex.outEdges.size(this.labelId));
+            }
+            if (null != inVertex && null != inVertex.inEdges) {
+                final int degree = inVertex.inEdges.size(this.labelId);
+                inVertex.inEdges.remove(this, graph.versions);
+                graph.statistics.degreeChanged(this.labelId, Direction.IN, degree, inVertex.inEdges.size(this.labelId));
+            }
+
+            TinkerHelper.removeElementIndex(this);
+            if (null != graph.versions) {
+                graph.versions.linked(outVertex);
+                graph.versions.linked(inVertex);
+                graph.versions.removed(this);
+            }
+            graph.edges.remove(this.id());
+            graph.edgeLabelIndex.remove(this);
+            if (null != graph.edgeKeyIndex) graph.edgeKeyIndex.remove(this);
+            if (null != graph.writeAheadLog) graph.writeAheadLog.removeEdge(this.id);
+            graph.changeFeed.edgeRemoved(this);
+            this.properties = null;
+            this.removed = true;
+        } finally {
+            graph.endWrite();
         }
-
-        TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
-        this.removed = true;
     }
 
     @Override
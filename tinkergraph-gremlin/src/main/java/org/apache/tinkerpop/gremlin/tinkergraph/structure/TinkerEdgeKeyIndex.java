@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the identifier of the out vertex, the label and the identifier of the in vertex of each edge of a
+ * {@link TinkerGraph} to the edges that have them, so that whether two vertices are joined by an edge with a label is
+ * answered without iterating the adjacency of either vertex.  The edges of a key are held in an array that is
+ * replaced as edges are added and removed since a key rarely has more than one edge.
+ * <p/>
+ * A {@code T.id} container matches an identifier by its string form when it is given a string and matches numbers of
+ * any type that are equal, so each edge is indexed under every form of the identifier of one vertex that such a
+ * container could be given to find the other vertex: a number under its {@code long} value, or its {@code double}
+ * value if it has a fraction, and any identifier that is not a {@code long} in disguise under its string form as well.
+ * A lookup that does not find an edge under these forms can therefore conclude that no edge matches.
+ */
+final class TinkerEdgeKeyIndex {
+
+    private final Map<EdgeKey, TinkerEdge[]> index = new ConcurrentHashMap<>();
+
+    void add(final TinkerEdge edge) {
+        for (final EdgeKey key : keys(edge)) {
+            this.index.merge(key, new TinkerEdge[]{edge}, (edges, added) -> {
+                final TinkerEdge[] merged = Arrays.copyOf(edges, edges.length + 1);
+                merged[edges.length] = added[0];
+                return merged;
+            });
+        }
+    }
+
+    void remove(final TinkerEdge edge) {
+        for (final EdgeKey key : keys(edge)) {
+            this.index.computeIfPresent(key, (k, edges) -> {
+                for (int i = 0; i < edges.length; i++) {
+                    if (edges[i] == edge) {
+                        if (1 == edges.length) return null;
+                        final TinkerEdge[] remaining = new TinkerEdge[edges.length - 1];
+                        System.arraycopy(edges, 0, remaining, 0, i);
+                        System.arraycopy(edges, i + 1, remaining, i, remaining.length - i);
+                        return remaining;
+                    }
+                }
+                return edges;
+            });
+        }
+    }
+
+    /**
+     * Adds the edges of a vertex in the {@link Direction#OUT} or {@link Direction#IN} direction with a label whose
+     * adjacent vertex has an identifier that a {@code T.id} container given the value could match.  The edges still
+     * have to be tested by the container.
+     */
+    void addEdges(final Collection<? super TinkerEdge> found, final TinkerVertex vertex, final Direction direction,
+                  final int labelId, final Object adjacentVertexId) {
+        for (final Object form : lookupForms(adjacentVertexId)) {
+            final TinkerEdge[] edges = this.index.get(Direction.OUT == direction ?
+                    new EdgeKey(vertex.id, labelId, form) : new EdgeKey(form, labelId, vertex.id));
+            if (null == edges) continue;
+            for (final TinkerEdge edge : edges) {
+                // the string form of another vertex may equal the identifier of this one
+                if ((Direction.OUT == direction ? edge.outVertex : edge.inVertex) == vertex) found.add(edge);
+            }
+        }
+    }
+
+    /**
+     * Estimates the bytes of the index, including its keys but not the ids that they share with the vertices.
+     */
+    long bytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.index.size());
+        for (final TinkerEdge[] edges : this.index.values()) {
+            bytes += TinkerMemoryUsage.object(2, Integer.BYTES) + TinkerMemoryUsage.array(edges.length, TinkerMemoryUsage.REFERENCE);
+        }
+        return bytes;
+    }
+
+    void clear() {
+        this.index.clear();
+    }
+
+    /**
+     * Gets the distinct keys of an edge, which pair the identifier of each of its vertices with every form of the
+     * identifier of the other.
+     */
+    private static Set<EdgeKey> keys(final TinkerEdge edge) {
+        final Object outVertexId = edge.outVertex.id();
+        final Object inVertexId = edge.inVertex.id();
+        final Set<EdgeKey> keys = new HashSet<>(4);
+        for (final Object form : indexForms(inVertexId)) {
+            keys.add(new EdgeKey(outVertexId, edge.labelId, form));
+        }
+        for (final Object form : indexForms(outVertexId)) {
+            keys.add(new EdgeKey(form, edge.labelId, inVertexId));
+        }
+        return keys;
+    }
+
+    private static List<Object> indexForms(final Object id) {
+        if (id instanceof String)
+            return Collections.singletonList(id);
+        else if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte)
+            return Collections.singletonList(((Number) id).longValue());
+        else if (id instanceof Number)
+            return Arrays.asList(numberForm((Number) id), id.toString());
+        else
+            return Arrays.asList(id, id.toString());
+    }
+
+    private static List<Object> lookupForms(final Object value) {
+        if (value instanceof Number)
+            return Collections.singletonList(numberForm((Number) value));
+        else if (value instanceof String) {
+            try {
+                return Arrays.asList(value, Long.parseLong((String) value));
+            } catch (NumberFormatException nfe) {
+                return Collections.singletonList(value);
+            }
+        } else
+            return null == value ? Collections.emptyList() : Collections.singletonList(value);
+    }
+
+    /**
+     * Gets the form under which numbers that are equal to each other are indexed.
+     */
+    private static Object numberForm(final Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte)
+            return number.longValue();
+        final double value = number.doubleValue();
+        return value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE ? (Object) (long) value : (Object) value;
+    }
+
+    private static final class EdgeKey {
+        private final Object outVertexId;
+        private final int labelId;
+        private final Object inVertexId;
+
+        private EdgeKey(final Object outVertexId, final int labelId, final Object inVertexId) {
+            this.outVertexId = outVertexId;
+            this.labelId = labelId;
+            this.inVertexId = inVertexId;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof EdgeKey)) return false;
+            final EdgeKey key = (EdgeKey) other;
+            return this.labelId == key.labelId && this.outVertexId.equals(key.outVertexId) && this.inVertexId.equals(key.inVertexId);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * this.outVertexId.hashCode() + this.labelId) * 31 + this.inVertexId.hashCode();
+        }
+    }
+}
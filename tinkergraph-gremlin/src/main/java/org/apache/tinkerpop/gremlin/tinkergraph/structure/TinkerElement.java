@@ -30,6 +30,12 @@ public abstract class TinkerElement implements Element {
     protected final String label;
     protected boolean removed = false;
 
+    /**
+     * The latest of the versions of this element that a {@link TinkerReadView} can read, which is only kept when
+     * the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_READ_VIEWS}.
+     */
+    volatile TinkerVersions.State state;
+
     protected TinkerElement(final Object id, final String label) {
         this.id = id;
         this.label = label;
@@ -0,0 +1,860 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A read-only copy of a {@link TinkerGraph} that is compacted into arrays by {@link TinkerGraph#freeze()}.  Each
+ * vertex and edge is given a dense ordinal and its identifier, label and properties are held in arrays that are
+ * indexed by the ordinal.  The edges are ordered by their out vertex and label, so the out edges of a vertex are a
+ * range of edge ordinals, and the in edges of each vertex are a range of an array of edge ordinals that is ordered
+ * by in vertex and label, which is the compressed sparse row layout.  The vertex ordinals follow the
+ * {@link TinkerGraph.VertexOrder} that the graph was frozen with, so that the neighbours of a vertex can be given
+ * ordinals close to its own.  No object is kept for an element, so the {@link Vertex}, {@link Edge} and property
+ * objects that a traversal reads are flyweights that are created as they are read and only hold the ordinal.  When
+ * the identifiers of the vertices or of the edges are all {@code Long} or all {@code Integer}, as they are with the
+ * numeric {@link TinkerGraph.IdManager} implementations, they are held in a {@code long} array along with a table of
+ * ordinals that they are hashed into, so that no object is kept for them either.
+ * Traversals of the graph do not use the indices of the graph it was frozen from.
+ */
+public final class TinkerFrozenGraph implements Graph {
+
+    private final Configuration configuration;
+    private final TinkerGraph.IdManager<?> vertexIdManager;
+    private final TinkerGraph.IdManager<?> edgeIdManager;
+
+    /**
+     * The labels and property keys of the graph, which are referred to by their position.
+     */
+    private final String[] strings;
+    private final Map<String, Integer> stringCodes = new HashMap<>();
+
+    private final FrozenIds vertexIds;
+    private final int[] vertexLabels;
+    private final int[] propertyOffsets;
+    private final int[] propertyKeys;
+    private final Object[] propertyValues;
+
+    /**
+     * The identifiers of the vertex properties, which are held in {@code propertyLongIds} when they are all
+     * {@code Long} or all {@code Integer}, as they are with the numeric {@link TinkerGraph.IdManager} implementations,
+     * and in {@code propertyObjectIds} otherwise.
+     */
+    private final long[] propertyLongIds;
+    private final Object[] propertyObjectIds;
+    private final boolean integerPropertyIds;
+
+    /**
+     * The meta-properties of each vertex property, which are a range of the arrays of meta-properties as the
+     * properties of each vertex are a range of the arrays of properties.
+     */
+    private final int[] metaPropertyOffsets;
+    private final int[] metaPropertyKeys;
+    private final Object[] metaPropertyValues;
+
+    private final FrozenIds edgeIds;
+    private final int[] edgeLabels;
+    private final int[] outVertices;
+    private final int[] inVertices;
+    private final int[] edgePropertyOffsets;
+    private final int[] edgePropertyKeys;
+    private final Object[] edgePropertyValues;
+
+    private final int[] outOffsets;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    TinkerFrozenGraph(final TinkerGraph graph, final TinkerGraph.VertexOrder order) {
+        this.configuration = graph.configuration();
+        this.vertexIdManager = graph.vertexIdManager;
+        this.edgeIdManager = graph.edgeIdManager;
+        final List<String> strings = new ArrayList<>();
+
+        graph.beginWrite();
+        try {
+            final TinkerVertex[] vertices = TinkerVertexOrdering.order(graph.vertices.values(), order);
+            int propertyCount = 0;
+            int metaPropertyCount = 0;
+            for (final TinkerVertex vertex : vertices) {
+                if (null != vertex.properties) {
+                    for (final List<VertexProperty> list : vertex.properties.values()) {
+                        propertyCount = propertyCount + list.size();
+                        for (final VertexProperty vertexProperty : list) {
+                            final Map<String, Property> metaProperties = ((TinkerVertexProperty) vertexProperty).properties;
+                            if (null != metaProperties) metaPropertyCount = metaPropertyCount + metaProperties.size();
+                        }
+                    }
+                }
+            }
+
+            final Object[] vertexIds = new Object[vertices.length];
+            final Object[] propertyIds = new Object[propertyCount];
+            this.vertexLabels = new int[vertices.length];
+            this.propertyOffsets = new int[vertices.length + 1];
+            this.propertyKeys = new int[propertyCount];
+            this.propertyValues = new Object[propertyCount];
+            this.metaPropertyOffsets = new int[propertyCount + 1];
+            this.metaPropertyKeys = new int[metaPropertyCount];
+            this.metaPropertyValues = new Object[metaPropertyCount];
+            int next = 0;
+            int nextMeta = 0;
+            for (int ordinal = 0; ordinal < vertices.length; ordinal++) {
+                final TinkerVertex vertex = vertices[ordinal];
+                vertexIds[ordinal] = vertex.id;
+                this.vertexLabels[ordinal] = this.code(strings, vertex.label);
+                this.propertyOffsets[ordinal] = next;
+                if (null == vertex.properties) continue;
+                for (final List<VertexProperty> list : vertex.properties.values()) {
+                    for (final VertexProperty vertexProperty : list) {
+                        final TinkerVertexProperty<?> property = (TinkerVertexProperty<?>) vertexProperty;
+                        this.propertyKeys[next] = this.code(strings, property.key());
+                        propertyIds[next] = property.id;
+                        this.propertyValues[next] = property.value;
+                        this.metaPropertyOffsets[next] = nextMeta;
+                        if (null != property.properties) {
+                            for (final Property metaProperty : property.properties.values()) {
+                                this.metaPropertyKeys[nextMeta] = this.code(strings, metaProperty.key());
+                                this.metaPropertyValues[nextMeta] = ((TinkerProperty) metaProperty).value;
+                                nextMeta++;
+                            }
+                        }
+                        next++;
+                    }
+                }
+            }
+            this.propertyOffsets[vertices.length] = next;
+            this.metaPropertyOffsets[propertyCount] = nextMeta;
+            this.vertexIds = FrozenIds.of(vertexIds);
+
+            final Class<?> propertyIdClass = FrozenIds.numericClass(propertyIds);
+            this.integerPropertyIds = Integer.class == propertyIdClass;
+            if (null == propertyIdClass) {
+                this.propertyLongIds = null;
+                this.propertyObjectIds = propertyIds;
+            } else {
+                this.propertyLongIds = new long[propertyCount];
+                for (int i = 0; i < propertyCount; i++) {
+                    this.propertyLongIds[i] = ((Number) propertyIds[i]).longValue();
+                }
+                this.propertyObjectIds = null;
+            }
+
+            final TinkerEdge[] edges = graph.edges.values().toArray(new TinkerEdge[graph.edges.size()]);
+            final int[] labels = new int[edges.length];
+            final int[] outs = new int[edges.length];
+            final int[] ins = new int[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                labels[i] = this.code(strings, edges[i].label);
+                outs[i] = this.vertexIds.ordinal(edges[i].outVertex.id());
+                ins[i] = this.vertexIds.ordinal(edges[i].inVertex.id());
+            }
+            final int[] byOut = order(outs, vertices.length, labels, strings.size());
+
+            int edgePropertyCount = 0;
+            for (final TinkerEdge edge : edges) {
+                if (null != edge.properties) edgePropertyCount = edgePropertyCount + edge.properties.size();
+            }
+            final Object[] edgeIds = new Object[edges.length];
+            this.edgeLabels = new int[edges.length];
+            this.outVertices = new int[edges.length];
+            this.inVertices = new int[edges.length];
+            this.edgePropertyOffsets = new int[edges.length + 1];
+            this.edgePropertyKeys = new int[edgePropertyCount];
+            this.edgePropertyValues = new Object[edgePropertyCount];
+            next = 0;
+            for (int ordinal = 0; ordinal < edges.length; ordinal++) {
+                final int i = byOut[ordinal];
+                final TinkerEdge edge = edges[i];
+                edgeIds[ordinal] = edge.id;
+                this.edgeLabels[ordinal] = labels[i];
+                this.outVertices[ordinal] = outs[i];
+                this.inVertices[ordinal] = ins[i];
+                this.edgePropertyOffsets[ordinal] = next;
+                if (null == edge.properties) continue;
+                for (final Property property : edge.properties.values()) {
+                    this.edgePropertyKeys[next] = this.code(strings, property.key());
+                    this.edgePropertyValues[next] = ((TinkerProperty) property).value;
+                    next++;
+                }
+            }
+            this.edgePropertyOffsets[edges.length] = next;
+            this.edgeIds = FrozenIds.of(edgeIds);
+
+            this.outOffsets = offsets(vertices.length, this.outVertices);
+            this.inOffsets = offsets(vertices.length, this.inVertices);
+            this.inEdges = order(this.inVertices, vertices.length, this.edgeLabels, strings.size());
+        } finally {
+            graph.endWrite();
+        }
+        this.strings = strings.toArray(new String[strings.size()]);
+    }
+
+    private int code(final List<String> strings, final String string) {
+        return this.stringCodes.computeIfAbsent(string, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Orders the positions of the edges by their vertex and then by their label, keeping the edges with the same
+     * vertex and label in the order of their positions.  The positions are sorted by label and then by vertex with a
+     * counting sort, which keeps the edges of a vertex in the order of the first sort, so ordering takes time in
+     * proportion to the number of edges, vertices and labels.
+     */
+    private static int[] order(final int[] vertices, final int vertexCount, final int[] labels, final int labelCount) {
+        final int[] positions = new int[vertices.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        return countingSort(countingSort(positions, labels, labelCount), vertices, vertexCount);
+    }
+
+    private static int[] countingSort(final int[] positions, final int[] keys, final int keyCount) {
+        final int[] offsets = new int[keyCount + 1];
+        for (final int position : positions) {
+            offsets[keys[position] + 1]++;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            offsets[i + 1] = offsets[i + 1] + offsets[i];
+        }
+        final int[] sorted = new int[positions.length];
+        for (final int position : positions) {
+            sorted[offsets[keys[position]]++] = position;
+        }
+        return sorted;
+    }
+
+    /**
+     * Gets the offset of the edges of each vertex in an array of edges that is ordered by vertex.
+     */
+    private static int[] offsets(final int vertexCount, final int[] vertices) {
+        final int[] offsets = new int[vertexCount + 1];
+        for (final int vertex : vertices) {
+            offsets[vertex + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] = offsets[i + 1] + offsets[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Hands the ordinals of the edges of a vertex in a direction and with any of the labels to a consumer.
+     */
+    private void forEachEdge(final int vertex, final Direction direction, final String[] labels, final IntConsumer consumer) {
+        if (Direction.IN != direction)
+            this.forEachEdge(this.outOffsets, ordinal -> ordinal, vertex, labels, consumer);
+        if (Direction.OUT != direction)
+            this.forEachEdge(this.inOffsets, position -> this.inEdges[position], vertex, labels, consumer);
+    }
+
+    private void forEachEdge(final int[] offsets, final IntUnaryOperator edgeAt, final int vertex,
+                             final String[] labels, final IntConsumer consumer) {
+        final int from = offsets[vertex];
+        final int to = offsets[vertex + 1];
+        if (0 == labels.length) {
+            for (int position = from; position < to; position++) {
+                consumer.accept(edgeAt.applyAsInt(position));
+            }
+            return;
+        }
+        for (final String label : labels) {
+            final Integer code = this.stringCodes.get(label);
+            if (null == code) continue;
+            // the edges of the vertex are ordered by label so the edges with the label are a range of them
+            int low = from;
+            int high = to;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (this.edgeLabels[edgeAt.applyAsInt(middle)] < code) low = middle + 1;
+                else high = middle;
+            }
+            for (int position = low; position < to && this.edgeLabels[edgeAt.applyAsInt(position)] == code; position++) {
+                consumer.accept(edgeAt.applyAsInt(position));
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Object... vertexIds) {
+        return this.elements(this.vertexIds, this.vertexIdManager, vertexIds,
+                ordinal -> new FrozenVertex(this, ordinal));
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Object... edgeIds) {
+        return this.elements(this.edgeIds, this.edgeIdManager, edgeIds,
+                ordinal -> new FrozenEdge(this, ordinal));
+    }
+
+    private <E extends Element> Iterator<E> elements(final FrozenIds ordinals, final TinkerGraph.IdManager<?> idManager,
+                                                     final Object[] ids, final IntFunction<E> factory) {
+        final int count = ordinals.size();
+        if (0 == ids.length) {
+            return new Iterator<E>() {
+                private int ordinal = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.ordinal < count;
+                }
+
+                @Override
+                public E next() {
+                    if (!this.hasNext()) throw new NoSuchElementException();
+                    return factory.apply(this.ordinal++);
+                }
+            };
+        } else {
+            final List<E> found = new ArrayList<>(ids.length);
+            for (final Object id : ids) {
+                final int ordinal = ordinals.ordinal(id instanceof Element ? ((Element) id).id() : idManager.convert(id));
+                if (-1 != ordinal) found.add(factory.apply(ordinal));
+            }
+            return found.iterator();
+        }
+    }
+
+    @Override
+    public Vertex addVertex(final Object... keyValues) {
+        throw Exceptions.vertexAdditionsNotSupported();
+    }
+
+    @Override
+    public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public GraphComputer compute() {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public Transaction tx() {
+        throw Exceptions.transactionsNotSupported();
+    }
+
+    @Override
+    public Variables variables() {
+        throw Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return this.configuration;
+    }
+
+    @Override
+    public Features features() {
+        return TinkerReadView.ReadViewFeatures.INSTANCE;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, "vertices:" + this.vertexIds.size() + " edges:" + this.edgeIds.size());
+    }
+
+    ///////////// IDENTIFIERS ///////////////
+
+    /**
+     * The identifiers of the vertices or of the edges by ordinal, along with the ordinal of each identifier.
+     */
+    private static abstract class FrozenIds {
+
+        /**
+         * Holds the identifiers in {@link LongIds} if they are all {@code Long} or all {@code Integer}.
+         */
+        private static FrozenIds of(final Object[] ids) {
+            final Class<?> numericClass = numericClass(ids);
+            return null == numericClass ? new ObjectIds(ids) : new LongIds(ids, Integer.class == numericClass);
+        }
+
+        /**
+         * Gets {@code Long} if the identifiers are all {@code Long}, {@code Integer} if they are all {@code Integer}
+         * and {@code null} otherwise.
+         */
+        static Class<?> numericClass(final Object[] ids) {
+            boolean longs = true;
+            boolean integers = true;
+            for (final Object id : ids) {
+                longs = longs && id instanceof Long;
+                integers = integers && id instanceof Integer;
+            }
+            return longs ? Long.class : integers ? Integer.class : null;
+        }
+
+        abstract int size();
+
+        abstract Object get(final int ordinal);
+
+        /**
+         * Gets the ordinal of the identifier or {@code -1} if no element has it.
+         */
+        abstract int ordinal(final Object id);
+    }
+
+    private static final class ObjectIds extends FrozenIds {
+
+        private final Object[] ids;
+        private final Map<Object, Integer> ordinals;
+
+        private ObjectIds(final Object[] ids) {
+            this.ids = ids;
+            this.ordinals = new HashMap<>(ids.length * 4 / 3 + 1);
+            for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+                this.ordinals.put(ids[ordinal], ordinal);
+            }
+        }
+
+        @Override
+        int size() {
+            return this.ids.length;
+        }
+
+        @Override
+        Object get(final int ordinal) {
+            return this.ids[ordinal];
+        }
+
+        @Override
+        int ordinal(final Object id) {
+            final Integer ordinal = this.ordinals.get(id);
+            return null == ordinal ? -1 : ordinal;
+        }
+    }
+
+    /**
+     * Identifiers that are all {@code Long} or all {@code Integer}, held in a {@code long} array by ordinal.  The
+     * ordinals are found with a table that is at most half full, where each identifier is hashed to a slot and placed
+     * in the first empty slot from there, which takes 16 to 24 bytes per identifier rather than the 80 or so of a map
+     * entry and two boxed numbers.  Only an identifier of the same class is found, as it would be in a map.
+     */
+    private static final class LongIds extends FrozenIds {
+
+        private final boolean integers;
+        private final long[] ids;
+
+        /**
+         * The ordinal of the identifier in each slot plus one, so that zero marks an empty slot.
+         */
+        private final int[] slots;
+
+        private LongIds(final Object[] ids, final boolean integers) {
+            this.integers = integers;
+            this.ids = new long[ids.length];
+            this.slots = new int[Integer.highestOneBit(Math.max(1, 2 * ids.length - 1)) << 1];
+            final int mask = this.slots.length - 1;
+            for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+                this.ids[ordinal] = ((Number) ids[ordinal]).longValue();
+                int slot = slot(this.ids[ordinal], mask);
+                while (0 != this.slots[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                this.slots[slot] = ordinal + 1;
+            }
+        }
+
+        private static int slot(final long id, final int mask) {
+            final long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        @Override
+        int size() {
+            return this.ids.length;
+        }
+
+        @Override
+        Object get(final int ordinal) {
+            if (this.integers)
+                return (int) this.ids[ordinal];
+            return this.ids[ordinal];
+        }
+
+        @Override
+        int ordinal(final Object id) {
+            if (this.integers ? !(id instanceof Integer) : !(id instanceof Long))
+                return -1;
+            final long value = ((Number) id).longValue();
+            final int mask = this.slots.length - 1;
+            for (int slot = slot(value, mask); 0 != this.slots[slot]; slot = (slot + 1) & mask) {
+                if (this.ids[this.slots[slot] - 1] == value) return this.slots[slot] - 1;
+            }
+            return -1;
+        }
+    }
+
+    ///////////// ELEMENTS ///////////////
+
+    private static abstract class FrozenElement implements Element {
+
+        protected final TinkerFrozenGraph graph;
+        protected final int ordinal;
+
+        private FrozenElement(final TinkerFrozenGraph graph, final int ordinal) {
+            this.graph = graph;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public TinkerFrozenGraph graph() {
+            return this.graph;
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        /**
+         * Gets the keys of the properties in a range of the arrays of properties.
+         */
+        protected Set<String> keys(final int[] keys, final int from, final int to) {
+            final Set<String> set = new LinkedHashSet<>();
+            for (int i = from; i < to; i++) {
+                set.add(this.graph.strings[keys[i]]);
+            }
+            return set;
+        }
+
+        /**
+         * Gets the properties in a range of the arrays of properties that have any of the keys.
+         */
+        protected <P> Iterator<P> properties(final int[] keys, final int from, final int to, final String[] propertyKeys,
+                                             final IntFunction<P> factory) {
+            final List<P> list = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (ElementHelper.keyExists(this.graph.strings[keys[i]], propertyKeys)) list.add(factory.apply(i));
+            }
+            return list.iterator();
+        }
+    }
+
+    private static final class FrozenVertex extends FrozenElement implements Vertex {
+
+        private FrozenVertex(final TinkerFrozenGraph graph, final int ordinal) {
+            super(graph, ordinal);
+        }
+
+        @Override
+        public Object id() {
+            return this.graph.vertexIds.get(this.ordinal);
+        }
+
+        @Override
+        public String label() {
+            return this.graph.strings[this.graph.vertexLabels[this.ordinal]];
+        }
+
+        @Override
+        public Edge addEdge(final String label, final Vertex inVertex, final Object... keyValues) {
+            throw Vertex.Exceptions.edgeAdditionsNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final String key) {
+            final Iterator<VertexProperty<V>> properties = this.properties(key);
+            if (!properties.hasNext())
+                return VertexProperty.<V>empty();
+            final VertexProperty<V> property = properties.next();
+            if (properties.hasNext())
+                throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+            return property;
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.keys(this.graph.propertyKeys, this.graph.propertyOffsets[this.ordinal], this.graph.propertyOffsets[this.ordinal + 1]);
+        }
+
+        @Override
+        public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+            return this.properties(this.graph.propertyKeys, this.graph.propertyOffsets[this.ordinal],
+                    this.graph.propertyOffsets[this.ordinal + 1], propertyKeys, index -> new FrozenVertexProperty<>(this, index));
+        }
+
+        @Override
+        public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
+            final List<Edge> edges = new ArrayList<>();
+            this.graph.forEachEdge(this.ordinal, direction, edgeLabels, edge -> edges.add(new FrozenEdge(this.graph, edge)));
+            return edges.iterator();
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
+            final List<Vertex> vertices = new ArrayList<>();
+            if (Direction.IN != direction)
+                this.graph.forEachEdge(this.ordinal, Direction.OUT, edgeLabels,
+                        edge -> vertices.add(new FrozenVertex(this.graph, this.graph.inVertices[edge])));
+            if (Direction.OUT != direction)
+                this.graph.forEachEdge(this.ordinal, Direction.IN, edgeLabels,
+                        edge -> vertices.add(new FrozenVertex(this.graph, this.graph.outVertices[edge])));
+            return vertices.iterator();
+        }
+
+        @Override
+        public void remove() {
+            throw Vertex.Exceptions.vertexRemovalNotSupported();
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.vertexString(this);
+        }
+    }
+
+    private static final class FrozenEdge extends FrozenElement implements Edge {
+
+        private FrozenEdge(final TinkerFrozenGraph graph, final int ordinal) {
+            super(graph, ordinal);
+        }
+
+        @Override
+        public Object id() {
+            return this.graph.edgeIds.get(this.ordinal);
+        }
+
+        @Override
+        public String label() {
+            return this.graph.strings[this.graph.edgeLabels[this.ordinal]];
+        }
+
+        @Override
+        public Vertex outVertex() {
+            return new FrozenVertex(this.graph, this.graph.outVertices[this.ordinal]);
+        }
+
+        @Override
+        public Vertex inVertex() {
+            return new FrozenVertex(this.graph, this.graph.inVertices[this.ordinal]);
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction) {
+            switch (direction) {
+                case OUT:
+                    return IteratorUtils.of(this.outVertex());
+                case IN:
+                    return IteratorUtils.of(this.inVertex());
+                default:
+                    return IteratorUtils.of(this.outVertex(), this.inVertex());
+            }
+        }
+
+        @Override
+        public <V> Property<V> property(final String key, final V value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.keys(this.graph.edgePropertyKeys, this.graph.edgePropertyOffsets[this.ordinal], this.graph.edgePropertyOffsets[this.ordinal + 1]);
+        }
+
+        @Override
+        public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+            return this.properties(this.graph.edgePropertyKeys, this.graph.edgePropertyOffsets[this.ordinal],
+                    this.graph.edgePropertyOffsets[this.ordinal + 1], propertyKeys,
+                    index -> new FrozenProperty<>(this, this.graph.strings[this.graph.edgePropertyKeys[index]], this.graph.edgePropertyValues[index]));
+        }
+
+        @Override
+        public void remove() {
+            throw Edge.Exceptions.edgeRemovalNotSupported();
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.edgeString(this);
+        }
+    }
+
+    private static final class FrozenVertexProperty<V> extends FrozenElement implements VertexProperty<V> {
+
+        private final FrozenVertex vertex;
+
+        private FrozenVertexProperty(final FrozenVertex vertex, final int index) {
+            super(vertex.graph, index);
+            this.vertex = vertex;
+        }
+
+        @Override
+        public Object id() {
+            if (null == this.graph.propertyLongIds)
+                return this.graph.propertyObjectIds[this.ordinal];
+            if (this.graph.integerPropertyIds)
+                return (int) this.graph.propertyLongIds[this.ordinal];
+            return this.graph.propertyLongIds[this.ordinal];
+        }
+
+        @Override
+        public String key() {
+            return this.graph.strings[this.graph.propertyKeys[this.ordinal]];
+        }
+
+        @Override
+        public V value() {
+            return TinkerOffHeapStore.read(this.graph.propertyValues[this.ordinal]);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Vertex element() {
+            return this.vertex;
+        }
+
+        @Override
+        public <U> Property<U> property(final String key, final U value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.keys(this.graph.metaPropertyKeys, this.graph.metaPropertyOffsets[this.ordinal], this.graph.metaPropertyOffsets[this.ordinal + 1]);
+        }
+
+        @Override
+        public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+            return this.properties(this.graph.metaPropertyKeys, this.graph.metaPropertyOffsets[this.ordinal],
+                    this.graph.metaPropertyOffsets[this.ordinal + 1], propertyKeys,
+                    index -> new FrozenProperty<>(this, this.graph.strings[this.graph.metaPropertyKeys[index]], this.graph.metaPropertyValues[index]));
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode((Element) this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+
+    private static final class FrozenProperty<V> implements Property<V> {
+
+        private final Element element;
+        private final String key;
+        private final Object value;
+
+        private FrozenProperty(final Element element, final String key, final Object value) {
+            this.element = element;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String key() {
+            return this.key;
+        }
+
+        @Override
+        public V value() {
+            return TinkerOffHeapStore.read(this.value);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Element element() {
+            return this.element;
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+}
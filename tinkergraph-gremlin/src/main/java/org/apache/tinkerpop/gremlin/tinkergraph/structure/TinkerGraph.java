@@ -21,10 +21,12 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -35,11 +37,17 @@ import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphColumnStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphEdgeKeyStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexCentricStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -48,7 +56,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -73,7 +81,13 @@ import java.util.stream.Stream;
 public final class TinkerGraph implements Graph {
 
     static {
-        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(TinkerGraphStepStrategy.instance()));
+        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
+                TinkerGraphStepStrategy.instance(),
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphEdgeKeyStrategy.instance(),
+                TinkerGraphVertexCentricStrategy.instance(),
+                TinkerGraphColumnStrategy.instance(),
+                TinkerGraphDegreeStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -117,22 +131,48 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY = "gremlin.tinkergraph.defaultVertexPropertyCardinality";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
+    public static final String GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE = "gremlin.tinkergraph.primitiveIdStorage";
+    public static final String GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG = "gremlin.tinkergraph.writeAheadLog";
+    public static final String GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL = "gremlin.tinkergraph.snapshotInterval";
+    public static final String GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG_SYNC = "gremlin.tinkergraph.writeAheadLogSync";
+    public static final String GREMLIN_TINKERGRAPH_READ_VIEWS = "gremlin.tinkergraph.readViews";
+    public static final String GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX = "gremlin.tinkergraph.edgeKeyIndex";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES = "gremlin.tinkergraph.offHeapProperties";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SIZE = "gremlin.tinkergraph.offHeapPropertySize";
+    public static final String GREMLIN_TINKERGRAPH_JMX = "gremlin.tinkergraph.jmx";
+    public static final String GREMLIN_TINKERGRAPH_VERTEX_ORDER = "gremlin.tinkergraph.vertexOrder";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
-    protected AtomicLong currentId = new AtomicLong(-1l);
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    protected final TinkerIdAllocator idAllocator = new TinkerIdAllocator();
+    protected final Map<Object, Vertex> vertices;
+    protected final Map<Object, Edge> edges;
+    private final Map<String, Integer> edgeLabelIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextEdgeLabelId = new AtomicInteger(0);
+    private final Map<String, String> symbols = new ConcurrentHashMap<>();
 
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphComputerView graphComputerView = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected final TinkerLabelIndex<TinkerVertex> vertexLabelIndex = new TinkerLabelIndex<>();
+    protected final TinkerLabelIndex<TinkerEdge> edgeLabelIndex = new TinkerLabelIndex<>();
+    protected final TinkerStatistics statistics = new TinkerStatistics(this);
+    protected final TinkerEdgeKeyIndex edgeKeyIndex;
+    protected final Map<String, Map<String, TinkerVertexCentricIndex>> vertexCentricIndices = new ConcurrentHashMap<>();
+    protected TinkerColumns columns = null;
+    protected final TinkerOffHeapStore offHeapStore;
+    protected final TinkerWriteAheadLog writeAheadLog;
+    protected final TinkerVersions versions;
+    protected TinkerBulkLoad bulkLoad = null;
+    protected final TinkerMemoryMonitor memoryMonitor;
+    protected final TinkerChangeFeed changeFeed = new TinkerChangeFeed();
 
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+    protected final VertexOrder vertexOrder;
 
     private final Configuration configuration;
     private final String graphLocation;
@@ -148,6 +188,22 @@ public final class TinkerGraph implements Graph {
         vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
+        vertexOrder = VertexOrder.valueOf(configuration.getString(GREMLIN_TINKERGRAPH_VERTEX_ORDER, VertexOrder.NONE.name()));
+        edgeKeyIndex = configuration.getBoolean(GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX, false) ? new TinkerEdgeKeyIndex() : null;
+        offHeapStore = configuration.getBoolean(GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, false) ?
+                new TinkerOffHeapStore(configuration.getInt(GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SIZE, 64)) : null;
+
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, false)) {
+            if (!isPrimitiveIdManager(vertexIdManager) || !isPrimitiveIdManager(edgeIdManager))
+                throw new IllegalStateException(String.format("The %s setting requires that the %s and %s be either %s or %s",
+                        GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER,
+                        DefaultIdManager.LONG.name(), DefaultIdManager.INTEGER.name()));
+            vertices = new TinkerLongMap<>();
+            edges = new TinkerLongMap<>();
+        } else {
+            vertices = new ConcurrentHashMap<>();
+            edges = new ConcurrentHashMap<>();
+        }
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -156,7 +212,40 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
-        if (graphLocation != null) loadGraph();
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, false)) {
+            if (null == graphLocation || !graphFormat.equals("gryo"))
+                throw new IllegalStateException(String.format("The %s setting requires that the %s be specified and that the %s be gryo",
+                        GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+            writeAheadLog = new TinkerWriteAheadLog(this, graphLocation, configuration.getLong(GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, 100000l),
+                    configuration.getBoolean(GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG_SYNC, true));
+            try {
+                writeAheadLog.recover();
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not recover graph at %s with its write-ahead log", graphLocation), ex);
+            }
+        } else {
+            writeAheadLog = null;
+            if (graphLocation != null) loadGraph();
+        }
+
+        versions = configuration.getBoolean(GREMLIN_TINKERGRAPH_READ_VIEWS, false) ? new TinkerVersions(this) : null;
+
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_JMX, false)) {
+            memoryMonitor = new TinkerMemoryMonitor(this, null == graphLocation ? Integer.toHexString(System.identityHashCode(this)) : graphLocation);
+            try {
+                memoryMonitor.register();
+            } catch (RuntimeException re) {
+                if (null != writeAheadLog) {
+                    try {
+                        writeAheadLog.close();
+                    } catch (Exception ex) {
+                        re.addSuppressed(ex);
+                    }
+                }
+                throw re;
+            }
+        } else
+            memoryMonitor = null;
     }
 
     /**
@@ -196,18 +285,28 @@ public final class TinkerGraph implements Graph {
         Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
         final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
-        if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
-                throw Exceptions.vertexWithIdAlreadyExists(idValue);
-        } else {
-            idValue = vertexIdManager.getNextId(this);
-        }
-
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+        this.beginWrite();
+        try {
+            if (null != idValue) {
+                if (this.vertices.containsKey(idValue))
+                    throw Exceptions.vertexWithIdAlreadyExists(idValue);
+            } else {
+                idValue = vertexIdManager.getNextId(this);
+            }
 
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
-        return vertex;
+            final TinkerVertex vertex = new TinkerVertex(idValue, label, this);
+            this.vertices.put(vertex.id(), vertex);
+            this.vertexLabelIndex.add(vertex);
+            if (null != this.columns) this.columns.add(vertex);
+            if (null != this.writeAheadLog) this.writeAheadLog.addVertex(vertex.id(), label);
+            this.changeFeed.vertexAdded(vertex);
+            if (null != this.versions) this.versions.added(vertex);
+
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        } finally {
+            this.endWrite();
+        }
     }
 
     @Override
@@ -225,7 +324,7 @@ public final class TinkerGraph implements Graph {
     @Override
     public Variables variables() {
         if (null == this.variables)
-            this.variables = new TinkerGraphVariables();
+            this.variables = new TinkerGraphVariables(this);
         return this.variables;
     }
 
@@ -240,18 +339,137 @@ public final class TinkerGraph implements Graph {
     }
 
     public void clear() {
-        this.vertices.clear();
-        this.edges.clear();
-        this.variables = null;
-        this.currentId.set(-1l);
-        this.vertexIndex = null;
-        this.edgeIndex = null;
-        this.graphComputerView = null;
+        this.beginWrite();
+        try {
+            if (null != this.writeAheadLog) this.writeAheadLog.clear();
+            if (null != this.versions) this.versions.clear();
+            this.vertices.clear();
+            this.edges.clear();
+            this.variables = null;
+            this.idAllocator.reset();
+            this.vertexIndex = null;
+            this.edgeIndex = null;
+            this.vertexLabelIndex.clear();
+            this.edgeLabelIndex.clear();
+            this.statistics.clear();
+            if (null != this.edgeKeyIndex) this.edgeKeyIndex.clear();
+            this.vertexCentricIndices.clear();
+            this.columns = null;
+            this.graphComputerView = null;
+            this.changeFeed.cleared();
+        } finally {
+            this.endWrite();
+        }
     }
 
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (null != memoryMonitor) memoryMonitor.unregister();
+        if (null != writeAheadLog) {
+            try {
+                writeAheadLog.close();
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not close the write-ahead log of the graph at %s", graphLocation), ex);
+            }
+        } else if (graphLocation != null) saveGraph();
+    }
+
+    /**
+     * Writes a snapshot of the graph to the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} and starts its write-ahead log
+     * over.  Snapshots are otherwise written in the background after every
+     * {@link #GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL} mutations.
+     *
+     * @throws IllegalStateException if the graph was not configured with {@link #GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG}
+     */
+    public void snapshot() {
+        if (null == writeAheadLog)
+            throw new IllegalStateException(String.format("The graph was not configured with %s", GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG));
+        try {
+            writeAheadLog.snapshot();
+        } catch (Exception ex) {
+            throw new RuntimeException(String.format("Could not write a snapshot of the graph at %s", graphLocation), ex);
+        }
+    }
+
+    /**
+     * Opens a read-only view of the graph as it is now.  The view is not changed by the writes that are made to the
+     * graph after it was opened and reading from it takes no locks, so a long traversal of the view sees a consistent
+     * graph while other threads carry on writing.  The view keeps the versions of the elements it can see in memory
+     * and must be closed once it is no longer needed.
+     *
+     * @throws IllegalStateException if the graph was not configured with {@link #GREMLIN_TINKERGRAPH_READ_VIEWS}
+     */
+    public TinkerReadView openReadView() {
+        if (null == versions)
+            throw new IllegalStateException(String.format("The graph was not configured with %s", GREMLIN_TINKERGRAPH_READ_VIEWS));
+        return new TinkerReadView(this);
+    }
+
+    /**
+     * Opens a session for loading a large number of elements into the graph.  The indices of the graph are not
+     * maintained until the session is closed, at which point they are rebuilt.
+     *
+     * @throws IllegalStateException if a bulk load of the graph is already open
+     */
+    public synchronized TinkerBulkLoad bulkLoad() {
+        if (null != bulkLoad)
+            throw new IllegalStateException("A bulk load of the graph is already open");
+        return bulkLoad = new TinkerBulkLoad(this);
+    }
+
+    /**
+     * Compacts the graph into a read-only copy that holds its elements in arrays rather than in objects, which takes
+     * less memory and is faster to traverse.  The graph itself is not changed and can be discarded once it is frozen.
+     * The vertices are laid out in the order that is configured by {@link #GREMLIN_TINKERGRAPH_VERTEX_ORDER}.
+     */
+    public TinkerFrozenGraph freeze() {
+        return freeze(vertexOrder);
+    }
+
+    /**
+     * Compacts the graph into a read-only copy as {@link #freeze()} does, laying out the vertices in the specified
+     * order.
+     */
+    public TinkerFrozenGraph freeze(final VertexOrder order) {
+        return new TinkerFrozenGraph(this, order);
+    }
+
+    /**
+     * Gets the statistics of the graph, which are kept up to date as it is changed.
+     */
+    public TinkerStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Subscribes to the changes that are made to the graph from now on, which are numbered in the order that they
+     * are made and held in a ring buffer of the specified capacity until they are polled.  Writes are serialized
+     * while the graph has subscriptions, so the order holds across writer threads for the writes that begin after
+     * this method returns.
+     *
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public TinkerChangeSubscription subscribe(final int capacity) {
+        return changeFeed.subscribe(capacity);
+    }
+
+    /**
+     * Registers the traversal as a view whose result is maintained as the graph changes.  Only traversals of the form
+     * described by {@link TinkerMaterializedView} are supported.
+     *
+     * @throws IllegalArgumentException if the traversal cannot be maintained as a view
+     */
+    public <R> TinkerMaterializedView<R> materialize(final Traversal<?, R> traversal) {
+        return changeFeed.register(this, traversal);
+    }
+
+    /**
+     * Estimates the bytes of heap that the graph retains, broken down by the structures that retain them.  The
+     * estimate walks the whole graph, so it is meant to be made now and then rather than as part of a workload.  It
+     * is also published over JMX when the graph is configured with {@link #GREMLIN_TINKERGRAPH_JMX}.
+     */
+    public TinkerMemoryUsage memoryUsage() {
+        return new TinkerMemoryUsage(this);
     }
 
     @Override
@@ -284,6 +502,8 @@ public final class TinkerGraph implements Graph {
                     io(IoCore.graphson()).readGraph(graphLocation);
                 } else if (graphFormat.equals("gryo")) {
                     io(IoCore.gryo()).readGraph(graphLocation);
+                } else if (graphFormat.equals(TinkerBinarySnapshot.FORMAT)) {
+                    TinkerBinarySnapshot.read(this, f);
                 } else {
                     io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
@@ -311,6 +531,8 @@ public final class TinkerGraph implements Graph {
                 io(IoCore.graphson()).writeGraph(graphLocation);
             } else if (graphFormat.equals("gryo")) {
                 io(IoCore.gryo()).writeGraph(graphLocation);
+            } else if (graphFormat.equals(TinkerBinarySnapshot.FORMAT)) {
+                TinkerBinarySnapshot.write(this, f);
             } else {
                 io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
             }
@@ -335,7 +557,7 @@ public final class TinkerGraph implements Graph {
             // vertex to be findable in OrientDB
             return clazz.isAssignableFrom(ids[0].getClass()) ?
                IteratorUtils.filter(IteratorUtils.map(idList, id -> elements.get(clazz.cast(id).id())).iterator(), Objects::nonNull)
-                : IteratorUtils.filter(IteratorUtils.map(idList, id -> elements.get(idManager.convert(id))).iterator(), Objects::nonNull);
+                : IteratorUtils.filter(IteratorUtils.map(idList, id -> getElement(elements, idManager, id)).iterator(), Objects::nonNull);
         }
         return TinkerHelper.inComputerMode(this) ?
                 (Iterator<T>) (clazz.equals(Vertex.class) ?
@@ -344,6 +566,86 @@ public final class TinkerGraph implements Graph {
                 iterator;
     }
 
+    /**
+     * Looks up an element by an identifier that has not yet been converted by the {@link IdManager}.  When the
+     * elements are held in a {@link TinkerLongMap} a numeric identifier is resolved directly to its primitive key,
+     * which avoids the boxing that {@link IdManager#convert(Object)} would otherwise perform.
+     */
+    private static <T extends Element> T getElement(final Map<Object, T> elements, final IdManager idManager, final Object id) {
+        if (elements instanceof TinkerLongMap && id instanceof Number)
+            return ((TinkerLongMap<T>) elements).get(idManager == DefaultIdManager.INTEGER ?
+                    ((Number) id).intValue() : ((Number) id).longValue());
+        else
+            return elements.get(idManager.convert(id));
+    }
+
+    /**
+     * Gets the canonical instance of a label or property key so that all the elements of the graph share a single
+     * {@code String} for it rather than each holding a copy read from a file.  The canonical instance is the one
+     * returned by {@link String#intern()}, which is also the instance of the string literals of the code that
+     * queries the graph, so that comparing the two usually succeeds on identity.
+     */
+    String intern(final String symbol) {
+        final String interned = this.symbols.get(symbol);
+        return null == interned ? this.symbols.computeIfAbsent(symbol, String::intern) : interned;
+    }
+
+    /**
+     * Estimates the bytes of the symbols that the elements share and of the ids that edge labels are interned to.
+     */
+    long symbolBytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.symbols.size()) + TinkerMemoryUsage.mapBytes(this.edgeLabelIds.size()) +
+                (long) this.edgeLabelIds.size() * TinkerMemoryUsage.object(0, Integer.BYTES);
+        for (final String symbol : this.symbols.values()) {
+            bytes += TinkerMemoryUsage.valueBytes(symbol);
+        }
+        return bytes;
+    }
+
+    /**
+     * Starts a mutation of the graph.  When the graph keeps versions for {@link TinkerReadView} instances, mutations
+     * are serialized and the changes that are made until the matching {@link #endWrite()} become visible to new
+     * views together.  Otherwise mutations are only serialized while the {@link TinkerChangeFeed} is in use, so that
+     * the changes are numbered in the order in which they are applied.  Calls may be nested, in which case only the
+     * outermost pair delimits the write.
+     */
+    void beginWrite() {
+        if (null != this.versions) this.versions.beginWrite();
+        else this.changeFeed.beginWrite();
+    }
+
+    void endWrite() {
+        if (null != this.versions) this.versions.endWrite();
+        else this.changeFeed.endWrite();
+    }
+
+    /**
+     * Interns an edge label to the id that {@link TinkerAdjacency} uses to partition the edges of a vertex.
+     */
+    int edgeLabelId(final String label) {
+        return this.edgeLabelIds.computeIfAbsent(label, l -> this.nextEdgeLabelId.getAndIncrement());
+    }
+
+    /**
+     * Gets the id of an edge label that was interned by {@link #edgeLabelId(String)} or {@code -1} if no edge with
+     * that label was ever added to the graph.
+     */
+    int existingEdgeLabelId(final String label) {
+        final Integer id = this.edgeLabelIds.get(label);
+        return null == id ? -1 : id;
+    }
+
+    /**
+     * Gets the ids of every edge label that was interned by {@link #edgeLabelId(String)}.
+     */
+    Collection<Integer> edgeLabelIds() {
+        return this.edgeLabelIds.values();
+    }
+
+    private static boolean isPrimitiveIdManager(final IdManager<?> idManager) {
+        return idManager == DefaultIdManager.LONG || idManager == DefaultIdManager.INTEGER;
+    }
+
     /**
      * Return TinkerGraph feature set.
      * <p/>
@@ -494,12 +796,26 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        this.createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. If the key is already indexed with a different type, the existing index is replaced.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        validateNoBulkLoad();
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createKeyIndex(key, indexType);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createKeyIndex(key, indexType);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -513,6 +829,7 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void dropIndex(final String key, final Class<E> elementClass) {
+        validateNoBulkLoad();
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
@@ -539,6 +856,215 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered list of
+     * property keys. The index answers lookups that have an equality predicate for every one of the keys.
+     *
+     * @param keys         the property keys to index together, of which there must be at least two
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        validateNoBulkLoad();
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and list of keys.
+     *
+     * @param keys         the property keys of the composite index to drop
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        validateNoBulkLoad();
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the key lists of all the composite indices for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of key lists currently being indexed together
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the keys currently being indexed with the specified {@link IndexType} for said element class
+     * ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the indexed keys for
+     * @param indexType    the type of index to get the keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being indexed with the index type
+     */
+    public <E extends Element> Set<String> getIndexedKeys(final Class<E> elementClass, final IndexType indexType) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getIndexedKeys(indexType);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getIndexedKeys(indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a vertex-centric index that keeps the edges with said label that are incident to each vertex sorted by
+     * said property key, so that the edges of a vertex can be read in order of the key, or within a range of it,
+     * without iterating all of them. Edges that do not have the key are not indexed. When the index is created, all
+     * existing edges with the label are indexed.
+     *
+     * @param edgeLabel the label of the edges to index
+     * @param key       the property key to sort the edges by
+     */
+    public void createVertexCentricIndex(final String edgeLabel, final String key) {
+        validateNoBulkLoad();
+        ElementHelper.validateLabel(edgeLabel);
+        if (null == key)
+            throw Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        this.vertexCentricIndices.computeIfAbsent(edgeLabel, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new TinkerVertexCentricIndex(this, edgeLabel, key));
+    }
+
+    /**
+     * Drop the vertex-centric index for the specified edge label and key.
+     *
+     * @param edgeLabel the label of the edges of the index to drop
+     * @param key       the property key of the index to drop
+     */
+    public void dropVertexCentricIndex(final String edgeLabel, final String key) {
+        validateNoBulkLoad();
+        this.vertexCentricIndices.computeIfPresent(edgeLabel, (l, indices) -> {
+            indices.remove(key);
+            return indices.isEmpty() ? null : indices;
+        });
+    }
+
+    /**
+     * Return the keys of the vertex-centric indices for said edge label.
+     *
+     * @param edgeLabel the label of the edges to get the indexed keys for
+     * @return the set of keys the edges with the label are currently sorted by
+     */
+    public Set<String> getVertexCentricIndexedKeys(final String edgeLabel) {
+        final Map<String, TinkerVertexCentricIndex> indices = this.vertexCentricIndices.get(edgeLabel);
+        return null == indices ? Collections.emptySet() : Collections.unmodifiableSet(indices.keySet());
+    }
+
+    /**
+     * Create a column for said vertex property key, which keeps the values of the key for all the vertices in a dense
+     * array, so that traversals that read the values of the key for every vertex read them in sequence from the column
+     * rather than from each vertex. When the column is created, the values of all existing vertices are added to it.
+     *
+     * @param key the vertex property key to keep in a column
+     */
+    public void createColumn(final String key) {
+        validateNoBulkLoad();
+        if (null == key)
+            throw Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the column cannot be an empty string");
+        if (Graph.Hidden.isHidden(key))
+            throw Property.Exceptions.propertyKeyCanNotBeAHiddenKey(key);
+        if (null == this.columns) this.columns = new TinkerColumns(this);
+        this.columns.createColumn(key);
+    }
+
+    /**
+     * Drop the column for the specified vertex property key.
+     *
+     * @param key the vertex property key of the column to drop
+     */
+    public void dropColumn(final String key) {
+        validateNoBulkLoad();
+        if (null != this.columns) this.columns.dropColumn(key);
+    }
+
+    /**
+     * Return the vertex property keys that are currently kept in columns.
+     *
+     * @return the set of keys that have a column
+     */
+    public Set<String> getColumnKeys() {
+        return null == this.columns ? Collections.emptySet() : this.columns.getColumnKeys();
+    }
+
+    /**
+     * The kinds of index that TinkerGraph can maintain for a property key.
+     */
+    public enum IndexType {
+        /**
+         * Maps each value to the elements that have it, which answers equality lookups.
+         */
+        HASH,
+
+        /**
+         * Keeps the values in sorted order, which answers equality lookups as well as {@code gt}, {@code gte},
+         * {@code lt}, {@code lte}, {@code between}, {@code inside} and {@code outside} predicates.
+         */
+        RANGE,
+
+        /**
+         * Keeps the values in sorted order and the tokens of the string values in an inverted index, which answers
+         * equality lookups as well as the {@code startsWith} and {@code containsToken} predicates of
+         * {@code TinkerP}.
+         */
+        TEXT
+    }
+
+    /**
+     * The orders in which TinkerGraph can lay out its vertices in the representations that place them one after the
+     * other, which are the {@link TinkerFrozenGraph} and the {@code binary} graph format.  Traversals that visit the
+     * neighbours of a vertex read less scattered memory when the neighbours are laid out close to it.
+     */
+    public enum VertexOrder {
+        /**
+         * Keeps the order in which the vertices are held by the graph, which follows the hash of their identifiers.
+         */
+        NONE,
+
+        /**
+         * Orders the vertices by descending degree, which places the vertices that are traversed most often together.
+         */
+        DEGREE,
+
+        /**
+         * Orders the vertices breadth first, starting each connected component from its vertex with the highest degree,
+         * which places each vertex close to its neighbours.
+         */
+        BFS
+    }
+
+    private void validateNoBulkLoad() {
+        if (null != bulkLoad)
+            throw new IllegalStateException("The indices of the graph cannot be changed while a bulk load is open");
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -592,7 +1118,7 @@ public final class TinkerGraph implements Graph {
         LONG {
             @Override
             public Long getNextId(final TinkerGraph graph) {
-                return Stream.generate(() -> (graph.currentId.incrementAndGet())).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
+                return Stream.generate(graph.idAllocator::next).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
             }
 
             @Override
@@ -622,7 +1148,7 @@ public final class TinkerGraph implements Graph {
         INTEGER {
             @Override
             public Integer getNextId(final TinkerGraph graph) {
-                return Stream.generate(() -> (graph.currentId.incrementAndGet())).map(Long::intValue).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
+                return Stream.generate(graph.idAllocator::next).map(Long::intValue).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
             }
 
             @Override
@@ -682,7 +1208,7 @@ public final class TinkerGraph implements Graph {
         ANY {
             @Override
             public Long getNextId(final TinkerGraph graph) {
-                return Stream.generate(() -> (graph.currentId.incrementAndGet())).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
+                return Stream.generate(graph.idAllocator::next).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
             }
 
             @Override
@@ -33,9 +33,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class TinkerGraphVariables implements Graph.Variables {
 
     private final Map<String, Object> variables = new ConcurrentHashMap<>();
+    private final TinkerGraph graph;
 
     public TinkerGraphVariables() {
+        this(null);
+    }
 
+    TinkerGraphVariables(final TinkerGraph graph) {
+        this.graph = graph;
     }
 
     @Override
@@ -51,12 +56,14 @@ public final class TinkerGraphVariables implements Graph.Variables {
     @Override
     public void remove(final String key) {
         this.variables.remove(key);
+        if (null != this.graph && null != this.graph.writeAheadLog) this.graph.writeAheadLog.removeVariable(key);
     }
 
     @Override
     public void set(final String key, final Object value) {
         GraphVariableHelper.validateVariable(key, value);
         this.variables.put(key, value);
+        if (null != this.graph && null != this.graph.writeAheadLog) this.graph.writeAheadLog.setVariable(key, value);
     }
 
     public String toString() {
@@ -20,24 +20,26 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.TinkerText;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Stream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -53,41 +55,65 @@ public final class TinkerHelper {
 
         Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
 
-        final Edge edge;
-        if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
-                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
-        } else {
-            idValue = graph.edgeIdManager.getNextId(graph);
-        }
-
-        edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
-        return edge;
+        graph.beginWrite();
+        try {
+            final Edge edge;
+            if (null != idValue) {
+                if (graph.edges.containsKey(idValue))
+                    throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+            } else {
+                idValue = graph.edgeIdManager.getNextId(graph);
+            }
 
+            edge = new TinkerEdge(idValue, outVertex, label, inVertex);
+            graph.edges.put(edge.id(), edge);
+            graph.edgeLabelIndex.add((TinkerEdge) edge);
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            TinkerHelper.addInEdge(inVertex, label, edge);
+            // the edge is only logged once a snapshot that the record may trigger would find it from its vertices
+            if (null != graph.writeAheadLog) graph.writeAheadLog.addEdge(idValue, label, outVertex.id(), inVertex.id());
+            graph.changeFeed.edgeAdded((TinkerEdge) edge);
+            if (null != graph.versions) {
+                graph.versions.added((TinkerEdge) edge);
+                graph.versions.linked(outVertex);
+                graph.versions.linked(inVertex);
+            }
+            ElementHelper.attachProperties(edge, keyValues);
+            return edge;
+        } finally {
+            graph.endWrite();
+        }
     }
 
+    /**
+     * Edges that are added from different threads may share a vertex, as when a graph is read by a
+     * {@code GryoReader} with several workers, so the adjacency of the vertex is only changed while holding its lock.
+     * Every way of adding an edge passes through here, so it is also where the edge key index, the vertex-centric
+     * indices and the degree statistics are maintained.
+     */
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.outEdges.put(label, edges);
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final int labelId = ((TinkerEdge) edge).labelId;
+        synchronized (vertex) {
+            if (null == vertex.outEdges) vertex.outEdges = new TinkerAdjacency(Direction.OUT);
+            vertex.outEdges.add((TinkerEdge) edge);
+            final int degree = vertex.outEdges.size(labelId);
+            graph.statistics.degreeChanged(labelId, Direction.OUT, degree - 1, degree);
         }
-        edges.add(edge);
+        if (null != graph.edgeKeyIndex) graph.edgeKeyIndex.add((TinkerEdge) edge);
+        final Map<String, TinkerVertexCentricIndex> vertexCentricIndices = graph.vertexCentricIndices.get(label);
+        if (null != vertexCentricIndices) vertexCentricIndices.values().forEach(index -> index.add((TinkerEdge) edge));
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.inEdges.put(label, edges);
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final int labelId = ((TinkerEdge) edge).labelId;
+        synchronized (vertex) {
+            if (null == vertex.inEdges) vertex.inEdges = new TinkerAdjacency(Direction.IN);
+            vertex.inEdges.add((TinkerEdge) edge);
+            final int degree = vertex.inEdges.size(labelId);
+            graph.statistics.degreeChanged(labelId, Direction.IN, degree - 1, degree);
         }
-        edges.add(edge);
     }
 
     public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
@@ -98,6 +124,92 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Gets the vertices with a value of a {@link TinkerGraph.IndexType#RANGE} indexed key between the bounds, or
+     * {@code null} if the key has values that can not be compared with the bounds and the vertices have to be filtered
+     * instead.
+     */
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key,
+                                                      final Object lower, final boolean lowerInclusive,
+                                                      final Object upper, final boolean upperInclusive) {
+        return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.getRange(key, lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    /**
+     * Gets the edges with a value of a {@link TinkerGraph.IndexType#RANGE} indexed key between the bounds, or
+     * {@code null} if the key has values that can not be compared with the bounds and the edges have to be filtered
+     * instead.
+     */
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key,
+                                                  final Object lower, final boolean lowerInclusive,
+                                                  final Object upper, final boolean upperInclusive) {
+        return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.getRange(key, lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final TinkerText predicate, final String text) {
+        return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.getText(key, predicate, text);
+    }
+
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final TinkerText predicate, final String text) {
+        return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.getText(key, predicate, text);
+    }
+
+    public static Map<Object, Vertex> getVertices(final TinkerGraph graph) {
+        return graph.vertices;
+    }
+
+    public static Map<Object, Edge> getEdges(final TinkerGraph graph) {
+        return graph.edges;
+    }
+
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(keys, values);
+    }
+
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(keys, values);
+    }
+
+    public static long countVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.vertexIndex ? 0 : graph.vertexIndex.count(key, value);
+    }
+
+    public static long countEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.edgeIndex ? 0 : graph.edgeIndex.count(key, value);
+    }
+
+    public static long countVertexIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.vertexIndex ? 0 : graph.vertexIndex.count(keys, values);
+    }
+
+    public static long countEdgeIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.edgeIndex ? 0 : graph.edgeIndex.count(keys, values);
+    }
+
+    public static Set<TinkerVertex> queryVertexLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.vertexLabelIndex.get(label);
+    }
+
+    public static Set<TinkerEdge> queryEdgeLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.edgeLabelIndex.get(label);
+    }
+
+    public static long countVertexLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.vertexLabelIndex.count(label);
+    }
+
+    public static long countEdgeLabelIndex(final TinkerGraph graph, final String label) {
+        return graph.edgeLabelIndex.count(label);
+    }
+
+    /**
+     * Gets the instance of a label or property key that the elements of the graph share, so that it compares with
+     * the keys of the elements on identity.
+     */
+    public static String intern(final TinkerGraph graph, final String symbol) {
+        return graph.intern(symbol);
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -122,85 +234,238 @@ public final class TinkerHelper {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.autoUpdate(key, newValue, oldValue, edge);
+        final TinkerVertexCentricIndex vertexCentricIndex = getVertexCentricIndex(graph, edge.label, key);
+        if (null != vertexCentricIndex) {
+            if (null != oldValue) vertexCentricIndex.remove(edge, oldValue);
+            vertexCentricIndex.add(edge, newValue);
+        }
     }
 
     public static void autoUpdateIndex(final TinkerVertex vertex, final String key, final Object newValue, final Object oldValue) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
             graph.vertexIndex.autoUpdate(key, newValue, oldValue, vertex);
+        if (graph.columns != null)
+            graph.columns.update(vertex, key);
     }
 
     public static void removeElementIndex(final TinkerVertex vertex) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
             graph.vertexIndex.removeElement(vertex);
+        if (graph.columns != null)
+            graph.columns.remove(vertex);
     }
 
     public static void removeElementIndex(final TinkerEdge edge) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.removeElement(edge);
+        final Map<String, TinkerVertexCentricIndex> vertexCentricIndices = graph.vertexCentricIndices.get(edge.label);
+        if (null != vertexCentricIndices && null != edge.properties) {
+            vertexCentricIndices.forEach((key, index) -> {
+                final Property<?> property = edge.properties.get(key);
+                if (null != property) index.remove(edge, property.value());
+            });
+        }
     }
 
     public static void removeIndex(final TinkerVertex vertex, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
-            graph.vertexIndex.remove(key, value, vertex);
+            graph.vertexIndex.autoRemove(key, value, vertex);
+        if (graph.columns != null)
+            graph.columns.update(vertex, key);
     }
 
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
-            graph.edgeIndex.remove(key, value, edge);
+            graph.edgeIndex.autoRemove(key, value, edge);
+        final TinkerVertexCentricIndex vertexCentricIndex = getVertexCentricIndex(graph, edge.label, key);
+        if (null != vertexCentricIndex) vertexCentricIndex.remove(edge, value);
+    }
+
+    private static TinkerVertexCentricIndex getVertexCentricIndex(final TinkerGraph graph, final String label, final String key) {
+        final Map<String, TinkerVertexCentricIndex> vertexCentricIndices = graph.vertexCentricIndices.get(label);
+        return null == vertexCentricIndices ? null : vertexCentricIndices.get(key);
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Edge> edges = new ArrayList<>();
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final List<TinkerEdge> edges = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
                 if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
+                    vertex.outEdges.addEdges(edges);
                 else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
+                    for (final String edgeLabel : edgeLabels) {
+                        vertex.outEdges.addEdges(edges, graph.existingEdgeLabelId(edgeLabel));
+                    }
             }
         }
         if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
             if (vertex.inEdges != null) {
                 if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
+                    vertex.inEdges.addEdges(edges);
                 else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
+                    for (final String edgeLabel : edgeLabels) {
+                        vertex.inEdges.addEdges(edges, graph.existingEdgeLabelId(edgeLabel));
+                    }
+            }
+        }
+        return edges.iterator();
+    }
+
+    public static boolean hasEdgeKeyIndex(final TinkerGraph graph) {
+        return null != graph.edgeKeyIndex;
+    }
+
+    /**
+     * Gets the edges of a vertex in the {@link Direction#OUT} or {@link Direction#IN} direction that have one of the
+     * labels and whose adjacent vertex passes a {@code T.id} container that tests for equality with one or more
+     * identifiers.  When the graph was configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX} the
+     * edges are only looked up in the edge key index, which holds every form of an identifier that the container
+     * could match, and are still tested by the container.
+     */
+    public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String[] edgeLabels,
+                                                final HasContainer adjacentVertexId) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final Direction adjacent = direction.opposite();
+        if (null == graph.edgeKeyIndex)
+            return IteratorUtils.filter(getEdges(vertex, direction, edgeLabels),
+                    edge -> adjacentVertexId.test(Direction.OUT == adjacent ? edge.outVertex : edge.inVertex));
+
+        final Object value = adjacentVertexId.getValue();
+        final Collection<?> values = value instanceof Collection ? (Collection<?>) value : Collections.singletonList(value);
+        final Collection<Integer> labelIds;
+        if (0 == edgeLabels.length)
+            labelIds = graph.edgeLabelIds();
+        else {
+            labelIds = new ArrayList<>(edgeLabels.length);
+            for (final String edgeLabel : edgeLabels) {
+                final int labelId = graph.existingEdgeLabelId(edgeLabel);
+                if (-1 != labelId) labelIds.add(labelId);
+            }
+        }
+
+        // a value can be found under more than one form of the same identifier
+        final Set<TinkerEdge> edges = new LinkedHashSet<>();
+        for (final int labelId : labelIds) {
+            for (final Object id : values) {
+                graph.edgeKeyIndex.addEdges(edges, vertex, direction, labelId, id);
             }
         }
-        return (Iterator) edges.iterator();
+        edges.removeIf(edge -> !adjacentVertexId.test(Direction.OUT == adjacent ? edge.outVertex : edge.inVertex));
+        return edges.iterator();
+    }
+
+    public static boolean hasVertexCentricIndex(final TinkerGraph graph, final String label, final String key) {
+        return null != getVertexCentricIndex(graph, label, key);
+    }
+
+    /**
+     * Gets the edges of a vertex in the {@link Direction#OUT} or {@link Direction#IN} direction that have the label
+     * and a value for the key between the bounds, in ascending or descending order of that value, from the
+     * vertex-centric index of the label and key.  A {@code null} bound leaves that end of the range open.  Returns
+     * {@code null} if there is no such index or it can not order the values of the edges of the vertex in the same way
+     * as the standard steps do.
+     */
+    public static Iterator<TinkerEdge> getSortedEdges(final TinkerVertex vertex, final Direction direction,
+                                                      final String label, final String key,
+                                                      final Object lower, final boolean lowerInclusive,
+                                                      final Object upper, final boolean upperInclusive,
+                                                      final boolean descending) {
+        final TinkerVertexCentricIndex index = getVertexCentricIndex((TinkerGraph) vertex.graph(), label, key);
+        return null == index ? null : index.get(vertex, direction, lower, lowerInclusive, upper, upperInclusive, descending);
+    }
+
+    /**
+     * Gets the edges of a vertex that have the label but not the key and so are left out of the vertex-centric index
+     * of the label and key.  The adjacency of the vertex is only iterated when the index holds fewer of its edges
+     * than it has with the label.
+     */
+    public static Iterator<TinkerEdge> getEdgesWithoutKey(final TinkerVertex vertex, final Direction direction,
+                                                          final String label, final String key) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final TinkerVertexCentricIndex index = getVertexCentricIndex(graph, label, key);
+        final TinkerAdjacency adjacency = Direction.OUT == direction ? vertex.outEdges : vertex.inEdges;
+        if (null == adjacency || (null != index &&
+                index.size(vertex, direction) == adjacency.size(graph.existingEdgeLabelId(label))))
+            return Collections.emptyIterator();
+        return IteratorUtils.filter(getEdges(vertex, direction, label), edge -> !edge.property(key).isPresent());
+    }
+
+    /**
+     * Reads the values of a vertex property key of all the vertices that match the {@link HasContainer} objects from
+     * the column of the key.  When {@code strict}, a vertex that does not have exactly one value for the key fails in
+     * the same way that {@link Vertex#value(String)} does.  Returns {@code null} if the key does not have a column.
+     */
+    public static Iterator<Object> scanColumn(final TinkerGraph graph, final String key,
+                                              final List<HasContainer> hasContainers, final boolean strict) {
+        final TinkerColumns columns = graph.columns;
+        return null == columns ? null : columns.scan(key, hasContainers, strict);
+    }
+
+    /**
+     * Reads the values of a vertex property key of the vertices, which were already found to match, from the column
+     * of the key by the ordinals of the vertices.  Returns {@code null} if the key does not have a column.
+     */
+    public static Iterator<Object> readColumn(final TinkerGraph graph, final String key,
+                                              final Iterator<? extends Vertex> vertices, final boolean strict) {
+        final TinkerColumns columns = graph.columns;
+        return null == columns ? null : columns.read(key, vertices, strict);
+    }
+
+    /**
+     * Gets the number of edges that {@link #getEdges(TinkerVertex, Direction, String...)} would return from the sizes
+     * of the adjacency of the vertex without iterating them.
+     */
+    public static long getDegree(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        long degree = 0;
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH))
+            degree = degree + getDegree(graph, vertex.outEdges, edgeLabels);
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH))
+            degree = degree + getDegree(graph, vertex.inEdges, edgeLabels);
+        return degree;
+    }
+
+    private static long getDegree(final TinkerGraph graph, final TinkerAdjacency adjacency, final String... edgeLabels) {
+        if (null == adjacency)
+            return 0;
+        if (edgeLabels.length == 0)
+            return adjacency.size();
+        long degree = 0;
+        for (final String edgeLabel : edgeLabels) {
+            degree = degree + adjacency.size(graph.existingEdgeLabelId(edgeLabel));
+        }
+        return degree;
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Vertex> vertices = new ArrayList<>();
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        final List<TinkerVertex> vertices = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
                 if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
+                    vertex.outEdges.addVertices(vertices);
                 else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
+                    for (final String edgeLabel : edgeLabels) {
+                        vertex.outEdges.addVertices(vertices, graph.existingEdgeLabelId(edgeLabel));
+                    }
             }
         }
         if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
             if (vertex.inEdges != null) {
                 if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
+                    vertex.inEdges.addVertices(vertices);
                 else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
+                    for (final String edgeLabel : edgeLabels) {
+                        vertex.inEdges.addVertices(vertices, graph.existingEdgeLabelId(edgeLabel));
+                    }
             }
         }
-        return (Iterator) vertices.iterator();
+        return vertices.iterator();
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the numeric identifiers of a {@link TinkerGraph} for the {@link TinkerGraph.DefaultIdManager}.  Rather
+ * than incrementing a shared counter for every identifier, each thread leases a block of consecutive identifiers from
+ * the counter and hands them out without synchronization until the block runs out, so concurrent writers only touch
+ * the counter once per block.  The identifiers of a thread are therefore unique and increasing, but those of
+ * different threads interleave by block rather than by the order in which elements were added.
+ */
+final class TinkerIdAllocator {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final AtomicLong currentId = new AtomicLong(-1l);
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    /**
+     * Incremented when the counter is reset, so that the blocks that threads leased before are not used after.
+     */
+    private volatile int generation = 0;
+
+    long next() {
+        final Block block = this.blocks.get();
+        if (block.next > block.last || block.generation != this.generation) {
+            block.generation = this.generation;
+            block.next = this.currentId.getAndAdd(BLOCK_SIZE) + 1;
+            block.last = block.next + BLOCK_SIZE - 1;
+        }
+        return block.next++;
+    }
+
+    void reset() {
+        this.generation++;
+        this.currentId.set(-1l);
+    }
+
+    private static final class Block {
+        private int generation = -1;
+        private long next = 0;
+        private long last = -1;
+    }
+}
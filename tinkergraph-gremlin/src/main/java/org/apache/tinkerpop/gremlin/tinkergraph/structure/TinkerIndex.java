@@ -18,27 +18,61 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.TinkerText;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerIndex<T extends Element> {
 
+    /**
+     * Orders the values of a {@link TinkerGraph.IndexType#RANGE} index. Numbers sort before all other values and are
+     * compared by magnitude regardless of their class, in the same way that {@code Compare} evaluates them.  All other
+     * values are grouped by class and ordered within the group by {@link Comparable#compareTo(Object)}.  Values that
+     * are not {@code Comparable} have no place in the order, so they are kept out of the sorted values of a key.
+     */
+    static final Comparator<Object> RANGE_ORDER = TinkerIndex::compareRangeValues;
+
+    private static final String LABEL_KEY = org.apache.tinkerpop.gremlin.structure.T.label.getAccessor();
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
     private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> rangeIndexedKeys = new HashSet<>();
+    private final Set<String> textIndexedKeys = new HashSet<>();
+
+    /**
+     * The inverted index of the tokens of the string values of each {@link TinkerGraph.IndexType#TEXT} key, which
+     * counts the values of an element that have the token so that the element is only removed from the token with
+     * the last of them.
+     */
+    private final Map<String, Map<String, Map<T, Integer>>> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * The values of each {@link TinkerGraph.IndexType#RANGE} or {@link TinkerGraph.IndexType#TEXT} key that are not
+     * {@code Comparable} and so can not be held with the sorted values of the key.
+     */
+    private final Map<String, Map<Object, Set<T>>> unordered = new ConcurrentHashMap<>();
+    private final Map<List<String>, CompositeIndex<T>> compositeIndexes = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
@@ -47,22 +81,30 @@ final class TinkerIndex<T extends Element> {
     }
 
     protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (keyMap == null) {
-            keyMap = new ConcurrentHashMap<>();
-            this.index.put(key, keyMap);
-        }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            objects = new HashSet<>();
-            keyMap.put(value, objects);
+        final boolean sorted = this.rangeIndexedKeys.contains(key) || this.textIndexedKeys.contains(key);
+        final Map<Object, Set<T>> keyMap = sorted && !(value instanceof Comparable) ?
+                this.unordered.computeIfAbsent(key, k -> new ConcurrentHashMap<>()) :
+                this.index.computeIfAbsent(key, k -> sorted ? new ConcurrentSkipListMap<>(RANGE_ORDER) : new ConcurrentHashMap<>());
+        if (keyMap.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(element) && value instanceof String &&
+                this.textIndexedKeys.contains(key)) {
+            final Map<String, Map<T, Integer>> tokenMap = this.tokens.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+            for (final String token : new HashSet<>(TinkerText.tokenize((String) value))) {
+                tokenMap.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).merge(element, 1, Integer::sum);
+            }
         }
-        objects.add(element);
+    }
 
+    /**
+     * Gets the values of the key that the value is held with, which for a sorted key are the sorted values unless the
+     * value is not {@code Comparable}.
+     */
+    private Map<Object, Set<T>> keyMap(final String key, final Object value) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return keyMap instanceof NavigableMap && !(value instanceof Comparable) ? this.unordered.get(key) : keyMap;
     }
 
     public List<T> get(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Map<Object, Set<T>> keyMap = this.keyMap(key, value);
         if (null == keyMap) {
             return Collections.emptyList();
         } else {
@@ -74,8 +116,70 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
-    public long count(final String key, final Object value) {
+    /**
+     * Gets the elements of a {@link TinkerGraph.IndexType#RANGE} index with a value between the specified bounds,
+     * where a {@code null} bound leaves that end of the range open.  The result may contain elements that do not
+     * satisfy the bounds, and so callers should still filter on them.  Returns {@code null} if the key has values that
+     * can not be compared with the bounds, as a predicate on the key then fails for those values and the index must
+     * not hide that by skipping them, so callers should filter all of the elements instead.
+     */
+    public List<T> getRange(final String key, final Object lower, final boolean lowerInclusive,
+                            final Object upper, final boolean upperInclusive) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (!this.rangeIndexedKeys.contains(key) || (null == lower && null == upper))
+            return Collections.emptyList();
+        final Object anyBound = null == lower ? upper : lower;
+        final Map<Object, Set<T>> unorderedMap = this.unordered.get(key);
+        if (!(anyBound instanceof Comparable) || (null != unorderedMap && !unorderedMap.isEmpty()) ||
+                (null != lower && null != upper && !sameRangeGroup(lower, upper)))
+            return null;
+        if (!(keyMap instanceof NavigableMap) || keyMap.isEmpty())
+            return Collections.emptyList();
+
+        // the values are grouped by kind, so they can all be compared with the bound if the first and last can
+        final NavigableMap<Object, Set<T>> rangeMap = (NavigableMap<Object, Set<T>>) keyMap;
+        if (!sameRangeGroup(anyBound, rangeMap.firstKey()) || !sameRangeGroup(anyBound, rangeMap.lastKey()))
+            return null;
+        final Set<T> elements = new LinkedHashSet<>();
+        if (null != lower && null != upper) {
+            if (RANGE_ORDER.compare(lower, upper) > 0) return Collections.emptyList();
+            rangeMap.subMap(lower, lowerInclusive, upper, upperInclusive).values().forEach(elements::addAll);
+        } else {
+            (null == lower ? rangeMap.headMap(upper, upperInclusive) : rangeMap.tailMap(lower, lowerInclusive))
+                    .values().forEach(elements::addAll);
+        }
+        return new ArrayList<>(elements);
+    }
+
+    /**
+     * Gets the elements of a {@link TinkerGraph.IndexType#TEXT} index with a string value that satisfies the
+     * {@link TinkerText} predicate.  A prefix is answered from the sorted values of the key and a token from the
+     * inverted index of their tokens, so the cost is proportional to the number of matching values rather than to the
+     * number of elements of the graph.
+     */
+    public List<T> getText(final String key, final TinkerText predicate, final String text) {
+        if (!this.textIndexedKeys.contains(key))
+            return Collections.emptyList();
+
+        if (TinkerText.startsWith == predicate) {
+            final Map<Object, Set<T>> keyMap = this.index.get(key);
+            if (!(keyMap instanceof NavigableMap))
+                return Collections.emptyList();
+            final Set<T> elements = new LinkedHashSet<>();
+            for (final Map.Entry<Object, Set<T>> entry : ((NavigableMap<Object, Set<T>>) keyMap).tailMap(text, true).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !((String) entry.getKey()).startsWith(text)) break;
+                elements.addAll(entry.getValue());
+            }
+            return new ArrayList<>(elements);
+        } else {
+            final Map<String, Map<T, Integer>> tokenMap = this.tokens.get(key);
+            final Map<T, Integer> elements = null == tokenMap ? null : tokenMap.get(text.toLowerCase(Locale.ROOT));
+            return null == elements ? Collections.emptyList() : new ArrayList<>(elements.keySet());
+        }
+    }
+
+    public long count(final String key, final Object value) {
+        final Map<Object, Set<T>> keyMap = this.keyMap(key, value);
         if (null == keyMap) {
             return 0;
         } else {
@@ -87,12 +191,47 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
-    public void remove(final String key, final Object value, final T element) {
+    /**
+     * Gets the number of distinct values of the key in the index, as no value is kept once it has no elements.
+     */
+    public long distinctValueCount(final String key) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Map<Object, Set<T>> unorderedMap = this.unordered.get(key);
+        return (null == keyMap ? 0 : keyMap.size()) + (null == unorderedMap ? 0 : unorderedMap.size());
+    }
+
+    /**
+     * Estimates the bytes of the index, not counting the values that it shares with the properties of the elements.
+     */
+    public long bytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.index.size()) + TinkerMemoryUsage.mapBytes(this.unordered.size());
+        final List<Map<Object, Set<T>>> keyMaps = new ArrayList<>(this.index.values());
+        keyMaps.addAll(this.unordered.values());
+        for (final Map<Object, Set<T>> keyMap : keyMaps) {
+            bytes += TinkerMemoryUsage.mapBytes(keyMap.size());
+            for (final Set<T> elements : keyMap.values()) {
+                bytes += TinkerMemoryUsage.mapBytes(elements.size());
+            }
+        }
+        for (final Map<String, Map<T, Integer>> tokenMap : this.tokens.values()) {
+            bytes += TinkerMemoryUsage.mapBytes(tokenMap.size());
+            for (final Map.Entry<String, Map<T, Integer>> entry : tokenMap.entrySet()) {
+                bytes += TinkerMemoryUsage.valueBytes(entry.getKey()) + TinkerMemoryUsage.mapBytes(entry.getValue().size());
+            }
+        }
+        for (final CompositeIndex<T> compositeIndex : this.compositeIndexes.values()) {
+            bytes += compositeIndex.bytes();
+        }
+        return bytes;
+    }
+
+    public void remove(final String key, final Object value, final T element) {
+        final Map<Object, Set<T>> keyMap = this.keyMap(key, value);
         if (null != keyMap) {
             Set<T> objects = keyMap.get(value);
             if (null != objects) {
-                objects.remove(element);
+                if (objects.remove(element) && value instanceof String && this.textIndexedKeys.contains(key))
+                    this.removeTokens(key, (String) value, element);
                 if (objects.size() == 0) {
                     keyMap.remove(value);
                 }
@@ -100,12 +239,51 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    private void removeTokens(final String key, final String value, final T element) {
+        final Map<String, Map<T, Integer>> tokenMap = this.tokens.get(key);
+        if (null == tokenMap) return;
+        for (final String token : new HashSet<>(TinkerText.tokenize(value))) {
+            final Map<T, Integer> elements = tokenMap.get(token);
+            if (null != elements) {
+                elements.computeIfPresent(element, (e, count) -> 1 == count ? null : count - 1);
+                if (elements.isEmpty()) tokenMap.remove(token);
+            }
+        }
+    }
+
+    public List<T> get(final List<String> keys, final List<Object> values) {
+        final CompositeIndex<T> compositeIndex = this.compositeIndexes.get(keys);
+        if (null == compositeIndex) {
+            return Collections.emptyList();
+        } else {
+            final Set<T> set = compositeIndex.index.get(values);
+            return null == set ? Collections.emptyList() : new ArrayList<>(set);
+        }
+    }
+
+    public long count(final List<String> keys, final List<Object> values) {
+        final CompositeIndex<T> compositeIndex = this.compositeIndexes.get(keys);
+        if (null == compositeIndex) {
+            return 0;
+        } else {
+            final Set<T> set = compositeIndex.index.get(values);
+            return null == set ? 0 : set.size();
+        }
+    }
+
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
             for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
-                }
+                map.values().removeIf(set -> set.remove(element) && set.isEmpty());
+            }
+            for (final Map<Object, Set<T>> map : this.unordered.values()) {
+                map.values().removeIf(set -> set.remove(element) && set.isEmpty());
+            }
+            for (final Map<String, Map<T, Integer>> tokenMap : this.tokens.values()) {
+                tokenMap.values().removeIf(elements -> null != elements.remove(element) && elements.isEmpty());
+            }
+            for (final CompositeIndex<T> compositeIndex : this.compositeIndexes.values()) {
+                compositeIndex.remove(element);
             }
         }
     }
@@ -116,22 +294,44 @@ final class TinkerIndex<T extends Element> {
                 this.remove(key, oldValue, element);
             this.put(key, newValue, element);
         }
+        this.refreshCompositeIndexes(key, element);
     }
 
     public void autoRemove(final String key, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key))
             this.remove(key, oldValue, element);
+        this.refreshCompositeIndexes(key, element);
+    }
+
+    private void refreshCompositeIndexes(final String key, final T element) {
+        for (final CompositeIndex<T> compositeIndex : this.compositeIndexes.values()) {
+            if (compositeIndex.keys.contains(key))
+                compositeIndex.refresh(element);
+        }
     }
 
     public void createKeyIndex(final String key) {
+        this.createKeyIndex(key, TinkerGraph.IndexType.HASH);
+    }
+
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
 
-        if (this.indexedKeys.contains(key))
-            return;
+        if (this.indexedKeys.contains(key)) {
+            if (this.getIndexType(key) == indexType)
+                return;
+            this.dropKeyIndex(key);
+        }
         this.indexedKeys.add(key);
+        if (TinkerGraph.IndexType.RANGE == indexType)
+            this.rangeIndexedKeys.add(key);
+        else if (TinkerGraph.IndexType.TEXT == indexType)
+            this.textIndexedKeys.add(key);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
                 this.graph.vertices.values().<T>parallelStream() :
@@ -141,14 +341,220 @@ final class TinkerIndex<T extends Element> {
                 .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
     }
 
+    /**
+     * Indexes every element of the graph again, in parallel, after the index was not maintained while a
+     * {@link TinkerBulkLoad} was open.
+     */
+    void rebuild() {
+        this.index.clear();
+        this.unordered.clear();
+        this.tokens.clear();
+        this.compositeIndexes.values().forEach(CompositeIndex::clear);
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().<T>parallelStream() :
+                this.graph.edges.values().<T>parallelStream())
+                .forEach(e -> {
+                    final T element = (T) e;
+                    for (final String key : this.indexedKeys) {
+                        // edges index their label under the key of T.label as they are constructed
+                        if (element instanceof Edge && LABEL_KEY.equals(key))
+                            this.put(key, element.label(), element);
+                        else
+                            element.properties(key).forEachRemaining(p -> this.put(key, p.value(), element));
+                    }
+                    for (final CompositeIndex<T> compositeIndex : this.compositeIndexes.values()) {
+                        compositeIndex.refresh(element);
+                    }
+                });
+    }
+
     public void dropKeyIndex(final String key) {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
 
+        this.tokens.remove(key);
+        this.unordered.remove(key);
+
         this.indexedKeys.remove(key);
+        this.rangeIndexedKeys.remove(key);
+        this.textIndexedKeys.remove(key);
     }
 
     public Set<String> getIndexedKeys() {
         return this.indexedKeys;
     }
+
+    public void createCompositeIndex(final List<String> keys) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.size() < 2)
+            throw new IllegalArgumentException("A composite index requires at least two keys");
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+        if (new HashSet<>(keys).size() != keys.size())
+            throw new IllegalArgumentException("The keys of a composite index must be unique: " + keys);
+
+        final List<String> indexKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        if (this.compositeIndexes.containsKey(indexKeys))
+            return;
+
+        final CompositeIndex<T> compositeIndex = new CompositeIndex<>(indexKeys);
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().<T>stream() :
+                this.graph.edges.values().<T>stream())
+                .forEach(e -> compositeIndex.refresh((T) e));
+        this.compositeIndexes.put(indexKeys, compositeIndex);
+    }
+
+    public void dropCompositeIndex(final List<String> keys) {
+        final CompositeIndex<T> compositeIndex = this.compositeIndexes.remove(keys);
+        if (null != compositeIndex) {
+            compositeIndex.index.clear();
+            compositeIndex.entries.clear();
+        }
+    }
+
+    public Set<List<String>> getCompositeIndexedKeys() {
+        return this.compositeIndexes.keySet();
+    }
+
+    public Set<String> getIndexedKeys(final TinkerGraph.IndexType indexType) {
+        if (TinkerGraph.IndexType.RANGE == indexType)
+            return this.rangeIndexedKeys;
+        else if (TinkerGraph.IndexType.TEXT == indexType)
+            return this.textIndexedKeys;
+
+        final Set<String> keys = new HashSet<>(this.indexedKeys);
+        keys.removeAll(this.rangeIndexedKeys);
+        keys.removeAll(this.textIndexedKeys);
+        return keys;
+    }
+
+    public TinkerGraph.IndexType getIndexType(final String key) {
+        if (!this.indexedKeys.contains(key))
+            return null;
+        if (this.rangeIndexedKeys.contains(key))
+            return TinkerGraph.IndexType.RANGE;
+        return this.textIndexedKeys.contains(key) ? TinkerGraph.IndexType.TEXT : TinkerGraph.IndexType.HASH;
+    }
+
+    /**
+     * An index over the values of an ordered list of keys.  As a vertex may hold several values for a key, an
+     * element is indexed under every combination of its values.  The combinations that an element was last indexed
+     * under are kept so that it can be re-indexed whenever one of the keys is mutated.
+     */
+    private static final class CompositeIndex<T extends Element> {
+        private final List<String> keys;
+        private final Map<List<Object>, Set<T>> index = new ConcurrentHashMap<>();
+        private final Map<T, Set<List<Object>>> entries = new ConcurrentHashMap<>();
+
+        private CompositeIndex(final List<String> keys) {
+            this.keys = keys;
+        }
+
+        private void refresh(final T element) {
+            final Set<List<Object>> tuples = this.tuples(element);
+            final Set<List<Object>> previous = tuples.isEmpty() ? this.entries.remove(element) : this.entries.put(element, tuples);
+            if (null != previous) {
+                for (final List<Object> tuple : previous) {
+                    if (!tuples.contains(tuple))
+                        this.removeFromTuple(tuple, element);
+                }
+            }
+            for (final List<Object> tuple : tuples) {
+                if (null == previous || !previous.contains(tuple))
+                    this.index.computeIfAbsent(tuple, t -> ConcurrentHashMap.<T>newKeySet()).add(element);
+            }
+        }
+
+        private long bytes() {
+            final int width = this.keys.size();
+            long bytes = TinkerMemoryUsage.mapBytes(this.index.size()) + TinkerMemoryUsage.mapBytes(this.entries.size());
+            for (final Set<T> elements : this.index.values()) {
+                bytes += TinkerMemoryUsage.listBytes(width) + TinkerMemoryUsage.mapBytes(elements.size());
+            }
+            for (final Set<List<Object>> tuples : this.entries.values()) {
+                bytes += TinkerMemoryUsage.mapBytes(tuples.size());
+            }
+            return bytes;
+        }
+
+        private void clear() {
+            this.index.clear();
+            this.entries.clear();
+        }
+
+        private void remove(final T element) {
+            final Set<List<Object>> previous = this.entries.remove(element);
+            if (null != previous)
+                previous.forEach(tuple -> this.removeFromTuple(tuple, element));
+        }
+
+        private void removeFromTuple(final List<Object> tuple, final T element) {
+            final Set<T> objects = this.index.get(tuple);
+            if (null != objects) {
+                objects.remove(element);
+                if (objects.isEmpty())
+                    this.index.remove(tuple);
+            }
+        }
+
+        private Set<List<Object>> tuples(final T element) {
+            Set<List<Object>> tuples = Collections.singleton(Collections.emptyList());
+            for (final String key : this.keys) {
+                final List<Object> values = new ArrayList<>();
+                element.properties(key).forEachRemaining(p -> values.add(p.value()));
+                if (values.isEmpty())
+                    return Collections.emptySet();
+
+                final Set<List<Object>> extended = new HashSet<>();
+                for (final List<Object> tuple : tuples) {
+                    for (final Object value : values) {
+                        final List<Object> t = new ArrayList<>(tuple);
+                        t.add(value);
+                        extended.add(t);
+                    }
+                }
+                tuples = extended;
+            }
+            return tuples;
+        }
+    }
+
+    private static boolean sameRangeGroup(final Object first, final Object second) {
+        return first instanceof Number ? second instanceof Number :
+                !(second instanceof Number) && first.getClass().equals(second.getClass());
+    }
+
+    private static int compareRangeValues(final Object first, final Object second) {
+        if (first instanceof Number && second instanceof Number)
+            return compareNumbers((Number) first, (Number) second);
+        else if (first instanceof Number)
+            return -1;
+        else if (second instanceof Number)
+            return 1;
+
+        if (!first.getClass().equals(second.getClass()))
+            return first.getClass().getName().compareTo(second.getClass().getName());
+        else
+            return ((Comparable) first).compareTo(second);
+    }
+
+    private static int compareNumbers(final Number first, final Number second) {
+        if (first.getClass().equals(second.getClass()) && first instanceof Comparable)
+            return ((Comparable) first).compareTo(second);
+        else if (isSpecial(first) || isSpecial(second))
+            return Double.compare(first.doubleValue(), second.doubleValue());
+        else
+            return new BigDecimal(first.toString()).compareTo(new BigDecimal(second.toString()));
+    }
+
+    private static boolean isSpecial(final Number number) {
+        return (number instanceof Double || number instanceof Float) &&
+                (Double.isNaN(number.doubleValue()) || Double.isInfinite(number.doubleValue()));
+    }
 }
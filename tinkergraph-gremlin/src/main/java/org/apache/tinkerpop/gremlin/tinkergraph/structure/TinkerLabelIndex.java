@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps each label to the vertices or the edges of a {@link TinkerGraph} that have it.  Unlike a {@link TinkerIndex},
+ * it is always present and is kept up to date as elements are added and removed, so that the label filters of a
+ * traversal never require a scan of the whole graph.
+ */
+final class TinkerLabelIndex<T extends Element> {
+
+    private final Map<String, Set<T>> index = new ConcurrentHashMap<>();
+
+    void add(final T element) {
+        this.index.compute(element.label(), (l, elements) -> {
+            final Set<T> added = null == elements ? ConcurrentHashMap.newKeySet() : elements;
+            added.add(element);
+            return added;
+        });
+    }
+
+    /**
+     * Removes an element and the label along with its last element, so that labels that are no longer used do not
+     * hold on to an empty set.
+     */
+    void remove(final T element) {
+        this.index.computeIfPresent(element.label(), (l, elements) -> {
+            elements.remove(element);
+            return elements.isEmpty() ? null : elements;
+        });
+    }
+
+    Set<T> get(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? Collections.emptySet() : Collections.unmodifiableSet(elements);
+    }
+
+    long count(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? 0 : elements.size();
+    }
+
+    /**
+     * Estimates the bytes of the index, not counting the labels and the elements.
+     */
+    long bytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.index.size());
+        for (final Set<T> elements : this.index.values()) {
+            bytes += TinkerMemoryUsage.mapBytes(elements.size());
+        }
+        return bytes;
+    }
+
+    void clear() {
+        this.index.clear();
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A concurrent, open-addressing map of elements keyed by a primitive {@code long} identifier. It is used by
+ * {@link TinkerGraph} in place of a {@code ConcurrentHashMap} when the graph is configured with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE} so that lookups by numeric identifier do not need to
+ * box the identifier and so that no per-entry node is allocated.
+ * <p/>
+ * Reads are lock-free. Writes are serialized on the map. A slot key is written exactly once per table before its
+ * value is published, and removed slots are only reclaimed when the table is rehashed, so a reader that observes a
+ * value in a slot always observes the key that belongs to it. Iteration is weakly consistent in the same way as the
+ * iterators of {@code ConcurrentHashMap}.
+ */
+final class TinkerLongMap<T extends Element> extends AbstractMap<Object, T> {
+
+    private static final Object REMOVED = new Object();
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private volatile Table table = new Table(DEFAULT_CAPACITY);
+    private volatile int size = 0;
+
+    /**
+     * The number of slots in the current table that are in use, including those that hold a removed marker.
+     */
+    private int used = 0;
+
+    public T get(final long key) {
+        final Table t = this.table;
+        int i = t.slot(key);
+        while (true) {
+            final Object value = t.values.get(i);
+            if (null == value)
+                return null;
+            if (value != REMOVED && t.keys[i] == key)
+                return (T) value;
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    public boolean containsKey(final long key) {
+        return null != this.get(key);
+    }
+
+    public synchronized T put(final long key, final T element) {
+        if (null == element)
+            throw new NullPointerException("The element to put cannot be null");
+
+        final Table t = this.table;
+        int i = t.slot(key);
+        while (true) {
+            final Object value = t.values.get(i);
+            if (null == value)
+                break;
+            if (value != REMOVED && t.keys[i] == key) {
+                t.values.set(i, element);
+                return (T) value;
+            }
+            i = (i + 1) & t.mask;
+        }
+
+        t.keys[i] = key;
+        t.values.set(i, element);
+        this.size++;
+        if (++this.used >= t.threshold)
+            this.rehash(this.size >= t.threshold / 2 ? t.keys.length << 1 : t.keys.length);
+        return null;
+    }
+
+    public synchronized T remove(final long key) {
+        final Table t = this.table;
+        int i = t.slot(key);
+        while (true) {
+            final Object value = t.values.get(i);
+            if (null == value)
+                return null;
+            if (value != REMOVED && t.keys[i] == key) {
+                t.values.set(i, REMOVED);
+                this.size--;
+                return (T) value;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    @Override
+    public T get(final Object key) {
+        return isKey(key) ? this.get(((Number) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != this.get(key);
+    }
+
+    @Override
+    public T put(final Object key, final T element) {
+        if (!isKey(key))
+            throw new IllegalArgumentException(String.format("Expected an id of type Long or Integer but received %s",
+                    null == key ? null : key.getClass()));
+        return this.put(((Number) key).longValue(), element);
+    }
+
+    @Override
+    public T remove(final Object key) {
+        return isKey(key) ? this.remove(((Number) key).longValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.table = new Table(DEFAULT_CAPACITY);
+        this.size = 0;
+        this.used = 0;
+    }
+
+    /**
+     * Estimates the bytes of the map, not counting the elements.
+     */
+    long bytes() {
+        final int capacity = this.table.keys.length;
+        return TinkerMemoryUsage.object(2, 3 * Integer.BYTES) + TinkerMemoryUsage.object(2, 2 * Integer.BYTES) +
+                TinkerMemoryUsage.array(capacity, Long.BYTES) + TinkerMemoryUsage.object(1, 0) +
+                TinkerMemoryUsage.array(capacity, TinkerMemoryUsage.REFERENCE);
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new ElementIterator();
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongMap.this.size;
+            }
+        };
+    }
+
+    /**
+     * Entries are keyed by the identifier of the element so that the key retains the type that was assigned by the
+     * {@link TinkerGraph.IdManager}.
+     */
+    @Override
+    public Set<Map.Entry<Object, T>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, T>>() {
+            @Override
+            public Iterator<Map.Entry<Object, T>> iterator() {
+                final ElementIterator itty = new ElementIterator();
+                return new Iterator<Map.Entry<Object, T>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return itty.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Object, T> next() {
+                        final T element = itty.next();
+                        return new SimpleImmutableEntry<>(element.id(), element);
+                    }
+
+                    @Override
+                    public void remove() {
+                        itty.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongMap.this.size;
+            }
+        };
+    }
+
+    private void rehash(final int capacity) {
+        final Table old = this.table;
+        final Table t = new Table(capacity);
+        for (int i = 0; i < old.keys.length; i++) {
+            final Object value = old.values.get(i);
+            if (null != value && value != REMOVED) {
+                int j = t.slot(old.keys[i]);
+                while (null != t.values.get(j)) {
+                    j = (j + 1) & t.mask;
+                }
+                t.keys[j] = old.keys[i];
+                t.values.set(j, value);
+            }
+        }
+        this.used = this.size;
+        this.table = t;
+    }
+
+    private static boolean isKey(final Object key) {
+        return key instanceof Long || key instanceof Integer;
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+        private final int threshold;
+
+        private Table(final int capacity) {
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        private int slot(final long key) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & this.mask;
+        }
+    }
+
+    private final class ElementIterator implements Iterator<T> {
+        private final Table t = TinkerLongMap.this.table;
+        private int current = -1;
+        private int next = -1;
+        private Object nextValue;
+
+        private ElementIterator() {
+            this.advance();
+        }
+
+        private void advance() {
+            this.nextValue = null;
+            while (++this.next < this.t.keys.length) {
+                final Object value = this.t.values.get(this.next);
+                if (null != value && value != REMOVED) {
+                    this.nextValue = value;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != this.nextValue;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            final T element = (T) this.nextValue;
+            this.current = this.next;
+            this.advance();
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            if (this.current < 0)
+                throw new IllegalStateException();
+            TinkerLongMap.this.remove(this.t.keys[this.current]);
+            this.current = -1;
+        }
+    }
+}
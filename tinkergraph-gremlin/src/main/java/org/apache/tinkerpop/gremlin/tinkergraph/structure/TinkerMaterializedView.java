@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.NumberHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.PropertyType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of a traversal that is kept up to date as the {@link TinkerGraph} changes, which is registered with
+ * {@link TinkerGraph#materialize(Traversal)}.  The traversal must start with {@code V()} or {@code E()} without
+ * identifiers, may filter the elements with any number of {@code has()} steps and must end with one of
+ * {@code count()}, {@code groupCount()} optionally modulated by a property key or {@code T} token, or
+ * {@code values(key).sum()}.  The view remembers the contribution of each element that passes the filters, so a
+ * mutation only replaces the contribution of the element that it changes and reading the result takes time in
+ * proportion to its size rather than to the size of the graph.  A {@code count()} without filters only keeps the
+ * count and a {@code count()} with filters only remembers which elements pass them.  A {@code sum()} of floating
+ * point values is kept by adding and subtracting the contributions, so it may drift from the sum of the values by
+ * rounding errors, which is bounded by computing it again from the contributions once as many contributions were
+ * subtracted as there are.  Elements without the key of a {@code groupCount()}
+ * and property values of a {@code sum()} that are not numbers are left out of the result.  A {@code groupCount()} by
+ * a property key can not group a vertex with more than one value for the key, so a view can not be created over
+ * such a vertex and a view that such a vertex is later added to stops being maintained, as does a view that fails to
+ * apply a mutation for any other reason, and its result can no longer be read.  The view must be closed once it is
+ * no longer needed, as the graph keeps maintaining it until then.
+ */
+public final class TinkerMaterializedView<R> implements AutoCloseable {
+
+    private enum Aggregate {
+        COUNT, GROUP_COUNT, SUM
+    }
+
+    /**
+     * The bound on the ids that the members of a {@code count()} are kept as bits for, which bounds the bits to 2MB.
+     */
+    private static final int MAXIMUM_BIT = 1 << 24;
+
+    private final TinkerGraph graph;
+    private final boolean vertices;
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private final Aggregate aggregate;
+    private final Traversal.Admin<?, ?> groupTraversal;
+    private final String sumKey;
+
+    /**
+     * The ids of the elements that pass the filters of a {@code count()}.  Ids that are small non-negative integers,
+     * as the default id managers generate them, are kept as bits and any other ids in a set.
+     */
+    private final BitSet members = new BitSet();
+    private final Set<Object> otherMembers = new HashSet<>();
+    private long count = 0;
+
+    /**
+     * The group or the number that each element which passes the filters adds to a {@code groupCount()} or
+     * {@code sum()}.
+     */
+    private final Map<Object, Object> contributions = new HashMap<>();
+    private final Map<Object, Long> groups = new HashMap<>();
+    private Number sum = 0;
+    private int subtractions = 0;
+    private RuntimeException failure = null;
+
+    TinkerMaterializedView(final TinkerGraph graph, final Traversal<?, R> traversal) {
+        this.graph = graph;
+        final List<Step> steps = traversal.asAdmin().getSteps();
+        int i = 0;
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep) || ((GraphStep) steps.get(0)).getIds().length > 0)
+            throw unsupportedTraversal(traversal);
+        final GraphStep<?, ?> graphStep = (GraphStep<?, ?>) steps.get(i++);
+        this.vertices = graphStep.returnsVertex();
+        if (graphStep instanceof HasContainerHolder)
+            this.hasContainers.addAll(((HasContainerHolder) graphStep).getHasContainers());
+        while (i < steps.size() && steps.get(i) instanceof HasContainerHolder) {
+            this.hasContainers.addAll(((HasContainerHolder) steps.get(i++)).getHasContainers());
+        }
+
+        final Step<?, ?> last = i < steps.size() ? steps.get(i) : null;
+        if (last instanceof CountGlobalStep && i == steps.size() - 1) {
+            this.aggregate = Aggregate.COUNT;
+            this.groupTraversal = null;
+            this.sumKey = null;
+        } else if (last instanceof GroupCountStep && i == steps.size() - 1) {
+            final List<? extends Traversal.Admin<?, ?>> local = ((GroupCountStep<?, ?>) last).getLocalChildren();
+            if (!local.isEmpty() && !(local.get(0) instanceof ElementValueTraversal) && !(local.get(0) instanceof TokenTraversal))
+                throw unsupportedTraversal(traversal);
+            this.aggregate = Aggregate.GROUP_COUNT;
+            this.groupTraversal = local.isEmpty() ? null : local.get(0);
+            this.sumKey = null;
+        } else if (last instanceof PropertiesStep && i == steps.size() - 2 && steps.get(i + 1) instanceof SumGlobalStep &&
+                ((PropertiesStep) last).getReturnType() == PropertyType.VALUE && 1 == ((PropertiesStep) last).getPropertyKeys().length) {
+            this.aggregate = Aggregate.SUM;
+            this.groupTraversal = null;
+            this.sumKey = ((PropertiesStep) last).getPropertyKeys()[0];
+        } else
+            throw unsupportedTraversal(traversal);
+
+        final Iterator<? extends Element> elements = this.vertices ? graph.vertices.values().iterator() : graph.edges.values().iterator();
+        while (elements.hasNext()) {
+            this.add(elements.next());
+        }
+    }
+
+    /**
+     * Replaces the contribution of the element that the change was made to.
+     */
+    synchronized void apply(final TinkerChange change, final TinkerElement element) {
+        if (null != this.failure) return;
+        switch (change.type()) {
+            case CLEARED:
+                this.members.clear();
+                this.otherMembers.clear();
+                this.count = 0;
+                this.contributions.clear();
+                this.groups.clear();
+                this.sum = 0;
+                this.subtractions = 0;
+                return;
+            case VERTEX_REMOVED:
+                if (this.vertices) this.remove(element.id());
+                return;
+            case EDGE_REMOVED:
+                if (!this.vertices) this.remove(element.id());
+                return;
+            case VERTEX_ADDED:
+                if (this.vertices) this.update(element);
+                return;
+            case VERTEX_PROPERTY_ADDED:
+            case VERTEX_PROPERTY_REMOVED:
+                if (this.vertices && !this.unfilteredCount()) this.update(element);
+                return;
+            case EDGE_ADDED:
+                if (!this.vertices) this.update(element);
+                return;
+            case EDGE_PROPERTY_ADDED:
+            case EDGE_PROPERTY_CHANGED:
+            case EDGE_PROPERTY_REMOVED:
+                if (!this.vertices && !this.unfilteredCount()) this.update(element);
+                return;
+            default:
+                // meta-properties do not affect the filters or the aggregates
+        }
+    }
+
+    /**
+     * Stops maintaining the view after it failed to apply a change, so that the failure is reported to whoever reads
+     * the view rather than to the writer whose mutation was already applied.
+     */
+    synchronized void fail(final RuntimeException failure) {
+        if (null == this.failure) this.failure = failure;
+    }
+
+    private boolean unfilteredCount() {
+        return Aggregate.COUNT == this.aggregate && this.hasContainers.isEmpty();
+    }
+
+    private void update(final TinkerElement element) {
+        if (!this.unfilteredCount()) this.remove(element.id());
+        this.add(element);
+    }
+
+    private void add(final Element element) {
+        if (this.unfilteredCount()) {
+            this.count++;
+            return;
+        }
+        if (!HasContainer.testAll(element, this.hasContainers))
+            return;
+        final Object contribution;
+        switch (this.aggregate) {
+            case COUNT:
+                if (this.addMember(element.id())) this.count++;
+                return;
+            case GROUP_COUNT:
+                if (null == this.groupTraversal)
+                    contribution = element;
+                else if (this.groupTraversal instanceof TokenTraversal)
+                    contribution = ((TokenTraversal<?, ?>) this.groupTraversal).getToken().apply(element);
+                else {
+                    final String key = ((ElementValueTraversal<?>) this.groupTraversal).getPropertyKey();
+                    final Iterator<? extends Property<Object>> properties = element.properties(key);
+                    if (!properties.hasNext()) return;
+                    contribution = properties.next().value();
+                    if (properties.hasNext())
+                        throw new IllegalStateException(String.format("The view can not group %s by %s as it has more than one value for the key", element, key));
+                }
+                this.groups.merge(contribution, 1l, Long::sum);
+                break;
+            default:
+                Number total = null;
+                final Iterator<? extends Property<Object>> properties = element.properties(this.sumKey);
+                while (properties.hasNext()) {
+                    final Object value = properties.next().value();
+                    if (value instanceof Number)
+                        total = null == total ? (Number) value : NumberHelper.add(total, (Number) value);
+                }
+                if (null == total) return;
+                this.sum = NumberHelper.add(this.sum, total);
+                contribution = total;
+        }
+        this.contributions.put(element.id(), contribution);
+    }
+
+    private void remove(final Object id) {
+        if (Aggregate.COUNT == this.aggregate) {
+            if (this.unfilteredCount() || this.removeMember(id)) this.count--;
+            return;
+        }
+        final Object contribution = this.contributions.remove(id);
+        if (null == contribution)
+            return;
+        if (Aggregate.GROUP_COUNT == this.aggregate)
+            this.groups.computeIfPresent(contribution, (group, count) -> 1l == count ? null : count - 1);
+        else if (contribution instanceof Double || contribution instanceof Float) {
+            if (++this.subtractions >= this.contributions.size()) {
+                this.sum = 0;
+                for (final Object remaining : this.contributions.values()) {
+                    this.sum = NumberHelper.add(this.sum, (Number) remaining);
+                }
+                this.subtractions = 0;
+            } else
+                this.sum = NumberHelper.sub(this.sum, (Number) contribution);
+        } else
+            this.sum = NumberHelper.sub(this.sum, (Number) contribution);
+    }
+
+    private boolean addMember(final Object id) {
+        final int bit = bit(id);
+        if (-1 == bit) return this.otherMembers.add(id);
+        if (this.members.get(bit)) return false;
+        this.members.set(bit);
+        return true;
+    }
+
+    private boolean removeMember(final Object id) {
+        final int bit = bit(id);
+        if (-1 == bit) return this.otherMembers.remove(id);
+        if (!this.members.get(bit)) return false;
+        this.members.clear(bit);
+        return true;
+    }
+
+    /**
+     * Gets the bit that an id is kept as among the members of a {@code count()} or -1 if it is kept in the set.
+     */
+    private static int bit(final Object id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            final long value = ((Number) id).longValue();
+            if (value >= 0 && value < MAXIMUM_BIT) return (int) value;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the current result of the traversal, which for {@code groupCount()} is a copy that is not changed by later
+     * mutations.
+     *
+     * @throws IllegalStateException if the view failed to apply a mutation and is no longer maintained
+     */
+    public synchronized R get() {
+        if (null != this.failure)
+            throw new IllegalStateException(String.format("The view is no longer maintained as it failed to apply a mutation: %s", this.failure.getMessage()), this.failure);
+        switch (this.aggregate) {
+            case COUNT:
+                return (R) Long.valueOf(this.count);
+            case GROUP_COUNT:
+                return (R) new HashMap<>(this.groups);
+            default:
+                return (R) this.sum;
+        }
+    }
+
+    /**
+     * Estimates the bytes of the members, the contributions of the elements and the groups, not counting the ids and
+     * groups that they share with the elements.
+     */
+    synchronized long bytes() {
+        long bytes = TinkerMemoryUsage.array(this.members.size() / Long.SIZE, Long.BYTES) + TinkerMemoryUsage.mapBytes(this.otherMembers.size()) +
+                TinkerMemoryUsage.mapBytes(this.contributions.size()) + TinkerMemoryUsage.mapBytes(this.groups.size()) +
+                (long) this.groups.size() * TinkerMemoryUsage.object(0, Long.BYTES);
+        if (Aggregate.SUM == this.aggregate)
+            bytes += (long) this.contributions.size() * TinkerMemoryUsage.object(0, Long.BYTES);
+        return bytes;
+    }
+
+    /**
+     * Stops maintaining the view.  The result that was last maintained can still be read.
+     */
+    @Override
+    public void close() {
+        this.graph.changeFeed.unregister(this);
+    }
+
+    private static IllegalArgumentException unsupportedTraversal(final Traversal<?, ?> traversal) {
+        return new IllegalArgumentException(String.format(
+                "The traversal must be V() or E() followed by has() steps and count(), groupCount() or values(key).sum(): %s", traversal));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+/**
+ * The attributes of the memory usage of a {@link TinkerGraph} as they are published over JMX when the graph is
+ * configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_JMX}.  The sizes are in bytes and are estimated as described
+ * by {@link TinkerMemoryUsage}.
+ */
+public interface TinkerMemoryMXBean {
+
+    public long getVertexCount();
+
+    public long getEdgeCount();
+
+    /**
+     * The bytes of the vertices and edges and of the maps that hold them by id, not counting their properties.
+     */
+    public long getElementBytes();
+
+    /**
+     * The bytes of the properties of the vertices and edges, including meta-properties and the columns of the graph.
+     */
+    public long getPropertyBytes();
+
+    /**
+     * The bytes of the arrays that hold the incident edges of the vertices.
+     */
+    public long getAdjacencyBytes();
+
+    /**
+     * The bytes of the property, composite, label, edge key and vertex-centric indices.
+     */
+    public long getIndexBytes();
+
+    /**
+     * The bytes of the compute keys of the {@code GraphComputer} that is running over the graph, if any.
+     */
+    public long getComputeKeyBytes();
+
+    /**
+     * The bytes of the earlier versions of the elements that are kept for the read views of the graph, not counting
+     * the arrays of edges that they share with the adjacency of the vertices.
+     */
+    public long getVersionBytes();
+
+    /**
+     * The bytes of the changes that the subscriptions to the graph hold and of the materialized views of the graph.
+     */
+    public long getChangeFeedBytes();
+
+    /**
+     * The bytes of the labels and property keys that the elements share.
+     */
+    public long getSymbolBytes();
+
+    /**
+     * The bytes of direct memory that off-heap property values were written to, which are not counted in
+     * {@link #getTotalBytes()}.
+     */
+    public long getOffHeapBytes();
+
+    /**
+     * The bytes of heap over all of the structures of the graph.
+     */
+    public long getTotalBytes();
+}
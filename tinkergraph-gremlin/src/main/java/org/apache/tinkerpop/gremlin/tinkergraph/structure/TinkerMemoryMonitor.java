@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the {@link TinkerMemoryUsage} of a {@link TinkerGraph} to the platform {@code MBeanServer}.  Estimating
+ * the usage walks the whole graph, so an estimate is reused for the attributes that are read within a second of it
+ * rather than being made again for each attribute.  An estimate that fails is reported to the JMX client that read
+ * the attribute and is not cached, so the next read makes the estimate again.  Each monitor is named with a number
+ * that is unique within the JVM, so that graphs which share a location or an identity hash code do not collide.
+ */
+final class TinkerMemoryMonitor implements TinkerMemoryMXBean {
+
+    static final String DOMAIN = "org.apache.tinkerpop.gremlin.tinkergraph";
+
+    private static final long MAXIMUM_AGE = TimeUnit.SECONDS.toNanos(1);
+    private static final AtomicLong instances = new AtomicLong(0);
+
+    private final TinkerGraph graph;
+    private final ObjectName name;
+    private TinkerMemoryUsage usage = null;
+    private long estimated = 0;
+
+    TinkerMemoryMonitor(final TinkerGraph graph, final String graphName) {
+        this.graph = graph;
+        try {
+            this.name = new ObjectName(String.format("%s:type=%s,name=%s,instance=%s", DOMAIN, TinkerGraph.class.getSimpleName(),
+                    ObjectName.quote(graphName), instances.incrementAndGet()));
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(String.format("The graph name %s is not valid for JMX", graphName), ex);
+        }
+    }
+
+    ObjectName getName() {
+        return this.name;
+    }
+
+    void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, TinkerMemoryMXBean.class, true), this.name);
+        } catch (Exception ex) {
+            throw new IllegalStateException(String.format("Could not register %s with JMX", this.name), ex);
+        }
+    }
+
+    void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(this.name)) server.unregisterMBean(this.name);
+        } catch (Exception ex) {
+            throw new IllegalStateException(String.format("Could not unregister %s from JMX", this.name), ex);
+        }
+    }
+
+    private synchronized TinkerMemoryUsage usage() {
+        final long now = System.nanoTime();
+        if (null == this.usage || now - this.estimated > MAXIMUM_AGE) {
+            // an estimate that fails leaves no earlier one to be read in its place
+            this.usage = null;
+            this.usage = this.graph.memoryUsage();
+            this.estimated = now;
+        }
+        return this.usage;
+    }
+
+    @Override
+    public long getVertexCount() {
+        return this.usage().getVertexCount();
+    }
+
+    @Override
+    public long getEdgeCount() {
+        return this.usage().getEdgeCount();
+    }
+
+    @Override
+    public long getElementBytes() {
+        return this.usage().getElementBytes();
+    }
+
+    @Override
+    public long getPropertyBytes() {
+        return this.usage().getPropertyBytes();
+    }
+
+    @Override
+    public long getAdjacencyBytes() {
+        return this.usage().getAdjacencyBytes();
+    }
+
+    @Override
+    public long getIndexBytes() {
+        return this.usage().getIndexBytes();
+    }
+
+    @Override
+    public long getComputeKeyBytes() {
+        return this.usage().getComputeKeyBytes();
+    }
+
+    @Override
+    public long getVersionBytes() {
+        return this.usage().getVersionBytes();
+    }
+
+    @Override
+    public long getChangeFeedBytes() {
+        return this.usage().getChangeFeedBytes();
+    }
+
+    @Override
+    public long getSymbolBytes() {
+        return this.usage().getSymbolBytes();
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        return this.usage().getOffHeapBytes();
+    }
+
+    @Override
+    public long getTotalBytes() {
+        return this.usage().getTotalBytes();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The approximate number of bytes of heap that a {@link TinkerGraph} retains, broken down by the structures that
+ * retain them.  The sizes are estimated from the shapes of the objects for a 64-bit JVM with compressed references
+ * rather than measured, so they are meant for comparing graphs and configurations and for planning capacity, not for
+ * accounting of the exact heap.  Labels and property keys are counted once, as the symbols that the elements share,
+ * rather than with each element.  Writers hold the lock of an element while they change its properties or its
+ * adjacency, and the lock of the vertex while they change the meta-properties of its vertex properties, so an estimate
+ * that is made while the graph is written reads each element as it was between two changes.
+ */
+public final class TinkerMemoryUsage implements TinkerMemoryMXBean {
+
+    static final int OBJECT_HEADER = 12;
+    static final int REFERENCE = 4;
+    static final int ARRAY_HEADER = 16;
+
+    /**
+     * A node of a {@code HashMap} or {@code ConcurrentHashMap} along with its slot in the table.
+     */
+    static final int MAP_ENTRY = 32 + REFERENCE;
+
+    private final long vertexCount;
+    private final long edgeCount;
+    private final long elementBytes;
+    private final long propertyBytes;
+    private final long adjacencyBytes;
+    private final long indexBytes;
+    private final long computeKeyBytes;
+    private final long versionBytes;
+    private final long changeFeedBytes;
+    private final long symbolBytes;
+    private final long offHeapBytes;
+
+    TinkerMemoryUsage(final TinkerGraph graph) {
+        long elementBytes = elementMapBytes(graph.vertices) + elementMapBytes(graph.edges);
+        long propertyBytes = null == graph.columns ? 0 : graph.columns.bytes();
+        long adjacencyBytes = 0;
+
+        for (final Vertex v : graph.vertices.values()) {
+            final TinkerVertex vertex = (TinkerVertex) v;
+            elementBytes += object(7, 9) + valueBytes(vertex.id);
+            synchronized (vertex) {
+                propertyBytes += vertexPropertiesBytes(vertex.properties);
+                if (null != vertex.outEdges) adjacencyBytes += vertex.outEdges.bytes();
+                if (null != vertex.inEdges) adjacencyBytes += vertex.inEdges.bytes();
+            }
+        }
+        for (final Edge e : graph.edges.values()) {
+            final TinkerEdge edge = (TinkerEdge) e;
+            elementBytes += object(6, 13) + valueBytes(edge.id);
+            synchronized (edge) {
+                propertyBytes += propertiesBytes(edge.properties);
+            }
+        }
+
+        long indexBytes = graph.vertexLabelIndex.bytes() + graph.edgeLabelIndex.bytes();
+        if (null != graph.vertexIndex) indexBytes += graph.vertexIndex.bytes();
+        if (null != graph.edgeIndex) indexBytes += graph.edgeIndex.bytes();
+        if (null != graph.edgeKeyIndex) indexBytes += graph.edgeKeyIndex.bytes();
+        for (final Map<String, TinkerVertexCentricIndex> indices : graph.vertexCentricIndices.values()) {
+            for (final TinkerVertexCentricIndex index : indices.values()) {
+                indexBytes += index.bytes();
+            }
+        }
+
+        final TinkerGraphComputerView view = graph.graphComputerView;
+
+        this.vertexCount = graph.vertices.size();
+        this.edgeCount = graph.edges.size();
+        this.elementBytes = elementBytes;
+        this.propertyBytes = propertyBytes;
+        this.adjacencyBytes = adjacencyBytes;
+        this.indexBytes = indexBytes;
+        this.computeKeyBytes = null == view ? 0 : view.estimateComputeKeyBytes();
+        this.versionBytes = null == graph.versions ? 0 : graph.versions.bytes();
+        this.changeFeedBytes = graph.changeFeed.bytes();
+        this.symbolBytes = graph.symbolBytes();
+        this.offHeapBytes = null == graph.offHeapStore ? 0 : graph.offHeapStore.allocatedBytes();
+    }
+
+    @Override
+    public long getVertexCount() {
+        return this.vertexCount;
+    }
+
+    @Override
+    public long getEdgeCount() {
+        return this.edgeCount;
+    }
+
+    @Override
+    public long getElementBytes() {
+        return this.elementBytes;
+    }
+
+    @Override
+    public long getPropertyBytes() {
+        return this.propertyBytes;
+    }
+
+    @Override
+    public long getAdjacencyBytes() {
+        return this.adjacencyBytes;
+    }
+
+    @Override
+    public long getIndexBytes() {
+        return this.indexBytes;
+    }
+
+    @Override
+    public long getComputeKeyBytes() {
+        return this.computeKeyBytes;
+    }
+
+    @Override
+    public long getVersionBytes() {
+        return this.versionBytes;
+    }
+
+    @Override
+    public long getChangeFeedBytes() {
+        return this.changeFeedBytes;
+    }
+
+    @Override
+    public long getSymbolBytes() {
+        return this.symbolBytes;
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        return this.offHeapBytes;
+    }
+
+    @Override
+    public long getTotalBytes() {
+        return this.elementBytes + this.propertyBytes + this.adjacencyBytes + this.indexBytes + this.computeKeyBytes +
+                this.versionBytes + this.changeFeedBytes + this.symbolBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tinkermemoryusage[vertices:%s edges:%s elements:%s properties:%s adjacency:%s indices:%s computeKeys:%s versions:%s changeFeed:%s symbols:%s offHeap:%s]",
+                this.vertexCount, this.edgeCount, this.elementBytes, this.propertyBytes, this.adjacencyBytes,
+                this.indexBytes, this.computeKeyBytes, this.versionBytes, this.changeFeedBytes, this.symbolBytes,
+                this.offHeapBytes);
+    }
+
+    /**
+     * Estimates the bytes of the vertex properties of a vertex, keyed and listed as they are in a
+     * {@link TinkerVertex}, along with their meta-properties and values.
+     */
+    public static long vertexPropertiesBytes(final Map<String, ? extends List<? extends VertexProperty>> properties) {
+        if (null == properties) return 0;
+        long bytes = mapBytes(properties.size());
+        for (final List<? extends VertexProperty> list : properties.values()) {
+            bytes += listBytes(list.size());
+            for (final VertexProperty property : list) {
+                bytes += object(8, 1) + valueBytes(property.id()) + valueBytes(((TinkerVertexProperty) property).value) +
+                        propertiesBytes(((TinkerVertexProperty) property).properties);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the bytes of the properties of an edge or the meta-properties of a vertex property, along with their
+     * values.
+     */
+    public static long propertiesBytes(final Map<String, ? extends Property> properties) {
+        if (null == properties) return 0;
+        long bytes = mapBytes(properties.size());
+        for (final Property property : properties.values()) {
+            bytes += object(3, 0) + valueBytes(((TinkerProperty) property).value);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the bytes of a value along with the values that it holds when it is a collection or a map.
+     */
+    public static long valueBytes(final Object value) {
+        if (null == value)
+            return 0;
+        else if (value instanceof String)
+            return object(1, 4) + array(((String) value).length(), Character.BYTES);
+        else if (value instanceof Long || value instanceof Double)
+            return object(0, Long.BYTES);
+        else if (value instanceof Number || value instanceof Boolean || value instanceof Character)
+            return object(0, Integer.BYTES);
+        else if (value instanceof TinkerOffHeapStore.Value)
+            return object(2, 2 * Integer.BYTES);
+        else if (value instanceof Collection) {
+            long bytes = listBytes(((Collection) value).size());
+            for (final Object item : (Collection) value) {
+                bytes += valueBytes(item);
+            }
+            return bytes;
+        } else if (value instanceof Map) {
+            long bytes = mapBytes(((Map) value).size());
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += valueBytes(entry.getKey()) + valueBytes(entry.getValue());
+            }
+            return bytes;
+        } else
+            return object(2, 0);
+    }
+
+    /**
+     * Estimates the bytes of a hash map with the specified number of entries, not counting its keys and values.
+     */
+    public static long mapBytes(final int size) {
+        return object(6, 4 * Integer.BYTES) + array(Integer.highestOneBit(Math.max(1, size * 4 / 3)) << 1, REFERENCE) +
+                (long) size * MAP_ENTRY;
+    }
+
+    /**
+     * Estimates the bytes of an array backed list with the specified number of items, not counting the items.
+     */
+    public static long listBytes(final int size) {
+        return object(1, 2 * Integer.BYTES) + array(size, REFERENCE);
+    }
+
+    static long object(final int references, final int primitiveBytes) {
+        return align(OBJECT_HEADER + references * REFERENCE + primitiveBytes);
+    }
+
+    static long array(final int length, final int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + 7) & ~7l;
+    }
+
+    private static long elementMapBytes(final Map<Object, ?> elements) {
+        return elements instanceof TinkerLongMap ? ((TinkerLongMap<?>) elements).bytes() : mapBytes(elements.size());
+    }
+}
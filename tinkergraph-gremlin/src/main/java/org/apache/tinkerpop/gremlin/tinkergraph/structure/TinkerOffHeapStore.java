@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoPool;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the values of the properties of a {@link TinkerGraph} in direct memory when
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES} is enabled.  A value is encoded with Gryo and copied
+ * into a block of direct memory, and the property keeps a small {@link Value} that points to the block in place of
+ * the value itself.  The value is decoded each time it is read, so that it is only on the heap while it is in use.
+ * Values that encode to fewer bytes than {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SIZE}, and values
+ * that Gryo cannot encode, are kept on the heap as they are.  The latter are counted by {@link #heapFallbacks()}.
+ * <p/>
+ * Blocks are carved out of chunks of direct memory that are allocated as they fill up, and values that are larger
+ * than a quarter of a chunk get a chunk of their own.  Each chunk counts the bytes of the values in it that are still
+ * held by a property, which drop as the garbage collector finds the values of properties that were replaced or
+ * removed.  A chunk whose values are all gone is let go of, and a chunk that is less than a quarter full has its
+ * remaining values copied into the current chunk so that it can be let go of too.  The direct memory of a chunk is
+ * released by the garbage collector once no value points into it anymore.
+ */
+final class TinkerOffHeapStore {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final int minimumSize;
+    private final GryoPool pool;
+    private final AtomicLong allocated = new AtomicLong(0);
+    private final AtomicLong heapFallbacks = new AtomicLong(0);
+    private final ReferenceQueue<Value> released = new ReferenceQueue<>();
+    private final Set<Chunk> chunks = new LinkedHashSet<>();
+    private Chunk chunk = null;
+
+    TinkerOffHeapStore(final int minimumSize) {
+        this.minimumSize = minimumSize;
+        this.pool = GryoPool.build().type(GryoPool.Type.READER)
+                .poolSize(Runtime.getRuntime().availableProcessors())
+                .initializeMapper(builder -> builder.addRegistry(TinkerIoRegistry.getInstance())).create();
+    }
+
+    /**
+     * Gets the object for a property to hold for a value, which is either a {@link Value} in direct memory or, if
+     * the graph keeps no values off the heap, the value itself.
+     */
+    static Object store(final TinkerGraph graph, final Object value) {
+        return null == graph.offHeapStore || TinkerHelper.inComputerMode(graph) ? value : graph.offHeapStore.store(value);
+    }
+
+    /**
+     * Gets the value of an object that was returned by {@link #store(TinkerGraph, Object)}.
+     */
+    static <V> V read(final Object stored) {
+        return stored instanceof Value ? (V) ((Value) stored).decode() : (V) stored;
+    }
+
+    private Object store(final Object value) {
+        // boxed primitives never encode to more than a few bytes so they are not worth encoding
+        if (null == value || value instanceof Number || value instanceof Boolean || value instanceof Character)
+            return value;
+
+        final byte[] bytes;
+        final Kryo kryo = this.pool.takeKryo();
+        try {
+            final Output output = new Output(256, -1);
+            kryo.writeClassAndObject(output, value);
+            bytes = output.toBytes();
+        } catch (KryoException | IllegalArgumentException ex) {
+            // Kryo reports a class that is not registered with an IllegalArgumentException
+            this.heapFallbacks.incrementAndGet();
+            return value;
+        } finally {
+            this.pool.offerKryo(kryo);
+        }
+        return bytes.length < this.minimumSize ? value : this.allocate(bytes);
+    }
+
+    private synchronized Value allocate(final byte[] bytes) {
+        this.reclaim();
+        final Value value = new Value(this, bytes.length);
+        this.place(value, bytes);
+        return value;
+    }
+
+    /**
+     * Copies the bytes of a value into the current chunk, or into a chunk of its own if it is large, and points the
+     * value to them.
+     */
+    private void place(final Value value, final byte[] bytes) {
+        final Chunk target;
+        if (bytes.length > CHUNK_SIZE / 4)
+            target = this.newChunk(bytes.length);
+        else {
+            if (null == this.chunk || this.chunk.buffer.remaining() < bytes.length)
+                this.chunk = this.newChunk(CHUNK_SIZE);
+            target = this.chunk;
+        }
+        final int offset = target.buffer.position();
+        target.buffer.put(bytes);
+        target.liveBytes += bytes.length;
+        target.references.add(new ValueReference(value, target, this.released));
+        value.block = new Block(target.buffer, offset);
+    }
+
+    private Chunk newChunk(final int capacity) {
+        final Chunk chunk = new Chunk(ByteBuffer.allocateDirect(capacity));
+        this.chunks.add(chunk);
+        this.allocated.addAndGet(capacity);
+        return chunk;
+    }
+
+    /**
+     * Takes the bytes of the values that the garbage collector found off the chunks they were in, lets go of the
+     * chunks that no value is in anymore and moves the values out of the chunks that are mostly empty.
+     */
+    private void reclaim() {
+        boolean released = false;
+        ValueReference reference;
+        while (null != (reference = (ValueReference) this.released.poll())) {
+            reference.chunk.liveBytes -= reference.length;
+            released = true;
+        }
+        if (!released) return;
+
+        for (final Chunk chunk : new ArrayList<>(this.chunks)) {
+            if (chunk == this.chunk) continue;
+            if (0 == chunk.liveBytes)
+                this.release(chunk);
+            else if (chunk.liveBytes < chunk.buffer.capacity() / 4 && chunk.buffer.capacity() == CHUNK_SIZE) {
+                this.release(chunk);
+                for (final ValueReference live : chunk.references) {
+                    final Value value = live.get();
+                    if (null == value) continue;
+                    // the reference is cleared so that it is not counted against the chunk it is moved out of
+                    live.clear();
+                    final Block block = value.block;
+                    final byte[] bytes = new byte[value.length];
+                    final ByteBuffer source = block.chunk.duplicate();
+                    source.position(block.offset);
+                    source.get(bytes);
+                    this.place(value, bytes);
+                }
+            }
+        }
+    }
+
+    private void release(final Chunk chunk) {
+        this.chunks.remove(chunk);
+        this.allocated.addAndGet(-chunk.buffer.capacity());
+    }
+
+    /**
+     * Gets the number of bytes of direct memory in the chunks that values are held in, including the bytes of values
+     * that are no longer held by any property until their chunk is let go of.
+     */
+    long allocatedBytes() {
+        return this.allocated.get();
+    }
+
+    /**
+     * Gets the number of values that were kept on the heap because Gryo could not encode them.
+     */
+    long heapFallbacks() {
+        return this.heapFallbacks.get();
+    }
+
+    /**
+     * A block of direct memory that values are copied into along with the bytes of the values that are still held.
+     */
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private final List<ValueReference> references = new ArrayList<>();
+        private long liveBytes = 0;
+
+        private Chunk(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Finds out when a value is no longer held by a property, so that its bytes can be taken off its chunk.
+     */
+    private static final class ValueReference extends WeakReference<Value> {
+        private final Chunk chunk;
+        private final int length;
+
+        private ValueReference(final Value value, final Chunk chunk, final ReferenceQueue<Value> queue) {
+            super(value, queue);
+            this.chunk = chunk;
+            this.length = value.length;
+        }
+    }
+
+    /**
+     * Where the bytes of a value are, which changes when the value is moved out of a chunk that is mostly empty.
+     */
+    private static final class Block {
+        private final ByteBuffer chunk;
+        private final int offset;
+
+        private Block(final ByteBuffer chunk, final int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * A value that is held in a block of direct memory.
+     */
+    static final class Value {
+        private final TinkerOffHeapStore store;
+        private final int length;
+        private volatile Block block;
+
+        private Value(final TinkerOffHeapStore store, final int length) {
+            this.store = store;
+            this.length = length;
+        }
+
+        private Object decode() {
+            final byte[] bytes = new byte[this.length];
+            final Block block = this.block;
+            final ByteBuffer source = block.chunk.duplicate();
+            source.position(block.offset);
+            source.get(bytes);
+            final Kryo kryo = this.store.pool.takeKryo();
+            try {
+                return kryo.readClassAndObject(new Input(bytes));
+            } finally {
+                this.store.pool.offerKryo(kryo);
+            }
+        }
+    }
+}
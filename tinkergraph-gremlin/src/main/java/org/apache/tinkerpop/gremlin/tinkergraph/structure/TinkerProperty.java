@@ -31,12 +31,13 @@ public final class TinkerProperty<V> implements Property<V> {
 
     protected final Element element;
     protected final String key;
-    protected V value;
+    protected final Object value;
 
     public TinkerProperty(final Element element, final String key, final V value) {
+        final TinkerGraph graph = (TinkerGraph) element.graph();
         this.element = element;
-        this.key = key;
-        this.value = value;
+        this.key = graph.intern(key);
+        this.value = TinkerOffHeapStore.store(graph, value);
     }
 
     @Override
@@ -51,7 +52,7 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public V value() {
-        return this.value;
+        return TinkerOffHeapStore.read(this.value);
     }
 
     @Override
@@ -77,10 +78,35 @@ public final class TinkerProperty<V> implements Property<V> {
     @Override
     public void remove() {
         if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+            final TinkerGraph graph = (TinkerGraph) this.element.graph();
+            graph.beginWrite();
+            try {
+                synchronized (this.element) {
+                    ((TinkerEdge) this.element).properties.remove(this.key);
+                }
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value());
+                if (null != graph.writeAheadLog) graph.writeAheadLog.removeEdgeProperty(this.element.id(), this.key);
+                graph.changeFeed.edgePropertyRemoved((TinkerEdge) this.element, this.key, this.value());
+                if (null != graph.versions) graph.versions.changed((TinkerEdge) this.element);
+            } finally {
+                graph.endWrite();
+            }
         } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+            final TinkerVertexProperty vertexProperty = (TinkerVertexProperty) this.element;
+            final TinkerGraph graph = (TinkerGraph) vertexProperty.graph();
+            final boolean computer = TinkerHelper.inComputerMode(graph);
+            if (!computer) graph.beginWrite();
+            try {
+                synchronized (vertexProperty.element()) {
+                    vertexProperty.properties.remove(this.key);
+                }
+                if (null != graph.writeAheadLog && !computer)
+                    graph.writeAheadLog.removeMetaProperty(vertexProperty.element().id(), vertexProperty.id(), this.key);
+                if (!computer) graph.changeFeed.metaPropertyRemoved(vertexProperty, this.key, this.value());
+                if (null != graph.versions && !computer) graph.versions.changed(vertexProperty);
+            } finally {
+                if (!computer) graph.endWrite();
+            }
         }
     }
 }
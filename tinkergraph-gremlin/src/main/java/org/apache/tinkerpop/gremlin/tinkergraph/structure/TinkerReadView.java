@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A read-only view of a {@link TinkerGraph} as it was when the view was opened with
+ * {@link TinkerGraph#openReadView()}.  Writes that are made to the graph afterwards are not visible through the view
+ * and reading from it takes no locks.  Traversals of the view do not use the indices of the graph.  Elements that
+ * are read from the view can no longer be read once it is closed.
+ */
+public final class TinkerReadView implements Graph {
+
+    private final TinkerGraph graph;
+    private final TinkerVersions.ReadPoint readPoint;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    TinkerReadView(final TinkerGraph graph) {
+        this.graph = graph;
+        this.readPoint = graph.versions.openView();
+    }
+
+    /**
+     * The version of the graph that the view reads.  The version is incremented by every write to the graph, so a
+     * view that is opened later reads a version at least as high.
+     */
+    public long version() {
+        return this.readPoint.version;
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Object... vertexIds) {
+        return this.elements(this.readPoint.vertices, this.readPoint.vertexCount, this.graph.vertices,
+                this.graph.versions.removedVertices, this.graph.vertexIdManager, vertexIds, ReadVertex::new);
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Object... edgeIds) {
+        return this.elements(this.readPoint.edges, this.readPoint.edgeCount, this.graph.edges,
+                this.graph.versions.removedEdges, this.graph.edgeIdManager, edgeIds, ReadEdge::new);
+    }
+
+    private <E extends Element, T extends TinkerElement> Iterator<E> elements(final TinkerElement[] elements, final int count,
+                                                                                final Map<Object, ? extends Element> live,
+                                                                                final Map<Object, List<TinkerElement>> removed,
+                                                                                final TinkerGraph.IdManager<?> idManager,
+                                                                                final Object[] ids,
+                                                                                final ElementFactory<T, E> factory) {
+        this.checkOpen();
+        if (0 == ids.length) {
+            return IteratorUtils.map(IteratorUtils.filter(Arrays.asList(elements).subList(0, count).iterator(),
+                    element -> null != this.stateAt(element)), element -> factory.create(this, (T) element));
+        } else {
+            final List<E> found = new ArrayList<>(ids.length);
+            for (final Object id : ids) {
+                final Object elementId = id instanceof Element ? ((Element) id).id() : idManager.convert(id);
+                final TinkerElement element = this.find(live, removed, elementId);
+                if (null != element) found.add(factory.create(this, (T) element));
+            }
+            return found.iterator();
+        }
+    }
+
+    /**
+     * Finds the element with an id that was visible at the version of the view.  It is either still in the graph or
+     * it was removed after the view was opened, in which case the versions hold on to it.  A removed element is added
+     * to those it holds before it is removed from the graph, so a concurrent removal does not hide it.
+     */
+    private TinkerElement find(final Map<Object, ? extends Element> live, final Map<Object, List<TinkerElement>> removed,
+                               final Object id) {
+        final TinkerElement element = (TinkerElement) live.get(id);
+        if (null != element && null != this.stateAt(element)) return element;
+        final List<TinkerElement> removedElements = removed.get(id);
+        if (null != removedElements) {
+            for (final TinkerElement removedElement : removedElements) {
+                if (null != this.stateAt(removedElement)) return removedElement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fails a read once the view is closed, as the versions that it reads may then be discarded or changed.
+     */
+    private void checkOpen() {
+        if (this.closed.get())
+            throw new IllegalStateException("The read view is closed");
+    }
+
+    private TinkerVersions.State stateAt(final TinkerElement element) {
+        return TinkerVersions.stateAt(element, this.readPoint.version);
+    }
+
+    @Override
+    public Vertex addVertex(final Object... keyValues) {
+        throw Exceptions.vertexAdditionsNotSupported();
+    }
+
+    @Override
+    public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public GraphComputer compute() {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public Transaction tx() {
+        throw Exceptions.transactionsNotSupported();
+    }
+
+    @Override
+    public Variables variables() {
+        throw Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return this.graph.configuration();
+    }
+
+    @Override
+    public Features features() {
+        return ReadViewFeatures.INSTANCE;
+    }
+
+    /**
+     * Releases the versions of the elements that were only kept for this view.
+     */
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true))
+            this.graph.versions.closeView(this.readPoint.version);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, "version:" + this.readPoint.version);
+    }
+
+    @FunctionalInterface
+    private interface ElementFactory<T extends TinkerElement, E extends Element> {
+        E create(final TinkerReadView view, final T element);
+    }
+
+    ///////////// ELEMENTS ///////////////
+
+    private static abstract class ReadElement<T extends TinkerElement> implements Element {
+
+        protected final TinkerReadView view;
+        protected final T element;
+        protected final TinkerVersions.State state;
+
+        private ReadElement(final TinkerReadView view, final T element) {
+            view.checkOpen();
+            this.view = view;
+            this.element = element;
+            this.state = view.stateAt(element);
+        }
+
+        @Override
+        public Object id() {
+            return this.element.id;
+        }
+
+        @Override
+        public String label() {
+            return this.element.label;
+        }
+
+        @Override
+        public Graph graph() {
+            return this.view;
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        protected Map<String, ?> properties() {
+            this.view.checkOpen();
+            return null == this.state || null == this.state.properties ? Collections.emptyMap() : this.state.properties;
+        }
+
+        protected <P> Iterator<P> properties(final String[] propertyKeys, final Function<Object, P> wrap) {
+            final Map<String, ?> properties = this.properties();
+            final List<P> list = new ArrayList<>();
+            properties.forEach((key, value) -> {
+                if (ElementHelper.keyExists(key, propertyKeys)) {
+                    if (value instanceof List)
+                        ((List<?>) value).forEach(v -> list.add(wrap.apply(v)));
+                    else
+                        list.add(wrap.apply(value));
+                }
+            });
+            return list.iterator();
+        }
+    }
+
+    private static final class ReadVertex extends ReadElement<TinkerVertex> implements Vertex {
+
+        private ReadVertex(final TinkerReadView view, final TinkerVertex vertex) {
+            super(view, vertex);
+        }
+
+        @Override
+        public Edge addEdge(final String label, final Vertex inVertex, final Object... keyValues) {
+            throw Vertex.Exceptions.edgeAdditionsNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final String key) {
+            final List<VertexProperty> list = (List<VertexProperty>) this.properties().get(key);
+            if (null == list)
+                return VertexProperty.<V>empty();
+            else if (list.size() > 1)
+                throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+            else
+                return new ReadVertexProperty<>(this, (TinkerVertexProperty<V>) list.get(0));
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.properties().keySet();
+        }
+
+        @Override
+        public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+            return this.properties(propertyKeys, vertexProperty -> new ReadVertexProperty<>(this, (TinkerVertexProperty<V>) vertexProperty));
+        }
+
+        @Override
+        public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
+            this.view.checkOpen();
+            final List<TinkerEdge> edges = new ArrayList<>();
+            if (direction != Direction.IN) addEdges(edges, this.state.outEdges, edgeLabels);
+            if (direction != Direction.OUT) addEdges(edges, this.state.inEdges, edgeLabels);
+            return IteratorUtils.map(edges.iterator(), edge -> new ReadEdge(this.view, edge));
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
+            this.view.checkOpen();
+            final List<TinkerVertex> vertices = new ArrayList<>();
+            if (direction != Direction.IN) addVertices(vertices, this.state.outEdges, edgeLabels);
+            if (direction != Direction.OUT) addVertices(vertices, this.state.inEdges, edgeLabels);
+            return IteratorUtils.map(vertices.iterator(), vertex -> new ReadVertex(this.view, vertex));
+        }
+
+        private void addEdges(final List<TinkerEdge> edges, final TinkerAdjacency adjacency, final String... edgeLabels) {
+            if (null == adjacency) return;
+            if (0 == edgeLabels.length)
+                adjacency.addEdges(edges);
+            else {
+                for (final String label : edgeLabels) {
+                    adjacency.addEdges(edges, this.view.graph.existingEdgeLabelId(label));
+                }
+            }
+        }
+
+        private void addVertices(final List<TinkerVertex> vertices, final TinkerAdjacency adjacency, final String... edgeLabels) {
+            if (null == adjacency) return;
+            if (0 == edgeLabels.length)
+                adjacency.addVertices(vertices);
+            else {
+                for (final String label : edgeLabels) {
+                    adjacency.addVertices(vertices, this.view.graph.existingEdgeLabelId(label));
+                }
+            }
+        }
+
+        @Override
+        public TinkerReadView graph() {
+            return this.view;
+        }
+
+        @Override
+        public void remove() {
+            throw Vertex.Exceptions.vertexRemovalNotSupported();
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.vertexString(this);
+        }
+    }
+
+    private static final class ReadEdge extends ReadElement<TinkerEdge> implements Edge {
+
+        private ReadEdge(final TinkerReadView view, final TinkerEdge edge) {
+            super(view, edge);
+        }
+
+        @Override
+        public Vertex outVertex() {
+            return new ReadVertex(this.view, (TinkerVertex) this.element.outVertex);
+        }
+
+        @Override
+        public Vertex inVertex() {
+            return new ReadVertex(this.view, (TinkerVertex) this.element.inVertex);
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction) {
+            switch (direction) {
+                case OUT:
+                    return IteratorUtils.of(this.outVertex());
+                case IN:
+                    return IteratorUtils.of(this.inVertex());
+                default:
+                    return IteratorUtils.of(this.outVertex(), this.inVertex());
+            }
+        }
+
+        @Override
+        public <V> Property<V> property(final String key, final V value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public <V> Property<V> property(final String key) {
+            final Property<V> property = (Property<V>) this.properties().get(key);
+            return null == property ? Property.<V>empty() : new ReadProperty<>(this, property);
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.properties().keySet();
+        }
+
+        @Override
+        public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+            return this.properties(propertyKeys, property -> new ReadProperty<>(this, (Property<V>) property));
+        }
+
+        @Override
+        public void remove() {
+            throw Edge.Exceptions.edgeRemovalNotSupported();
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.edgeString(this);
+        }
+    }
+
+    private static final class ReadVertexProperty<V> extends ReadElement<TinkerVertexProperty<V>> implements VertexProperty<V> {
+
+        private final ReadVertex vertex;
+
+        private ReadVertexProperty(final ReadVertex vertex, final TinkerVertexProperty<V> vertexProperty) {
+            super(vertex.view, vertexProperty);
+            this.vertex = vertex;
+        }
+
+        @Override
+        public String key() {
+            return this.element.key();
+        }
+
+        @Override
+        public V value() {
+            return this.element.value();
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Vertex element() {
+            return this.vertex;
+        }
+
+        @Override
+        public <U> Property<U> property(final String key, final U value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public <U> Property<U> property(final String key) {
+            final Property<U> property = (Property<U>) this.properties().get(key);
+            return null == property ? Property.<U>empty() : new ReadProperty<>(this, property);
+        }
+
+        @Override
+        public Set<String> keys() {
+            return this.properties().keySet();
+        }
+
+        @Override
+        public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+            return this.properties(propertyKeys, property -> new ReadProperty<>(this, (Property<U>) property));
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode((Element) this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+
+    private static final class ReadProperty<V> implements Property<V> {
+
+        private final Element element;
+        private final Property<V> property;
+
+        private ReadProperty(final Element element, final Property<V> property) {
+            this.element = element;
+            this.property = property;
+        }
+
+        @Override
+        public String key() {
+            return this.property.key();
+        }
+
+        @Override
+        public V value() {
+            return this.property.value();
+        }
+
+        @Override
+        public boolean isPresent() {
+            return this.property.isPresent();
+        }
+
+        @Override
+        public Element element() {
+            return this.element;
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+
+    ///////////// FEATURES ///////////////
+
+    static final class ReadViewFeatures implements Features {
+
+        static final ReadViewFeatures INSTANCE = new ReadViewFeatures();
+
+        private final GraphFeatures graphFeatures = new GraphFeatures() {
+            @Override
+            public boolean supportsComputer() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsPersistence() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsTransactions() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsThreadedTransactions() {
+                return false;
+            }
+
+            @Override
+            public VariableFeatures variables() {
+                return new VariableFeatures() {
+                    @Override
+                    public boolean supportsVariables() {
+                        return false;
+                    }
+                };
+            }
+        };
+
+        private final VertexFeatures vertexFeatures = new VertexFeatures() {
+            @Override
+            public boolean supportsAddVertices() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsRemoveVertices() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsAddProperty() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsRemoveProperty() {
+                return false;
+            }
+
+            @Override
+            public VertexPropertyFeatures properties() {
+                return vertexPropertyFeatures;
+            }
+        };
+
+        private final VertexPropertyFeatures vertexPropertyFeatures = new VertexPropertyFeatures() {
+            @Override
+            public boolean supportsRemoveProperty() {
+                return false;
+            }
+        };
+
+        private final EdgeFeatures edgeFeatures = new EdgeFeatures() {
+            @Override
+            public boolean supportsAddEdges() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsRemoveEdges() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsAddProperty() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsRemoveProperty() {
+                return false;
+            }
+        };
+
+        @Override
+        public GraphFeatures graph() {
+            return this.graphFeatures;
+        }
+
+        @Override
+        public VertexFeatures vertex() {
+            return this.vertexFeatures;
+        }
+
+        @Override
+        public EdgeFeatures edge() {
+            return this.edgeFeatures;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.featureString(this);
+        }
+    }
+}
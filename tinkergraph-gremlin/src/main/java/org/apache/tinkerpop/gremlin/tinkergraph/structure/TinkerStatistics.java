@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The statistics of a {@link TinkerGraph} that a strategy can use to estimate the cost of a traversal.  They are kept
+ * up to date as the graph is changed, so reading them never requires a scan of the graph.  The number of elements
+ * with a label is read from the label indices, the number of distinct values of an indexed key from the property
+ * indices, and the degrees of the vertices are counted in histograms for each edge label and direction.  Bucket
+ * {@code i} of a histogram counts the vertices whose degree is at least {@code 2^i} and less than {@code 2^(i+1)},
+ * so vertices without an edge with the label are not counted.
+ */
+public final class TinkerStatistics {
+
+    private static final int BUCKETS = Integer.SIZE;
+
+    private final TinkerGraph graph;
+    private final Map<Integer, AtomicLongArray> outDegrees = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLongArray> inDegrees = new ConcurrentHashMap<>();
+
+    TinkerStatistics(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    public long vertexCount() {
+        return this.graph.vertices.size();
+    }
+
+    public long edgeCount() {
+        return this.graph.edges.size();
+    }
+
+    public long vertexCount(final String label) {
+        return this.graph.vertexLabelIndex.count(label);
+    }
+
+    public long edgeCount(final String label) {
+        return this.graph.edgeLabelIndex.count(label);
+    }
+
+    /**
+     * Gets the number of distinct values of a key that has an index, or {@code -1} if the key is not indexed for the
+     * class of element or its index is being rebuilt by a {@link TinkerBulkLoad}.
+     */
+    public <E extends Element> long distinctValueCount(final String key, final Class<E> elementClass) {
+        final TinkerIndex<?> index;
+        if (Vertex.class.isAssignableFrom(elementClass))
+            index = this.graph.vertexIndex;
+        else if (Edge.class.isAssignableFrom(elementClass))
+            index = this.graph.edgeIndex;
+        else
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        return null == index || !index.getIndexedKeys().contains(key) ? -1 : index.distinctValueCount(key);
+    }
+
+    /**
+     * Gets the histogram of the degrees of the vertices in one direction for an edge label, which is trimmed after
+     * its last bucket with a vertex in it.
+     *
+     * @throws IllegalArgumentException if the direction is {@link Direction#BOTH}
+     */
+    public long[] degreeHistogram(final String edgeLabel, final Direction direction) {
+        final AtomicLongArray histogram = this.histograms(direction).get(this.graph.existingEdgeLabelId(edgeLabel));
+        if (null == histogram) return new long[0];
+        final long[] counts = new long[BUCKETS];
+        int length = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            if (counts[i] > 0) length = i + 1;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * Moves a vertex from the bucket of its old degree to the bucket of its new degree for an edge label.
+     */
+    void degreeChanged(final int labelId, final Direction direction, final int oldDegree, final int newDegree) {
+        if (oldDegree == newDegree) return;
+        final AtomicLongArray histogram = this.histograms(direction).computeIfAbsent(labelId, id -> new AtomicLongArray(BUCKETS));
+        if (oldDegree > 0) histogram.decrementAndGet(bucket(oldDegree));
+        if (newDegree > 0) histogram.incrementAndGet(bucket(newDegree));
+    }
+
+    void clear() {
+        this.outDegrees.clear();
+        this.inDegrees.clear();
+    }
+
+    private Map<Integer, AtomicLongArray> histograms(final Direction direction) {
+        if (Direction.BOTH == direction)
+            throw new IllegalArgumentException("The degrees of the vertices are only counted in one direction");
+        return Direction.OUT == direction ? this.outDegrees : this.inDegrees;
+    }
+
+    private static int bucket(final int degree) {
+        return BUCKETS - 1 - Integer.numberOfLeadingZeros(degree);
+    }
+}
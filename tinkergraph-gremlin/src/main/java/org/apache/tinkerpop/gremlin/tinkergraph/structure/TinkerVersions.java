@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The versions of the elements of a {@link TinkerGraph} that a {@link TinkerReadView} reads from.  Writers are
+ * serialized by a lock and each outermost write is numbered with the next version.  Every vertex, edge and vertex
+ * property that a write changes is given a new immutable {@link State} holding a copy of its properties and, for a
+ * vertex, a copy of its adjacency, which is linked to the states it had before.  The version is published once the
+ * write completes, so a reader that only looks at the states with a version no greater than the one it started at
+ * sees the graph as it was between two writes without taking a lock.  States are discarded once no open view can
+ * reach them.  The copy of an adjacency shares the arrays of edges of the vertex, so an edge removal copies the array
+ * it changes the first time in a write, unless no view is open, in which case the write changes the arrays in place
+ * and views that are opened before it completes wait for it.
+ */
+final class TinkerVersions {
+
+    private static final int MINIMUM_COMPACTION = 64;
+
+    private final TinkerGraph graph;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, Integer> openViews = new ConcurrentSkipListMap<>();
+    private final ElementLog vertexLog = new ElementLog();
+    private final ElementLog edgeLog = new ElementLog();
+
+    /**
+     * Removed elements by id that may still be visible to an open view.  The lists are replaced rather than changed
+     * so that readers can iterate them.
+     */
+    final Map<Object, List<TinkerElement>> removedVertices = new ConcurrentHashMap<>();
+    final Map<Object, List<TinkerElement>> removedEdges = new ConcurrentHashMap<>();
+    private final Deque<TinkerElement> removed = new ArrayDeque<>();
+
+    private volatile ReadPoint readPoint;
+    private long writeVersion = 0;
+    private boolean changed = false;
+
+    /**
+     * The arrays of edges that the current write copied, which no published state shares, along with whether the
+     * write changes arrays in place as no view was open.
+     */
+    private final Set<TinkerEdge[]> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private volatile boolean inPlace = false;
+
+    /**
+     * Gives the elements that are already in the graph a state at version zero.
+     */
+    TinkerVersions(final TinkerGraph graph) {
+        this.graph = graph;
+        this.readPoint = new ReadPoint(0, this.vertexLog, this.edgeLog);
+        graph.vertices.values().forEach(vertex -> {
+            this.added((TinkerVertex) vertex);
+            vertex.properties().forEachRemaining(vertexProperty -> {
+                if (null != ((TinkerVertexProperty) vertexProperty).properties)
+                    this.changed((TinkerVertexProperty) vertexProperty);
+            });
+        });
+        graph.edges.values().forEach(edge -> this.added((TinkerEdge) edge));
+        this.readPoint = new ReadPoint(0, this.vertexLog, this.edgeLog);
+    }
+
+    ///////////// WRITERS ///////////////
+
+    void beginWrite() {
+        this.writeLock.lock();
+        if (1 == this.writeLock.getHoldCount()) {
+            this.writeVersion = this.readPoint.version + 1;
+            this.changed = false;
+        }
+    }
+
+    void endWrite() {
+        try {
+            if (1 == this.writeLock.getHoldCount()) {
+                if (this.changed) {
+                    final long oldest = this.oldestVersion();
+                    this.vertexLog.compact(oldest);
+                    this.edgeLog.compact(oldest);
+                    this.readPoint = new ReadPoint(this.writeVersion, this.vertexLog, this.edgeLog);
+                    this.discardRemoved();
+                }
+                this.copies.clear();
+                this.inPlace = false;
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets an array of edges that an edge removal can change, which is the array itself if this write already copied
+     * it or if no view is open, and a copy of it otherwise.  A writer that finds no open view marks the write as
+     * changing arrays in place before it looks, and a view marks itself open before it looks at the mark, so either
+     * the writer sees the view or the view sees the mark and waits for the write.
+     */
+    TinkerEdge[] writable(final TinkerEdge[] edges) {
+        if (this.inPlace || this.copies.contains(edges))
+            return edges;
+        this.inPlace = true;
+        if (this.openViews.isEmpty())
+            return edges;
+        this.inPlace = false;
+        final TinkerEdge[] copy = edges.clone();
+        this.copies.add(copy);
+        return copy;
+    }
+
+    void added(final TinkerVertex vertex) {
+        this.vertexLog.add(vertex);
+        this.publish(vertex, false, true, true);
+    }
+
+    void added(final TinkerEdge edge) {
+        this.edgeLog.add(edge);
+        this.publish(edge, false, true, false);
+    }
+
+    /**
+     * Records a change to the properties of a vertex or edge or to the meta-properties of a vertex property.
+     */
+    void changed(final TinkerElement element) {
+        this.publish(element, false, true, false);
+    }
+
+    /**
+     * Records a change to the adjacency of a vertex.
+     */
+    void linked(final TinkerVertex vertex) {
+        this.publish(vertex, false, false, true);
+    }
+
+    void removed(final TinkerElement element) {
+        final State head = element.state;
+        if (null != head && head.removed) return;
+        this.publish(element, true, false, false);
+
+        final boolean vertex = element instanceof Vertex;
+        (vertex ? this.vertexLog : this.edgeLog).removed++;
+        (vertex ? this.removedVertices : this.removedEdges).compute(element.id, (id, list) -> {
+            final List<TinkerElement> elements = null == list ? new ArrayList<>(1) : new ArrayList<>(list);
+            elements.add(element);
+            return elements;
+        });
+        this.removed.add(element);
+    }
+
+    private void publish(final TinkerElement element, final boolean removed, final boolean properties, final boolean adjacency) {
+        final State head = element.state;
+        if (null != head && head.removed) return;
+
+        final boolean copyAll = null == head;
+        final Map<String, ?> propertyCopy = removed ? null : properties || copyAll ? copyProperties(element) : head.properties;
+        TinkerAdjacency outEdges = null;
+        TinkerAdjacency inEdges = null;
+        if (!removed && element instanceof Vertex) {
+            final TinkerVertex vertex = (TinkerVertex) element;
+            outEdges = adjacency || copyAll ? snapshot(vertex.outEdges) : head.outEdges;
+            inEdges = adjacency || copyAll ? snapshot(vertex.inEdges) : head.inEdges;
+        }
+
+        // a state that this write already replaced was never visible to a reader
+        final State previous = null != head && head.version == this.writeVersion ? head.previous : head;
+        element.state = new State(this.writeVersion, removed, propertyCopy, outEdges, inEdges, this.prune(previous));
+        this.changed = true;
+    }
+
+    /**
+     * Cuts the states that come before the one that the oldest open view reads.
+     */
+    private State prune(final State previous) {
+        final long oldest = this.oldestVersion();
+        for (State state = previous; null != state; state = state.previous) {
+            if (state.version <= oldest) {
+                state.previous = null;
+                break;
+            }
+        }
+        return previous;
+    }
+
+    private void discardRemoved() {
+        final long oldest = this.oldestVersion();
+        while (!this.removed.isEmpty() && this.removed.peek().state.version <= oldest) {
+            final TinkerElement element = this.removed.poll();
+            (element instanceof Vertex ? this.removedVertices : this.removedEdges).computeIfPresent(element.id, (id, list) -> {
+                final List<TinkerElement> elements = new ArrayList<>(list);
+                elements.remove(element);
+                return elements.isEmpty() ? null : elements;
+            });
+        }
+    }
+
+    /**
+     * Removes every element from the view of the versions as the graph is cleared.
+     */
+    void clear() {
+        this.graph.edges.values().forEach(edge -> this.removed((TinkerElement) edge));
+        this.graph.vertices.values().forEach(vertex -> this.removed((TinkerElement) vertex));
+    }
+
+    /**
+     * Estimates the bytes of the states of the elements, of the logs and of the removed elements that open views may
+     * still see.  The states are read while holding the write lock, as writers replace them.
+     */
+    long bytes() {
+        this.writeLock.lock();
+        try {
+            long bytes = this.vertexLog.bytes() + this.edgeLog.bytes() +
+                    (long) this.openViews.size() * TinkerMemoryUsage.MAP_ENTRY +
+                    TinkerMemoryUsage.array(this.removed.size(), TinkerMemoryUsage.REFERENCE) +
+                    removedBytes(this.removedVertices) + removedBytes(this.removedEdges);
+            for (int i = 0; i < this.vertexLog.size; i++) {
+                final TinkerVertex vertex = (TinkerVertex) this.vertexLog.elements[i];
+                bytes += statesBytes(vertex);
+                if (null != vertex.properties) {
+                    for (final List<VertexProperty> list : vertex.properties.values()) {
+                        for (final VertexProperty vertexProperty : list) {
+                            bytes += statesBytes((TinkerVertexProperty) vertexProperty);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < this.edgeLog.size; i++) {
+                bytes += statesBytes(this.edgeLog.elements[i]);
+            }
+            return bytes;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Estimates the bytes of the states of an element, counting the properties and adjacency that a state shares
+     * with the state before it only once.
+     */
+    private static long statesBytes(final TinkerElement element) {
+        long bytes = 0;
+        for (State state = element.state; null != state; state = state.previous) {
+            final State previous = state.previous;
+            bytes += TinkerMemoryUsage.object(5, Long.BYTES + 1);
+            if (null != state.properties && (null == previous || state.properties != previous.properties)) {
+                bytes += TinkerMemoryUsage.mapBytes(state.properties.size());
+                if (element instanceof Vertex) {
+                    for (final Object list : state.properties.values()) {
+                        bytes += TinkerMemoryUsage.listBytes(((List) list).size());
+                    }
+                }
+            }
+            if (null != state.outEdges && (null == previous || state.outEdges != previous.outEdges))
+                bytes += state.outEdges.snapshotBytes();
+            if (null != state.inEdges && (null == previous || state.inEdges != previous.inEdges))
+                bytes += state.inEdges.snapshotBytes();
+        }
+        return bytes;
+    }
+
+    private static long removedBytes(final Map<Object, List<TinkerElement>> removed) {
+        long bytes = TinkerMemoryUsage.mapBytes(removed.size());
+        for (final List<TinkerElement> elements : removed.values()) {
+            bytes += TinkerMemoryUsage.listBytes(elements.size());
+        }
+        return bytes;
+    }
+
+    private static Map<String, ?> copyProperties(final TinkerElement element) {
+        if (element instanceof Vertex) {
+            final Map<String, List<VertexProperty>> properties = ((TinkerVertex) element).properties;
+            if (null == properties || properties.isEmpty()) return null;
+            final Map<String, List<VertexProperty>> copy = new HashMap<>(properties.size());
+            properties.forEach((key, list) -> copy.put(key, 1 == list.size() ?
+                    Collections.singletonList(list.get(0)) : new ArrayList<>(list)));
+            return copy;
+        } else {
+            final Map<String, ?> properties = element instanceof Edge ?
+                    ((TinkerEdge) element).properties : ((TinkerVertexProperty) element).properties;
+            return null == properties || properties.isEmpty() ? null : new HashMap<>(properties);
+        }
+    }
+
+    private static TinkerAdjacency snapshot(final TinkerAdjacency adjacency) {
+        return null == adjacency ? null : adjacency.snapshot();
+    }
+
+    ///////////// READERS ///////////////
+
+    /**
+     * Registers a view at the current version.  The version is read again after the view is registered because a
+     * writer that did not see the registration may otherwise have discarded the states of the version or be changing
+     * the arrays of edges that they share in place.
+     */
+    ReadPoint openView() {
+        while (true) {
+            final ReadPoint current = this.readPoint;
+            this.openViews.merge(current.version, 1, Integer::sum);
+            // a view that the writing thread opens itself reads the arrays that its write changes in place
+            if (current == this.readPoint && (!this.inPlace || this.writeLock.isHeldByCurrentThread())) return current;
+            this.closeView(current.version);
+            if (this.inPlace && !this.writeLock.isHeldByCurrentThread()) {
+                this.writeLock.lock();
+                this.writeLock.unlock();
+            }
+        }
+    }
+
+    void closeView(final long version) {
+        this.openViews.computeIfPresent(version, (v, count) -> 1 == count ? null : count - 1);
+    }
+
+    private long oldestVersion() {
+        final long published = this.readPoint.version;
+        final Map.Entry<Long, Integer> first = this.openViews.firstEntry();
+        return null == first ? published : Math.min(first.getKey(), published);
+    }
+
+    /**
+     * Gets the state that an element had at a version or {@code null} if it did not exist at that version.  A
+     * vertex property without a state never had meta-properties.
+     */
+    static State stateAt(final TinkerElement element, final long version) {
+        for (State state = element.state; null != state; state = state.previous) {
+            if (state.version <= version) return state.removed ? null : state;
+        }
+        return null;
+    }
+
+    /**
+     * An immutable copy of the properties and adjacency of an element as of a version.
+     */
+    static final class State {
+        final long version;
+        final boolean removed;
+        final Map<String, ?> properties;
+        final TinkerAdjacency outEdges;
+        final TinkerAdjacency inEdges;
+        volatile State previous;
+
+        private State(final long version, final boolean removed, final Map<String, ?> properties,
+                      final TinkerAdjacency outEdges, final TinkerAdjacency inEdges, final State previous) {
+            this.version = version;
+            this.removed = removed;
+            this.properties = properties;
+            this.outEdges = outEdges;
+            this.inEdges = inEdges;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * A published version along with the vertices and edges that had been added by the time it was published.
+     */
+    static final class ReadPoint {
+        final long version;
+        final TinkerElement[] vertices;
+        final int vertexCount;
+        final TinkerElement[] edges;
+        final int edgeCount;
+
+        private ReadPoint(final long version, final ElementLog vertexLog, final ElementLog edgeLog) {
+            this.version = version;
+            this.vertices = vertexLog.elements;
+            this.vertexCount = vertexLog.size;
+            this.edges = edgeLog.elements;
+            this.edgeCount = edgeLog.size;
+        }
+    }
+
+    /**
+     * The vertices or edges in the order they were added.  Elements are only appended to the array, so a reader
+     * that holds the array and the size it had at a version can iterate it while writers carry on.  Removed elements
+     * that no open view can see are compacted away once they make up half of the log.
+     */
+    private static final class ElementLog {
+        private TinkerElement[] elements = new TinkerElement[16];
+        private int size = 0;
+        private int removed = 0;
+        private int compactAt = MINIMUM_COMPACTION;
+
+        private void add(final TinkerElement element) {
+            if (this.size == this.elements.length)
+                this.elements = Arrays.copyOf(this.elements, this.size << 1);
+            this.elements[this.size++] = element;
+        }
+
+        private long bytes() {
+            return TinkerMemoryUsage.object(1, 3 * Integer.BYTES) + TinkerMemoryUsage.array(this.elements.length, TinkerMemoryUsage.REFERENCE);
+        }
+
+        private void compact(final long oldest) {
+            if (this.removed < this.compactAt || this.removed <= this.size >> 1) return;
+            final TinkerElement[] compacted = new TinkerElement[this.size];
+            int count = 0;
+            int stillVisible = 0;
+            for (int i = 0; i < this.size; i++) {
+                final State state = this.elements[i].state;
+                if (!state.removed)
+                    compacted[count++] = this.elements[i];
+                else if (state.version > oldest) {
+                    compacted[count++] = this.elements[i];
+                    stillVisible++;
+                }
+            }
+            this.elements = compacted;
+            this.size = count;
+            this.removed = stillVisible;
+            this.compactAt = Math.max(MINIMUM_COMPACTION, stillVisible << 1);
+        }
+    }
+}
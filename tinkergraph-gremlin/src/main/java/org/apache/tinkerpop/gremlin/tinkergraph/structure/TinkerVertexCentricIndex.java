@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the edges with a label that are incident to each vertex of a {@link TinkerGraph} sorted by the value of a
+ * property key, so that the edges of a vertex can be read in order of that value, or only within a range of it,
+ * without sorting or filtering all of them.  The out and in edges of a vertex are held apart.  Edges that do not have
+ * the key are not in the index.  Values are ordered by {@link TinkerIndex#RANGE_ORDER}, but the edges of a vertex are
+ * only read from the index while all of their values are of the same {@code Comparable} class, as that order would
+ * otherwise also hold values that the standard steps fail to compare.
+ */
+final class TinkerVertexCentricIndex {
+
+    private final String label;
+    private final String key;
+    private final Map<TinkerVertex, SortedEdges> outEdges = new ConcurrentHashMap<>();
+    private final Map<TinkerVertex, SortedEdges> inEdges = new ConcurrentHashMap<>();
+
+    TinkerVertexCentricIndex(final TinkerGraph graph, final String label, final String key) {
+        this.label = label;
+        this.key = key;
+        graph.edgeLabelIndex.get(label).forEach(this::add);
+    }
+
+    /**
+     * Adds an edge under the value it has for the key, if it has the label of the index.  Adding an edge that is
+     * already in the index has no effect.
+     */
+    void add(final TinkerEdge edge) {
+        final Property<?> property = edge.property(this.key);
+        if (property.isPresent()) this.add(edge, property.value());
+    }
+
+    void add(final TinkerEdge edge, final Object value) {
+        if (!this.label.equals(edge.label)) return;
+        add(this.outEdges, (TinkerVertex) edge.outVertex, edge, value);
+        add(this.inEdges, (TinkerVertex) edge.inVertex, edge, value);
+    }
+
+    private static void add(final Map<TinkerVertex, SortedEdges> index, final TinkerVertex vertex, final TinkerEdge edge, final Object value) {
+        index.compute(vertex, (v, sortedEdges) -> {
+            final SortedEdges added = null == sortedEdges ? new SortedEdges() : sortedEdges;
+            added.add(edge, value);
+            return added;
+        });
+    }
+
+    void remove(final TinkerEdge edge, final Object value) {
+        if (!this.label.equals(edge.label)) return;
+        remove(this.outEdges, (TinkerVertex) edge.outVertex, edge, value);
+        remove(this.inEdges, (TinkerVertex) edge.inVertex, edge, value);
+    }
+
+    private static void remove(final Map<TinkerVertex, SortedEdges> index, final TinkerVertex vertex, final TinkerEdge edge, final Object value) {
+        index.computeIfPresent(vertex, (v, sortedEdges) -> sortedEdges.remove(edge, value) ? null : sortedEdges);
+    }
+
+    /**
+     * Gets the edges of a vertex with a value between the bounds, where a {@code null} bound leaves that end of the
+     * range open, in ascending or descending order of their value.  Returns {@code null} if the values of the edges
+     * of the vertex are not all of the same {@code Comparable} class or a bound is not comparable to them, in which
+     * case the edges have to be compared in the same way as the standard steps do.
+     */
+    Iterator<TinkerEdge> get(final TinkerVertex vertex, final Direction direction,
+                             final Object lower, final boolean lowerInclusive,
+                             final Object upper, final boolean upperInclusive, final boolean descending) {
+        final SortedEdges sortedEdges = (Direction.OUT == direction ? this.outEdges : this.inEdges).get(vertex);
+        if (null == sortedEdges) return Collections.emptyIterator();
+        final Class<?> valueClass = sortedEdges.valueClass;
+        if (null == valueClass || !comparable(valueClass, lower) || !comparable(valueClass, upper)) return null;
+
+        NavigableMap<Object, TinkerEdge[]> range = sortedEdges.edges;
+        if (null != lower && null != upper) {
+            if (TinkerIndex.RANGE_ORDER.compare(lower, upper) > 0) return Collections.emptyIterator();
+            range = range.subMap(lower, lowerInclusive, upper, upperInclusive);
+        } else if (null != lower)
+            range = range.tailMap(lower, lowerInclusive);
+        else if (null != upper)
+            range = range.headMap(upper, upperInclusive);
+        if (descending) range = range.descendingMap();
+        return range.values().stream().flatMap(Stream::of).iterator();
+    }
+
+    /**
+     * Determines if a bound compares to values of the class in the same way in {@link TinkerIndex#RANGE_ORDER} as in
+     * {@code Compare}, which is the case for values of the same class and for numbers.
+     */
+    private static boolean comparable(final Class<?> valueClass, final Object bound) {
+        return null == bound || valueClass.equals(bound.getClass()) ||
+                (Number.class.isAssignableFrom(valueClass) && bound instanceof Number);
+    }
+
+    /**
+     * Gets the number of edges of a vertex that are in the index.
+     */
+    int size(final TinkerVertex vertex, final Direction direction) {
+        final SortedEdges sortedEdges = (Direction.OUT == direction ? this.outEdges : this.inEdges).get(vertex);
+        return null == sortedEdges ? 0 : sortedEdges.size;
+    }
+
+    /**
+     * Estimates the bytes of the index, not counting the values that it shares with the properties of the edges.
+     */
+    long bytes() {
+        long bytes = TinkerMemoryUsage.mapBytes(this.outEdges.size()) + TinkerMemoryUsage.mapBytes(this.inEdges.size());
+        for (final SortedEdges sortedEdges : this.outEdges.values()) {
+            bytes += sortedEdges.bytes();
+        }
+        for (final SortedEdges sortedEdges : this.inEdges.values()) {
+            bytes += sortedEdges.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * The edges of one vertex by value.  The edges of a value are held in an array that is replaced as edges are
+     * added and removed, so that readers can iterate them while the index changes.  Values that are not
+     * {@code Comparable} have no place in the order and are held apart, so that the index still knows all of the
+     * edges of the vertex that have the key.
+     */
+    private static final class SortedEdges {
+        private final NavigableMap<Object, TinkerEdge[]> edges = new ConcurrentSkipListMap<>(TinkerIndex.RANGE_ORDER);
+        private final Map<Object, TinkerEdge[]> unordered = new HashMap<>();
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+        private volatile int size = 0;
+
+        /**
+         * The class of all of the values if it is {@code Comparable}, or {@code null} if the values are of more than
+         * one class or are not {@code Comparable}.
+         */
+        private volatile Class<?> valueClass = null;
+
+        private Map<Object, TinkerEdge[]> edgesOf(final Object value) {
+            return value instanceof Comparable ? this.edges : this.unordered;
+        }
+
+        private synchronized void add(final TinkerEdge edge, final Object value) {
+            final Map<Object, TinkerEdge[]> edges = this.edgesOf(value);
+            final TinkerEdge[] current = edges.get(value);
+            if (null == current)
+                edges.put(value, new TinkerEdge[]{edge});
+            else {
+                for (final TinkerEdge e : current) {
+                    if (e == edge) return;
+                }
+                final TinkerEdge[] added = Arrays.copyOf(current, current.length + 1);
+                added[current.length] = edge;
+                edges.put(value, added);
+            }
+            this.size++;
+            this.classes.merge(value.getClass(), 1, Integer::sum);
+            this.classesChanged();
+        }
+
+        private void classesChanged() {
+            final Class<?> valueClass = 1 == this.classes.size() ? this.classes.keySet().iterator().next() : null;
+            this.valueClass = null != valueClass && Comparable.class.isAssignableFrom(valueClass) ? valueClass : null;
+        }
+
+        private synchronized long bytes() {
+            long bytes = TinkerMemoryUsage.object(5, Integer.BYTES) + TinkerMemoryUsage.object(6, Integer.BYTES) +
+                    TinkerMemoryUsage.mapBytes(this.unordered.size()) + TinkerMemoryUsage.mapBytes(this.classes.size());
+            for (final TinkerEdge[] array : this.edges.values()) {
+                bytes += TinkerMemoryUsage.MAP_ENTRY + TinkerMemoryUsage.array(array.length, TinkerMemoryUsage.REFERENCE);
+            }
+            for (final TinkerEdge[] array : this.unordered.values()) {
+                bytes += TinkerMemoryUsage.array(array.length, TinkerMemoryUsage.REFERENCE);
+            }
+            return bytes;
+        }
+
+        /**
+         * Removes an edge and returns {@code true} if no edges remain.
+         */
+        private synchronized boolean remove(final TinkerEdge edge, final Object value) {
+            final Map<Object, TinkerEdge[]> edges = this.edgesOf(value);
+            final TinkerEdge[] current = edges.get(value);
+            if (null != current) {
+                for (int i = 0; i < current.length; i++) {
+                    if (current[i] == edge) {
+                        if (1 == current.length)
+                            edges.remove(value);
+                        else {
+                            final TinkerEdge[] remaining = new TinkerEdge[current.length - 1];
+                            System.arraycopy(current, 0, remaining, 0, i);
+                            System.arraycopy(current, i + 1, remaining, i, remaining.length - i);
+                            edges.put(value, remaining);
+                        }
+                        this.size--;
+                        this.classes.computeIfPresent(value.getClass(), (c, count) -> 1 == count ? null : count - 1);
+                        this.classesChanged();
+                        break;
+                    }
+                }
+            }
+            return 0 == this.size;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lays out the vertices of a {@link TinkerGraph} in a {@link TinkerGraph.VertexOrder} for the representations that
+ * place them one after the other, so that vertices which are traversed together end up close to each other.
+ */
+final class TinkerVertexOrdering {
+
+    private TinkerVertexOrdering() {
+    }
+
+    static TinkerVertex[] order(final Collection<Vertex> vertices, final TinkerGraph.VertexOrder order) {
+        final TinkerVertex[] array = vertices.toArray(new TinkerVertex[vertices.size()]);
+        switch (order) {
+            case DEGREE:
+                return byDegree(array);
+            case BFS:
+                return breadthFirst(array);
+            default:
+                return array;
+        }
+    }
+
+    /**
+     * Gets the out edges of the vertices in the order of their out vertices, which is the order in which the edges
+     * are laid out after the vertices were reordered.
+     */
+    static List<TinkerEdge> outEdges(final TinkerVertex[] vertices) {
+        final List<TinkerEdge> edges = new ArrayList<>();
+        for (final TinkerVertex vertex : vertices) {
+            final Iterator<TinkerEdge> outEdges = TinkerHelper.getEdges(vertex, Direction.OUT);
+            while (outEdges.hasNext()) {
+                edges.add(outEdges.next());
+            }
+        }
+        return edges;
+    }
+
+    private static TinkerVertex[] byDegree(final TinkerVertex[] vertices) {
+        Arrays.sort(vertices, Comparator.comparingLong((TinkerVertex vertex) -> TinkerHelper.getDegree(vertex, Direction.BOTH)).reversed());
+        return vertices;
+    }
+
+    /**
+     * Visits the vertices breadth first, starting each connected component from its vertex with the highest degree,
+     * so that the neighbours of a vertex follow shortly after it.
+     */
+    private static TinkerVertex[] breadthFirst(final TinkerVertex[] vertices) {
+        final TinkerVertex[] seeds = byDegree(vertices.clone());
+        final TinkerVertex[] order = new TinkerVertex[vertices.length];
+        final Set<TinkerVertex> visited = Collections.newSetFromMap(new IdentityHashMap<>(vertices.length));
+        int head = 0;
+        int tail = 0;
+        for (final TinkerVertex seed : seeds) {
+            if (!visited.add(seed)) continue;
+            order[tail++] = seed;
+            while (head < tail) {
+                final Iterator<TinkerVertex> neighbours = TinkerHelper.getVertices(order[head++], Direction.BOTH);
+                while (neighbours.hasNext()) {
+                    final TinkerVertex neighbour = neighbours.next();
+                    if (visited.add(neighbour)) order[tail++] = neighbour;
+                }
+            }
+        }
+        return order;
+    }
+}
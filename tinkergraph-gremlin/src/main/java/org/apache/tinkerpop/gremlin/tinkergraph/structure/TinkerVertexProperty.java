@@ -44,7 +44,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     protected Map<String, Property> properties;
     private final TinkerVertex vertex;
     private final String key;
-    private final V value;
+    protected final Object value;
 
     /**
      * This constructor will not validate the ID type against the {@link Graph}.  It will always just use a
@@ -52,10 +52,10 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * with {@link TinkerGraphComputerView}.
      */
     public TinkerVertexProperty(final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(((TinkerGraph) vertex.graph()).vertexPropertyIdManager.getNextId((TinkerGraph) vertex.graph()), key);
+        super(((TinkerGraph) vertex.graph()).vertexPropertyIdManager.getNextId((TinkerGraph) vertex.graph()), ((TinkerGraph) vertex.graph()).intern(key));
         this.vertex = vertex;
-        this.key = key;
-        this.value = value;
+        this.key = this.label;
+        this.value = TinkerOffHeapStore.store((TinkerGraph) vertex.graph(), value);
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
@@ -65,10 +65,10 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * can be explicitly set and validated against the expected data type.
      */
     public TinkerVertexProperty(final Object id, final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(id, key);
+        super(id, ((TinkerGraph) vertex.graph()).intern(key));
         this.vertex = vertex;
-        this.key = key;
-        this.value = value;
+        this.key = this.label;
+        this.value = TinkerOffHeapStore.store((TinkerGraph) vertex.graph(), value);
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
@@ -80,7 +80,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public V value() {
-        return this.value;
+        return TinkerOffHeapStore.read(this.value);
     }
 
     @Override
@@ -117,10 +117,24 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     @Override
     public <U> Property<U> property(final String key, final U value) {
         if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        final boolean computer = TinkerHelper.inComputerMode(graph);
+        if (!computer) graph.beginWrite();
+        try {
+            final Property<U> property = new TinkerProperty<>(this, key, value);
+            final Property<?> oldProperty;
+            synchronized (this.vertex) {
+                if (this.properties == null) this.properties = new HashMap<>();
+                oldProperty = this.properties.put(property.key(), property);
+            }
+            if (null != graph.writeAheadLog && !computer)
+                graph.writeAheadLog.setMetaProperty(this.vertex.id(), this.id, key, value);
+            if (!computer) graph.changeFeed.metaPropertySet(this, key, value, null == oldProperty ? Property.empty() : oldProperty);
+            if (null != graph.versions && !computer) graph.versions.changed(this);
+            return property;
+        } finally {
+            if (!computer) graph.endWrite();
+        }
     }
 
     @Override
@@ -130,20 +144,32 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        graph.beginWrite();
+        try {
+            if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+                final V value = this.value();
+                final boolean last;
+                synchronized (this.vertex) {
+                    this.vertex.properties.get(this.key).remove(this);
+                    last = this.vertex.properties.get(this.key).size() == 0;
+                    if (last) this.vertex.properties.remove(this.key);
+                }
+                if (last) TinkerHelper.removeIndex(this.vertex, this.key, value);
+                final AtomicBoolean delete = new AtomicBoolean(true);
+                this.vertex.properties(this.key).forEachRemaining(property -> {
+                    if (property.value().equals(value))
+                        delete.set(false);
+                });
+                if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, value);
+                if (null != graph.writeAheadLog) graph.writeAheadLog.removeVertexProperty(this.vertex.id(), this.id);
+                graph.changeFeed.vertexPropertyRemoved(this.vertex, this.id, this.key, value);
+                if (null != graph.versions) graph.versions.changed(this.vertex);
+                this.properties = null;
+                this.removed = true;
             }
-            final AtomicBoolean delete = new AtomicBoolean(true);
-            this.vertex.properties(this.key).forEachRemaining(property -> {
-                if (property.value().equals(this.value))
-                    delete.set(false);
-            });
-            if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
-            this.removed = true;
+        } finally {
+            graph.endWrite();
         }
     }
 
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} that is persisted to a
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_LOCATION}.  The graph is recovered by reading the last Gryo snapshot
+ * at the location and then replaying the log, which is kept in a file of the same name with a {@code .log} suffix.
+ * <p/>
+ * Each record is framed by its length and a CRC32 checksum.  It is flushed to the operating system as it is appended,
+ * so it survives a crash of the JVM, and with {@link TinkerGraph#GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG_SYNC} it is also
+ * forced to the disk before the mutation returns, so it survives a crash of the machine.  A torn record at the end of
+ * the log, which is what a crash while appending leaves behind, is discarded on recovery.
+ * <p/>
+ * After every {@link TinkerGraph#GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL} mutations the log is sealed by renaming it
+ * with a {@code .sealed} suffix and a new log is started, which only takes the log's lock for as long as the rename.
+ * The snapshot is then written on a background thread, from a {@link TinkerReadView} opened right after the rotation
+ * when the graph keeps read views and from the graph itself otherwise, and the sealed log is deleted once the new
+ * snapshot has been forced to the disk and has replaced the previous one.  Recovery replays the sealed log, if a
+ * crash left one behind, before the current one.  A snapshot that is read from the graph while writers carry on may
+ * already contain some of the mutations of the current log and a crash between the snapshot and the deletion of the
+ * sealed log replays records that the snapshot already contains, so replay is tolerant of elements that already
+ * exist or that were already removed.
+ */
+final class TinkerWriteAheadLog {
+
+    private enum Operation {
+        ADD_VERTEX, REMOVE_VERTEX, ADD_VERTEX_PROPERTY, REMOVE_VERTEX_PROPERTY, SET_META_PROPERTY, REMOVE_META_PROPERTY,
+        ADD_EDGE, REMOVE_EDGE, SET_EDGE_PROPERTY, REMOVE_EDGE_PROPERTY, SET_VARIABLE, REMOVE_VARIABLE, CLEAR
+    }
+
+    private final TinkerGraph graph;
+    private final File snapshotFile;
+    private final File logFile;
+    private final File sealedLogFile;
+    private final long snapshotInterval;
+    private final boolean sync;
+    private final Kryo kryo;
+    private final Output output = new Output(4096, -1);
+    private final CRC32 crc = new CRC32();
+    private final Object snapshotLock = new Object();
+    private final ExecutorService snapshotter;
+
+    private FileOutputStream logStream;
+    private DataOutputStream log;
+    private long records = 0;
+    private boolean suspended = false;
+    private boolean snapshotPending = false;
+    private volatile Exception snapshotFailure;
+
+    TinkerWriteAheadLog(final TinkerGraph graph, final String graphLocation, final long snapshotInterval,
+                        final boolean sync) {
+        this.graph = graph;
+        this.snapshotFile = new File(graphLocation);
+        this.logFile = new File(graphLocation + ".log");
+        this.sealedLogFile = new File(graphLocation + ".log.sealed");
+        this.snapshotInterval = snapshotInterval;
+        this.sync = sync;
+        this.kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+        this.snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "tinkergraph-snapshot-" + this.snapshotFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the snapshot, replays the sealed log and the log on top of it and opens the log for appending.  A sealed
+     * log means that the last snapshot did not complete, so it is written again before the graph is used.
+     */
+    void recover() throws IOException {
+        synchronized (this) {
+            this.suspended = true;
+            try {
+                if (this.snapshotFile.isFile())
+                    this.graph.io(IoCore.gryo()).readGraph(this.snapshotFile.getPath());
+                if (this.sealedLogFile.isFile())
+                    this.replay(this.sealedLogFile);
+                final long validLength = this.logFile.isFile() ? this.replay(this.logFile) : 0;
+                if (this.logFile.isFile() && validLength < this.logFile.length()) {
+                    try (final RandomAccessFile file = new RandomAccessFile(this.logFile, "rw")) {
+                        file.setLength(validLength);
+                    }
+                }
+            } finally {
+                this.suspended = false;
+            }
+
+            final File parent = this.logFile.getAbsoluteFile().getParentFile();
+            if (!parent.exists()) parent.mkdirs();
+            this.open(true);
+        }
+        if (this.sealedLogFile.isFile()) this.snapshot();
+    }
+
+    /**
+     * Seals the log, writes a snapshot of the graph and deletes the sealed log.  Only one snapshot is written at a
+     * time and the writers of the graph only wait for the rotation of the log.
+     */
+    void snapshot() throws IOException {
+        synchronized (this.snapshotLock) {
+            final TinkerReadView view;
+            // no write is in progress while the log is rotated, so the view sees every mutation of the sealed log
+            this.graph.beginWrite();
+            try {
+                this.rotate();
+                view = null == this.graph.versions ? null : this.graph.openReadView();
+            } finally {
+                this.graph.endWrite();
+            }
+
+            try {
+                final File temp = new File(this.snapshotFile.getPath() + ".tmp");
+                try (final FileOutputStream out = new FileOutputStream(temp)) {
+                    this.graph.io(IoCore.gryo()).writer().create().writeGraph(out, null == view ? this.graph : view);
+                    out.getFD().sync();
+                }
+                try {
+                    Files.move(temp.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                if (null != view) view.close();
+            }
+            Files.deleteIfExists(this.sealedLogFile.toPath());
+            this.snapshotFailure = null;
+        }
+    }
+
+    /**
+     * Renames the log to the sealed log and starts a new one.  The variables of the graph are not part of a Gryo
+     * snapshot, so they are the first records of the new log.  A sealed log that is still there belongs to a snapshot
+     * that failed, in which case the log is left as it is and the snapshot that is about to be written replaces both.
+     */
+    private synchronized void rotate() throws IOException {
+        if (null == this.log)
+            throw new IllegalStateException(String.format("The write-ahead log at %s is closed", this.logFile));
+        if (this.sealedLogFile.exists()) return;
+
+        this.closeLog();
+        Files.move(this.logFile.toPath(), this.sealedLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        this.open(false);
+        if (null != this.graph.variables) {
+            for (final String key : this.graph.variables.keys()) {
+                this.write(Operation.SET_VARIABLE, key, this.graph.variables.get(key).orElse(null));
+            }
+        }
+        this.force();
+    }
+
+    /**
+     * Waits for a snapshot that is being written in the background and closes the log.
+     *
+     * @throws IOException if the log could not be closed or the last snapshot that was written in the background
+     *                     failed, in which case the log still holds every mutation
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            this.snapshotter.shutdown();
+        }
+        try {
+            this.snapshotter.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            this.closeLog();
+        }
+        final Exception failure = this.snapshotFailure;
+        if (null != failure)
+            throw new IOException(String.format("The last snapshot of %s could not be written", this.snapshotFile), failure);
+    }
+
+    void addVertex(final Object id, final String label) {
+        this.append(Operation.ADD_VERTEX, id, label);
+    }
+
+    void removeVertex(final Object id) {
+        this.append(Operation.REMOVE_VERTEX, id);
+    }
+
+    void addVertexProperty(final Object vertexId, final Object id, final String key, final Object value) {
+        this.append(Operation.ADD_VERTEX_PROPERTY, vertexId, id, key, value);
+    }
+
+    void removeVertexProperty(final Object vertexId, final Object id) {
+        this.append(Operation.REMOVE_VERTEX_PROPERTY, vertexId, id);
+    }
+
+    void setMetaProperty(final Object vertexId, final Object vertexPropertyId, final String key, final Object value) {
+        this.append(Operation.SET_META_PROPERTY, vertexId, vertexPropertyId, key, value);
+    }
+
+    void removeMetaProperty(final Object vertexId, final Object vertexPropertyId, final String key) {
+        this.append(Operation.REMOVE_META_PROPERTY, vertexId, vertexPropertyId, key);
+    }
+
+    void addEdge(final Object id, final String label, final Object outVertexId, final Object inVertexId) {
+        this.append(Operation.ADD_EDGE, id, label, outVertexId, inVertexId);
+    }
+
+    void removeEdge(final Object id) {
+        this.append(Operation.REMOVE_EDGE, id);
+    }
+
+    void setEdgeProperty(final Object edgeId, final String key, final Object value) {
+        this.append(Operation.SET_EDGE_PROPERTY, edgeId, key, value);
+    }
+
+    void removeEdgeProperty(final Object edgeId, final String key) {
+        this.append(Operation.REMOVE_EDGE_PROPERTY, edgeId, key);
+    }
+
+    void setVariable(final String key, final Object value) {
+        this.append(Operation.SET_VARIABLE, key, value);
+    }
+
+    void removeVariable(final String key) {
+        this.append(Operation.REMOVE_VARIABLE, key);
+    }
+
+    void clear() {
+        this.append(Operation.CLEAR);
+    }
+
+    private synchronized void append(final Operation operation, final Object... arguments) {
+        if (this.suspended) return;
+        if (null == this.log)
+            throw new IllegalStateException(String.format("The write-ahead log at %s is closed", this.logFile));
+        try {
+            this.write(operation, arguments);
+            if (this.sync)
+                this.force();
+            else
+                this.log.flush();
+        } catch (IOException ex) {
+            throw new RuntimeException(String.format("Could not append to the write-ahead log at %s", this.logFile), ex);
+        }
+        if (++this.records >= this.snapshotInterval && !this.snapshotPending) {
+            this.records = 0;
+            this.snapshotPending = true;
+            this.snapshotter.execute(this::snapshotInBackground);
+        }
+    }
+
+    private void snapshotInBackground() {
+        try {
+            this.snapshot();
+        } catch (Exception ex) {
+            // the sealed log is kept, so nothing is lost and the snapshot is tried again after the next interval
+            this.snapshotFailure = ex;
+        } finally {
+            synchronized (this) {
+                this.snapshotPending = false;
+            }
+        }
+    }
+
+    private void force() throws IOException {
+        this.log.flush();
+        this.logStream.getFD().sync();
+    }
+
+    private void open(final boolean append) throws IOException {
+        this.logStream = new FileOutputStream(this.logFile, append);
+        this.log = new DataOutputStream(new BufferedOutputStream(this.logStream));
+    }
+
+    private void closeLog() throws IOException {
+        if (null != this.log) {
+            this.force();
+            this.log.close();
+            this.log = null;
+            this.logStream = null;
+        }
+    }
+
+    private void write(final Operation operation, final Object... arguments) throws IOException {
+        this.output.clear();
+        this.output.writeByte(operation.ordinal());
+        this.output.writeVarInt(arguments.length, true);
+        for (final Object argument : arguments) {
+            this.kryo.writeClassAndObject(this.output, argument);
+        }
+        this.crc.reset();
+        this.crc.update(this.output.getBuffer(), 0, this.output.position());
+        this.log.writeInt(this.output.position());
+        this.log.write(this.output.getBuffer(), 0, this.output.position());
+        this.log.writeLong(this.crc.getValue());
+    }
+
+    /**
+     * Applies every intact record of a log to the graph and returns the length of the log up to the end of the last
+     * intact record.
+     */
+    private long replay(final File file) throws IOException {
+        long validLength = 0;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                final byte[] record;
+                try {
+                    final int length = in.readInt();
+                    if (length <= 0 || length > file.length() - validLength) break;
+                    record = new byte[length];
+                    in.readFully(record);
+                    this.crc.reset();
+                    this.crc.update(record, 0, length);
+                    if (in.readLong() != this.crc.getValue()) break;
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                final Input input = new Input(record);
+                final Operation operation = Operation.values()[input.readByte()];
+                final Object[] arguments = new Object[input.readVarInt(true)];
+                for (int i = 0; i < arguments.length; i++) {
+                    arguments[i] = this.kryo.readClassAndObject(input);
+                }
+                this.apply(operation, arguments);
+                validLength += 12 + record.length;
+                this.records++;
+            }
+        }
+        return validLength;
+    }
+
+    private void apply(final Operation operation, final Object[] arguments) {
+        final Vertex vertex;
+        final Edge edge;
+        switch (operation) {
+            case ADD_VERTEX:
+                if (null == this.graph.vertices.get(arguments[0]))
+                    this.graph.addVertex(T.id, arguments[0], T.label, arguments[1]);
+                break;
+            case REMOVE_VERTEX:
+                vertex = this.graph.vertices.get(arguments[0]);
+                if (null != vertex) vertex.remove();
+                break;
+            case ADD_VERTEX_PROPERTY:
+                vertex = this.graph.vertices.get(arguments[0]);
+                if (null != vertex && null == vertexProperty(vertex, arguments[1]))
+                    vertex.property(VertexProperty.Cardinality.list, (String) arguments[2], arguments[3], T.id, arguments[1]);
+                break;
+            case REMOVE_VERTEX_PROPERTY:
+                vertex = this.graph.vertices.get(arguments[0]);
+                if (null != vertex) {
+                    final VertexProperty<?> vertexProperty = vertexProperty(vertex, arguments[1]);
+                    if (null != vertexProperty) vertexProperty.remove();
+                }
+                break;
+            case SET_META_PROPERTY:
+                vertex = this.graph.vertices.get(arguments[0]);
+                if (null != vertex) {
+                    final VertexProperty<?> vertexProperty = vertexProperty(vertex, arguments[1]);
+                    if (null != vertexProperty) vertexProperty.property((String) arguments[2], arguments[3]);
+                }
+                break;
+            case REMOVE_META_PROPERTY:
+                vertex = this.graph.vertices.get(arguments[0]);
+                if (null != vertex) {
+                    final VertexProperty<?> vertexProperty = vertexProperty(vertex, arguments[1]);
+                    if (null != vertexProperty) vertexProperty.property((String) arguments[2]).remove();
+                }
+                break;
+            case ADD_EDGE:
+                final Vertex outVertex = this.graph.vertices.get(arguments[2]);
+                final Vertex inVertex = this.graph.vertices.get(arguments[3]);
+                if (null == this.graph.edges.get(arguments[0]) && null != outVertex && null != inVertex)
+                    outVertex.addEdge((String) arguments[1], inVertex, T.id, arguments[0]);
+                break;
+            case REMOVE_EDGE:
+                edge = this.graph.edges.get(arguments[0]);
+                if (null != edge) edge.remove();
+                break;
+            case SET_EDGE_PROPERTY:
+                edge = this.graph.edges.get(arguments[0]);
+                if (null != edge) edge.property((String) arguments[1], arguments[2]);
+                break;
+            case REMOVE_EDGE_PROPERTY:
+                edge = this.graph.edges.get(arguments[0]);
+                if (null != edge) edge.property((String) arguments[1]).remove();
+                break;
+            case SET_VARIABLE:
+                this.graph.variables().set((String) arguments[0], arguments[1]);
+                break;
+            case REMOVE_VARIABLE:
+                this.graph.variables().remove((String) arguments[0]);
+                break;
+            case CLEAR:
+                this.graph.clear();
+                break;
+        }
+    }
+
+    private static VertexProperty<?> vertexProperty(final Vertex vertex, final Object id) {
+        final Iterator<VertexProperty<Object>> properties = vertex.properties();
+        while (properties.hasNext()) {
+            final VertexProperty<?> vertexProperty = properties.next();
+            if (vertexProperty.id().equals(id))
+                return vertexProperty;
+        }
+        return null;
+    }
+}
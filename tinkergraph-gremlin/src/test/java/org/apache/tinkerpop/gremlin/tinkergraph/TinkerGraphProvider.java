@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.structure.io.IoEdgeTest;
 import org.apache.tinkerpop.gremlin.structure.io.IoVertexTest;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedGraphTest;
 import org.apache.tinkerpop.gremlin.structure.util.star.StarGraphTest;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphEdgeKeyStrategyTest;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElement;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
@@ -70,6 +71,8 @@ public class TinkerGraphProvider extends AbstractGraphProvider {
             put(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, idMaker);
             if (requiresListCardinalityAsDefault(loadGraphWith, test, testMethodName))
                 put(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+            if (requiresEdgeKeyIndex(test))
+                put(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX, true);
             if (requiresPersistence(test, testMethodName)) {
                 put(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
                 final File tempDir = TestHelper.makeTestDataPath(test, "temp");
@@ -114,6 +117,13 @@ public class TinkerGraphProvider extends AbstractGraphProvider {
                 || (test == DetachedGraphTest.class && testMethodName.equals("testAttachableCreateMethod"));
     }
 
+    /**
+     * Determines if a test requires the graph to maintain an edge key index.
+     */
+    protected static boolean requiresEdgeKeyIndex(final Class<?> test) {
+        return test == TinkerGraphEdgeKeyStrategyTest.class;
+    }
+
     /**
      * Some tests require special configuration for TinkerGraph to properly configure the id manager.
      */
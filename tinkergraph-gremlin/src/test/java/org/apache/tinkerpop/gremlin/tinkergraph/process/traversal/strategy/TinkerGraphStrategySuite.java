@@ -20,7 +20,12 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy;
 
 import org.apache.tinkerpop.gremlin.AbstractGremlinSuite;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphColumnStrategyTest;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeStrategyTest;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategyTest;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphEdgeKeyStrategyTest;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategyTest;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexCentricStrategyTest;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
 
@@ -33,9 +38,19 @@ public class TinkerGraphStrategySuite extends AbstractGremlinSuite {
 
         super(klass, builder,
                 new Class<?>[]{
-                        TinkerGraphStepStrategyTest.class
+                        TinkerGraphStepStrategyTest.class,
+                        TinkerGraphCountStrategyTest.class,
+                        TinkerGraphEdgeKeyStrategyTest.class,
+                        TinkerGraphVertexCentricStrategyTest.class,
+                        TinkerGraphColumnStrategyTest.class,
+                        TinkerGraphDegreeStrategyTest.class
                 }, new Class<?>[]{
-                        TinkerGraphStepStrategyTest.class
+                        TinkerGraphStepStrategyTest.class,
+                        TinkerGraphCountStrategyTest.class,
+                        TinkerGraphEdgeKeyStrategyTest.class,
+                        TinkerGraphVertexCentricStrategyTest.class,
+                        TinkerGraphColumnStrategyTest.class,
+                        TinkerGraphDegreeStrategyTest.class
                 },
                 false,
                 TraversalEngine.Type.STANDARD);
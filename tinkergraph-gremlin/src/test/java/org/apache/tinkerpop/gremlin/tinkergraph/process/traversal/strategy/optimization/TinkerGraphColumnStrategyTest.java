@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerColumnStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TinkerGraphColumnStrategyTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadValuesFromColumn() {
+        ((TinkerGraph) graph).createColumn("age");
+        ((TinkerGraph) graph).createColumn("name");
+        ((TinkerGraph) graph).createColumn("lang");
+
+        assertReadFromColumn(Collections.singletonList(123l), g.V().values("age").sum().asAdmin());
+        assertReadFromColumn(Arrays.asList(27, 29, 32, 35), g.V().values("age").order().asAdmin());
+        assertReadFromColumn(Arrays.asList("josh", "marko", "peter"), g.V().has("age", P.gt(28)).values("name").order().asAdmin());
+        assertReadFromColumn(Arrays.asList("marko", "peter"), g.V().has("age", P.gt(28)).has("name", P.neq("josh")).values("name").order().asAdmin());
+        assertReadFromColumn(Arrays.asList("java", "java"), g.V().hasLabel("software").properties("lang").value().asAdmin());
+        assertReadFromColumn(Collections.singletonList(2l), g.V().values("lang").count().asAdmin());
+        assertReadFromColumn(Collections.singletonList(Collections.singletonMap("java", 2l)), g.V().hasLabel("software").groupCount().by("lang").asAdmin());
+        assertReadFromColumn(Collections.singletonList(Arrays.asList(27, 29)), g.V().values("age").as("a").is(P.lt(30)).select("a").order().fold().asAdmin());
+
+        try {
+            g.V().groupCount().by("lang").next();
+            fail("Grouping by a key that a vertex does not have should fail as it does without the column");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldNotReadValuesFromColumn() {
+        ((TinkerGraph) graph).createColumn("age");
+        final Object marko = convertToVertexId("marko");
+
+        assertNotReadFromColumn(Collections.singletonList(29), g.V(marko).values("age").asAdmin());
+        assertNotReadFromColumn(Collections.singletonList(10l), g.V().values("age", "name").count().asAdmin());
+        assertNotReadFromColumn(Collections.singletonList(6l), g.V().values("name").count().asAdmin());
+        assertNotReadFromColumn(Collections.singletonList(4l), g.V().as("v").values("age").count().asAdmin());
+        assertNotReadFromColumn(Collections.singletonList(4l), g.V().values("age").path().count().asAdmin());
+        assertNotReadFromColumn(Collections.singletonList(2l), g.V(marko).out("knows").values("age").count().asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadValuesFromColumnAsTheyChange() {
+        ((TinkerGraph) graph).createColumn("age");
+        final Vertex marko = g.V(convertToVertexId("marko")).next();
+
+        final Vertex stephen = graph.addVertex(T.label, "person", "name", "stephen", "age", 40);
+        assertReadFromColumn(Collections.singletonList(163l), g.V().values("age").sum().asAdmin());
+        marko.property(VertexProperty.Cardinality.single, "age", 30);
+        assertReadFromColumn(Collections.singletonList(164l), g.V().values("age").sum().asAdmin());
+        g.V(convertToVertexId("vadas")).drop().iterate();
+        assertReadFromColumn(Collections.singletonList(137l), g.V().values("age").sum().asAdmin());
+
+        graph.addVertex(T.label, "person", "name", "daniel", "age", 25l);
+        assertReadFromColumnInAnyOrder(Arrays.asList("25", "30", "32", "35", "40"), g.V().values("age").asAdmin());
+        marko.property(VertexProperty.Cardinality.list, "age", 50);
+        assertReadFromColumnInAnyOrder(Arrays.asList("25", "30", "32", "35", "40", "50"), g.V().values("age").asAdmin());
+        try {
+            g.V().groupCount().by("age").next();
+            fail("Grouping by a key that a vertex has more than one value for should fail as it does without the column");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+
+        stephen.property("age").remove();
+        marko.properties("age").forEachRemaining(VertexProperty::remove);
+        assertReadFromColumnInAnyOrder(Arrays.asList("25", "32", "35"), g.V().values("age").asAdmin());
+
+        ((TinkerGraph) graph).dropColumn("age");
+        assertNotReadFromColumn(Collections.singletonList(3l), g.V().values("age").count().asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldFindVerticesThroughIndexBeforeReadingColumn() {
+        ((TinkerGraph) graph).createColumn("age");
+        ((TinkerGraph) graph).createColumn("lang");
+        ((TinkerGraph) graph).createIndex("name", Vertex.class);
+
+        assertReadFromIndexedColumn(true, Collections.singletonList(29), g.V().has("name", "marko").values("age").asAdmin());
+        assertReadFromIndexedColumn(true, Collections.singletonList(32), g.V().has("name", "josh").has("age", P.gt(30)).values("age").asAdmin());
+        assertReadFromIndexedColumn(true, Collections.singletonList(2l), g.V().hasLabel("software").values("lang").count().asAdmin());
+        assertReadFromIndexedColumn(false, Collections.singletonList(96l), g.V().has("age", P.gt(28)).values("age").sum().asAdmin());
+        assertReadFromIndexedColumn(false, Collections.singletonList(123l), g.V().values("age").sum().asAdmin());
+
+        g.V().has("name", "marko").property(VertexProperty.Cardinality.single, "age", 30).iterate();
+        assertReadFromIndexedColumn(true, Collections.singletonList(30), g.V().has("name", "marko").values("age").asAdmin());
+    }
+
+    private static void assertReadFromIndexedColumn(final boolean indexed, final List<?> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        final List<TinkerColumnStep> columnSteps = TraversalHelper.getStepsOfClass(TinkerColumnStep.class, traversal);
+        assertEquals(1, columnSteps.size());
+        assertEquals(indexed, columnSteps.get(0).isIndexed());
+        assertEquals(expected, traversal.toList());
+    }
+
+    private static void assertReadFromColumn(final List<?> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerColumnStep.class, traversal));
+        assertEquals(expected, new ArrayList<>(traversal.toList()));
+    }
+
+    private static void assertReadFromColumnInAnyOrder(final List<String> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerColumnStep.class, traversal));
+        assertEquals(expected, traversal.toList().stream().map(Object::toString).sorted().collect(Collectors.toList()));
+    }
+
+    private static void assertNotReadFromColumn(final List<?> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfClass(TinkerColumnStep.class, traversal));
+        assertEquals(expected, traversal.toList());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.junit.Assert.assertEquals;
+
+public class TinkerGraphCountStrategyTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldCountFromElementMaps() {
+        assertCountedFromIndex(6, g.V().count().asAdmin());
+        assertCountedFromIndex(6, g.E().count().asAdmin());
+        assertCountedFromIndex(6, g.V().identity().count().asAdmin());
+        assertCountedByTraversal(2, g.V().out().out().count().asAdmin());
+        assertCountedByTraversal(6, g.V().as("a").count().asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldCountFromIndices() {
+        assertCountedByTraversal(2, g.V().has("lang", "java").count().asAdmin());
+
+        final TinkerGraph tinkerGraph = (TinkerGraph) graph;
+        tinkerGraph.createIndex("lang", Vertex.class);
+        tinkerGraph.createIndex("weight", Edge.class);
+        tinkerGraph.createCompositeIndex(Arrays.asList("lang", "name"), Vertex.class);
+
+        assertCountedFromIndex(2, g.V().has("lang", "java").count().asAdmin());
+        assertCountedFromIndex(0, g.V().has("lang", "scala").count().asAdmin());
+        assertCountedFromIndex(2, g.E().has("weight", 1.0d).count().asAdmin());
+        assertCountedFromIndex(1, g.V().has("name", "lop").has("lang", "java").count().asAdmin());
+        assertCountedByTraversal(1, g.V().has("lang", "java").has("name", P.neq("lop")).count().asAdmin());
+        assertCountedByTraversal(0, g.V().has("lang", "java").has("name", "lop").has("age", P.gt(0)).count().asAdmin());
+
+        // the count is read when the traversal is iterated, not when the strategies are applied
+        final GraphTraversal.Admin<?, Long> traversal = g.V().has("lang", "java").count().asAdmin();
+        traversal.applyStrategies();
+        graph.addVertex("lang", "java");
+        assertEquals(3L, traversal.next().longValue());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldCountFromLabelIndex() {
+        assertCountedFromIndex(4, g.V().hasLabel("person").count().asAdmin());
+        assertCountedFromIndex(6, g.V().hasLabel("person", "software").count().asAdmin());
+        assertCountedFromIndex(0, g.V().hasLabel("animal").count().asAdmin());
+        assertCountedFromIndex(2, g.E().hasLabel("knows").count().asAdmin());
+        assertCountedByTraversal(2, g.V().hasLabel("person").has("age", P.gt(30)).count().asAdmin());
+    }
+
+    private static void assertCountedFromIndex(final long expected, final GraphTraversal.Admin<?, Long> traversal) {
+        traversal.applyStrategies();
+        assertEquals(1, traversal.getSteps().size());
+        assertEquals(TinkerCountGlobalStep.class, traversal.getStartStep().getClass());
+        assertEquals(expected, traversal.next().longValue());
+    }
+
+    private static void assertCountedByTraversal(final long expected, final GraphTraversal.Admin<?, Long> traversal) {
+        traversal.applyStrategies();
+        assertEquals(CountGlobalStep.class, traversal.getEndStep().getClass());
+        assertEquals(expected, traversal.next().longValue());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeStep;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.bothE;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.inE;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphDegreeStrategyTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadDegreeFromAdjacency() {
+        final Object marko = convertToVertexId("marko");
+
+        assertReadFromAdjacency(Arrays.asList(3l, 3l, 3l, 1l, 1l, 1l), g.V().order().by("name").local(bothE().count()).asAdmin());
+        assertReadFromAdjacency(Arrays.asList(2l, 0l, 3l, 1l, 0l, 0l), g.V().order().by("name").local(out("knows", "created").count()).asAdmin());
+        assertReadFromAdjacency(Arrays.asList("marko", "josh", "peter", "lop", "ripple", "vadas"),
+                g.V().order().by(outE().count(), Order.decr).by("name").values("name").asAdmin());
+        assertReadFromAdjacency(Collections.singletonList(2l), g.V(marko).project("id", "deg").by(T.id).by(outE("knows").count()).select("deg").asAdmin());
+        assertReadFromAdjacency(Collections.singletonList(0l), g.V(marko).local(inE("knows").count()).asAdmin());
+        assertReadFromAdjacency(Collections.singletonList(0l), g.V(marko).local(outE("likes").count()).asAdmin());
+
+        final List<?> bulked = g.V().both().both().barrier().local(bothE().count()).sum().toList();
+        assertEquals(g.withoutStrategies(TinkerGraphDegreeStrategy.class).V().both().both().barrier().local(bothE().count()).sum().toList(), bulked);
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldNotReadDegreeFromAdjacency() {
+        final Object marko = convertToVertexId("marko");
+
+        assertNotReadFromAdjacency(Collections.singletonList(3l), g.V(marko).outE().count().asAdmin());
+        assertNotReadFromAdjacency(Collections.singletonList(3l), g.V(marko).local(outE().as("e").count()).asAdmin());
+        assertNotReadFromAdjacency(Collections.singletonList(1l), g.V(marko).local(outE().has("weight", 1.0d).count()).asAdmin());
+        assertNotReadFromAdjacency(Collections.singletonList(3l), g.V(marko).union(outE().count()).asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadDegreeFromAdjacencyAsItChanges() {
+        final Vertex marko = g.V(convertToVertexId("marko")).next();
+        final Vertex vadas = g.V(convertToVertexId("vadas")).next();
+
+        marko.addEdge("knows", vadas);
+        marko.addEdge("likes", marko);
+        assertReadFromAdjacency(Collections.singletonList(3l), g.V(marko).local(outE("knows").count()).asAdmin());
+        assertReadFromAdjacency(Collections.singletonList(6l), g.V(marko).local(bothE().count()).asAdmin());
+
+        g.V(marko).outE("knows").drop().iterate();
+        assertReadFromAdjacency(Collections.singletonList(0l), g.V(marko).local(outE("knows").count()).asAdmin());
+        assertReadFromAdjacency(Collections.singletonList(2l), g.V(marko).local(out().count()).asAdmin());
+    }
+
+    private static void assertReadFromAdjacency(final List<?> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerDegreeStep.class, traversal));
+        assertEquals(expected, traversal.toList());
+    }
+
+    private static void assertNotReadFromAdjacency(final List<?> expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerDegreeStep.class, traversal));
+        assertEquals(expected, traversal.toList());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerEdgeKeyStep;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphEdgeKeyStrategyTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldLookUpEdgesBetweenVertices() {
+        final Object marko = convertToVertexId("marko");
+        final Object vadas = convertToVertexId("vadas");
+        final Object josh = convertToVertexId("josh");
+        final Object lop = convertToVertexId("lop");
+
+        assertLookedUp(1, g.V(marko).outE("knows").where(__.inV().hasId(vadas)).asAdmin());
+        assertLookedUp(2, g.V(marko).outE("knows").where(__.inV().hasId(vadas, josh)).asAdmin());
+        assertLookedUp(2, g.V(marko).outE("knows", "created").where(__.inV().hasId(josh, lop)).asAdmin());
+        assertLookedUp(0, g.V(marko).outE("created").where(__.inV().hasId(vadas)).asAdmin());
+        assertLookedUp(1, g.V(josh).inE("knows").filter(__.outV().hasId(marko)).asAdmin());
+        assertLookedUp(3, g.V().outE("created").where(__.inV().hasId(lop)).asAdmin());
+        assertLookedUp(1, g.V(marko).coalesce(__.outE("knows").where(__.inV().hasId(vadas)), __.outE("created")).outV().asAdmin());
+
+        final GraphTraversal.Admin<Vertex, Map<String, Object>> traversal =
+                g.V(marko).outE("knows").as("e").where(__.inV().hasId(vadas)).as("f").select("e", "f").by(__.inV().values("name")).asAdmin();
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerEdgeKeyStep.class, traversal));
+        assertEquals("{e=vadas, f=vadas}", traversal.next().toString());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldFilterEdgesThatAreNotLookedUp() {
+        final Object marko = convertToVertexId("marko");
+        final Object vadas = convertToVertexId("vadas");
+
+        assertFiltered(1, g.V(marko).outE("knows").where(__.inV().has("name", "vadas")).asAdmin());
+        assertFiltered(1, g.V(marko).bothE("knows").where(__.inV().hasId(vadas)).asAdmin());
+        assertFiltered(1, g.V(marko).outE().where(__.inV().hasId(vadas)).asAdmin());
+        assertFiltered(0, g.V(marko).outE("knows").where(__.outV().hasId(vadas)).asAdmin());
+        assertFiltered(1, g.V(marko).outE("knows").where(__.inV().hasId(vadas).has("age", 27)).asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldLookUpEdgesAsTheyAreAddedAndRemoved() {
+        final Vertex marko = g.V(convertToVertexId("marko")).next();
+        final Vertex peter = g.V(convertToVertexId("peter")).next();
+
+        assertLookedUp(0, g.V(marko).outE("knows").where(__.inV().hasId(peter.id())).asAdmin());
+        final Edge first = marko.addEdge("knows", peter);
+        marko.addEdge("knows", peter);
+        assertLookedUp(2, g.V(marko).outE("knows").where(__.inV().hasId(peter.id())).asAdmin());
+        assertLookedUp(2, g.V(peter).inE("knows").where(__.outV().hasId(marko.id())).asAdmin());
+
+        first.remove();
+        assertLookedUp(1, g.V(marko).outE("knows").where(__.inV().hasId(peter.id())).asAdmin());
+        peter.remove();
+        assertLookedUp(0, g.V(marko).outE("knows").where(__.inV().hasId(peter.id())).asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldLookUpEdgesByIdentifiersOfAnotherType() {
+        final Object marko = convertToVertexId("marko");
+        final Object vadas = convertToVertexId("vadas");
+        final Object josh = convertToVertexId("josh");
+
+        assertLookedUp(1, g.V(marko).outE("knows").where(__.inV().hasId(vadas.toString())).asAdmin());
+        assertLookedUp(2, g.V(marko).outE("knows").where(__.inV().hasId(vadas.toString(), josh.toString())).asAdmin());
+        assertLookedUp(1, g.V(marko).outE("knows").where(__.inV().hasId(((Number) vadas).longValue())).asAdmin());
+        assertLookedUp(0, g.V(marko).outE("knows").where(__.inV().hasId("0" + vadas)).asAdmin());
+    }
+
+    @Test
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldLookUpEdgesByIdentifiersOfAnotherTypeWithoutConversion() {
+        final Vertex a = graph.addVertex(T.id, 1);
+        a.addEdge("knows", graph.addVertex(T.id, 2));
+        a.addEdge("knows", graph.addVertex(T.id, 3));
+        a.addEdge("knows", graph.addVertex(T.id, 4l));
+        a.addEdge("knows", graph.addVertex(T.id, "x"));
+
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId(2)).asAdmin());
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId("2")).asAdmin());
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId(2l)).asAdmin());
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId(2.0d)).asAdmin());
+        // within() does not compare numbers of different types
+        assertLookedUp(0, g.V(1).outE("knows").where(__.inV().hasId(2l, 3l)).asAdmin());
+        assertLookedUp(2, g.V(1).outE("knows").where(__.inV().hasId(2, 3)).asAdmin());
+        assertLookedUp(2, g.V(1).outE("knows").where(__.inV().hasId("3", "4")).asAdmin());
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId(4)).asAdmin());
+        assertLookedUp(1, g.V(1).outE("knows").where(__.inV().hasId("x")).asAdmin());
+        assertLookedUp(0, g.V(1).outE("knows").where(__.inV().hasId("5")).asAdmin());
+        assertLookedUp(1, g.V(2).inE("knows").where(__.outV().hasId("1")).asAdmin());
+    }
+
+    private static void assertLookedUp(final long expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerEdgeKeyStep.class, traversal));
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(TraversalFilterStep.class, traversal));
+        assertEquals(expected, traversal.toList().size());
+    }
+
+    private static void assertFiltered(final long expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerEdgeKeyStep.class, traversal));
+        assertEquals(expected, traversal.toList().size());
+    }
+}
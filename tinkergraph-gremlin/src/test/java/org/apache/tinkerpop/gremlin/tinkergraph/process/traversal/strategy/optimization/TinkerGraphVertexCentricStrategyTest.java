@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
+import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexCentricStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TinkerGraphVertexCentricStrategyTest extends AbstractGremlinProcessTest {
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadOrderedEdgesFromIndex() {
+        ((TinkerGraph) graph).createVertexCentricIndex("created", "weight");
+        ((TinkerGraph) graph).createVertexCentricIndex("knows", "weight");
+        final Object marko = convertToVertexId("marko");
+        final Object josh = convertToVertexId("josh");
+
+        assertReadFromIndex(Arrays.asList(0.5d, 1.0d), g.V(marko).outE("knows").order().by("weight").values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(1.0d, 0.4d), g.V(josh).outE("created").order().by("weight", Order.decr).values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(1.0d, 0.4d), g.V().outE("created").order().by("weight", Order.decr).limit(2).values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(0.4d, 0.4d), g.V().outE("created").order().by("weight", Order.decr).range(1, 3).values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(0.2d, 0.4d, 0.4d), g.V().inE("created").has("weight", P.lt(1.0d)).order().by("weight").values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList("ripple", "lop"), g.V(josh).outE("created").as("e").order().by("weight", Order.decr).inV().values("name").asAdmin());
+
+        final GraphTraversal.Admin<Vertex, Object> traversal = g.V().local(__.outE("created").order().by("weight", Order.decr).limit(1)).values("weight").asAdmin();
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal));
+        final List<Object> heaviest = traversal.toList();
+        Collections.sort((List) heaviest);
+        assertEquals(Arrays.asList(0.2d, 0.4d, 1.0d), heaviest);
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadEdgesInRangeFromIndex() {
+        ((TinkerGraph) graph).createVertexCentricIndex("created", "weight");
+
+        assertReadFromIndex(3, g.V().outE("created").has("weight", P.gt(0.3d)).asAdmin());
+        assertReadFromIndex(2, g.V().inE("created").has("weight", P.between(0.3d, 0.9d)).asAdmin());
+        assertReadFromIndex(1, g.V().inE("created").has("weight", 0.2d).asAdmin());
+        assertReadFromIndex(1, g.V().outE("created").has("weight", P.gte(0.4d)).limit(1).asAdmin());
+        assertReadFromIndex(0, g.V().outE("created").has("weight", P.gt(1.0d)).asAdmin());
+        assertReadFromIndex(2, g.V().outE("created").has("weight", P.gt(0.3d)).has("weight", P.lt(0.5d)).asAdmin());
+        assertReadFromIndex(0, g.V().outE("created").has("weight", P.gt(0.3d)).has("weight", P.lt(0.5d)).has("weight", P.neq(0.4d)).asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldNotReadEdgesFromIndex() {
+        ((TinkerGraph) graph).createVertexCentricIndex("created", "weight");
+        final Object marko = convertToVertexId("marko");
+
+        assertNotReadFromIndex(Arrays.asList(0.4d, 0.5d, 1.0d), g.V(marko).outE("created", "knows").order().by("weight").values("weight").asAdmin());
+        assertNotReadFromIndex(Arrays.asList(0.4d), g.V(marko).bothE("created").order().by("weight").values("weight").asAdmin());
+        assertNotReadFromIndex(Arrays.asList(0.5d, 1.0d), g.V(marko).outE("knows").order().by("weight").values("weight").asAdmin());
+        assertNotReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").has("weight", P.neq(1.0d)).values("weight").asAdmin());
+        assertNotReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").limit(1).values("weight").asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldReadEdgesFromIndexAsTheyChange() {
+        ((TinkerGraph) graph).createVertexCentricIndex("created", "weight");
+        final Vertex marko = g.V(convertToVertexId("marko")).next();
+        final Vertex ripple = g.V(convertToVertexId("ripple")).next();
+
+        final Edge edge = marko.addEdge("created", ripple, "weight", 2.0d);
+        assertReadFromIndex(Arrays.asList(2.0d, 0.4d), g.V(marko).outE("created").order().by("weight", Order.decr).values("weight").asAdmin());
+        edge.property("weight", 0.1d);
+        assertReadFromIndex(Arrays.asList(0.4d, 0.1d), g.V(marko).outE("created").order().by("weight", Order.decr).values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(0.1d), g.V(ripple).inE("created").has("weight", P.lt(0.2d)).values("weight").asAdmin());
+
+        edge.property("weight").remove();
+        assertReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").has("weight", P.gt(0.0d)).order().by("weight").values("weight").asAdmin());
+        try {
+            g.V(marko).outE("created").order().by("weight").toList();
+            fail("Ordering by a key that an edge does not have should fail as it does without the index");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+
+        edge.remove();
+        assertReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").order().by("weight").values("weight").asAdmin());
+    }
+
+    @Test
+    @LoadGraphWith(MODERN)
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldCompareValuesThatAreNotMutuallyComparableAsWithoutIndex() {
+        ((TinkerGraph) graph).createVertexCentricIndex("created", "weight");
+        final Vertex marko = g.V(convertToVertexId("marko")).next();
+        final Vertex ripple = g.V(convertToVertexId("ripple")).next();
+
+        final Edge integer = marko.addEdge("created", ripple, "weight", 1);
+        assertClassCastException(g.V(marko).outE("created").order().by("weight").asAdmin());
+        integer.remove();
+
+        final Edge string = marko.addEdge("created", ripple, "weight", "heavy");
+        assertClassCastException(g.V(marko).outE("created").order().by("weight", Order.decr).asAdmin());
+        assertClassCastException(g.V(marko).outE("created").has("weight", P.gt(0.3d)).asAdmin());
+        string.remove();
+
+        final Edge first = marko.addEdge("created", ripple, "weight", Collections.singletonList(1));
+        final Edge second = marko.addEdge("created", ripple, "weight", Collections.singletonList(2));
+        assertClassCastException(g.V(marko).outE("created").order().by("weight").asAdmin());
+        first.remove();
+        second.remove();
+
+        assertReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").order().by("weight").values("weight").asAdmin());
+        assertReadFromIndex(Arrays.asList(0.4d), g.V(marko).outE("created").has("weight", P.gt(0.3f)).values("weight").asAdmin());
+    }
+
+    private static void assertClassCastException(final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal));
+        try {
+            traversal.toList();
+            fail("Values that can not be compared should fail as they do without the index");
+        } catch (ClassCastException cce) {
+            // expected
+        }
+    }
+
+    private static void assertReadFromIndex(final Object expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal));
+        if (expected instanceof Number)
+            assertEquals(((Number) expected).longValue(), traversal.toList().size());
+        else
+            assertEquals(expected, traversal.toList());
+    }
+
+    private static void assertNotReadFromIndex(final Object expected, final GraphTraversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal));
+        assertEquals(expected, traversal.toList());
+    }
+}
@@ -21,12 +21,17 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
@@ -38,7 +43,9 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolver;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.TinkerP;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -49,25 +56,45 @@ import org.apache.tinkerpop.shaded.kryo.io.Input;
 import org.apache.tinkerpop.shaded.kryo.io.Output;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import java.awt.Color;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -298,6 +325,268 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldManageRangeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+
+        assertEquals(2, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(Collections.singleton("age"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE));
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.HASH));
+        assertEquals(Collections.singleton("weight"), g.getIndexedKeys(Edge.class, TinkerGraph.IndexType.RANGE));
+
+        // changing the type of an index replaces it
+        g.createIndex("name", Vertex.class, TinkerGraph.IndexType.RANGE);
+        assertEquals(2, g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE).size());
+        assertEquals(0, g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.HASH).size());
+
+        g.dropIndex("age", Vertex.class);
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE));
+    }
+
+    @Test
+    public void shouldAnswerRangePredicatesFromVertexRangeIndex() {
+        final TinkerGraph indexed = TinkerGraph.open();
+        final TinkerGraph unindexed = TinkerGraph.open();
+        indexed.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        for (final TinkerGraph graph : Arrays.asList(indexed, unindexed)) {
+            for (int ii = 0; ii < 50; ii++) {
+                graph.addVertex("age", ii % 2 == 0 ? ii : (long) ii, "name", "n" + ii);
+            }
+            graph.addVertex("age", 20.5d, "name", "double");
+            graph.addVertex("name", "none");
+        }
+
+        final List<P> predicates = Arrays.asList(P.gt(30), P.gte(30l), P.lt(10), P.lte(10d), P.between(20, 25),
+                P.inside(20l, 25), P.outside(5, 45), P.gt(20).and(P.lt(21)), P.lt(100).and(P.neq(40)));
+        for (final P predicate : predicates) {
+            assertEquals(predicate.toString(), rangeQuery(unindexed, predicate), rangeQuery(indexed, predicate));
+        }
+
+        // a value that is not a number can't be compared with a numeric predicate, so the index must not skip it
+        // where the predicate fails on it, and neither can a value that is not comparable at all
+        for (final Object value : Arrays.asList("unknown", Arrays.asList(1, 2))) {
+            for (final TinkerGraph graph : Arrays.asList(indexed, unindexed)) {
+                graph.addVertex("age", value, "name", "other");
+            }
+            for (final P predicate : predicates) {
+                assertEquals(predicate.toString(), rangeQuery(unindexed, predicate), rangeQuery(indexed, predicate));
+            }
+            assertEquals(1, IteratorUtils.count(indexed.traversal().V().has("age", value)));
+            for (final TinkerGraph graph : Arrays.asList(indexed, unindexed)) {
+                graph.traversal().V().has("name", "other").drop().iterate();
+            }
+        }
+
+        // a spy into the pipeline to show that only the vertices in range are evaluated after the index lookup
+        assertEquals(new Long(9), indexed.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(((Number) indexed.traversal().V().has("name", t).values("age").next()).intValue() > 40);
+            return true;
+        }, "x")).has("age", P.gt(40)).count().next());
+
+        // removing the property or the vertex removes it from the index
+        indexed.traversal().V().has("age", 45).properties("age").drop().iterate();
+        indexed.traversal().V().has("age", 46).drop().iterate();
+        assertEquals(new Long(7), indexed.traversal().V().has("age", P.gt(40)).count().next());
+    }
+
+    /**
+     * Gets the names of the vertices whose age passes the predicate or the class of the exception that the predicate
+     * failed with.
+     */
+    private static Object rangeQuery(final TinkerGraph graph, final P predicate) {
+        try {
+            return new HashSet<>(graph.traversal().V().has("age", predicate).values("name").toList());
+        } catch (RuntimeException ex) {
+            return ex.getClass();
+        }
+    }
+
+    @Test
+    public void shouldAnswerRangePredicatesFromEdgeRangeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+        final Vertex v = g.addVertex();
+        v.addEdge("rated", v, "weight", 0.5f, "oid", 1);
+        v.addEdge("rated", v, "weight", 0.6d, "oid", 2);
+        v.addEdge("rated", v, "weight", 0.9d, "oid", 3);
+
+        assertEquals(new Long(2), g.traversal().E().has("oid", P.test((t, u) -> {
+            assertTrue(t.equals(2) || t.equals(3));
+            return true;
+        }, 0)).has("weight", P.gt(0.55d)).count().next());
+        assertEquals(new Long(2), g.traversal().E().has("weight", P.outside(0.55d, 0.7d)).count().next());
+        assertEquals(new Long(1), g.traversal().E().has("weight", 0.5f).count().next());
+    }
+
+    @Test
+    public void shouldAnswerTextPredicatesFromTextIndex() {
+        final TinkerGraph indexed = TinkerGraph.open();
+        final TinkerGraph unindexed = TinkerGraph.open();
+        indexed.createIndex("name", Vertex.class, TinkerGraph.IndexType.TEXT);
+        assertEquals(Collections.singleton("name"), indexed.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.TEXT));
+        assertEquals(0, indexed.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.HASH).size());
+        for (final TinkerGraph graph : Arrays.asList(indexed, unindexed)) {
+            graph.addVertex("name", "marko a. rodriguez", "oid", 1);
+            graph.addVertex("name", "Mark Rodriguez-Smith", "oid", 2);
+            graph.addVertex("name", "martin", "oid", 3);
+            graph.addVertex("name", "stephen mallette", "oid", 4);
+            graph.addVertex("name", 29, "oid", 5);
+            graph.addVertex("oid", 6);
+        }
+
+        final List<P> predicates = Arrays.asList(TinkerP.startsWith("mar"), TinkerP.startsWith("Mar"), TinkerP.startsWith(""),
+                TinkerP.startsWith("z"), TinkerP.containsToken("rodriguez"), TinkerP.containsToken("SMITH"),
+                TinkerP.containsToken("rod"), P.eq("martin"), P.eq(29));
+        for (final P predicate : predicates) {
+            assertEquals(predicate.toString(),
+                    new HashSet<>(unindexed.traversal().V().has("name", predicate).values("oid").toList()),
+                    new HashSet<>(indexed.traversal().V().has("name", predicate).values("oid").toList()));
+        }
+
+        // a spy into the pipeline to show that only the vertices with the prefix are evaluated after the index lookup
+        assertEquals(new Long(2), indexed.traversal().V().has("oid", P.test((t, u) -> {
+            assertTrue(t.equals(1) || t.equals(3));
+            return true;
+        }, 0)).has("name", TinkerP.startsWith("mar")).count().next());
+
+        // changing or removing a value updates its tokens, but a token stays while another value of the vertex has it
+        indexed.traversal().V().has("oid", 1).property("name", "marko").iterate();
+        assertEquals(Collections.singletonList(2), indexed.traversal().V().has("name", TinkerP.containsToken("rodriguez")).values("oid").toList());
+        final Vertex v = indexed.addVertex("oid", 7);
+        v.property(VertexProperty.Cardinality.list, "name", "daniel kuppitz");
+        v.property(VertexProperty.Cardinality.list, "name", "kuppitz");
+        indexed.traversal().V(v).properties("name").hasValue("daniel kuppitz").drop().iterate();
+        assertEquals(Collections.singletonList(7), indexed.traversal().V().has("name", TinkerP.containsToken("kuppitz")).values("oid").toList());
+        assertEquals(0, IteratorUtils.count(indexed.traversal().V().has("name", TinkerP.containsToken("daniel"))));
+        indexed.traversal().V().has("oid", 2).drop().iterate();
+        assertEquals(0, IteratorUtils.count(indexed.traversal().V().has("name", TinkerP.containsToken("smith"))));
+    }
+
+    @Test
+    public void shouldManageCompositeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("country", "city"), Vertex.class);
+        g.createCompositeIndex(Arrays.asList("city", "country"), Vertex.class);
+        g.createCompositeIndex(Arrays.asList("country", "city"), Vertex.class);
+        g.createCompositeIndex(Arrays.asList("since", "weight"), Edge.class);
+
+        assertEquals(2, g.getCompositeIndexedKeys(Vertex.class).size());
+        assertTrue(g.getCompositeIndexedKeys(Vertex.class).contains(Arrays.asList("country", "city")));
+        assertEquals(Collections.singleton(Arrays.asList("since", "weight")), g.getCompositeIndexedKeys(Edge.class));
+        assertEquals(0, g.getIndexedKeys(Vertex.class).size());
+
+        g.dropCompositeIndex(Arrays.asList("city", "country"), Vertex.class);
+        assertEquals(Collections.singleton(Arrays.asList("country", "city")), g.getCompositeIndexedKeys(Vertex.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithOneKey() {
+        TinkerGraph.open().createCompositeIndex(Collections.singletonList("name"), Vertex.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithRepeatedKeys() {
+        TinkerGraph.open().createCompositeIndex(Arrays.asList("name", "name"), Vertex.class);
+    }
+
+    @Test
+    public void shouldAnswerEqualityFromVertexCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int ii = 0; ii < 30; ii++) {
+            g.addVertex("country", "c" + (ii % 2), "city", "t" + (ii % 5), "name", "n" + ii);
+        }
+        g.addVertex("country", "c0", "name", "no city");
+        g.createIndex("country", Vertex.class);
+        g.createCompositeIndex(Arrays.asList("country", "city"), Vertex.class);
+
+        // a spy into the pipeline to show that the more selective composite index is chosen over the country index
+        final AtomicInteger evaluated = new AtomicInteger(0);
+        assertEquals(new Long(3), g.traversal().V().has("name", P.test((t, u) -> {
+            evaluated.incrementAndGet();
+            return true;
+        }, "x")).has("country", "c0").has("city", "t2").count().next());
+        assertEquals(3, evaluated.get());
+
+        // the index follows mutations of any of its keys
+        final Vertex v = g.traversal().V().has("name", "n2").next();
+        v.property("city", "t3");
+        assertEquals(new Long(2), g.traversal().V().has("country", "c0").has("city", "t2").count().next());
+        assertEquals(new Long(4), g.traversal().V().has("country", "c0").has("city", "t3").count().next());
+        v.property("city").remove();
+        assertEquals(new Long(3), g.traversal().V().has("country", "c0").has("city", "t3").count().next());
+        g.traversal().V().has("name", "no city").property("city", "t2").iterate();
+        assertEquals(new Long(3), g.traversal().V().has("country", "c0").has("city", "t2").count().next());
+        g.traversal().V().has("country", "c0").has("city", "t2").drop().iterate();
+        assertEquals(new Long(0), g.traversal().V().has("country", "c0").has("city", "t2").count().next());
+        assertEquals(new Long(3), g.traversal().V().has("country", "c1").has("city", "t2").count().next());
+    }
+
+    @Test
+    public void shouldIndexEveryCombinationOfMultiPropertiesInCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("country", "city"), Vertex.class);
+        final Vertex v = g.addVertex("country", "c0", "name", "multi");
+        v.property(VertexProperty.Cardinality.list, "city", "t0");
+        v.property(VertexProperty.Cardinality.list, "city", "t1");
+
+        assertEquals("multi", g.traversal().V().has("country", "c0").has("city", "t0").values("name").next());
+        assertEquals("multi", g.traversal().V().has("country", "c0").has("city", "t1").values("name").next());
+
+        v.properties("city").forEachRemaining(p -> {
+            if (p.value().equals("t0")) p.remove();
+        });
+        assertFalse(g.traversal().V().has("country", "c0").has("city", "t0").hasNext());
+        assertTrue(g.traversal().V().has("country", "c0").has("city", "t1").hasNext());
+    }
+
+    @Test
+    public void shouldAnswerEqualityFromEdgeCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("since", "weight"), Edge.class);
+        final Vertex v = g.addVertex();
+        v.addEdge("knows", v, "since", 2010, "weight", 0.5d);
+        final Edge e = v.addEdge("knows", v, "since", 2010, "weight", 0.7d);
+        v.addEdge("knows", v, "since", 2011, "weight", 0.5d);
+
+        assertEquals(new Long(1), g.traversal().E().has("since", 2010).has("weight", 0.5d).count().next());
+        e.property("weight", 0.5d);
+        assertEquals(new Long(2), g.traversal().E().has("since", 2010).has("weight", 0.5d).count().next());
+        e.remove();
+        assertEquals(new Long(1), g.traversal().E().has("since", 2010).has("weight", 0.5d).count().next());
+    }
+
+    @Test
+    public void shouldMaintainLabelIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex marko = g.addVertex(T.label, "person", "name", "marko");
+        final Vertex vadas = g.addVertex(T.label, "person", "name", "vadas");
+        final Vertex lop = g.addVertex(T.label, "software", "name", "lop");
+        final Edge knows = marko.addEdge("knows", vadas);
+        marko.addEdge("created", lop);
+
+        assertEquals(2, TinkerHelper.queryVertexLabelIndex(g, "person").size());
+        assertEquals(1, TinkerHelper.queryEdgeLabelIndex(g, "knows").size());
+        assertEquals(0, TinkerHelper.queryVertexLabelIndex(g, "animal").size());
+        assertEquals(Arrays.asList("lop"), g.traversal().V().hasLabel("software").values("name").toList());
+        assertEquals(3, g.traversal().V().hasLabel("person", "software").count().next().intValue());
+        assertEquals(1, g.traversal().V().hasLabel("person").has("name", "vadas").toList().size());
+        assertEquals(knows, g.traversal().E().hasLabel("knows").next());
+
+        vadas.remove();
+        assertEquals(1, TinkerHelper.queryVertexLabelIndex(g, "person").size());
+        assertEquals(0, TinkerHelper.queryEdgeLabelIndex(g, "knows").size());
+        assertEquals(TinkerMemoryUsage.mapBytes(1) + TinkerMemoryUsage.mapBytes(1), g.edgeLabelIndex.bytes());
+        assertEquals(Arrays.asList("marko"), g.traversal().V().hasLabel("person").values("name").toList());
+        assertFalse(g.traversal().E().hasLabel("knows").hasNext());
+
+        g.clear();
+        assertEquals(0, TinkerHelper.queryVertexLabelIndex(g, "person").size());
+        assertEquals(0, TinkerHelper.queryEdgeLabelIndex(g, "created").size());
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -311,6 +600,801 @@ public class TinkerGraphTest {
         }
     }
 
+    @Test
+    public void shouldReadGraphFromGryoWithSeveralWorkers() throws Exception {
+        final TinkerGraph source = TinkerGraph.open();
+        final Random random = new Random(123456789l);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            vertices.add(source.addVertex(T.id, i, T.label, i % 2 == 0 ? "person" : "software", "name", "v" + (i % 50)));
+        }
+        for (int i = 0; i < 10000; i++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge(i % 3 == 0 ? "knows" : "created",
+                    vertices.get(random.nextInt(vertices.size())), T.id, i, "weight", random.nextDouble());
+        }
+
+        final byte[] bytes;
+        try (final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            GryoWriter.build().create().writeGraph(out, source);
+            bytes = out.toByteArray();
+        }
+
+        final TinkerGraph target = TinkerGraph.open();
+        target.createIndex("name", Vertex.class);
+        try (final ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes)) {
+            GryoReader.build().workers(4).chunkSize(64).create().readGraph(inputStream, target);
+        }
+
+        assertEquals(2000, IteratorUtils.count(target.vertices()));
+        assertEquals(10000, IteratorUtils.count(target.edges()));
+        assertEquals(40l, (long) target.traversal().V().has("name", "v7").count().next());
+        source.vertices().forEachRemaining(v -> {
+            final Vertex copy = target.vertices(v.id()).next();
+            assertEquals(v.label(), copy.label());
+            assertEquals(v.<String>value("name"), copy.<String>value("name"));
+            assertEquals(IteratorUtils.set(IteratorUtils.map(v.edges(Direction.OUT), Edge::id)),
+                    IteratorUtils.set(IteratorUtils.map(copy.edges(Direction.OUT), Edge::id)));
+            assertEquals(IteratorUtils.set(IteratorUtils.map(v.edges(Direction.IN), Edge::id)),
+                    IteratorUtils.set(IteratorUtils.map(copy.edges(Direction.IN), Edge::id)));
+        });
+        source.edges().forEachRemaining(e -> {
+            final Edge copy = target.edges(e.id()).next();
+            assertEquals(e.outVertex().id(), copy.outVertex().id());
+            assertEquals(e.inVertex().id(), copy.inVertex().id());
+            assertEquals(e.label(), copy.label());
+            assertEquals(e.<Double>value("weight"), copy.<Double>value("weight"));
+        });
+    }
+
+    @Test
+    public void shouldInternKeysAndLabelsOfReadGraph() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        try (final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            GryoWriter.build().create().writeGraph(out, TinkerFactory.createTheCrew());
+            try (final ByteArrayInputStream inputStream = new ByteArrayInputStream(out.toByteArray())) {
+                GryoReader.build().create().readGraph(inputStream, graph);
+            }
+        }
+
+        graph.vertices().forEachRemaining(v -> {
+            assertSame(v.label().intern(), v.label());
+            v.properties().forEachRemaining(vp -> {
+                assertSame(vp.key().intern(), vp.key());
+                assertSame(vp.key(), vp.label());
+                vp.properties().forEachRemaining(p -> assertSame(p.key().intern(), p.key()));
+            });
+        });
+        graph.edges().forEachRemaining(e -> {
+            assertSame(e.label().intern(), e.label());
+            e.properties().forEachRemaining(p -> assertSame(p.key().intern(), p.key()));
+        });
+        assertSame("location", graph.vertices(1).next().properties("location").next().key());
+    }
+
+    @Test
+    public void shouldReadGraphAsOfOpeningReadView() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_READ_VIEWS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        try (final TinkerReadView view = graph.openReadView()) {
+            final GraphTraversalSource g = view.traversal();
+            final Vertex marko = graph.vertices(1).next();
+            marko.property("age", 30);
+            marko.property("city", "santa fe");
+            marko.edges(Direction.OUT, "knows").forEachRemaining(Edge::remove);
+            graph.vertices(6).next().remove();
+            graph.addVertex(T.id, 7, "name", "stephen");
+            graph.vertices(3).next().property("lang").remove();
+
+            assertEquals(6, g.V().count().next().intValue());
+            assertEquals(6, g.E().count().next().intValue());
+            assertEquals(29, g.V(1).values("age").next());
+            assertFalse(g.V(1).has("city").hasNext());
+            assertEquals(Arrays.asList("josh", "vadas"), g.V(1).out("knows").<String>values("name").order().toList());
+            assertEquals("peter", g.V(6).values("name").next());
+            assertEquals(1, g.V(3).in().has("name", "peter").count().next().intValue());
+            assertEquals("java", g.V(3).values("lang").next());
+            assertFalse(g.V(7).hasNext());
+
+            try (final TinkerReadView later = graph.openReadView()) {
+                assertTrue(later.version() > view.version());
+                final GraphTraversalSource h = later.traversal();
+                assertEquals(6, h.V().count().next().intValue());
+                assertEquals(3, h.E().count().next().intValue());
+                assertEquals(30, h.V(1).values("age").next());
+                assertFalse(h.V(1).out("knows").hasNext());
+                assertFalse(h.V(6).hasNext());
+                assertEquals("stephen", h.V(7).values("name").next());
+                assertFalse(h.V(3).has("lang").hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadConsistentViewsWhileWriting() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_READ_VIEWS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex hub = graph.addVertex(T.id, 0);
+
+        final Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                hub.addEdge("knows", graph.addVertex(T.id, i));
+                if (i % 3 == 0) graph.vertices(i - 1).next().remove();
+            }
+        });
+        writer.start();
+
+        while (writer.isAlive()) {
+            try (final TinkerReadView view = graph.openReadView()) {
+                final GraphTraversalSource g = view.traversal();
+                final long edges = g.E().count().next();
+                assertEquals(edges, g.V(0).outE().count().next().longValue());
+                assertEquals(edges, g.V().in().count().next().longValue());
+            }
+        }
+        writer.join();
+
+        try (final TinkerReadView view = graph.openReadView()) {
+            assertEquals(1334, view.traversal().E().count().next().longValue());
+        }
+    }
+
+    @Test
+    public void shouldNotReadElementsOfClosedReadView() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_READ_VIEWS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final Vertex marko;
+        try (final TinkerReadView view = graph.openReadView()) {
+            marko = view.traversal().V(1).next();
+        }
+        graph.vertices(1).next().edges(Direction.OUT, "knows").forEachRemaining(Edge::remove);
+
+        try {
+            marko.edges(Direction.OUT).hasNext();
+            fail("Reading the edges of a closed view should fail");
+        } catch (final IllegalStateException ex) {
+            assertEquals("The read view is closed", ex.getMessage());
+        }
+        try {
+            marko.properties("name").hasNext();
+            fail("Reading the properties of a closed view should fail");
+        } catch (final IllegalStateException ex) {
+            assertEquals("The read view is closed", ex.getMessage());
+        }
+
+        try (final TinkerReadView view = graph.openReadView()) {
+            assertEquals(1, view.traversal().V(1).outE().count().next().intValue());
+            assertEquals(4, view.traversal().E().count().next().intValue());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotOpenReadViewUnlessConfigured() {
+        TinkerGraph.open().openReadView();
+    }
+
+    @Test
+    public void shouldRebuildIndicesWhenBulkLoadIsClosed() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        graph.createCompositeIndex(Arrays.asList("name", "age"), Vertex.class);
+        graph.createIndex("weight", Edge.class);
+        graph.addVertex(T.id, 1L, "name", "marko", "age", 29);
+
+        try (final TinkerBulkLoad bulkLoad = graph.bulkLoad()) {
+            Vertex previous = graph.vertices(1L).next();
+            for (int i = 0; i < 3000; i++) {
+                final Vertex vertex = bulkLoad.addVertex(T.label, "person", "name", "p" + (i % 10), "age", i);
+                bulkLoad.addEdge(previous, "knows", vertex, "weight", i % 2);
+                previous = vertex;
+            }
+
+            assertTrue(graph.getIndexedKeys(Vertex.class).isEmpty());
+            assertEquals(300, graph.traversal().V().has("name", "p3").count().next().intValue());
+            try {
+                graph.createIndex("other", Vertex.class);
+                fail("Indices should not be changed while a bulk load is open");
+            } catch (IllegalStateException ignored) {
+            }
+        }
+
+        assertEquals(3001, IteratorUtils.count(graph.vertices()));
+        assertEquals(3001, graph.traversal().V().id().dedup().count().next().intValue());
+        assertEquals(300, TinkerHelper.queryVertexIndex(graph, "name", "p3").size());
+        assertEquals(1, TinkerHelper.queryVertexIndex(graph, "name", "marko").size());
+        assertEquals(1, TinkerHelper.queryVertexIndex(graph, Arrays.asList("name", "age"), Arrays.asList("p3", 13)).size());
+        assertEquals(11, TinkerHelper.queryVertexIndex(graph, "age", 10, true, 20, true).size());
+        assertEquals(1500, TinkerHelper.queryEdgeIndex(graph, "weight", 1).size());
+        assertEquals(3000, graph.traversal().V(1L).repeat(__.out("knows")).emit().count().next().intValue());
+    }
+
+    @Test
+    public void shouldNotAddDuplicateVertexInBulkLoad() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.addVertex(T.id, 1);
+        try (final TinkerBulkLoad bulkLoad = graph.bulkLoad()) {
+            bulkLoad.addVertex(T.id, 1);
+            fail("The vertex should already exist");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(Graph.Exceptions.vertexWithIdAlreadyExists(1).getMessage(), ex.getMessage());
+        }
+        assertEquals(1, IteratorUtils.count(graph.vertices()));
+    }
+
+    @Test
+    public void shouldStorePropertyValuesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTY_SIZE, 32);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("bio", Vertex.class);
+
+        final char[] chars = new char[100000];
+        Arrays.fill(chars, 'x');
+        final String bio = new String(chars);
+        final byte[] photo = new byte[2000000];
+        new Random(1).nextBytes(photo);
+        final Vertex marko = graph.addVertex(T.id, 1, "name", "marko", "age", 29, "bio", bio, "photo", photo);
+        final Vertex lop = graph.addVertex(T.id, 2, "name", "lop");
+        final Edge edge = marko.addEdge("created", lop, "notes", bio, "weight", 0.4d);
+        marko.property("bio").property("source", bio);
+        assertTrue(graph.offHeapStore.allocatedBytes() >= 3 * bio.length() + photo.length);
+        assertTrue(((TinkerProperty) edge.property("notes")).value instanceof TinkerOffHeapStore.Value);
+        assertFalse(((TinkerProperty) edge.property("weight")).value instanceof TinkerOffHeapStore.Value);
+
+        assertEquals("marko", marko.value("name"));
+        assertEquals(29, (int) marko.value("age"));
+        assertEquals(bio, marko.value("bio"));
+        assertTrue(Arrays.equals(photo, marko.value("photo")));
+        assertEquals(bio, edge.value("notes"));
+        assertEquals(bio, marko.property("bio").value("source"));
+        assertEquals(marko, graph.traversal().V().has("bio", bio).next());
+        assertEquals(1, graph.traversal().E().has("notes", bio).count().next().intValue());
+
+        marko.property("bio").remove();
+        assertFalse(graph.traversal().V().has("bio", bio).hasNext());
+        edge.property("notes").remove();
+        assertFalse(edge.property("notes").isPresent());
+
+        // a value that Gryo has no registration for stays on the heap and is counted
+        final Color color = new Color(1, 2, 3);
+        lop.property("color", color);
+        assertEquals(color, lop.value("color"));
+        assertEquals(1, graph.offHeapStore.heapFallbacks());
+    }
+
+    @Test
+    public void shouldReclaimOffHeapMemoryOfReplacedValues() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_PROPERTIES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final char[] chars = new char[10000];
+        Arrays.fill(chars, 'x');
+        final String kept = new String(chars);
+        final Vertex first = graph.addVertex("text", kept);
+        final Vertex churned = graph.addVertex();
+
+        // without reclaiming, the replaced values would take up 100 chunks
+        for (int i = 0; i < 10000; i++) {
+            churned.property("text", kept + i);
+            if (0 == i % 1000) System.gc();
+        }
+        for (int i = 0; i < 10 && graph.offHeapStore.allocatedBytes() > 4 << 20; i++) {
+            System.gc();
+            churned.property("text", kept + i);
+        }
+        assertTrue(graph.offHeapStore.allocatedBytes() <= 4 << 20);
+        assertEquals(kept, first.value("text"));
+        churned.property("text", kept + "last");
+        assertEquals(kept + "last", churned.value("text"));
+    }
+
+    @Test
+    public void shouldFreezeGraph() {
+        for (final TinkerGraph graph : Arrays.asList(TinkerFactory.createModern(), TinkerFactory.createTheCrew())) {
+            graph.vertices(1).next().addEdge("self", graph.vertices(1).next(), "weight", 1.0d);
+            final TinkerFrozenGraph frozen = graph.freeze();
+            assertEquals(IteratorUtils.count(graph.vertices()), IteratorUtils.count(frozen.vertices()));
+            assertEquals(IteratorUtils.count(graph.edges()), IteratorUtils.count(frozen.edges()));
+
+            graph.vertices().forEachRemaining(vertex -> {
+                final Vertex frozenVertex = frozen.vertices(vertex.id()).next();
+                assertEquals(vertex, frozenVertex);
+                assertEquals(vertex.label(), frozenVertex.label());
+                assertEquals(vertex.keys(), frozenVertex.keys());
+                vertex.properties().forEachRemaining(vertexProperty -> {
+                    final VertexProperty<?> frozenProperty = IteratorUtils.filter(frozenVertex.properties(vertexProperty.key()),
+                            p -> p.id().equals(vertexProperty.id())).next();
+                    assertEquals(vertexProperty.value(), frozenProperty.value());
+                    assertEquals(vertexProperty.keys(), frozenProperty.keys());
+                    vertexProperty.properties().forEachRemaining(p -> assertEquals(p.value(), frozenProperty.value(p.key())));
+                });
+                for (final Direction direction : Direction.values()) {
+                    assertEquals(IteratorUtils.set(vertex.edges(direction)), IteratorUtils.set(frozenVertex.edges(direction)));
+                    assertEquals(IteratorUtils.list(vertex.vertices(direction)).size(), IteratorUtils.list(frozenVertex.vertices(direction)).size());
+                    assertEquals(IteratorUtils.set(vertex.vertices(direction)), IteratorUtils.set(frozenVertex.vertices(direction)));
+                    for (final String label : Arrays.asList("knows", "created", "uses", "self", "none")) {
+                        assertEquals(IteratorUtils.set(vertex.edges(direction, label)), IteratorUtils.set(frozenVertex.edges(direction, label)));
+                        assertEquals(IteratorUtils.set(vertex.vertices(direction, label, "self")), IteratorUtils.set(frozenVertex.vertices(direction, label, "self")));
+                    }
+                }
+            });
+            graph.edges().forEachRemaining(edge -> {
+                final Edge frozenEdge = frozen.edges(edge.id()).next();
+                assertEquals(edge.label(), frozenEdge.label());
+                assertEquals(edge.outVertex(), frozenEdge.outVertex());
+                assertEquals(edge.inVertex(), frozenEdge.inVertex());
+                assertEquals(IteratorUtils.set(edge.properties()), IteratorUtils.set(frozenEdge.properties()));
+            });
+
+            assertEquals(graph.traversal().V().out().out().values("name").order().toList(), frozen.traversal().V().out().out().values("name").order().toList());
+            assertEquals(graph.traversal().V().has("name", "marko").outE("self").inV().id().toList(), frozen.traversal().V().has("name", "marko").outE("self").inV().id().toList());
+            assertFalse(frozen.vertices(100).hasNext());
+            try {
+                frozen.addVertex("name", "stephen");
+                fail("A frozen graph is read-only");
+            } catch (UnsupportedOperationException uoe) {
+                // expected
+            }
+            try {
+                frozen.vertices(1).next().property("name").remove();
+                fail("A frozen graph is read-only");
+            } catch (IllegalStateException ise) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void shouldFreezeGraphWithNumericIdentifiers() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        Vertex previous = graph.addVertex(T.id, -1l);
+        for (long i = 0; i < 1000; i++) {
+            final Vertex vertex = graph.addVertex(T.id, i * 7919l - 500000l);
+            previous.addEdge("next", vertex);
+            previous = vertex;
+        }
+        final TinkerFrozenGraph frozen = graph.freeze();
+        graph.vertices().forEachRemaining(vertex -> {
+            assertEquals(vertex.id(), frozen.vertices(vertex.id()).next().id());
+            assertEquals(vertex.id(), frozen.vertices(vertex.id().toString()).next().id());
+            assertEquals(vertex.id(), frozen.vertices(((Long) vertex.id()).intValue()).next().id());
+        });
+        graph.edges().forEachRemaining(edge -> {
+            final Edge frozenEdge = frozen.edges(edge.id()).next();
+            assertEquals(edge.id(), frozenEdge.id());
+            assertEquals(edge.outVertex().id(), frozenEdge.outVertex().id());
+            assertEquals(edge.inVertex().id(), frozenEdge.inVertex().id());
+        });
+        assertFalse(frozen.vertices(1l).hasNext());
+        assertEquals(1000, frozen.traversal().V(-1l).repeat(__.out()).emit().count().next().intValue());
+
+        // identifiers of one class are only found by an identifier of that class unless the id manager converts them
+        final TinkerFrozenGraph modern = TinkerFactory.createModern().freeze();
+        assertEquals(1, modern.vertices(1).next().id());
+        assertFalse(modern.vertices(1l).hasNext());
+        assertEquals(7, modern.edges(7).next().id());
+
+        final TinkerGraph mixed = TinkerGraph.open();
+        mixed.addVertex(T.id, 1).addEdge("self", mixed.addVertex(T.id, "a"), T.id, 2l);
+        mixed.vertices(1).next().property(VertexProperty.Cardinality.single, "name", "one", T.id, "p", "since", 2010);
+        final TinkerFrozenGraph frozenMixed = mixed.freeze();
+        final VertexProperty<?> name = frozenMixed.vertices(1).next().property("name");
+        assertEquals("p", name.id());
+        assertEquals(2010, (int) name.value("since"));
+        assertEquals(Collections.singleton("since"), name.keys());
+        assertEquals(1, frozenMixed.vertices(1).next().id());
+        assertEquals("a", frozenMixed.vertices("a").next().id());
+        assertFalse(frozenMixed.vertices(1l).hasNext());
+        assertEquals(2l, frozenMixed.edges(2l).next().id());
+        assertFalse(frozenMixed.edges(2).hasNext());
+    }
+
+    @Test
+    public void shouldEstimateMemoryUsage() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_JMX, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final TinkerMemoryUsage usage = graph.memoryUsage();
+        assertEquals(6, usage.getVertexCount());
+        assertEquals(6, usage.getEdgeCount());
+        assertTrue(usage.getElementBytes() > 0);
+        assertTrue(usage.getPropertyBytes() > 0);
+        assertTrue(usage.getAdjacencyBytes() > 0);
+        assertEquals(0, usage.getComputeKeyBytes());
+        assertEquals(0, usage.getOffHeapBytes());
+        assertEquals(0, usage.getVersionBytes());
+        assertTrue(usage.getChangeFeedBytes() > 0);
+        assertTrue(usage.getSymbolBytes() > 0);
+        assertEquals(usage.getElementBytes() + usage.getPropertyBytes() + usage.getAdjacencyBytes() + usage.getIndexBytes() +
+                usage.getChangeFeedBytes() + usage.getSymbolBytes(), usage.getTotalBytes());
+
+        graph.createIndex("name", Vertex.class);
+        assertTrue(graph.memoryUsage().getIndexBytes() > usage.getIndexBytes());
+        graph.vertices(1).next().property("nickname", "the marko");
+        assertTrue(graph.memoryUsage().getPropertyBytes() > usage.getPropertyBytes());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = graph.memoryMonitor.getName();
+        assertEquals(6l, server.getAttribute(name, "VertexCount"));
+        assertTrue((Long) server.getAttribute(name, "TotalBytes") > 0);
+
+        graph.close();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void shouldEstimateMemoryUsageOfVersionsAndChangeFeed() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_READ_VIEWS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final TinkerMemoryUsage before = graph.memoryUsage();
+        assertTrue(before.getVersionBytes() > 0);
+
+        final TinkerChangeSubscription subscription = graph.subscribe(1024);
+        final TinkerMaterializedView<Long> people = graph.materialize(graph.traversal().V().hasLabel("person").count());
+        try (final TinkerReadView view = graph.openReadView()) {
+            for (int i = 0; i < 100; i++) {
+                graph.vertices(1).next().property("age", i);
+            }
+            final TinkerMemoryUsage after = graph.memoryUsage();
+            assertTrue(after.getVersionBytes() > before.getVersionBytes());
+            assertTrue(after.getChangeFeedBytes() > before.getChangeFeedBytes());
+            assertEquals(29, (int) view.vertices(1).next().value("age"));
+        } finally {
+            people.close();
+            subscription.close();
+        }
+    }
+
+    @Test
+    public void shouldPublishMemoryUsageOfGraphsAtTheSameLocation() throws Exception {
+        final String fileName = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPublishMemoryUsageOfGraphsAtTheSameLocation.kryo";
+        final File f = new File(fileName);
+        if (f.exists() && f.isFile()) f.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_JMX, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, fileName);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        final TinkerGraph first = TinkerGraph.open(conf);
+        final TinkerGraph second = TinkerGraph.open(conf);
+        try {
+            second.addVertex();
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertFalse(first.memoryMonitor.getName().equals(second.memoryMonitor.getName()));
+            assertEquals(0l, server.getAttribute(first.memoryMonitor.getName(), "VertexCount"));
+            assertEquals(1l, server.getAttribute(second.memoryMonitor.getName(), "VertexCount"));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void shouldEstimateMemoryUsageWhileWriting() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_JMX, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex a = graph.addVertex();
+        final Edge e = a.addEdge("self", a);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; writing.get(); i++) {
+                a.property(VertexProperty.Cardinality.list, "p" + (i % 64), i);
+                e.property("p" + (i % 64), i);
+                if (0 == i % 64) {
+                    a.properties().forEachRemaining(Property::remove);
+                    e.properties().forEachRemaining(Property::remove);
+                }
+            }
+        });
+        writer.start();
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = graph.memoryMonitor.getName();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(1, graph.memoryUsage().getVertexCount());
+                assertTrue((Long) server.getAttribute(name, "TotalBytes") >= 0);
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+            graph.close();
+        }
+    }
+
+    @Test
+    public void shouldGenerateUniqueIdsForConcurrentWriters() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.addVertex();
+
+        final List<List<Object>> ids = new ArrayList<>();
+        final List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final List<Object> written = new ArrayList<>();
+            ids.add(written);
+            writers.add(new Thread(() -> {
+                for (int j = 0; j < 3000; j++) {
+                    final Vertex vertex = graph.addVertex();
+                    written.add(vertex.id());
+                    written.add(vertex.addEdge("self", vertex).id());
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+
+        final Set<Object> unique = new HashSet<>();
+        for (final List<Object> written : ids) {
+            for (int i = 1; i < written.size(); i++) {
+                assertTrue((Long) written.get(i - 1) < (Long) written.get(i));
+            }
+            unique.addAll(written);
+        }
+        assertEquals(48000, unique.size());
+        assertEquals(24001, IteratorUtils.count(graph.vertices()));
+        assertEquals(24000, IteratorUtils.count(graph.edges()));
+
+        graph.clear();
+        assertEquals(0l, graph.addVertex().id());
+    }
+
+    @Test
+    public void shouldPublishChangesToSubscriptions() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.addVertex(T.id, 0);
+        final TinkerChangeSubscription subscription = graph.subscribe(16);
+        final TinkerChangeSubscription small = graph.subscribe(2);
+
+        final Vertex marko = graph.addVertex(T.id, 1, T.label, "person", "name", "marko");
+        final Vertex vadas = graph.addVertex(T.id, 2, T.label, "person");
+        final Edge knows = marko.addEdge("knows", vadas, T.id, 3, "weight", 0.5d);
+        knows.property("weight", 1.0d);
+        knows.property("weight").remove();
+        marko.property("name").property("since", 2010);
+        marko.property("name").remove();
+        vadas.remove();
+
+        final List<TinkerChange> changes = new ArrayList<>();
+        assertEquals(11, subscription.drainTo(changes));
+        assertNull(subscription.poll());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(i + 1, changes.get(i).sequence());
+        }
+        assertEquals(Arrays.asList(TinkerChange.Type.VERTEX_ADDED, TinkerChange.Type.VERTEX_PROPERTY_ADDED,
+                TinkerChange.Type.VERTEX_ADDED, TinkerChange.Type.EDGE_ADDED, TinkerChange.Type.EDGE_PROPERTY_ADDED,
+                TinkerChange.Type.EDGE_PROPERTY_CHANGED, TinkerChange.Type.EDGE_PROPERTY_REMOVED,
+                TinkerChange.Type.META_PROPERTY_ADDED, TinkerChange.Type.VERTEX_PROPERTY_REMOVED,
+                TinkerChange.Type.EDGE_REMOVED, TinkerChange.Type.VERTEX_REMOVED),
+                changes.stream().map(TinkerChange::type).collect(Collectors.toList()));
+        assertEquals(1, changes.get(0).elementId());
+        assertEquals(3, changes.get(3).elementId());
+        assertEquals(1, changes.get(3).outVertexId());
+        assertEquals(2, changes.get(3).inVertexId());
+        assertEquals(1.0d, changes.get(5).value());
+        assertEquals(0.5d, changes.get(5).oldValue());
+        assertEquals("marko", changes.get(8).value());
+
+        // the small subscription keeps the latest changes and counts the ones that it dropped
+        assertEquals(2, small.capacity());
+        assertEquals(9, small.overflowCount());
+        assertEquals(10, small.poll().sequence());
+        assertEquals(11, small.poll(1, TimeUnit.SECONDS).sequence());
+        assertNull(small.poll(10, TimeUnit.MILLISECONDS));
+
+        small.close();
+        graph.clear();
+        assertEquals(TinkerChange.Type.CLEARED, subscription.poll().type());
+        assertNull(small.poll());
+
+        subscription.close();
+        graph.addVertex();
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    public void shouldSerializeWritersWhileSubscribed() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerChangeSubscription subscription = graph.subscribe(16);
+
+        // a write in progress on this thread holds back the writes of other threads
+        graph.beginWrite();
+        final Thread writer = new Thread(() -> graph.addVertex(T.id, 2));
+        try {
+            graph.addVertex(T.id, 1);
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive());
+            assertEquals(1l, IteratorUtils.count(graph.vertices()));
+        } finally {
+            graph.endWrite();
+        }
+        writer.join(10000);
+        assertFalse(writer.isAlive());
+
+        assertEquals(1, subscription.poll().elementId());
+        assertEquals(2, subscription.poll().elementId());
+
+        // writers are not serialized once the graph has no subscription
+        subscription.close();
+        graph.beginWrite();
+        try {
+            final Thread unblocked = new Thread(() -> graph.addVertex(T.id, 3));
+            unblocked.start();
+            unblocked.join(10000);
+            assertFalse(unblocked.isAlive());
+        } finally {
+            graph.endWrite();
+        }
+        assertEquals(3l, IteratorUtils.count(graph.vertices()));
+    }
+
+    @Test
+    public void shouldMaintainMaterializedViews() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal();
+        final TinkerMaterializedView<Long> older = graph.materialize(g.V().hasLabel("person").has("age", P.gt(30)).count());
+        final TinkerMaterializedView<Map<Object, Long>> labels = graph.materialize(g.V().groupCount().by(T.label));
+        final TinkerMaterializedView<Map<Object, Long>> languages = graph.materialize(g.V().hasLabel("software").groupCount().by("lang"));
+        final TinkerMaterializedView<Number> weights = graph.materialize(g.E().hasLabel("knows").values("weight").sum());
+        assertEquals(2l, older.get().longValue());
+        assertEquals(g.V().groupCount().by(T.label).next(), labels.get());
+        assertEquals(g.V().hasLabel("software").groupCount().by("lang").next(), languages.get());
+        assertEquals(1.5d, weights.get().doubleValue(), 0.0001d);
+
+        final Vertex stephen = graph.addVertex(T.label, "person", "name", "stephen", "age", 40);
+        graph.addVertex(T.label, "software", "name", "gremlin", "lang", "groovy");
+        g.V().has("name", "josh").property("age", 25).iterate();
+        final Vertex marko = g.V().has("name", "marko").next();
+        marko.addEdge("knows", stephen, "weight", 2.0d);
+        g.E().has("weight", 0.5d).property("weight", 0.25d).iterate();
+        g.V().has("name", "vadas").drop().iterate();
+
+        assertEquals(g.V().hasLabel("person").has("age", P.gt(30)).count().next(), older.get());
+        assertEquals(2l, older.get().longValue());
+        assertEquals(g.V().groupCount().by(T.label).next(), labels.get());
+        assertEquals(g.V().hasLabel("software").groupCount().by("lang").next(), languages.get());
+        assertEquals(3.0d, weights.get().doubleValue(), 0.0001d);
+
+        // a closed view keeps its last result and is no longer maintained
+        labels.close();
+        graph.addVertex(T.label, "person");
+        assertEquals(4l, labels.get().get("person").longValue());
+
+        graph.clear();
+        assertEquals(0l, older.get().longValue());
+        assertTrue(languages.get().isEmpty());
+        assertEquals(0, weights.get().intValue());
+
+        try {
+            graph.materialize(g.V().out().count());
+            fail("The traversal should not be supported by a view");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldMaintainCountViewsAndBoundDriftOfSumViews() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        final TinkerMaterializedView<Long> all = graph.materialize(g.V().count());
+        final TinkerMaterializedView<Long> named = graph.materialize(g.V().has("named", true).count());
+        final TinkerMaterializedView<Number> total = graph.materialize(g.V().values("x").sum());
+
+        // an id that is not a small integer is remembered apart from the ones that are
+        graph.addVertex(T.id, "a", "named", true);
+        graph.addVertex(T.id, 1l, "named", true);
+        final Vertex c = graph.addVertex(T.id, 2l);
+        assertEquals(3l, all.get().longValue());
+        assertEquals(2l, named.get().longValue());
+        c.property("named", true);
+        c.property("named", true);
+        assertEquals(3l, named.get().longValue());
+        graph.vertices("a").next().property("named").remove();
+        graph.vertices(1l).next().remove();
+        assertEquals(2l, all.get().longValue());
+        assertEquals(1l, named.get().longValue());
+
+        graph.addVertex(T.id, 3l, "x", 1.0d);
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex("x", 0.1d).remove();
+        }
+        assertEquals(1.0d, total.get().doubleValue(), 0.0d);
+        assertEquals(3l, all.get().longValue());
+    }
+
+    @Test
+    public void shouldStopMaintainingMaterializedViewThatFailsToApplyMutation() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final GraphTraversalSource g = graph.traversal();
+        graph.addVertex("name", "marko");
+        final TinkerMaterializedView<Map<Object, Long>> names = graph.materialize(g.V().groupCount().by("name"));
+        final TinkerMaterializedView<Long> count = graph.materialize(g.V().count());
+        final TinkerChangeSubscription subscription = graph.subscribe(16);
+
+        // the writer does not see the failure of the view and the other view and the subscription see the change
+        final Vertex stephen = graph.addVertex("name", "stephen");
+        stephen.property(VertexProperty.Cardinality.list, "name", "steve");
+        assertEquals(2, IteratorUtils.count(stephen.properties("name")));
+        assertEquals(2l, count.get().longValue());
+        assertEquals(TinkerChange.Type.VERTEX_ADDED, subscription.poll().type());
+        assertEquals(TinkerChange.Type.VERTEX_PROPERTY_ADDED, subscription.poll().type());
+        assertEquals("steve", subscription.poll().value());
+        try {
+            names.get();
+            fail("The view should no longer be maintained");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        try {
+            graph.materialize(g.V().groupCount().by("name"));
+            fail("The view should not group a vertex with more than one value for the key");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldKeepStatisticsUpToDate() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("lang", Vertex.class);
+        final TinkerStatistics statistics = graph.statistics();
+
+        assertEquals(6, statistics.vertexCount());
+        assertEquals(4, statistics.vertexCount("person"));
+        assertEquals(4, statistics.edgeCount("created"));
+        assertEquals(0, statistics.edgeCount("likes"));
+        assertEquals(6, statistics.distinctValueCount("name", Vertex.class));
+        assertEquals(1, statistics.distinctValueCount("lang", Vertex.class));
+        assertEquals(-1, statistics.distinctValueCount("age", Vertex.class));
+        assertArrayEquals(new long[]{2, 1}, statistics.degreeHistogram("created", Direction.OUT));
+        assertArrayEquals(new long[]{1, 1}, statistics.degreeHistogram("created", Direction.IN));
+        assertArrayEquals(new long[]{0, 1}, statistics.degreeHistogram("knows", Direction.OUT));
+        assertArrayEquals(new long[0], statistics.degreeHistogram("likes", Direction.OUT));
+
+        graph.vertices(4).next().remove();
+        assertEquals(3, statistics.vertexCount("person"));
+        assertEquals(5, statistics.distinctValueCount("name", Vertex.class));
+        assertArrayEquals(new long[]{2}, statistics.degreeHistogram("created", Direction.OUT));
+        assertArrayEquals(new long[]{0, 1}, statistics.degreeHistogram("created", Direction.IN));
+        assertArrayEquals(new long[]{1}, statistics.degreeHistogram("knows", Direction.OUT));
+
+        graph.vertices(6).next().addEdge("created", graph.vertices(5).next());
+        assertArrayEquals(new long[]{1, 1}, statistics.degreeHistogram("created", Direction.OUT));
+        assertArrayEquals(new long[]{1, 1}, statistics.degreeHistogram("created", Direction.IN));
+
+        try {
+            statistics.degreeHistogram("created", Direction.BOTH);
+            fail("The degrees of the vertices are not counted in both directions");
+        } catch (IllegalArgumentException iae) {
+            // expected
+        }
+
+        graph.clear();
+        assertEquals(0, statistics.vertexCount());
+        assertEquals(-1, statistics.distinctValueCount("name", Vertex.class));
+        assertArrayEquals(new long[0], statistics.degreeHistogram("created", Direction.OUT));
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGraphSON() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -379,6 +1463,123 @@ public class TinkerGraphTest {
         v.value("name");
     }
 
+    @Test
+    public void shouldMaintainAdjacencyWhenEdgesAreRemoved() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex hub = graph.addVertex();
+        final List<Edge> knows = new ArrayList<>();
+        final List<Edge> likes = new ArrayList<>();
+        for (int ii = 0; ii < 100; ii++) {
+            final Vertex v = graph.addVertex("i", ii);
+            knows.add(hub.addEdge("knows", v));
+            likes.add(v.addEdge("likes", hub));
+        }
+        final Edge self = hub.addEdge("knows", hub);
+
+        assertEquals(101, IteratorUtils.count(hub.edges(Direction.OUT, "knows")));
+        assertEquals(101, IteratorUtils.count(hub.edges(Direction.IN)));
+        assertEquals(202, IteratorUtils.count(hub.edges(Direction.BOTH, "knows", "likes")));
+        assertEquals(0, IteratorUtils.count(hub.edges(Direction.OUT, "likes", "unknown")));
+
+        for (int ii = 0; ii < 100; ii += 3) {
+            knows.get(ii).remove();
+            likes.get(ii).remove();
+        }
+        self.remove();
+        self.remove();
+
+        assertEquals(66, IteratorUtils.count(hub.edges(Direction.OUT, "knows")));
+        assertEquals(66, IteratorUtils.count(hub.edges(Direction.IN, "likes")));
+        assertEquals(66, IteratorUtils.count(hub.vertices(Direction.OUT)));
+        assertEquals(132, IteratorUtils.count(hub.vertices(Direction.BOTH)));
+        hub.vertices(Direction.OUT, "knows").forEachRemaining(v -> assertTrue((int) v.value("i") % 3 != 0));
+        hub.vertices(Direction.IN, "likes").forEachRemaining(v -> assertTrue((int) v.value("i") % 3 != 0));
+
+        hub.edges(Direction.OUT, "knows").forEachRemaining(Edge::remove);
+        assertEquals(0, IteratorUtils.count(hub.edges(Direction.OUT)));
+        assertEquals(66, IteratorUtils.count(hub.edges(Direction.BOTH)));
+
+        hub.addEdge("knows", hub);
+        assertEquals(1, IteratorUtils.count(hub.vertices(Direction.OUT, "knows")));
+        assertEquals(1, IteratorUtils.count(hub.vertices(Direction.IN, "knows")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireNumericIdManagersForPrimitiveIdStorage() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldStoreElementsWithPrimitiveLongIds() {
+        final TinkerGraph graph = TinkerGraph.open(primitiveIdStorageConfiguration(TinkerGraph.DefaultIdManager.LONG));
+        final Vertex v1 = graph.addVertex(T.id, 1l, "name", "marko");
+        final Vertex v2 = graph.addVertex(T.id, 2l, "name", "vadas");
+        final Edge e = v1.addEdge("knows", v2, T.id, 7l);
+
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(v1, g.V(1l).next());
+        assertEquals(v1, g.V(1).next());
+        assertEquals(v1, g.V("1").next());
+        assertEquals(2, IteratorUtils.count(graph.vertices(1, 2, 3)));
+        assertEquals(e, g.E(7).next());
+        assertEquals(Long.valueOf(7l), g.V(1).outE().id().next());
+        assertEquals("vadas", g.V(1).out().values("name").next());
+
+        e.remove();
+        v2.remove();
+        assertEquals(0, IteratorUtils.count(graph.edges(7)));
+        assertEquals(0, IteratorUtils.count(graph.vertices(2)));
+        assertEquals(1, IteratorUtils.count(graph.vertices()));
+        assertEquals(Long.valueOf(1l), graph.vertices().next().id());
+    }
+
+    @Test
+    public void shouldStoreElementsWithPrimitiveIntegerIds() {
+        final TinkerGraph graph = TinkerGraph.open(primitiveIdStorageConfiguration(TinkerGraph.DefaultIdManager.INTEGER));
+        TinkerFactory.generateModern(graph);
+        IoTest.assertModernGraph(graph, true, false);
+        assertEquals(Integer.valueOf(1), graph.vertices(1l).next().id());
+        assertEquals("marko", graph.traversal().V("1").values("name").next());
+    }
+
+    @Test
+    public void shouldGrowAndReclaimPrimitiveIdStorage() {
+        final TinkerGraph graph = TinkerGraph.open(primitiveIdStorageConfiguration(TinkerGraph.DefaultIdManager.LONG));
+        final int size = 10000;
+        for (int ii = 0; ii < size; ii++) {
+            graph.addVertex(T.id, ii);
+        }
+        assertEquals(size, IteratorUtils.count(graph.vertices()));
+
+        for (int ii = 0; ii < size; ii += 2) {
+            graph.vertices(ii).next().remove();
+        }
+        for (int ii = 0; ii < size; ii++) {
+            assertEquals(ii % 2 == 1, graph.vertices(ii).hasNext());
+        }
+
+        for (int ii = 0; ii < size; ii += 2) {
+            graph.addVertex(T.id, ii);
+        }
+        assertEquals(size, IteratorUtils.count(graph.vertices()));
+        assertEquals(size, graph.traversal().V().count().next().intValue());
+
+        graph.clear();
+        assertEquals(0, IteratorUtils.count(graph.vertices()));
+        assertTrue(graph.addVertex().id() instanceof Long);
+    }
+
+    private static Configuration primitiveIdStorageConfiguration(final TinkerGraph.DefaultIdManager idManager) {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, idManager.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, idManager.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, idManager.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+        return conf;
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldRequireGraphFormatIfLocationIsSet() {
         final Configuration conf = new BaseConfiguration();
@@ -440,6 +1641,436 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldFreezeGraphInVertexOrder() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final List<Integer> chain = Arrays.asList(7, 3, 12, 0, 18, 5, 9, 14, 1, 16, 4, 11, 19, 2, 8, 15, 6, 13, 10, 17);
+        for (int i = 0; i < chain.size(); i++) {
+            graph.addVertex(T.id, i);
+        }
+        for (int i = 1; i < chain.size(); i++) {
+            graph.vertices(chain.get(i - 1)).next().addEdge("next", graph.vertices(chain.get(i)).next());
+        }
+        final Vertex hub = graph.addVertex(T.id, 20);
+        for (int i = 0; i < 5; i++) {
+            hub.addEdge("knows", graph.addVertex(T.id, 21 + i));
+        }
+
+        for (final TinkerGraph.VertexOrder order : TinkerGraph.VertexOrder.values()) {
+            final TinkerFrozenGraph frozen = graph.freeze(order);
+            assertEquals(26, IteratorUtils.count(frozen.vertices()));
+            assertEquals(24, IteratorUtils.count(frozen.edges()));
+            assertEquals(graph.traversal().V().out().out().id().order().toList(), frozen.traversal().V().out().out().id().order().toList());
+            assertEquals(graph.traversal().V().in().id().order().toList(), frozen.traversal().V().in().id().order().toList());
+        }
+
+        assertEquals(20, graph.freeze(TinkerGraph.VertexOrder.DEGREE).vertices().next().id());
+
+        // breadth first places the neighbours of each vertex of the chain close to it
+        final List<Object> bfs = IteratorUtils.list(IteratorUtils.map(graph.freeze(TinkerGraph.VertexOrder.BFS).vertices(), Vertex::id));
+        assertEquals(20, bfs.get(0));
+        for (int i = 1; i < chain.size(); i++) {
+            assertTrue(Math.abs(bfs.indexOf(chain.get(i - 1)) - bfs.indexOf(chain.get(i))) <= 2);
+        }
+    }
+
+    @Test
+    public void shouldPersistToBinarySnapshotInVertexOrder() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToBinarySnapshotInVertexOrder.bin";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "binary");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ORDER, TinkerGraph.VertexOrder.BFS.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final List<Object> bfs = IteratorUtils.list(IteratorUtils.map(graph.freeze(TinkerGraph.VertexOrder.BFS).vertices(), Vertex::id));
+        graph.close();
+
+        // the header holds the vertex count at byte 8 and the offset of the vertex table at byte 32, and each record
+        // of the vertex table starts with the identifier
+        final List<Object> written = new ArrayList<>();
+        try (final RandomAccessFile file = new RandomAccessFile(f, "r")) {
+            file.seek(8);
+            final long vertexCount = file.readLong();
+            file.seek(32);
+            final long vertexTableOffset = file.readLong();
+            for (int i = 0; i < vertexCount; i++) {
+                file.seek(vertexTableOffset + i * 20l);
+                written.add((int) file.readLong());
+            }
+        }
+        assertEquals(bfs, written);
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldPersistToBinarySnapshot() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToBinarySnapshot.bin";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "binary");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldNotReadTruncatedBinarySnapshot() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldNotReadTruncatedBinarySnapshot.bin";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "binary");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        for (final long length : new long[]{f.length() - 16, 100, 10, 0}) {
+            try (final RandomAccessFile file = new RandomAccessFile(f, "rw")) {
+                file.setLength(length);
+            }
+            try {
+                TinkerGraph.open(conf);
+                fail("A truncated binary snapshot should not be read");
+            } catch (final RuntimeException ex) {
+                assertTrue(ex.getCause() instanceof IOException);
+                assertTrue(ex.getCause().getMessage().startsWith(graphLocation));
+            }
+        }
+    }
+
+    @Test
+    public void shouldPersistElementsWithAnyIdsAndValuesToBinarySnapshot() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistElementsWithAnyIdsAndValuesToBinarySnapshot.bin";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "binary");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex a = graph.addVertex(T.id, "a", T.label, "person", "name", "\u00e9mile", "short", (short) 3, "byte", (byte) 4, "flag", true);
+        final Vertex b = graph.addVertex(T.id, 2l, "uuid", new UUID(1l, 2l), "list", new ArrayList<>(Arrays.asList(1, 2, 3)));
+        a.property(VertexProperty.Cardinality.list, "location", "paris", "since", 1.5f);
+        a.property(VertexProperty.Cardinality.list, "location", "lyon");
+        a.addEdge("knows", b, T.id, "ab", "weight", 0.5d);
+        b.addEdge("knows", b, T.id, 7);
+        graph.addVertex(T.id, 3);
+        graph.close();
+
+        final TinkerGraph reloaded = TinkerGraph.open(conf);
+        assertEquals(3, IteratorUtils.count(reloaded.vertices()));
+        final Vertex ra = reloaded.vertices("a").next();
+        assertEquals("person", ra.label());
+        assertEquals("\u00e9mile", ra.value("name"));
+        assertEquals((short) 3, (short) ra.value("short"));
+        assertEquals((byte) 4, (byte) ra.value("byte"));
+        assertTrue(ra.value("flag"));
+        assertEquals(2, IteratorUtils.count(ra.properties("location")));
+        assertEquals(1.5f, (float) ra.properties("location").next().value("since"), 0.0f);
+        final Vertex rb = reloaded.vertices(2l).next();
+        assertEquals(new UUID(1l, 2l), rb.value("uuid"));
+        assertEquals(Arrays.asList(1, 2, 3), rb.value("list"));
+        assertEquals(0.5d, reloaded.edges("ab").next().value("weight"), 0.0d);
+        assertEquals(rb, reloaded.edges(7).next().inVertex());
+        assertEquals(2, IteratorUtils.count(rb.edges(Direction.IN, "knows")));
+        assertTrue(reloaded.vertices(3).hasNext());
+        reloaded.close();
+    }
+
+    @Test
+    public void shouldReclaimDictionaryOfColumn() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createColumn("status");
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(graph.addVertex("status", "new"));
+        }
+
+        // values that no vertex has any longer give their codes back to the dictionary
+        final List<Long> bytes = new ArrayList<>();
+        for (final String prefix : Arrays.asList("first-", "second-")) {
+            for (int i = 0; i < 10000; i++) {
+                vertices.get(i % vertices.size()).property("status", prefix + (i % 7));
+            }
+            vertices.forEach(v -> v.property("status", "done"));
+            bytes.add(graph.columns.bytes());
+        }
+        assertEquals(bytes.get(0), bytes.get(1));
+        assertEquals(Collections.singletonMap("done", 100l), graph.traversal().V().groupCount().by("status").next());
+
+        // a dictionary of as many values as there are vertices is given up
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex("status", "unique-" + i);
+        }
+        assertEquals(1001l, graph.traversal().V().values("status").dedup().count().next().longValue());
+        vertices.forEach(Vertex::remove);
+        assertEquals(1000l, graph.traversal().V().values("status").count().next().longValue());
+        assertEquals("unique-999", graph.traversal().V().values("status").order().by(Order.decr).next());
+    }
+
+    @Test
+    public void shouldAnswerEdgeKeyLookupsFromTheIndexAlone() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_KEY_INDEX, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex a = graph.addVertex(T.id, 1);
+        a.addEdge("knows", graph.addVertex(T.id, 2.5d));
+        a.addEdge("knows", graph.addVertex(T.id, UUID.fromString("4c0f1fd6-8a69-4e32-a5b0-4d1d4a2c1d67")));
+        final Edge unindexed = a.addEdge("knows", graph.addVertex(T.id, 3));
+        final GraphTraversalSource g = graph.traversal();
+
+        assertEquals(1, g.V(1).outE("knows").where(__.inV().hasId(3)).count().next().intValue());
+        assertEquals(1, g.V(1).outE("knows").where(__.inV().hasId("2.5")).count().next().intValue());
+        assertEquals(1, g.V(1).outE("knows").where(__.inV().hasId(2.5f)).count().next().intValue());
+        assertEquals(1, g.V(1).outE().where(__.inV().hasId("4c0f1fd6-8a69-4e32-a5b0-4d1d4a2c1d67")).count().next().intValue());
+        assertEquals(1, g.V(2.5d).inE("knows").where(__.outV().hasId("1")).count().next().intValue());
+
+        // an edge that only the adjacency holds is not found, so a lookup that misses does not walk the adjacency
+        graph.edgeKeyIndex.remove((TinkerEdge) unindexed);
+        assertEquals(0, g.V(1).outE("knows").where(__.inV().hasId(3)).count().next().intValue());
+        assertEquals(0, g.V(1).outE("knows").where(__.inV().hasId("3")).count().next().intValue());
+        assertEquals(1, g.V(1).outE("knows").where(__.inV().hasId(3).hasLabel("vertex")).count().next().intValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGryoForWriteAheadLog() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "graphml");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION,
+                TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldRequireGryoForWriteAheadLog.xml");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldRecoverFromWriteAheadLogWithoutClose() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldRecoverFromWriteAheadLogWithoutClose.kryo", 100000);
+        final Configuration crashConf;
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        try {
+            TinkerFactory.generateModern(graph);
+            final Vertex v = graph.addVertex(T.id, 100, "name", "temp");
+            v.property(VertexProperty.Cardinality.list, "location", "a", "startTime", 1997).property("endTime", 2001);
+            v.property(VertexProperty.Cardinality.list, "location", "b");
+            v.properties("location").forEachRemaining(p -> {
+                if (p.value().equals("b")) p.remove();
+            });
+            v.property("location").property("startTime").remove();
+            final Edge e = v.addEdge("knows", graph.vertices(1).next(), T.id, 101, "weight", 0.1d);
+            e.property("weight", 0.2d);
+            graph.vertices(1).next().addEdge("knows", v, T.id, 102).remove();
+            graph.variables().set("creator", "marko");
+            graph.variables().set("removed", true);
+            graph.variables().remove("removed");
+            crashConf = copyOfOpenWriteAheadLog(conf, "shouldRecoverFromWriteAheadLogWithoutClose-crash.kryo");
+        } finally {
+            graph.close();
+        }
+
+        final TinkerGraph recovered = TinkerGraph.open(crashConf);
+        try {
+            final Vertex rv = recovered.vertices(100).next();
+            assertEquals("temp", rv.value("name"));
+            assertEquals(1, IteratorUtils.count(rv.properties("location")));
+            assertEquals(2001, (int) rv.property("location").value("endTime"));
+            assertFalse(rv.property("location").property("startTime").isPresent());
+            assertEquals(0.2d, recovered.edges(101).next().value("weight"), 0.0d);
+            assertFalse(recovered.edges(102).hasNext());
+            assertEquals(Collections.singleton("creator"), recovered.variables().keys());
+            rv.remove();
+        } finally {
+            recovered.close();
+        }
+
+        final TinkerGraph reloaded = TinkerGraph.open(crashConf);
+        try {
+            IoTest.assertModernGraph(reloaded, true, false);
+            assertEquals("marko", reloaded.variables().get("creator").get());
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void shouldSnapshotWriteAheadLog() {
+        for (final boolean readViews : Arrays.asList(false, true)) {
+            final Configuration conf = writeAheadLogConfiguration("shouldSnapshotWriteAheadLog-" + readViews + ".kryo", 10);
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_READ_VIEWS, readViews);
+            final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+            final TinkerGraph graph = TinkerGraph.open(conf);
+            try {
+                graph.variables().set("creator", "marko");
+                TinkerFactory.generateModern(graph);
+                graph.snapshot();
+                assertTrue(new File(graphLocation).isFile());
+                assertFalse(new File(graphLocation + ".log.sealed").exists());
+                assertTrue(new File(graphLocation + ".log").length() < 100);
+            } finally {
+                graph.close();
+            }
+
+            final TinkerGraph reloaded = TinkerGraph.open(conf);
+            try {
+                IoTest.assertModernGraph(reloaded, true, false);
+                assertEquals("marko", reloaded.variables().get("creator").get());
+                reloaded.clear();
+            } finally {
+                reloaded.close();
+            }
+
+            final TinkerGraph cleared = TinkerGraph.open(conf);
+            try {
+                assertEquals(0, IteratorUtils.count(cleared.vertices()));
+            } finally {
+                cleared.close();
+            }
+        }
+    }
+
+    @Test
+    public void shouldRecoverFromSealedWriteAheadLog() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldRecoverFromSealedWriteAheadLog.kryo", 100000);
+        final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        try {
+            TinkerFactory.generateModern(graph);
+        } finally {
+            graph.close();
+        }
+
+        // a crash after the log was sealed and before the snapshot replaced the previous one
+        Files.move(new File(graphLocation + ".log").toPath(), new File(graphLocation + ".log.sealed").toPath());
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        try {
+            IoTest.assertModernGraph(recovered, true, false);
+            assertTrue(new File(graphLocation).isFile());
+            assertFalse(new File(graphLocation + ".log.sealed").exists());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void shouldRecoverEdgeWhoseRecordTriggeredSnapshot() {
+        // two vertex records and then the edge record reach the snapshot interval
+        final Configuration conf = writeAheadLogConfiguration("shouldRecoverEdgeWhoseRecordTriggeredSnapshot.kryo", 3);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        try {
+            final Vertex a = graph.addVertex(T.id, 1);
+            final Vertex b = graph.addVertex(T.id, 2);
+            a.addEdge("knows", b, T.id, 3, "weight", 0.5d);
+        } finally {
+            graph.close();
+        }
+
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        try {
+            assertEquals(1, IteratorUtils.count(recovered.edges()));
+            assertEquals(0.5d, recovered.edges(3).next().value("weight"), 0.0d);
+            assertEquals(3, recovered.vertices(1).next().edges(Direction.OUT).next().id());
+        } finally {
+            recovered.close();
+        }
+
+        final Configuration bulkConf = writeAheadLogConfiguration("shouldRecoverBulkLoadedEdgeWhoseRecordTriggeredSnapshot.kryo", 3);
+        final TinkerGraph bulkGraph = TinkerGraph.open(bulkConf);
+        try (final TinkerBulkLoad bulkLoad = bulkGraph.bulkLoad()) {
+            bulkLoad.addEdge(bulkLoad.addVertex(T.id, 1), "knows", bulkLoad.addVertex(T.id, 2), T.id, 3, "weight", 0.5d);
+        } finally {
+            bulkGraph.close();
+        }
+
+        final TinkerGraph bulkRecovered = TinkerGraph.open(bulkConf);
+        try {
+            assertEquals(1, IteratorUtils.count(bulkRecovered.edges()));
+            assertEquals(0.5d, bulkRecovered.edges(3).next().value("weight"), 0.0d);
+            assertEquals(3, bulkRecovered.vertices(2).next().edges(Direction.IN).next().id());
+        } finally {
+            bulkRecovered.close();
+        }
+    }
+
+    @Test
+    public void shouldDiscardTornRecordOfWriteAheadLog() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldDiscardTornRecordOfWriteAheadLog.kryo", 100000);
+        final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        try {
+            TinkerFactory.generateModern(graph);
+        } finally {
+            graph.close();
+        }
+
+        // a record that was only partly written before a crash
+        try (final FileOutputStream out = new FileOutputStream(graphLocation + ".log", true)) {
+            out.write(new byte[]{0, 0, 0, 100, 1, 2, 3});
+        }
+
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        try {
+            IoTest.assertModernGraph(recovered, true, false);
+            recovered.addVertex(T.id, 100);
+        } finally {
+            recovered.close();
+        }
+
+        final TinkerGraph reloaded = TinkerGraph.open(conf);
+        try {
+            assertTrue(reloaded.vertices(100).hasNext());
+            assertEquals(7, IteratorUtils.count(reloaded.vertices()));
+        } finally {
+            reloaded.close();
+        }
+    }
+
+    private static Configuration writeAheadLogConfiguration(final String fileName, final long snapshotInterval) {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + fileName;
+        for (final String suffix : Arrays.asList("", ".log", ".log.sealed", ".tmp")) {
+            final File f = new File(graphLocation + suffix);
+            if (f.exists() && f.isFile()) f.delete();
+        }
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, snapshotInterval);
+        return conf;
+    }
+
+    /**
+     * Copies the files of a graph that is still open to another location, which leaves them as a crash would.
+     */
+    private static Configuration copyOfOpenWriteAheadLog(final Configuration conf, final String fileName) throws IOException {
+        final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        final Configuration crashConf = writeAheadLogConfiguration(fileName, conf.getLong(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL));
+        final String crashLocation = crashConf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        for (final String suffix : Arrays.asList("", ".log.sealed", ".log")) {
+            try {
+                Files.copy(new File(graphLocation + suffix).toPath(), new File(crashLocation + suffix).toPath());
+            } catch (NoSuchFileException ex) {
+                // the file is only there at some points of a snapshot
+            }
+        }
+        return crashConf;
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToAnyGraphFormat.dat";